@@ -0,0 +1,91 @@
+package com.aetna.ratings.benchmark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.aetna.ratings.dto.RatingSummary;
+import com.aetna.ratings.dto.UserRating;
+import com.aetna.ratings.loadtest.RatingsFixture;
+import com.aetna.ratings.repository.JdbcRatingSummaryReader;
+import com.aetna.ratings.repository.UserRatingsReader;
+
+/**
+ * Single and batch average lookups against the generated fixture through the JDBC reader and
+ * the read pool, with no caching in front, next to the per-user lookups on
+ * {@code ratings_userId_movieId_index} so the two access paths can be compared.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RepositoryBenchmark {
+
+    private RatingsFixture fixture;
+    private JdbcRatingSummaryReader reader;
+    private UserRatingsReader userReader;
+
+    @State(Scope.Thread)
+    public static class Lookups {
+        final SplittableRandom random = new SplittableRandom(RatingsFixture.SEED);
+    }
+
+    /** Kept separate from {@link Lookups} so the single lookup is not repeated per batch size. */
+    @State(Scope.Thread)
+    public static class BatchLookups {
+        @Param({"16", "128", "512"})
+        public int batchSize;
+
+        final SplittableRandom random = new SplittableRandom(RatingsFixture.SEED);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp(SqliteState sqlite) {
+        fixture = sqlite.fixture;
+        reader = new JdbcRatingSummaryReader(sqlite.readDataSource);
+        userReader = new UserRatingsReader(sqlite.readDataSource);
+    }
+
+    @Benchmark
+    public Optional<RatingSummary> singleMovie(Lookups lookups) {
+        return reader.getAvgRatingForMovie(fixture.sampleMovieId(lookups.random));
+    }
+
+    @Benchmark
+    public List<RatingSummary> movieBatch(BatchLookups lookups) {
+        return reader.getAvgRatingsForMoviesList(fixture.sampleMovieIds(lookups.random, lookups.batchSize));
+    }
+
+    /** The first page of one user's ratings, the size the user endpoints default to. */
+    @Benchmark
+    public List<UserRating> userPage(Lookups lookups) {
+        return userReader.getUserRatings(fixture.sampleUserId(lookups.random), 0, 0, 101);
+    }
+
+    /** One user's ratings of a batch of movies, the shape of a recommender re-ranking candidates. */
+    @Benchmark
+    public List<UserRating> userMovieBatch(BatchLookups lookups) {
+        int[] movieIds = fixture.sampleMovieIds(lookups.random, lookups.batchSize).stream().mapToInt(Integer::intValue).toArray();
+        return userReader.getUserRatingsForMovies(fixture.sampleUserId(lookups.random), movieIds);
+    }
+
+    /** First pages of a batch of users, one index seek per user on a single statement. */
+    @Benchmark
+    public List<List<UserRating>> userBatch(BatchLookups lookups) {
+        int[] userIds = new int[lookups.batchSize];
+        for (int i = 0; i < userIds.length; i++) {
+            userIds[i] = fixture.sampleUserId(lookups.random);
+        }
+        return userReader.getUsersRatings(userIds, 101);
+    }
+}
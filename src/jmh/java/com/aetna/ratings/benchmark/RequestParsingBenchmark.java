@@ -0,0 +1,117 @@
+package com.aetna.ratings.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import com.aetna.ratings.config.MovieIdArrayHttpMessageConverter;
+import com.aetna.ratings.loadtest.RatingsFixture;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Request parsing as Spring MVC does it for the two lookup endpoints: the movie ID list body
+ * read by the Jackson message converter into a {@code List<Integer>} and by
+ * {@link MovieIdArrayHttpMessageConverter} into an {@code int[]}, and the single-movie path
+ * variable converted by the conversion service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RequestParsingBenchmark {
+
+    private MappingJackson2HttpMessageConverter converter;
+    private MovieIdArrayHttpMessageConverter movieIdArrayConverter;
+    private Type movieIdsType;
+    private ConversionService conversionService;
+    private String movieIdPath;
+
+    /** Only the body benchmark varies with the number of IDs. */
+    @State(Scope.Benchmark)
+    public static class Body {
+        @Param({"1", "100", "1000", "10000"})
+        public int size;
+
+        byte[] json;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            SplittableRandom random = new SplittableRandom(RatingsFixture.SEED);
+            StringBuilder builder = new StringBuilder("[");
+            for (int i = 0; i < size; i++) {
+                builder.append(i == 0 ? "" : ",").append(1 + random.nextInt(200_000));
+            }
+            json = builder.append(']').toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        converter = new MappingJackson2HttpMessageConverter(objectMapper);
+        movieIdArrayConverter = new MovieIdArrayHttpMessageConverter(objectMapper);
+        movieIdsType = objectMapper.getTypeFactory().constructCollectionType(List.class, Integer.class);
+        conversionService = DefaultConversionService.getSharedInstance();
+        movieIdPath = "4993";
+    }
+
+    @Benchmark
+    public Object movieIdsBody(Body body) throws IOException {
+        return converter.read(movieIdsType, null, new BodyMessage(body.json));
+    }
+
+    @Benchmark
+    public int[] movieIdsIntArrayBody(Body body) throws IOException {
+        return movieIdArrayConverter.read(int[].class, new BodyMessage(body.json));
+    }
+
+    @Benchmark
+    public Integer movieIdPathVariable() {
+        return conversionService.convert(movieIdPath, Integer.class);
+    }
+
+    private static final class BodyMessage implements HttpInputMessage {
+        private static final HttpHeaders HEADERS = new HttpHeaders();
+
+        static {
+            HEADERS.setContentType(MediaType.APPLICATION_JSON);
+        }
+
+        private final byte[] body;
+
+        BodyMessage(byte[] body) {
+            this.body = body;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return HEADERS;
+        }
+    }
+}
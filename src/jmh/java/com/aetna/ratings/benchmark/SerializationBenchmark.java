@@ -0,0 +1,107 @@
+package com.aetna.ratings.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.aetna.ratings.controller.BinaryRatingSummaryWriter;
+import com.aetna.ratings.dto.RatingSummary;
+import com.aetna.ratings.loadtest.RatingsFixture;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writing {@code List<RatingSummary>} responses the three ways the controller does: one JSON
+ * array, NDJSON through a {@link SequenceWriter}, and the fixed-width binary layout of
+ * {@link BinaryRatingSummaryWriter}. Output goes to a counting sink so buffer growth is not
+ * part of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    @Param({"1", "100", "1000", "10000"})
+    public int size;
+
+    private List<RatingSummary> ratings;
+    private ObjectWriter listWriter;
+    private ObjectWriter ndjsonWriter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(RatingsFixture.SEED);
+        ratings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ratings.add(new RatingSummary(1 + random.nextInt(200_000), (5 + random.nextInt(46)) / 10.0));
+        }
+        // Same defaults Spring Boot applies to the application's ObjectMapper.
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, RatingSummary.class));
+        ndjsonWriter = objectMapper.writerFor(RatingSummary.class)
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Benchmark
+    public void jsonArray(Blackhole blackhole) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        listWriter.writeValue(out, ratings);
+        blackhole.consume(out.count);
+    }
+
+    @Benchmark
+    public void ndjson(Blackhole blackhole) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        try (SequenceWriter sequence = ndjsonWriter.writeValues(out)) {
+            for (RatingSummary rating : ratings) {
+                sequence.write(rating);
+            }
+        }
+        blackhole.consume(out.count);
+    }
+
+    @Benchmark
+    public void binary(Blackhole blackhole) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        BinaryRatingSummaryWriter writer = new BinaryRatingSummaryWriter(out);
+        for (RatingSummary rating : ratings) {
+            writer.accept(rating.getMovieId(), rating.getRating());
+        }
+        writer.flush();
+        blackhole.consume(out.count);
+    }
+
+    static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
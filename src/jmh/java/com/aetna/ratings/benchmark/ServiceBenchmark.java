@@ -0,0 +1,123 @@
+package com.aetna.ratings.benchmark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.aetna.ratings.config.RatedMovieFilterProperties;
+import com.aetna.ratings.config.RatingBatchProperties;
+import com.aetna.ratings.config.RatingCacheProperties;
+import com.aetna.ratings.config.RatingMicroBatchProperties;
+import com.aetna.ratings.dto.RatingSummary;
+import com.aetna.ratings.loadtest.RatingsFixture;
+import com.aetna.ratings.repository.JdbcRatingSummaryReader;
+import com.aetna.ratings.repository.MovieTotalsReader;
+import com.aetna.ratings.service.ChunkedBatchLoader;
+import com.aetna.ratings.service.RatedMovieFilter;
+import com.aetna.ratings.service.RatingLookupCoalescer;
+import com.aetna.ratings.service.RatingRequestTelemetry;
+import com.aetna.ratings.service.RatingSummaryCache;
+import com.aetna.ratings.service.RatingsServiceImpl;
+import com.aetna.ratings.service.SingleLookupBatcher;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.TracerProvider;
+
+/**
+ * The read path end to end below the controller: validation, cache, coalescing, micro-batching
+ * and chunked batch loading over the JDBC reader, wired by hand with default properties.
+ * <p>
+ * Run with several threads ({@code -t}) to see micro-batching pay off; a single thread only
+ * sees the batching window as added latency. {@code unknownMovie} asks for IDs beyond the
+ * fixture's catalog, as crawlers and stale links do, with and without the rated movie filter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ServiceBenchmark {
+
+    @Param({"true", "false"})
+    public boolean cache;
+
+    @Param({"true", "false"})
+    public boolean microBatch;
+
+    @Param({"true", "false"})
+    public boolean filter;
+
+    private RatingsFixture fixture;
+    private ChunkedBatchLoader chunkedBatchLoader;
+    private SingleLookupBatcher singleLookupBatcher;
+    private RatingsServiceImpl ratingsService;
+
+    @State(Scope.Thread)
+    public static class Lookups {
+        final SplittableRandom random = new SplittableRandom(RatingsFixture.SEED);
+    }
+
+    @State(Scope.Thread)
+    public static class BatchLookups {
+        @Param({"16", "512"})
+        public int batchSize;
+
+        final SplittableRandom random = new SplittableRandom(RatingsFixture.SEED);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp(SqliteState sqlite) {
+        fixture = sqlite.fixture;
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JdbcRatingSummaryReader reader = new JdbcRatingSummaryReader(sqlite.readDataSource);
+
+        RatingCacheProperties cacheProperties = new RatingCacheProperties();
+        cacheProperties.setEnabled(cache);
+        RatingMicroBatchProperties microBatchProperties = new RatingMicroBatchProperties();
+        microBatchProperties.setEnabled(microBatch);
+
+        RatedMovieFilterProperties filterProperties = new RatedMovieFilterProperties();
+        filterProperties.setEnabled(filter);
+        RatedMovieFilter ratedMovieFilter = new RatedMovieFilter(new MovieTotalsReader(sqlite.readDataSource), filterProperties, meterRegistry);
+        ratedMovieFilter.load();
+
+        chunkedBatchLoader = new ChunkedBatchLoader(reader, new RatingBatchProperties());
+        singleLookupBatcher = new SingleLookupBatcher(reader, chunkedBatchLoader, microBatchProperties, meterRegistry);
+        singleLookupBatcher.start();
+        ratingsService = new RatingsServiceImpl(new RatingSummaryCache(cacheProperties, meterRegistry), chunkedBatchLoader,
+                new RatingLookupCoalescer(meterRegistry), singleLookupBatcher,
+                new RatingRequestTelemetry(meterRegistry, TracerProvider.noop().get("benchmark")), ratedMovieFilter);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        singleLookupBatcher.stop();
+        chunkedBatchLoader.shutdown();
+    }
+
+    @Benchmark
+    public Optional<RatingSummary> singleMovie(Lookups lookups) {
+        return ratingsService.geMovieRating(fixture.sampleMovieId(lookups.random));
+    }
+
+    @Benchmark
+    public Optional<RatingSummary> unknownMovie(Lookups lookups) {
+        return ratingsService.geMovieRating(fixture.getMovieCount() + 1 + lookups.random.nextInt(fixture.getMovieCount()));
+    }
+
+    @Benchmark
+    public List<RatingSummary> movieBatch(BatchLookups lookups) {
+        return ratingsService.getAllMoviesRating(fixture.sampleMovieIds(lookups.random, lookups.batchSize));
+    }
+}
@@ -0,0 +1,50 @@
+package com.aetna.ratings.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import com.aetna.ratings.config.SqliteDataSourceConfig;
+import com.aetna.ratings.config.SqliteProperties;
+import com.aetna.ratings.loadtest.RatingsFixture;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Opens a generated fixture through the same writer and read-pool configuration the
+ * application uses, so pragmas such as mmap and cache size are part of what is measured.
+ */
+@State(Scope.Benchmark)
+public class SqliteState {
+
+    @Param({"1000000"})
+    public int ratings;
+
+    public RatingsFixture fixture;
+    public HikariDataSource writeDataSource;
+    public HikariDataSource readDataSource;
+
+    @Setup(Level.Trial)
+    public void open() {
+        fixture = RatingsFixture.forRatings(ratings).create();
+
+        DataSourceProperties dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl(fixture.getUrl());
+        dataSourceProperties.setDriverClassName("org.sqlite.JDBC");
+        SqliteProperties sqliteProperties = new SqliteProperties();
+        sqliteProperties.setReadPoolSize(Runtime.getRuntime().availableProcessors());
+
+        SqliteDataSourceConfig config = new SqliteDataSourceConfig();
+        writeDataSource = config.writeDataSource(dataSourceProperties, sqliteProperties);
+        readDataSource = config.readDataSource(dataSourceProperties, sqliteProperties, writeDataSource);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        readDataSource.close();
+        writeDataSource.close();
+    }
+}
@@ -0,0 +1,113 @@
+package com.aetna.ratings.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Starts requests on a fixed schedule regardless of how quickly earlier ones complete, the
+ * way independent clients would, rather than waiting for each response before sending the
+ * next. Requests due during the warmup are sent but not recorded.
+ */
+public class FixedRateLoadGenerator {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final URI baseUri;
+    private final RequestMix requestMix;
+    private final LoadTestOptions options;
+    private final LatencyStats all = new LatencyStats();
+    private final Map<String, LatencyStats> byType = new ConcurrentHashMap<>();
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicLong lastCompletion = new AtomicLong();
+
+    public FixedRateLoadGenerator(HttpClient httpClient, URI baseUri, RequestMix requestMix, LoadTestOptions options) {
+        this.httpClient = httpClient;
+        this.baseUri = baseUri;
+        this.requestMix = requestMix;
+        this.options = options;
+    }
+
+    public Map<String, Object> run() {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.getRate();
+        long start = System.nanoTime();
+        long measureFrom = start + options.getWarmup().toNanos();
+        long end = measureFrom + options.getDuration().toNanos();
+        long sent = 0;
+
+        for (long i = 0; ; i++) {
+            long intendedStart = start + i * intervalNanos;
+            if (intendedStart >= end) {
+                break;
+            }
+            parkUntil(intendedStart);
+            LoadRequest request = requestMix.next();
+            boolean measured = intendedStart >= measureFrom;
+            if (outstanding.get() >= options.getMaxOutstanding()) {
+                if (measured) {
+                    all.drop();
+                    stats(request).drop();
+                }
+                continue;
+            }
+            outstanding.incrementAndGet();
+            sent++;
+            long sentAt = System.nanoTime();
+            httpClient.sendAsync(request.toHttpRequest(baseUri), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long completedAt = System.nanoTime();
+                        lastCompletion.accumulateAndGet(completedAt, Math::max);
+                        if (measured) {
+                            int status = response != null ? response.statusCode() : LatencyStats.IO_ERROR;
+                            all.record(intendedStart, sentAt, completedAt, status);
+                            stats(request).record(intendedStart, sentAt, completedAt, status);
+                        }
+                        outstanding.decrementAndGet();
+                    });
+        }
+        int abandoned = drain();
+
+        double measuredSeconds = (Math.max(end, lastCompletion.get()) - measureFrom) / (double) TimeUnit.SECONDS.toNanos(1);
+        Map<String, Object> allSummary = all.summary();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("target", baseUri.toString());
+        report.put("rate", options.getRate());
+        report.put("warmupSeconds", options.getWarmup().toSeconds());
+        report.put("durationSeconds", options.getDuration().toSeconds());
+        report.put("sent", sent);
+        report.put("abandoned", abandoned);
+        report.put("throughput", (Long) allSummary.get("completed") / measuredSeconds);
+        report.put("all", allSummary);
+        byType.forEach((type, stats) -> report.put(type, stats.summary()));
+        return report;
+    }
+
+    private LatencyStats stats(LoadRequest request) {
+        return byType.computeIfAbsent(request.type(), type -> new LatencyStats());
+    }
+
+    /** Waits for outstanding responses and returns how many never arrived. */
+    private int drain() {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (outstanding.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        return outstanding.get();
+    }
+
+    private static void parkUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
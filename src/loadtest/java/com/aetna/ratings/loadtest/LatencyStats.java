@@ -0,0 +1,67 @@
+package com.aetna.ratings.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latencies and response codes for one request type.
+ * <p>
+ * The corrected latency runs from the moment the request was due to start, so time a request
+ * spent waiting behind a stalled server or client counts against it even if it went out late.
+ * Measuring from the actual send instead hides those stalls; that figure is kept alongside
+ * for comparison.
+ */
+final class LatencyStats {
+
+    /** Status recorded for requests that failed without an HTTP response. */
+    static final int IO_ERROR = -1;
+
+    private final Recorder corrected = new Recorder(3);
+    private final Recorder uncorrected = new Recorder(3);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    void record(long intendedStart, long sent, long completed, int status) {
+        corrected.recordValue(completed - intendedStart);
+        uncorrected.recordValue(completed - sent);
+        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    void drop() {
+        dropped.increment();
+    }
+
+    Map<String, Object> summary() {
+        Histogram correctedHistogram = corrected.getIntervalHistogram();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("completed", correctedHistogram.getTotalCount());
+        summary.put("dropped", dropped.sum());
+        Map<Integer, Long> statusCounts = new TreeMap<>();
+        statuses.forEach((status, count) -> statusCounts.put(status, count.sum()));
+        summary.put("statuses", statusCounts);
+        summary.put("latencyMillis", percentiles(correctedHistogram));
+        summary.put("uncorrectedLatencyMillis", percentiles(uncorrected.getIntervalHistogram()));
+        return summary;
+    }
+
+    private static Map<String, Double> percentiles(Histogram histogram) {
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        percentiles.put("p50", millis(histogram.getValueAtPercentile(50)));
+        percentiles.put("p99", millis(histogram.getValueAtPercentile(99)));
+        percentiles.put("p999", millis(histogram.getValueAtPercentile(99.9)));
+        percentiles.put("max", millis(histogram.getMaxValue()));
+        percentiles.put("mean", histogram.getTotalCount() == 0 ? 0 : histogram.getMean() / TimeUnit.MILLISECONDS.toNanos(1));
+        return percentiles;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,36 @@
+package com.aetna.ratings.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * One request of a load test: a single-movie lookup or a batch lookup.
+ */
+public record LoadRequest(String type, String path, String body) {
+
+    public static final String SINGLE = "movie";
+    public static final String BATCH = "movies";
+
+    public static LoadRequest single(int movieId) {
+        return new LoadRequest(SINGLE, "/api/v1/ratings/movie/" + movieId, null);
+    }
+
+    public static LoadRequest batch(List<Integer> movieIds) {
+        return new LoadRequest(BATCH, "/api/v1/ratings/movies",
+                movieIds.stream().map(String::valueOf).collect(Collectors.joining(",", "[", "]")));
+    }
+
+    HttpRequest toHttpRequest(URI baseUri) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Accept", "application/json")
+                .header("clientRefId", "loadtest");
+        if (body == null) {
+            return builder.GET().build();
+        }
+        return builder.header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
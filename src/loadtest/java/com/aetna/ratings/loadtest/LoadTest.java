@@ -0,0 +1,85 @@
+package com.aetna.ratings.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.aetna.ratings.RatingsApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Runs a fixed-rate load test and writes the report as JSON.
+ * <p>
+ * By default a generated fixture of {@code loadtest.ratings} ratings is created (or reused)
+ * and the service is started on it in-process on a random port. With {@code loadtest.target}
+ * the requests go to that instance instead, which should hold the same fixture for the
+ * synthetic movie IDs to hit.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        LoadTestOptions options = LoadTestOptions.fromSystemProperties();
+        RatingsFixture fixture = RatingsFixture.forRatings(options.getRatings());
+        RequestMix requestMix = options.getRequests() != null
+                ? RecordedRequestMix.read(options.getRequests())
+                : new SyntheticRequestMix(fixture, options);
+
+        ConfigurableApplicationContext server = null;
+        URI baseUri;
+        if (options.getTarget() != null) {
+            baseUri = URI.create(options.getTarget());
+        } else {
+            server = startServer(fixture.create(), options);
+            baseUri = URI.create("http://localhost:" + ((WebServerApplicationContext) server).getWebServer().getPort());
+        }
+
+        ExecutorService responseExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(responseExecutor)
+                    .build();
+            Map<String, Object> report = new FixedRateLoadGenerator(httpClient, baseUri, requestMix, options).run();
+
+            ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+            String json = objectMapper.writeValueAsString(report);
+            Files.createDirectories(options.getReport().toAbsolutePath().getParent());
+            Files.writeString(options.getReport(), json);
+            System.out.println(json);
+        } finally {
+            responseExecutor.shutdownNow();
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startServer(RatingsFixture fixture, LoadTestOptions options) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(RatingsApplication.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=" + fixture.getUrl(),
+                        // Per-request INFO logging would measure the console rather than the service.
+                        "logging.level.root=WARN",
+                        // Every request is sent as one client, whose bucket the offered rate would
+                        // drain within seconds; the run would then measure 429s.
+                        "ratings.ratelimit.enabled=false");
+        if (options.getProfiles() != null) {
+            builder.profiles(options.getProfiles().split(","));
+        }
+        return builder.run();
+    }
+}
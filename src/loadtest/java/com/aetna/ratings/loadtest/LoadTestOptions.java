@@ -0,0 +1,93 @@
+package com.aetna.ratings.loadtest;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Data;
+
+/**
+ * Load test settings, read from {@code loadtest.*} system properties so the Gradle task can
+ * pass them straight through from {@code -P} flags.
+ */
+@Data
+public class LoadTestOptions {
+
+    /** Size of the generated ratings database the embedded server is started on. */
+    private int ratings = 1_000_000;
+
+    /** Base URL of an already running instance; when set, no fixture or server is started. */
+    private String target;
+
+    /** Spring profiles for the embedded server. */
+    private String profiles;
+
+    /** Requests started per second, independent of how fast responses come back. */
+    private int rate = 500;
+
+    private Duration warmup = Duration.ofSeconds(10);
+
+    private Duration duration = Duration.ofSeconds(60);
+
+    /** Requests still outstanding beyond this are counted as dropped instead of sent. */
+    private int maxOutstanding = 10_000;
+
+    /** Share of synthetic requests that are single-movie lookups; the rest are batches. */
+    private double singleRatio = 0.8;
+
+    /** Batch sizes and their relative weights for synthetic batch requests. */
+    private Map<Integer, Double> batchSizes = parseWeights("16:0.6,128:0.3,1000:0.1");
+
+    /** A JSONL file of recorded requests to replay instead of the synthetic mix. */
+    private Path requests;
+
+    private long seed = RatingsFixture.SEED;
+
+    private Path report = Paths.get("build/results/loadtest/report.json");
+
+    public static LoadTestOptions fromSystemProperties() {
+        LoadTestOptions options = new LoadTestOptions();
+        options.setRatings(Integer.parseInt(property("ratings", Integer.toString(options.getRatings()))));
+        options.setTarget(property("target", null));
+        options.setProfiles(property("profiles", null));
+        options.setRate(Integer.parseInt(property("rate", Integer.toString(options.getRate()))));
+        options.setWarmup(Duration.parse("PT" + property("warmup", options.getWarmup().toSeconds() + "s")));
+        options.setDuration(Duration.parse("PT" + property("duration", options.getDuration().toSeconds() + "s")));
+        options.setMaxOutstanding(Integer.parseInt(property("maxOutstanding", Integer.toString(options.getMaxOutstanding()))));
+        options.setSingleRatio(Double.parseDouble(property("singleRatio", Double.toString(options.getSingleRatio()))));
+        String batchSizes = property("batchSizes", null);
+        if (batchSizes != null) {
+            options.setBatchSizes(parseWeights(batchSizes));
+        }
+        String requests = property("requests", null);
+        options.setRequests(requests == null ? null : Paths.get(requests));
+        options.setSeed(Long.parseLong(property("seed", Long.toString(options.getSeed()))));
+        options.setReport(Paths.get(property("report", options.getReport().toString())));
+        if (options.getRate() < 1 || options.getMaxOutstanding() < 1) {
+            throw new IllegalArgumentException("loadtest.rate and loadtest.maxOutstanding must be positive");
+        }
+        if (options.getSingleRatio() < 0 || options.getSingleRatio() > 1) {
+            throw new IllegalArgumentException("loadtest.singleRatio must be between 0 and 1");
+        }
+        return options;
+    }
+
+    /** Parses {@code size:weight} pairs such as {@code 16:0.6,128:0.3,1000:0.1}. */
+    static Map<Integer, Double> parseWeights(String value) {
+        Map<Integer, Double> weights = new LinkedHashMap<>();
+        for (String pair : value.split(",")) {
+            String[] parts = pair.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected size:weight in loadtest.batchSizes but got " + pair);
+            }
+            weights.put(Integer.parseInt(parts[0].trim()), Double.parseDouble(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+}
@@ -0,0 +1,178 @@
+package com.aetna.ratings.loadtest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.flywaydb.core.Flyway;
+
+/**
+ * A generated ratings database of a given size, shaped like the MovieLens data the service
+ * ships with: about 11 ratings per movie and 150 per user on average, with movie popularity
+ * following a Zipf distribution and ratings in 0.5 steps.
+ * <p>
+ * Generation is seeded, so the same size always produces the same file. Files are kept under
+ * {@code build/fixtures} and reused across runs; the schema comes from the application's
+ * own Flyway migrations, so indexes and aggregates match production.
+ */
+public final class RatingsFixture {
+
+    public static final long SEED = 42;
+    static final double ZIPF_EXPONENT = 1.0;
+    private static final int INSERT_BATCH = 50_000;
+    private static final long FIRST_TIMESTAMP = 828_124_615L;
+    private static final long LAST_TIMESTAMP = 1_476_640_644L;
+
+    private final int ratings;
+    private final int users;
+    private final Path path;
+    private final int[] movieIdsByPopularity;
+    private final ZipfSampler popularity;
+
+    private RatingsFixture(int ratings, Path path, int[] movieIdsByPopularity) {
+        this.ratings = ratings;
+        this.users = Math.max(1, ratings / 150);
+        this.path = path;
+        this.movieIdsByPopularity = movieIdsByPopularity;
+        this.popularity = new ZipfSampler(movieIdsByPopularity.length, ZIPF_EXPONENT);
+    }
+
+    /**
+     * Describes the fixture without touching the disk, which is enough to sample movie IDs
+     * for a server that already has the data loaded.
+     */
+    public static RatingsFixture forRatings(int ratings) {
+        Path path = Paths.get(System.getProperty("ratings.fixture.dir", "build/fixtures"), "ratings-" + ratings + ".db");
+        return new RatingsFixture(ratings, path, movieIdsByPopularity(Math.max(1, ratings / 11)));
+    }
+
+    /**
+     * Generates the database file unless an earlier run already did, in which case any migrations
+     * added since are applied to it.
+     */
+    public RatingsFixture create() {
+        if (!Files.exists(path)) {
+            generate(path, ratings, users, movieIdsByPopularity);
+        } else {
+            Flyway.configure().dataSource(getUrl(), null, null).load().migrate();
+        }
+        return this;
+    }
+
+    public int getRatings() {
+        return ratings;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public String getUrl() {
+        return "jdbc:sqlite:" + path.toAbsolutePath();
+    }
+
+    public int getMovieCount() {
+        return movieIdsByPopularity.length;
+    }
+
+    public int getUserCount() {
+        return users;
+    }
+
+    /** A movie ID drawn with the same popularity skew the ratings were generated with. */
+    public int sampleMovieId(SplittableRandom random) {
+        return movieIdsByPopularity[popularity.sample(random) - 1];
+    }
+
+    public List<Integer> sampleMovieIds(SplittableRandom random, int count) {
+        List<Integer> movieIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            movieIds.add(sampleMovieId(random));
+        }
+        return movieIds;
+    }
+
+    /** Ratings were spread evenly over users, so user IDs are sampled uniformly. */
+    public int sampleUserId(SplittableRandom random) {
+        return 1 + random.nextInt(users);
+    }
+
+    /**
+     * Movie IDs are shuffled so popular movies are spread over the ID space rather than
+     * clustered at the start of the index.
+     */
+    private static int[] movieIdsByPopularity(int movies) {
+        int[] movieIds = new int[movies];
+        for (int i = 0; i < movies; i++) {
+            movieIds[i] = i + 1;
+        }
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = movies - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = movieIds[i];
+            movieIds[i] = movieIds[j];
+            movieIds[j] = swap;
+        }
+        return movieIds;
+    }
+
+    private static void generate(Path path, int ratings, int users, int[] movieIds) {
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            Path tmp = Files.createTempFile(path.toAbsolutePath().getParent(), "ratings-", ".db.tmp");
+            String url = "jdbc:sqlite:" + tmp.toAbsolutePath();
+
+            // Create the bare table, load it without indexes, then let the later migrations
+            // build the indexes and aggregate table in one pass over the data.
+            Flyway.configure().dataSource(url, null, null).target("1").load().migrate();
+            insertRatings(url, ratings, users, movieIds);
+            Flyway.configure().dataSource(url, null, null).load().migrate();
+
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create ratings fixture " + path, e);
+        }
+    }
+
+    private static void insertRatings(String url, int ratings, int users, int[] movieIds) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        ZipfSampler popularity = new ZipfSampler(movieIds.length, ZIPF_EXPONENT);
+        try (Connection connection = DriverManager.getConnection(url)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA journal_mode = OFF");
+                statement.execute("PRAGMA synchronous = OFF");
+            }
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO ratings (ratingId, userId, movieId, rating, timestamp) VALUES (?, ?, ?, ?, ?)")) {
+                for (int ratingId = 1; ratingId <= ratings; ratingId++) {
+                    insert.setInt(1, ratingId);
+                    insert.setInt(2, 1 + random.nextInt(users));
+                    insert.setInt(3, movieIds[popularity.sample(random) - 1]);
+                    insert.setDouble(4, (1 + random.nextInt(10)) / 2.0);
+                    insert.setLong(5, random.nextLong(FIRST_TIMESTAMP, LAST_TIMESTAMP));
+                    insert.addBatch();
+                    if (ratingId % INSERT_BATCH == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not load generated ratings", e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.aetna.ratings.loadtest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Replays requests recorded one per line, in file order, starting over at the end of the
+ * file. Each line is either {@code {"movieId": 31}} for a single lookup or
+ * {@code {"movieIds": [31, 1029]}} for a batch; blank lines are skipped.
+ */
+public class RecordedRequestMix implements RequestMix {
+
+    private final List<LoadRequest> requests;
+    private int position;
+
+    RecordedRequestMix(List<LoadRequest> requests) {
+        if (requests.isEmpty()) {
+            throw new IllegalArgumentException("No requests to replay");
+        }
+        this.requests = requests;
+    }
+
+    public static RecordedRequestMix read(Path file) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<LoadRequest> requests = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                requests.add(parse(objectMapper.readTree(line), file, lineNumber));
+            }
+        }
+        return new RecordedRequestMix(requests);
+    }
+
+    private static LoadRequest parse(JsonNode node, Path file, int lineNumber) {
+        if (node.hasNonNull("movieId")) {
+            return LoadRequest.single(node.get("movieId").asInt());
+        }
+        if (node.has("movieIds") && node.get("movieIds").isArray()) {
+            List<Integer> movieIds = new ArrayList<>(node.get("movieIds").size());
+            node.get("movieIds").forEach(movieId -> movieIds.add(movieId.asInt()));
+            return LoadRequest.batch(movieIds);
+        }
+        throw new IllegalArgumentException(file + ":" + lineNumber + " has neither movieId nor movieIds");
+    }
+
+    @Override
+    public LoadRequest next() {
+        LoadRequest request = requests.get(position);
+        position = (position + 1) % requests.size();
+        return request;
+    }
+}
@@ -0,0 +1,10 @@
+package com.aetna.ratings.loadtest;
+
+/**
+ * Supplies the requests a load test sends, in order. Only called from the thread that paces
+ * the arrivals.
+ */
+public interface RequestMix {
+
+    LoadRequest next();
+}
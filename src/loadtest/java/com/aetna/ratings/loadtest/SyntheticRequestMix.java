@@ -0,0 +1,48 @@
+package com.aetna.ratings.loadtest;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Single and batch lookups in a fixed ratio, with movie IDs drawn from the fixture's
+ * popularity distribution so caches see the same skew as production traffic.
+ */
+public class SyntheticRequestMix implements RequestMix {
+
+    private final RatingsFixture fixture;
+    private final SplittableRandom random;
+    private final double singleRatio;
+    private final int[] batchSizes;
+    private final double[] cumulativeWeights;
+
+    public SyntheticRequestMix(RatingsFixture fixture, LoadTestOptions options) {
+        this.fixture = fixture;
+        this.random = new SplittableRandom(options.getSeed());
+        this.singleRatio = options.getSingleRatio();
+        this.batchSizes = new int[options.getBatchSizes().size()];
+        this.cumulativeWeights = new double[batchSizes.length];
+        double total = 0;
+        int i = 0;
+        for (Map.Entry<Integer, Double> entry : options.getBatchSizes().entrySet()) {
+            total += entry.getValue();
+            batchSizes[i] = entry.getKey();
+            cumulativeWeights[i++] = total;
+        }
+        if (singleRatio < 1 && (batchSizes.length == 0 || total <= 0)) {
+            throw new IllegalArgumentException("loadtest.batchSizes needs at least one positive weight");
+        }
+    }
+
+    @Override
+    public LoadRequest next() {
+        if (random.nextDouble() < singleRatio) {
+            return LoadRequest.single(fixture.sampleMovieId(random));
+        }
+        double pick = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        int i = 0;
+        while (i < batchSizes.length - 1 && pick >= cumulativeWeights[i]) {
+            i++;
+        }
+        return LoadRequest.batch(fixture.sampleMovieIds(random, batchSizes[i]));
+    }
+}
@@ -0,0 +1,101 @@
+package com.aetna.ratings.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import com.aetna.ratings.exception.ErrorDetails;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Bounds the number of requests in flight on one endpoint with a semaphore.
+ * <p>
+ * A request that cannot get a permit within the acquire timeout is answered straight away with
+ * 503 and {@code Retry-After} instead of waiting in an unbounded queue. The permit is held until
+ * the response is complete, including the asynchronous part of a streamed response, and is
+ * released in {@link #afterCompletion}.
+ */
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private final String endpoint;
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final long retryAfterSeconds;
+    private final String permitAttribute;
+    private final ObjectMapper objectMapper;
+    private final Counter rejected;
+
+    public ConcurrencyLimitInterceptor(String endpoint, int maxConcurrentRequests, Duration acquireTimeout, Duration retryAfter,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.endpoint = endpoint;
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        this.permitAttribute = ConcurrencyLimitInterceptor.class.getName() + "." + endpoint;
+        this.objectMapper = objectMapper;
+        this.rejected = Counter.builder("ratings.concurrency.rejected")
+                .description("Requests rejected because the endpoint was at its concurrency limit")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        Gauge.builder("ratings.concurrency.available", permits, Semaphore::availablePermits)
+                .description("Permits left before requests to the endpoint are rejected")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (request.getAttribute(permitAttribute) != null) {
+            // Async dispatch of a request that already holds a permit.
+            return true;
+        }
+        if (!acquire()) {
+            rejected.increment();
+            reject(response);
+            return false;
+        }
+        request.setAttribute(permitAttribute, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(permitAttribute) != null) {
+            request.removeAttribute(permitAttribute);
+            permits.release();
+        }
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    private boolean acquire() {
+        try {
+            return permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorDetails(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Too many concurrent " + endpoint + " requests, please retry later", ""));
+    }
+}
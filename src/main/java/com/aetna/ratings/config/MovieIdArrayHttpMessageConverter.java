@@ -0,0 +1,132 @@
+package com.aetna.ratings.config;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.lang.Nullable;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads a JSON array of movie IDs straight into an {@code int[]} with Jackson's streaming
+ * parser, without an {@code ArrayList} or an {@code Integer} per element.
+ * <p>
+ * Elements are accepted the way Jackson binds a {@code List<Integer>} by default, so the
+ * endpoints answer exactly as before: {@code null} and empty strings are skipped, numeric
+ * strings and decimals are converted, and values outside the {@code int} range make the body
+ * unreadable. Any other element is rejected with the same "Cannot deserialize value of type"
+ * message Jackson uses, which {@code GlobalExceptionHandler} maps to its integer format error.
+ * <p>
+ * Read-only: it is registered ahead of the Jackson converters, so if it also claimed to write
+ * {@code int[]} it would take over any response of that type as well.
+ */
+public class MovieIdArrayHttpMessageConverter extends AbstractHttpMessageConverter<int[]> {
+
+    public static final String INTEGER_MISMATCH = "Cannot deserialize value of type `java.lang.Integer`";
+
+    private static final int INITIAL_CAPACITY = 16;
+    /** Cap on the up-front allocation taken from Content-Length; larger bodies grow as they are read. */
+    private static final int MAX_INITIAL_CAPACITY = 1 << 16;
+
+    private final JsonFactory jsonFactory;
+
+    public MovieIdArrayHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == int[].class;
+    }
+
+    /**
+     * Always false and final, so Spring never routes a response body here and
+     * {@link #writeInternal} is unreachable.
+     */
+    @Override
+    public final boolean canWrite(Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    @Nullable
+    protected int[] readInternal(Class<? extends int[]> clazz, HttpInputMessage inputMessage) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(inputMessage.getBody())) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new HttpMessageNotReadableException("Expected a JSON array of movie IDs", inputMessage);
+            }
+            int[] movieIds = new int[initialCapacity(inputMessage)];
+            int count = 0;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                int movieId;
+                if (token == JsonToken.VALUE_NUMBER_INT) {
+                    // Throws for values outside the int range, as Jackson does for Integer.
+                    movieId = parser.getIntValue();
+                } else if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                    double value = parser.getDoubleValue();
+                    if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                        throw new HttpMessageNotReadableException("Numeric value (" + parser.getText() + ") out of range of int", inputMessage);
+                    }
+                    movieId = (int) value;
+                } else if (token == JsonToken.VALUE_STRING) {
+                    String text = parser.getText().trim();
+                    if (text.isEmpty()) {
+                        continue;
+                    }
+                    movieId = parseInt(text, inputMessage);
+                } else if (token == null) {
+                    throw new HttpMessageNotReadableException("Unexpected end of the movie ID array", inputMessage);
+                } else {
+                    throw new HttpMessageNotReadableException(INTEGER_MISMATCH + " from " + token, inputMessage);
+                }
+                if (count == movieIds.length) {
+                    movieIds = Arrays.copyOf(movieIds, movieIds.length * 2);
+                }
+                movieIds[count++] = movieId;
+            }
+            return count == movieIds.length ? movieIds : Arrays.copyOf(movieIds, count);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected final void writeInternal(int[] movieIds, HttpOutputMessage outputMessage) {
+        throw new HttpMessageNotWritableException("MovieIdArrayHttpMessageConverter only reads request bodies");
+    }
+
+    private static int initialCapacity(HttpInputMessage inputMessage) {
+        // Every element takes at least two bytes, a digit and a comma.
+        long contentLength = inputMessage.getHeaders().getContentLength();
+        if (contentLength < 0) {
+            return INITIAL_CAPACITY;
+        }
+        return (int) Math.max(INITIAL_CAPACITY, Math.min(contentLength / 2, MAX_INITIAL_CAPACITY));
+    }
+
+    private static int parseInt(String text, HttpInputMessage inputMessage) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new HttpMessageNotReadableException(INTEGER_MISMATCH + " from String \"" + text + "\"", e, inputMessage);
+        }
+    }
+}
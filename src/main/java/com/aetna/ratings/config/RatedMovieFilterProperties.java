@@ -0,0 +1,21 @@
+package com.aetna.ratings.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "ratings.rated-movie-filter")
+public class RatedMovieFilterProperties {
+
+    /** Answer lookups of movie IDs known to have no ratings without reaching the cache or the database. */
+    private boolean enabled = true;
+
+    /** Highest movie ID tracked by the filter, one bit each; larger IDs are always looked up. */
+    private int maxMovieId = (1 << 24) - 1;
+
+    /** How often the filter is rebuilt from movie_rating_stats, which picks up ratings written by other processes. */
+    private Duration refreshInterval = Duration.ofMinutes(1);
+}
@@ -0,0 +1,28 @@
+package com.aetna.ratings.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "ratings.batch")
+public class RatingBatchProperties {
+
+    /** Largest number of movie IDs accepted in one batch request. */
+    private int maxSize = 10_000;
+
+    /** Largest number of movie IDs accepted in one streaming (NDJSON) request. */
+    private int maxStreamSize = 1_000_000;
+
+    /** Largest number of IDs bound into one IN (...) query. */
+    private int chunkSize = 512;
+
+    /** Smallest padded chunk; chunks are padded up to a power of two between this and chunk-size. */
+    private int minChunkSize = 16;
+
+    /** Number of chunk queries that may run concurrently across all requests. */
+    private int parallelism = 4;
+
+    /** Chunks waiting for a worker before the requesting thread runs them itself. */
+    private int queueCapacity = 256;
+}
@@ -0,0 +1,24 @@
+package com.aetna.ratings.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "ratings.cache")
+public class RatingCacheProperties {
+
+    /** Serve lookups through the in-process RatingSummary cache. */
+    private boolean enabled = true;
+
+    /** Maximum number of cached movie IDs, used when max-bytes is not set. */
+    private long maxEntries = 10_000;
+
+    /** Approximate heap budget for the cache in bytes; takes precedence over max-entries when positive. */
+    private long maxBytes = 0;
+
+    /** How long an entry is served after it was loaded from the database. */
+    private Duration ttl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,39 @@
+package com.aetna.ratings.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "ratings.concurrency")
+public class RatingConcurrencyProperties {
+
+    /** Caps in-flight lookup requests per endpoint; without it only the servlet thread pool limits them. */
+    private boolean enabled = true;
+
+    /** Concurrent GET /movie/{id} requests allowed per read-only connection. */
+    private int singleRequestsPerConnection = 8;
+
+    /** Concurrent POST /movies requests allowed per read-only connection. */
+    private int batchRequestsPerConnection = 1;
+
+    /** Concurrent GET /movie/{id}/distribution requests allowed per read-only connection. */
+    private int distributionSingleRequestsPerConnection = 8;
+
+    /** Concurrent POST /movies/distribution requests allowed per read-only connection. */
+    private int distributionBatchRequestsPerConnection = 1;
+
+    /** Concurrent GET /user/{id} requests allowed per read-only connection. */
+    private int userSingleRequestsPerConnection = 8;
+
+    /** Concurrent POST /user/{id}/movies and POST /users requests allowed per read-only connection. */
+    private int userBatchRequestsPerConnection = 1;
+
+    /** How long a request may wait for a permit before it is rejected. */
+    private Duration acquireTimeout = Duration.ofMillis(10);
+
+    /** Retry-After value returned to rejected requests. */
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
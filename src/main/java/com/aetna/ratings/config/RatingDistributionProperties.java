@@ -0,0 +1,21 @@
+package com.aetna.ratings.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "ratings.distribution")
+public class RatingDistributionProperties {
+
+    /** Virtual votes at the prior mean added to every movie's Bayesian average; larger values damp sparse movies harder. */
+    private double priorWeight = 10;
+
+    /** Fixed prior mean for the Bayesian average; when unset, the mean of all ratings is used. */
+    private Double priorMean;
+
+    /** How long the computed catalog-wide mean is reused before it is read again. */
+    private Duration priorMeanRefresh = Duration.ofMinutes(5);
+}
@@ -0,0 +1,18 @@
+package com.aetna.ratings.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "ratings.http-cache")
+public class RatingHttpCacheProperties {
+
+    /** Send ETag and Cache-Control headers on JSON lookups and answer matching If-None-Match with 304. */
+    private boolean enabled = true;
+
+    /** max-age sent in Cache-Control; clients and CDNs revalidate with If-None-Match once it has passed. */
+    private Duration maxAge = Duration.ofSeconds(60);
+}
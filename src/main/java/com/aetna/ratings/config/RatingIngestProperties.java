@@ -0,0 +1,49 @@
+package com.aetna.ratings.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "ratings.ingest")
+public class RatingIngestProperties {
+
+    /** Ratings a bulk upload hands to the writer queue at a time. */
+    private int batchSize = 5_000;
+
+    /** Batches a single bulk upload may have queued or committing before it stops reading. */
+    private int maxInFlightBatches = 2;
+
+    /** Pending writes the single writer thread may have queued. */
+    private int queueCapacity = 1_024;
+
+    /** A group is committed once it holds this many ratings... */
+    private int groupCommitSize = 20_000;
+
+    /** ...or once this much time has passed since its first write arrived, whichever comes first. */
+    private Duration groupCommitDelay = Duration.ofMillis(5);
+
+    /** How long a caller waits for room in the writer queue before it is rejected with 503. */
+    private Duration enqueueTimeout = Duration.ofSeconds(5);
+
+    /** How long a caller waits for its queued write to commit before the request fails. */
+    private Duration commitTimeout = Duration.ofSeconds(30);
+
+    /** Ingestion requests allowed to write at the same time; further requests get 503. */
+    private int maxConcurrentRequests = 2;
+
+    /** How long a request waits for a free ingestion slot before it is rejected. */
+    private Duration acquireTimeout = Duration.ofMillis(500);
+
+    /** Retry-After value returned to rejected requests. */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /** Number of per-rating error messages included in the response. */
+    private int maxErrors = 20;
+
+    private double minRating = 0.5;
+
+    private double maxRating = 5.0;
+}
@@ -0,0 +1,25 @@
+package com.aetna.ratings.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "ratings.leaderboard")
+public class RatingLeaderboardProperties {
+
+    /** Minimum number of votes a movie needs to be listed when the request does not say. */
+    private int defaultMinVotes = 10;
+
+    /** Largest page a single leaderboard request may ask for. */
+    private int maxPageSize = 100;
+
+    /** Trailing time windows kept as separate leaderboards, besides the all-time one. */
+    private List<Duration> windows = List.of(Duration.ofDays(7), Duration.ofDays(30));
+
+    /** How often every leaderboard is rebuilt from the database, which also expires ratings that left a window. */
+    private Duration refreshInterval = Duration.ofMinutes(1);
+}
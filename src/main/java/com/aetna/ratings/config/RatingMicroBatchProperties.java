@@ -0,0 +1,33 @@
+package com.aetna.ratings.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "ratings.microbatch")
+public class RatingMicroBatchProperties {
+
+    /** Collects single-movie cache misses into IN (...) queries instead of querying each one. */
+    private boolean enabled = true;
+
+    /** Longest a lookup waits for others to join its batch. */
+    private Duration window = Duration.ofMillis(1);
+
+    /** A batch is dispatched as soon as it holds this many distinct IDs. */
+    private int maxBatchSize = 64;
+
+    /** Lookups waiting to be batched; further lookups get 503. */
+    private int queueCapacity = 10_000;
+
+    /** Batch queries that may run at the same time. */
+    private int parallelism = 4;
+
+    /** Longest a lookup waits for its batch to be answered before it gets 503. */
+    private Duration lookupTimeout = Duration.ofSeconds(5);
+
+    /** Retry-After value returned when the queue is full or a lookup times out. */
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
@@ -0,0 +1,38 @@
+package com.aetna.ratings.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "ratings.ratelimit")
+public class RatingRateLimitProperties {
+
+    /** Gives each clientRefId its own token bucket for lookups. */
+    private boolean enabled = true;
+
+    /** Tokens added to each client's bucket per second; a lookup costs one token per movie ID. */
+    private double tokensPerSecond = 2_000;
+
+    /** Bucket capacity, i.e. the largest burst a client may send after being idle. */
+    private long burst = 20_000;
+
+    /** Per-client overrides of tokens-per-second, keyed by clientRefId. */
+    private Map<String, Double> clientTokensPerSecond = new HashMap<>();
+
+    /** Bucket shared by requests without a clientRefId header. */
+    private String anonymousClient = "anonymous";
+
+    /** Most buckets kept at once; idle clients are evicted first. */
+    private long maxClients = 100_000;
+
+    /** Buckets unused for this long are dropped; a returning client starts with a full bucket. */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /** Clients tagged individually in metrics; the rest are reported together as "other". */
+    private int metricsClients = 100;
+}
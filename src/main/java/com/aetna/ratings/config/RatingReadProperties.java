@@ -0,0 +1,20 @@
+package com.aetna.ratings.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "ratings.read")
+public class RatingReadProperties {
+
+    /** Implementation serving the average lookups at startup; can be switched at runtime through the readpath actuator endpoint. */
+    private ReadPath path = ReadPath.JPA;
+
+    public enum ReadPath {
+        /** JPQL constructor expressions through Hibernate. */
+        JPA,
+        /** Prepared statements and a row mapper over plain JDBC. */
+        JDBC
+    }
+}
@@ -0,0 +1,19 @@
+package com.aetna.ratings.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "ratings.stats")
+public class RatingStatsProperties {
+
+    /** Compare movie_rating_stats against the raw ratings table when the service starts. */
+    private boolean verifyOnStartup = true;
+
+    /** Cron expression for the periodic verification run. */
+    private String verifyCron = "0 0 3 * * *";
+
+    /** Rebuild movie_rating_stats from the raw ratings table when verification finds drift. */
+    private boolean autoRepair = true;
+}
@@ -0,0 +1,25 @@
+package com.aetna.ratings.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "ratings.trends")
+public class RatingTrendProperties {
+
+    /** Width of one ring buffer bucket; windows slide by this much at a time. */
+    private Duration bucketWidth = Duration.ofHours(1);
+
+    /** Trailing windows that averages and vote velocity are reported for; each a multiple of bucket-width. */
+    private List<Duration> windows = List.of(Duration.ofHours(24), Duration.ofDays(7), Duration.ofDays(30));
+
+    /** Largest number of movies a single trending request may ask for. */
+    private int maxLimit = 100;
+
+    /** How often the buckets are reloaded from the database, which picks up ratings written by other processes. */
+    private Duration reloadInterval = Duration.ofHours(1);
+}
@@ -0,0 +1,148 @@
+package com.aetna.ratings.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Splits SQLite access into one writer connection and a pool of read-only connections.
+ * <p>
+ * SQLite serialises writers on a file lock, so a pool of read-write connections only adds
+ * lock contention. The primary {@link DataSource} hands out the single writer connection by
+ * default and switches to the read pool for read-only transactions; components that read
+ * outside a transaction inject {@link #READ_DATA_SOURCE} directly. The writer is opened
+ * first so the journal mode is switched before any reader attaches.
+ * <p>
+ * The writer has SQLite's automatic checkpoint turned off, so a commit never pays for copying
+ * the WAL into the database file; {@link #CHECKPOINT_DATA_SOURCE} opens a separate, unpooled
+ * connection for the scheduled checkpoint instead.
+ */
+@Configuration
+public class SqliteDataSourceConfig {
+
+    public static final String READ_DATA_SOURCE = "readDataSource";
+
+    public static final String WRITE_DATA_SOURCE = "writeDataSource";
+
+    public static final String CHECKPOINT_DATA_SOURCE = "checkpointDataSource";
+
+    @Bean(name = WRITE_DATA_SOURCE, destroyMethod = "close")
+    public HikariDataSource writeDataSource(DataSourceProperties dataSourceProperties, SqliteProperties properties) {
+        SQLiteConfig sqliteConfig = sqliteConfig(properties);
+        sqliteConfig.setJournalMode(properties.getJournalMode());
+        sqliteConfig.setSynchronous(properties.getSynchronous());
+
+        HikariConfig config = hikariConfig(dataSourceProperties, properties, sqliteConfig,
+                "PRAGMA wal_autocheckpoint = " + properties.getWalAutocheckpoint());
+        config.setPoolName("sqlite-writer");
+        config.setMaximumPoolSize(1);
+        return new HikariDataSource(config);
+    }
+
+    @Bean(name = READ_DATA_SOURCE, destroyMethod = "close")
+    public HikariDataSource readDataSource(DataSourceProperties dataSourceProperties, SqliteProperties properties,
+            @Qualifier(WRITE_DATA_SOURCE) HikariDataSource writeDataSource) {
+        SQLiteConfig sqliteConfig = sqliteConfig(properties);
+        sqliteConfig.setReadOnly(true);
+
+        HikariConfig config = hikariConfig(dataSourceProperties, properties, sqliteConfig);
+        config.setPoolName("sqlite-reader");
+        config.setMaximumPoolSize(properties.getReadPoolSize());
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * Opens a new connection on every call, so checkpoints neither wait for nor hold the writer
+     * connection.
+     */
+    @Bean(name = CHECKPOINT_DATA_SOURCE)
+    @DependsOn(WRITE_DATA_SOURCE)
+    public SQLiteDataSource checkpointDataSource(DataSourceProperties dataSourceProperties, SqliteProperties properties) {
+        SQLiteDataSource dataSource = new SQLiteDataSource(sqliteConfig(properties));
+        dataSource.setUrl(dataSourceProperties.determineUrl());
+        return dataSource;
+    }
+
+    /**
+     * The data source used by JPA, {@code JdbcTemplate} and the transaction manager. The
+     * physical connection is only fetched on first use, once the transaction's read-only flag
+     * is known.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier(WRITE_DATA_SOURCE) HikariDataSource writeDataSource,
+            @Qualifier(READ_DATA_SOURCE) HikariDataSource readDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(writeDataSource);
+        dataSource.setReadOnlyDataSource(readDataSource);
+        return dataSource;
+    }
+
+    private static SQLiteConfig sqliteConfig(SqliteProperties properties) {
+        SQLiteConfig sqliteConfig = new SQLiteConfig();
+        // A negative cache_size is in KiB rather than pages.
+        sqliteConfig.setCacheSize((int) -properties.getCacheSize().toKilobytes());
+        sqliteConfig.setTempStore(properties.getTempStore());
+        sqliteConfig.setBusyTimeout((int) properties.getBusyTimeout().toMillis());
+        return sqliteConfig;
+    }
+
+    /**
+     * @param pragmas run on each new connection, for settings {@link SQLiteConfig} has no property for
+     */
+    private static HikariConfig hikariConfig(DataSourceProperties dataSourceProperties, SqliteProperties properties,
+            SQLiteConfig sqliteConfig, String... pragmas) {
+        SQLiteDataSource dataSource = new SQLiteDataSource(sqliteConfig);
+        dataSource.setUrl(dataSourceProperties.determineUrl());
+
+        HikariConfig config = new HikariConfig();
+        config.setDataSource(new PragmaDataSource(dataSource, pragmas));
+        config.setConnectionInitSql("PRAGMA mmap_size = " + properties.getMmapSize().toBytes());
+        config.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+        config.setMinimumIdle(1);
+        return config;
+    }
+
+    /**
+     * Runs one statement per pragma, since the driver only executes the first statement of Hikari's
+     * single init SQL string.
+     */
+    private static class PragmaDataSource extends DelegatingDataSource {
+
+        private final String[] pragmas;
+
+        PragmaDataSource(DataSource targetDataSource, String... pragmas) {
+            super(targetDataSource);
+            this.pragmas = pragmas;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            try (Statement statement = connection.createStatement()) {
+                for (String pragma : pragmas) {
+                    statement.execute(pragma);
+                }
+            } catch (SQLException e) {
+                connection.close();
+                throw e;
+            }
+            return connection;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.aetna.ratings.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.sqlite.SQLiteConfig.JournalMode;
+import org.sqlite.SQLiteConfig.SynchronousMode;
+import org.sqlite.SQLiteConfig.TempStore;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "ratings.sqlite")
+public class SqliteProperties {
+
+    /** Journal mode set on the writer connection; WAL lets readers run alongside the writer. */
+    private JournalMode journalMode = JournalMode.WAL;
+
+    /** NORMAL is durable across application crashes in WAL mode and only fsyncs on checkpoint. */
+    private SynchronousMode synchronous = SynchronousMode.NORMAL;
+
+    /** Bytes of the database file each connection maps into memory; 0 disables mmap. */
+    private DataSize mmapSize = DataSize.ofMegabytes(256);
+
+    /** Page cache per connection. */
+    private DataSize cacheSize = DataSize.ofMegabytes(64);
+
+    private TempStore tempStore = TempStore.MEMORY;
+
+    /** How long SQLite retries internally before a statement fails with SQLITE_BUSY. */
+    private Duration busyTimeout = Duration.ofSeconds(5);
+
+    /** Read-only connections shared by the lookup endpoints. */
+    private int readPoolSize = 4;
+
+    /** How long a caller waits for a free connection before failing. */
+    private Duration connectionTimeout = Duration.ofSeconds(30);
+
+    /**
+     * WAL pages after which a commit on the writer checkpoints by itself; 0 leaves checkpoints to
+     * the scheduled job so no commit pays for them.
+     */
+    private int walAutocheckpoint = 0;
+
+    /** How often the WAL is checkpointed into the database file. */
+    private Duration checkpointInterval = Duration.ofSeconds(30);
+
+    private CheckpointMode checkpointMode = CheckpointMode.PASSIVE;
+
+    /** Extra attempts for a group commit that still fails with SQLITE_BUSY after busy-timeout. */
+    private int busyRetries = 3;
+
+    /** Pause before each busy retry, multiplied by the attempt number. */
+    private Duration busyRetryBackoff = Duration.ofMillis(50);
+
+    public enum CheckpointMode {
+        /** Copies what it can without waiting for readers or the writer. */
+        PASSIVE,
+        /** Waits for the writer, then copies the whole WAL. */
+        FULL,
+        /** Like FULL, and also waits for readers so the WAL can restart from the beginning. */
+        RESTART,
+        /** Like RESTART, and truncates the WAL file to zero bytes. */
+        TRUNCATE
+    }
+}
@@ -0,0 +1,22 @@
+package com.aetna.ratings.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.trace.Tracer;
+
+/**
+ * Exposes the tracer installed by the OpenTelemetry Java agent. Without the agent this is the
+ * no-op tracer, so spans cost nothing when tracing is not enabled.
+ */
+@Configuration
+public class TracingConfig {
+
+    public static final String INSTRUMENTATION_NAME = "com.aetna.ratings";
+
+    @Bean
+    public Tracer ratingsTracer() {
+        return GlobalOpenTelemetry.getTracer(INSTRUMENTATION_NAME);
+    }
+}
@@ -0,0 +1,19 @@
+package com.aetna.ratings.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "ratings.users")
+public class UserRatingsProperties {
+
+    /** Ratings per page when a user lookup does not say. */
+    private int defaultPageSize = 100;
+
+    /** Largest page a single user lookup may ask for. */
+    private int maxPageSize = 1000;
+
+    /** Largest number of user IDs accepted in one batch user lookup. */
+    private int maxBatchUsers = 100;
+}
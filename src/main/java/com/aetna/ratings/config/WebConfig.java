@@ -1,20 +1,71 @@
 package com.aetna.ratings.config;
 
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
     private final RequestInterceptor requestInterceptor;
+    private final RatingConcurrencyProperties concurrencyProperties;
+    private final SqliteProperties sqliteProperties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
 
-    public WebConfig(RequestInterceptor requestInterceptor) {
+    public WebConfig(RequestInterceptor requestInterceptor, RatingConcurrencyProperties concurrencyProperties,
+            SqliteProperties sqliteProperties, ObjectMapper objectMapper, ObjectProvider<MeterRegistry> meterRegistry) {
         this.requestInterceptor = requestInterceptor;
+        this.concurrencyProperties = concurrencyProperties;
+        this.sqliteProperties = sqliteProperties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
     }
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(requestInterceptor);
+        if (concurrencyProperties.isEnabled()) {
+            // Limits are sized to the read pool, so a flood of lookups is turned away here instead of piling up on the database.
+            int connections = sqliteProperties.getReadPoolSize();
+            registry.addInterceptor(concurrencyLimit("movie", connections * concurrencyProperties.getSingleRequestsPerConnection()))
+                    .addPathPatterns("/api/v1/ratings/movie", "/api/v1/ratings/movie/*");
+            registry.addInterceptor(concurrencyLimit("movies", connections * concurrencyProperties.getBatchRequestsPerConnection()))
+                    .addPathPatterns("/api/v1/ratings/movies");
+            registry.addInterceptor(concurrencyLimit("distribution",
+                    connections * concurrencyProperties.getDistributionSingleRequestsPerConnection()))
+                    .addPathPatterns("/api/v1/ratings/movie/*/distribution");
+            registry.addInterceptor(concurrencyLimit("distributions",
+                    connections * concurrencyProperties.getDistributionBatchRequestsPerConnection()))
+                    .addPathPatterns("/api/v1/ratings/movies/distribution");
+            registry.addInterceptor(concurrencyLimit("user", connections * concurrencyProperties.getUserSingleRequestsPerConnection()))
+                    .addPathPatterns("/api/v1/ratings/user/*");
+            registry.addInterceptor(concurrencyLimit("users", connections * concurrencyProperties.getUserBatchRequestsPerConnection()))
+                    .addPathPatterns("/api/v1/ratings/user/*/movies", "/api/v1/ratings/users");
+        }
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.replaceAll(converter -> converter.getClass() == MappingJackson2HttpMessageConverter.class
+                ? new TimedJacksonHttpMessageConverter(((MappingJackson2HttpMessageConverter) converter).getObjectMapper(), meterRegistry)
+                : converter);
+        // Ahead of the Jackson converters, which would otherwise also claim int[] bodies.
+        converters.add(0, new MovieIdArrayHttpMessageConverter(objectMapper));
+    }
+
+    private ConcurrencyLimitInterceptor concurrencyLimit(String endpoint, int maxConcurrentRequests) {
+        return new ConcurrencyLimitInterceptor(endpoint, maxConcurrentRequests, concurrencyProperties.getAcquireTimeout(),
+                concurrencyProperties.getRetryAfter(), objectMapper, meterRegistry);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,62 @@
+package com.aetna.ratings.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+import org.springframework.http.MediaType;
+
+import com.aetna.ratings.repository.RatingRowHandler;
+
+/**
+ * Encodes ratings in the compact layout served for {@code Accept: application/x-rating-summaries}.
+ * <p>
+ * Each movie is a six-byte record: the movie ID as a big-endian {@code int}, then the rating
+ * times ten as a big-endian {@code short}, so 4.1 is sent as 41. Records follow one another
+ * with no header or separator; the number of movies is the body length divided by
+ * {@link #RECORD_BYTES}. Records are packed into a fixed buffer that is written out whenever
+ * it fills, so memory use does not grow with the number of movies.
+ */
+public final class BinaryRatingSummaryWriter implements RatingRowHandler {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-rating-summaries";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+    public static final int RECORD_BYTES = Integer.BYTES + Short.BYTES;
+
+    private static final int BUFFER_RECORDS = 1024;
+
+    private final OutputStream outputStream;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_RECORDS * RECORD_BYTES);
+
+    public BinaryRatingSummaryWriter(OutputStream outputStream) {
+        this.outputStream = outputStream;
+    }
+
+    /**
+     * Adds one record. Throws {@link UncheckedIOException} if the buffer has to be written out
+     * and that fails, since row callbacks cannot throw checked exceptions.
+     */
+    @Override
+    public void accept(int movieId, double rating) {
+        if (!buffer.hasRemaining()) {
+            try {
+                drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        buffer.putInt(movieId).putShort((short) Math.round(rating * 10));
+    }
+
+    /** Writes out any buffered records. */
+    public void flush() throws IOException {
+        drain();
+        outputStream.flush();
+    }
+
+    private void drain() throws IOException {
+        outputStream.write(buffer.array(), 0, buffer.position());
+        buffer.clear();
+    }
+}
@@ -0,0 +1,53 @@
+package com.aetna.ratings.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.aetna.ratings.config.ClientRefIdHolder;
+import com.aetna.ratings.exception.ErrorDetails;
+import com.aetna.ratings.service.ClientRateLimiter;
+import com.aetna.ratings.service.RatingLeaderboard;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/v1/ratings")
+@Tag(name = "Leaderboard", description = "API for the top rated movies, ranked by Bayesian average from an in-memory index")
+public class LeaderboardController {
+
+    public RatingLeaderboard ratingLeaderboard;
+    public ClientRateLimiter clientRateLimiter;
+
+    @Autowired
+    public LeaderboardController(RatingLeaderboard ratingLeaderboard, ClientRateLimiter clientRateLimiter) {
+        this.ratingLeaderboard = ratingLeaderboard;
+        this.clientRateLimiter = clientRateLimiter;
+    }
+
+    /**
+     * One page of the leaderboard, served from memory without touching the database.
+     */
+    @GetMapping("/leaderboard")
+    public ResponseEntity<?> getLeaderboard(
+            @RequestParam(value = "window", required = false)
+            @Parameter(description = "all (default) or a configured trailing window such as 7d") String window,
+            @RequestParam(value = "minVotes", required = false)
+            @Parameter(description = "Leave out movies with fewer votes; defaults to ratings.leaderboard.default-min-votes") Integer minVotes,
+            @RequestParam(value = "page", defaultValue = "0")
+            @Parameter(description = "Zero-based page number") int page,
+            @RequestParam(value = "size", defaultValue = "20")
+            @Parameter(description = "Entries per page, at most ratings.leaderboard.max-page-size") int size) {
+        clientRateLimiter.acquire(ClientRefIdHolder.getClientRefId(), 1);
+        try {
+            return new ResponseEntity<>(ratingLeaderboard.page(window, minVotes, page, size), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorDetails(HttpStatus.BAD_REQUEST.value(), e.getMessage(), ""), HttpStatus.BAD_REQUEST);
+        }
+    }
+}
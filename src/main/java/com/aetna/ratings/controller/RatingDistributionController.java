@@ -0,0 +1,87 @@
+package com.aetna.ratings.controller;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.aetna.ratings.config.ClientRefIdHolder;
+import com.aetna.ratings.dto.RatingDistribution;
+import com.aetna.ratings.exception.ErrorDetails;
+import com.aetna.ratings.exception.RatingsServiceException;
+import com.aetna.ratings.service.ClientRateLimiter;
+import com.aetna.ratings.service.RatingDistributionService;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/v1/ratings")
+@Tag(name = "Rating Distributions", description = "API for rating histograms, percentiles and Bayesian averages computed from per-movie bucket counts")
+public class RatingDistributionController {
+
+    public RatingDistributionService ratingDistributionService;
+    public ClientRateLimiter clientRateLimiter;
+
+    @Autowired
+    public RatingDistributionController(RatingDistributionService ratingDistributionService, ClientRateLimiter clientRateLimiter) {
+        this.ratingDistributionService = ratingDistributionService;
+        this.clientRateLimiter = clientRateLimiter;
+    }
+
+    @GetMapping("/movie/{movieId}/distribution")
+    public ResponseEntity<?> getMovieDistribution(
+            @PathVariable("movieId")
+            @Parameter(
+                description = "ID of the movie to fetch the rating distribution for",
+                required = true
+            ) int movieId) {
+        if (movieId <= 0) {
+            return new ResponseEntity<>(new ErrorDetails(HttpStatus.BAD_REQUEST.value(), "Movie ID cannot be negative", ""), HttpStatus.BAD_REQUEST);
+        }
+        clientRateLimiter.acquire(ClientRefIdHolder.getClientRefId(), 1);
+        try {
+            Optional<RatingDistribution> distribution = ratingDistributionService.getMovieDistribution(movieId);
+            if (distribution.isEmpty()) {
+                return new ResponseEntity<>(new ErrorDetails(HttpStatus.NOT_FOUND.value(), "Movie rating not found for ID: " + movieId, "Movie ID: " + movieId), HttpStatus.NOT_FOUND);
+            }
+            return new ResponseEntity<>(distribution.get(), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorDetails(HttpStatus.BAD_REQUEST.value(), e.getMessage(), ""), HttpStatus.BAD_REQUEST);
+        } catch (RatingsServiceException e) {
+            return new ResponseEntity<>(new ErrorDetails(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage(), "Movie ID: " + movieId), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Distributions for every requested movie that has ratings, in request order.
+     */
+    @PostMapping("/movies/distribution")
+    public ResponseEntity<?> getMovieDistributions(
+            @RequestBody
+            @Parameter(
+                description = "List of movie IDs to fetch rating distributions for",
+                required = true
+            ) int[] movieIds) {
+        if (movieIds == null || movieIds.length == 0) {
+            return new ResponseEntity<>(new ErrorDetails(HttpStatus.BAD_REQUEST.value(), "Movie IDs list cannot be null or empty", ""), HttpStatus.BAD_REQUEST);
+        }
+        clientRateLimiter.acquire(ClientRefIdHolder.getClientRefId(), movieIds.length);
+        try {
+            List<RatingDistribution> distributions = ratingDistributionService.getMovieDistributions(movieIds);
+            return new ResponseEntity<>(distributions, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorDetails(HttpStatus.BAD_REQUEST.value(), e.getMessage(), ""), HttpStatus.BAD_REQUEST);
+        } catch (RatingsServiceException e) {
+            return new ResponseEntity<>(new ErrorDetails(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage(), "Error retrieving rating distributions"), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.aetna.ratings.controller;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntToLongFunction;
+
+import org.springframework.lang.Nullable;
+
+import com.aetna.ratings.dto.RatingSummary;
+
+/**
+ * Strong entity tags for rating lookups, built from the versions the summaries carry rather
+ * than from the response body.
+ * <p>
+ * A single movie's tag is its ID and version. A batch tag is a 64-bit hash over the sorted,
+ * distinct requested IDs, each paired with its version or a marker for "no ratings", so it
+ * changes when any movie in the set changes, gains its first rating or loses its last one,
+ * and does not depend on the order or repetition of the IDs in the request. The
+ * {@code includeMissing} form of a batch gets the same hash with a {@code -missing} suffix,
+ * since it is a different representation of the same lookup.
+ */
+final class RatingETags {
+
+    private static final long NOT_FOUND = -1;
+
+    private RatingETags() {
+    }
+
+    static String forMovie(RatingSummary summary) {
+        return "\"" + summary.getMovieId() + "-" + summary.getVersion() + "\"";
+    }
+
+    static String forMovies(int[] movieIds, List<RatingSummary> ratings) {
+        RatingSummary[] found = ratings.toArray(new RatingSummary[0]);
+        Arrays.sort(found, Comparator.comparingInt(RatingSummary::getMovieId));
+        int[] foundIds = new int[found.length];
+        for (int i = 0; i < found.length; i++) {
+            foundIds[i] = found[i].getMovieId();
+        }
+        return forVersions(movieIds, movieId -> {
+            int index = Arrays.binarySearch(foundIds, movieId);
+            return index >= 0 ? found[index].getVersion() : NOT_FOUND;
+        });
+    }
+
+    static String forMoviesWithMissing(int[] movieIds, List<RatingSummary> ratings) {
+        return withMissing(forMovies(movieIds, ratings));
+    }
+
+    /**
+     * The tag {@link #forMovies(int[], List)} gives for summaries with these versions, so a
+     * precondition can be checked before the summaries are read.
+     *
+     * @param versions version of each requested movie that has ratings
+     */
+    static String forVersions(int[] movieIds, Map<Integer, Long> versions) {
+        return forVersions(movieIds, movieId -> versions.getOrDefault(movieId, NOT_FOUND));
+    }
+
+    static String forVersionsWithMissing(int[] movieIds, Map<Integer, Long> versions) {
+        return withMissing(forVersions(movieIds, versions));
+    }
+
+    private static String forVersions(int[] movieIds, IntToLongFunction versionOf) {
+        int[] sortedIds = movieIds.clone();
+        Arrays.sort(sortedIds);
+        long hash = 0;
+        for (int i = 0; i < sortedIds.length; i++) {
+            int movieId = sortedIds[i];
+            if (i > 0 && movieId == sortedIds[i - 1]) {
+                continue;
+            }
+            hash = mix(mix(hash, movieId), versionOf.applyAsLong(movieId));
+        }
+        return "\"" + Long.toHexString(hash) + "\"";
+    }
+
+    private static String withMissing(String eTag) {
+        return eTag.substring(0, eTag.length() - 1) + "-missing\"";
+    }
+
+    /**
+     * Weak comparison, as RFC 9110 requires for If-None-Match, against each listed tag.
+     */
+    static boolean matches(@Nullable String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long mix(long hash, long value) {
+        long h = (hash ^ value * 0x9E3779B97F4A7C15L) * 0xBF58476D1CE4E5B9L;
+        return h ^ (h >>> 31);
+    }
+}
@@ -1,25 +1,53 @@
 package com.aetna.ratings.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.converter.HttpMessageNotReadableException;
-import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.aetna.ratings.config.ClientRefIdHolder;
+import com.aetna.ratings.config.RatingBatchProperties;
+import com.aetna.ratings.config.RatingHttpCacheProperties;
 import com.aetna.ratings.dto.RatingSummary;
+import com.aetna.ratings.dto.RatingSummaryBatch;
 import com.aetna.ratings.exception.ErrorDetails;
+import com.aetna.ratings.exception.RateLimitExceededException;
 import com.aetna.ratings.exception.RatingsServiceException;
-import com.aetna.ratings.exception.ResourceNotFoundException;
+import com.aetna.ratings.exception.ServiceOverloadedException;
+import com.aetna.ratings.repository.RatingRowHandler;
+import com.aetna.ratings.service.ClientRateLimiter;
+import com.aetna.ratings.service.RatingTrends;
 import com.aetna.ratings.service.RatingsService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -30,25 +58,78 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class RatingsController {
 
     public RatingsService ratingsService;
+    public ClientRateLimiter clientRateLimiter;
+    public RatingTrends ratingTrends;
+    public RatingHttpCacheProperties httpCacheProperties;
+    public RatingBatchProperties batchProperties;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter ndjsonWriter;
 
     @Autowired
-    public RatingsController(RatingsService ratingsService) {
+    public RatingsController(RatingsService ratingsService, ClientRateLimiter clientRateLimiter, RatingTrends ratingTrends,
+            RatingHttpCacheProperties httpCacheProperties, RatingBatchProperties batchProperties, ObjectMapper objectMapper) {
         this.ratingsService = ratingsService;
+        this.clientRateLimiter = clientRateLimiter;
+        this.ratingTrends = ratingTrends;
+        this.httpCacheProperties = httpCacheProperties;
+        this.batchProperties = batchProperties;
+        this.objectMapper = objectMapper;
+        this.ndjsonWriter = objectMapper.writerFor(RatingSummary.class)
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
+    /**
+     * Responses carry an ETag over the requested ID set and the versions of the movies found. The
+     * lookup is a POST, so RFC 9110 does not allow a 304: a request whose If-None-Match lists the
+     * current tag, or is {@code *}, gets a 412 Precondition Failed carrying the tag instead, and
+     * the client keeps using the response it cached. The tag is checked against the movies'
+     * versions before any summary is looked up. With {@code trends=true} each
+     * summary also carries its per-window trends; those move as time passes without the versions
+     * changing, so such responses are sent without an ETag. With {@code includeMissing=true} the
+     * summaries are wrapped in a {@link RatingSummaryBatch} that also lists the requested movies
+     * without ratings; its ETag carries a suffix so it never validates a cached plain array, or
+     * the other way round.
+     */
     @RequestMapping(value = "/movies", method = RequestMethod.POST)
     public ResponseEntity<?> getMovieRatings(
             @RequestBody
             @Parameter(
                 description = "List of movie IDs to fetch ratings for",
                 required = true
-            ) List<Integer> movieIds) {
-        if (movieIds == null || movieIds.isEmpty()) {
+            ) int[] movieIds,
+            @RequestParam(value = "trends", defaultValue = "false")
+            @Parameter(description = "Include vote counts, averages and votes per day over the trailing windows") boolean trends,
+            @RequestParam(value = "includeMissing", defaultValue = "false")
+            @Parameter(description = "Wrap the ratings in an object that also lists the requested movie IDs without ratings") boolean includeMissing,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (movieIds == null || movieIds.length == 0) {
             return new ResponseEntity<>(new ErrorDetails(HttpStatus.BAD_REQUEST.value(), "Movie IDs list cannot be null or empty", ""), HttpStatus.BAD_REQUEST);
         }
+        if (movieIds.length > batchProperties.getMaxSize()) {
+            return new ResponseEntity<>(new ErrorDetails(HttpStatus.BAD_REQUEST.value(), tooManyIds(batchProperties.getMaxSize()), ""), HttpStatus.BAD_REQUEST);
+        }
+        clientRateLimiter.acquire(ClientRefIdHolder.getClientRefId(), movieIds.length);
         try {
+            if (ifNoneMatch != null && !trends && httpCacheProperties.isEnabled()) {
+                Map<Integer, Long> versions = ratingsService.getMovieVersions(movieIds);
+                String eTag = includeMissing ? RatingETags.forVersionsWithMissing(movieIds, versions) : RatingETags.forVersions(movieIds, versions);
+                if (RatingETags.matches(ifNoneMatch, eTag)) {
+                    return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(eTag)
+                            .body(new ErrorDetails(HttpStatus.PRECONDITION_FAILED.value(), "Ratings have not changed since " + eTag, ""));
+                }
+            }
             List<RatingSummary> ratings = ratingsService.getAllMoviesRating(movieIds);
-            return new ResponseEntity<>(ratings, HttpStatus.OK);
+            if (trends) {
+                return new ResponseEntity<>(batchBody(movieIds, withTrends(ratings), includeMissing), HttpStatus.OK);
+            }
+            Object body = batchBody(movieIds, ratings, includeMissing);
+            if (!httpCacheProperties.isEnabled()) {
+                return new ResponseEntity<>(body, HttpStatus.OK);
+            }
+            String eTag = includeMissing ? RatingETags.forMoviesWithMissing(movieIds, ratings) : RatingETags.forMovies(movieIds, ratings);
+            return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl()).body(body);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(new ErrorDetails(HttpStatus.BAD_REQUEST.value(), e.getMessage(), ""), HttpStatus.BAD_REQUEST);
         } catch (RatingsServiceException e) {
@@ -58,6 +139,85 @@ public class RatingsController {
         }
     }
 
+    /**
+     * Streaming variant of {@link #getMovieRatings(int[], boolean, boolean, String)} selected with
+     * {@code Accept: application/x-ndjson}: one RatingSummary per line, written as rows are read
+     * from the database cursor, so heap use does not grow with the number of IDs. Errors found
+     * before streaming starts are returned as JSON {@link ErrorDetails}.
+     */
+    @PostMapping(value = "/movies", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMovieRatings(
+            @RequestBody
+            @Parameter(
+                description = "List of movie IDs to stream ratings for",
+                required = true
+            ) int[] movieIds) {
+        if (movieIds == null || movieIds.length == 0) {
+            return errorDetails(HttpStatus.BAD_REQUEST, "Movie IDs list cannot be null or empty", "");
+        }
+        if (movieIds.length > batchProperties.getMaxStreamSize()) {
+            return errorDetails(HttpStatus.BAD_REQUEST, tooManyIds(batchProperties.getMaxStreamSize()), "");
+        }
+        try {
+            clientRateLimiter.acquire(ClientRefIdHolder.getClientRefId(), movieIds.length);
+        } catch (RateLimitExceededException e) {
+            // Returned here rather than by the exception handler, which cannot answer an NDJSON Accept header.
+            return errorDetails(HttpStatus.TOO_MANY_REQUESTS, e.getMessage(), "", e.getRetryAfterSeconds());
+        }
+        try {
+            Stream<RatingSummary> ratings = ratingsService.streamAllMoviesRating(movieIds);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(outputStream -> writeNdjson(ratings, outputStream));
+        } catch (IllegalArgumentException e) {
+            return errorDetails(HttpStatus.BAD_REQUEST, e.getMessage(), "");
+        } catch (Exception e) {
+            return errorDetails(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(), "Error retrieving movies");
+        }
+    }
+
+    /**
+     * Binary variant of {@link #getMovieRatings(int[], boolean, boolean, String)} selected with
+     * {@code Accept: application/x-rating-summaries}, in the six-byte layout described on
+     * {@link BinaryRatingSummaryWriter}. Rows are encoded as they come off the database cursor
+     * without building RatingSummary objects, in database order within each chunk like the
+     * NDJSON variant. Errors found before writing starts are returned as JSON {@link ErrorDetails}.
+     */
+    @PostMapping(value = "/movies", produces = BinaryRatingSummaryWriter.MEDIA_TYPE_VALUE)
+    public ResponseEntity<StreamingResponseBody> binaryMovieRatings(
+            @RequestBody
+            @Parameter(
+                description = "List of movie IDs to fetch ratings for",
+                required = true
+            ) int[] movieIds) {
+        if (movieIds == null || movieIds.length == 0) {
+            return errorDetails(HttpStatus.BAD_REQUEST, "Movie IDs list cannot be null or empty", "");
+        }
+        if (movieIds.length > batchProperties.getMaxStreamSize()) {
+            return errorDetails(HttpStatus.BAD_REQUEST, tooManyIds(batchProperties.getMaxStreamSize()), "");
+        }
+        try {
+            clientRateLimiter.acquire(ClientRefIdHolder.getClientRefId(), movieIds.length);
+        } catch (RateLimitExceededException e) {
+            return errorDetails(HttpStatus.TOO_MANY_REQUESTS, e.getMessage(), "", e.getRetryAfterSeconds());
+        }
+        try {
+            Consumer<RatingRowHandler> ratings = ratingsService.forEachMovieRating(movieIds);
+            return ResponseEntity.ok()
+                    .contentType(BinaryRatingSummaryWriter.MEDIA_TYPE)
+                    .body(outputStream -> writeBinary(ratings, outputStream));
+        } catch (IllegalArgumentException e) {
+            return errorDetails(HttpStatus.BAD_REQUEST, e.getMessage(), "");
+        } catch (Exception e) {
+            return errorDetails(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(), "Error retrieving movies");
+        }
+    }
+
+    /**
+     * Found ratings carry an ETag made of the movie ID and its version; Spring answers a
+     * matching If-None-Match with a 304 and no body. A movie without ratings comes back from the
+     * service as an empty result and is answered with a 404 here, without an exception.
+     */
     @GetMapping(value = {"/movie/{movieId}", "/movie"})
     public ResponseEntity<?> getMovieRating(
             @PathVariable(value = "movieId", required = false)
@@ -74,19 +234,25 @@ public class RatingsController {
             if (movieId <= 0) {
                 return new ResponseEntity<>(new ErrorDetails(HttpStatus.BAD_REQUEST.value(), "Movie ID cannot be negative", ""), HttpStatus.BAD_REQUEST);
             }
-            
+            clientRateLimiter.acquire(ClientRefIdHolder.getClientRefId(), 1);
+
             Optional<RatingSummary> ratingSummary = ratingsService.geMovieRating(movieId);
             if (ratingSummary.isPresent()) {
-                return new ResponseEntity<>(ratingSummary.get(), HttpStatus.OK);
-            } else {
-                throw new ResourceNotFoundException("Movie rating not found for ID: " + movieId);
+                if (!httpCacheProperties.isEnabled()) {
+                    return new ResponseEntity<>(ratingSummary.get(), HttpStatus.OK);
+                }
+                return ResponseEntity.ok()
+                        .eTag(RatingETags.forMovie(ratingSummary.get()))
+                        .cacheControl(cacheControl())
+                        .body(ratingSummary.get());
             }
+            return new ResponseEntity<>(new ErrorDetails(HttpStatus.NOT_FOUND.value(), "Movie rating not found for ID: " + movieId, "Movie ID: " + movieIdStr), HttpStatus.NOT_FOUND);
         } catch (NumberFormatException e) {
             return new ResponseEntity<>(new ErrorDetails(HttpStatus.BAD_REQUEST.value(), "Failed to convert value '" + movieIdStr + "' to required type 'Integer'", ""), HttpStatus.BAD_REQUEST);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(new ErrorDetails(HttpStatus.BAD_REQUEST.value(), e.getMessage(), ""), HttpStatus.BAD_REQUEST);
-        } catch (ResourceNotFoundException e) {
-            return new ResponseEntity<>(new ErrorDetails(HttpStatus.NOT_FOUND.value(), e.getMessage(), "Movie ID: " + movieIdStr), HttpStatus.NOT_FOUND);
+        } catch (ServiceOverloadedException | RateLimitExceededException e) {
+            throw e;
         } catch (RatingsServiceException e) {
             return new ResponseEntity<>(new ErrorDetails(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage(), "Movie ID: " + movieIdStr), HttpStatus.INTERNAL_SERVER_ERROR);
         } catch (Exception e) {
@@ -94,12 +260,84 @@ public class RatingsController {
         }
     }
 
-    @ExceptionHandler(HttpMessageNotReadableException.class)
-    public ResponseEntity<?> handleHttpMessageNotReadableException(HttpMessageNotReadableException e) {
-        String message = "Invalid request body format";
-        if (e.getMessage() != null && e.getMessage().contains("Cannot deserialize value of type `java.lang.Integer`")) {
-            message = "Invalid movie ID format. All IDs must be integers.";
+    private void writeNdjson(Stream<RatingSummary> ratings, OutputStream outputStream) throws IOException {
+        boolean written = false;
+        try (ratings; SequenceWriter sequenceWriter = ndjsonWriter.writeValues(outputStream)) {
+            Iterator<RatingSummary> iterator = ratings.iterator();
+            while (iterator.hasNext()) {
+                sequenceWriter.write(iterator.next());
+                written = true;
+            }
+        }
+        if (written) {
+            outputStream.write('\n');
+        }
+    }
+
+    private static Object batchBody(int[] movieIds, List<RatingSummary> ratings, boolean includeMissing) {
+        return includeMissing ? new RatingSummaryBatch(ratings, missingMovieIds(movieIds, ratings)) : ratings;
+    }
+
+    /** The distinct requested IDs without a summary, in request order. */
+    private static List<Integer> missingMovieIds(int[] movieIds, List<RatingSummary> ratings) {
+        Set<Integer> seen = new HashSet<>(ratings.size() * 2);
+        for (RatingSummary rating : ratings) {
+            seen.add(rating.getMovieId());
+        }
+        List<Integer> missing = new ArrayList<>();
+        for (int movieId : movieIds) {
+            if (seen.add(movieId)) {
+                missing.add(movieId);
+            }
+        }
+        return missing;
+    }
+
+    /** Copies, since the summaries may be the instances held by the rating cache. */
+    private List<RatingSummary> withTrends(List<RatingSummary> ratings) {
+        List<RatingSummary> withTrends = new ArrayList<>(ratings.size());
+        for (RatingSummary rating : ratings) {
+            RatingSummary copy = new RatingSummary(rating.getMovieId(), rating.getRating(), rating.getVersion());
+            copy.setTrends(ratingTrends.trends(rating.getMovieId()));
+            withTrends.add(copy);
+        }
+        return withTrends;
+    }
+
+    private CacheControl cacheControl() {
+        return CacheControl.maxAge(httpCacheProperties.getMaxAge());
+    }
+
+    private static void writeBinary(Consumer<RatingRowHandler> ratings, OutputStream outputStream) throws IOException {
+        BinaryRatingSummaryWriter writer = new BinaryRatingSummaryWriter(outputStream);
+        try {
+            ratings.accept(writer);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
-        return new ResponseEntity<>(new ErrorDetails(HttpStatus.BAD_REQUEST.value(), message, ""), HttpStatus.BAD_REQUEST);
+        writer.flush();
+    }
+
+    /**
+     * Same message the service gives for an oversized list. Checked here as well so that a request
+     * that will be rejected anyway is not charged to the client's rate limit.
+     */
+    private static String tooManyIds(int maxSize) {
+        return "Movie IDs list cannot contain more than " + maxSize + " IDs";
+    }
+
+    private ResponseEntity<StreamingResponseBody> errorDetails(HttpStatus status, String message, String details) {
+        ErrorDetails errorDetails = new ErrorDetails(status.value(), message, details);
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> objectMapper.writeValue(outputStream, errorDetails));
+    }
+
+    private ResponseEntity<StreamingResponseBody> errorDetails(HttpStatus status, String message, String details, long retryAfterSeconds) {
+        ErrorDetails errorDetails = new ErrorDetails(status.value(), message, details);
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> objectMapper.writeValue(outputStream, errorDetails));
     }
-}
\ No newline at end of file
+}
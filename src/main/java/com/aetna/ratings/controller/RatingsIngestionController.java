@@ -0,0 +1,79 @@
+package com.aetna.ratings.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.aetna.ratings.dto.IngestionResult;
+import com.aetna.ratings.dto.Rating;
+import com.aetna.ratings.exception.ErrorDetails;
+import com.aetna.ratings.exception.RatingsServiceException;
+import com.aetna.ratings.service.RatingsIngestionService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/v1/ratings")
+@Tag(name = "Ratings Ingestion", description = "API for bulk loading ratings as a JSON array or NDJSON stream")
+public class RatingsIngestionController {
+
+    public RatingsIngestionService ratingsIngestionService;
+    private final ObjectReader ratingReader;
+
+    @Autowired
+    public RatingsIngestionController(RatingsIngestionService ratingsIngestionService, ObjectMapper objectMapper) {
+        this.ratingsIngestionService = ratingsIngestionService;
+        this.ratingReader = objectMapper.readerFor(Rating.class);
+    }
+
+    /**
+     * Adds a single rating. Concurrent callers are committed together by the writer queue, so
+     * the response returns once the group containing this rating is durable.
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> addRating(@RequestBody Rating rating) {
+        try {
+            IngestionResult result = ratingsIngestionService.addRating(rating);
+            return new ResponseEntity<>(result, result.getAccepted() > 0 ? HttpStatus.CREATED : HttpStatus.CONFLICT);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorDetails(HttpStatus.BAD_REQUEST.value(), e.getMessage(), ""), HttpStatus.BAD_REQUEST);
+        } catch (RatingsServiceException e) {
+            return new ResponseEntity<>(new ErrorDetails(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage(), "Error adding rating"), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Accepts either a JSON array of ratings or one rating per line. The body is parsed
+     * incrementally and never held in memory as a whole. If the writer fills up after some
+     * ratings were accepted, the partial result comes back as a 503 with {@code Retry-After}.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> ingestRatings(InputStream body) throws IOException {
+        try (MappingIterator<Rating> ratings = ratingReader.readValues(body)) {
+            IngestionResult result = ratingsIngestionService.ingest(ratings);
+            if (result.getRetryAfterSeconds() != null) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(result.getRetryAfterSeconds()))
+                        .body(result);
+            }
+            return new ResponseEntity<>(result, result.isComplete() ? HttpStatus.OK : HttpStatus.BAD_REQUEST);
+        } catch (JsonProcessingException e) {
+            return new ResponseEntity<>(new ErrorDetails(HttpStatus.BAD_REQUEST.value(), "Invalid request body format", ""), HttpStatus.BAD_REQUEST);
+        } catch (RatingsServiceException e) {
+            return new ResponseEntity<>(new ErrorDetails(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage(), "Error ingesting ratings"), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
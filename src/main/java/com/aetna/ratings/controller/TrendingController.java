@@ -0,0 +1,49 @@
+package com.aetna.ratings.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.aetna.ratings.config.ClientRefIdHolder;
+import com.aetna.ratings.exception.ErrorDetails;
+import com.aetna.ratings.service.ClientRateLimiter;
+import com.aetna.ratings.service.RatingTrends;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/v1/ratings")
+@Tag(name = "Trending", description = "API for the movies with the most votes in a trailing time window, from in-memory time buckets")
+public class TrendingController {
+
+    public RatingTrends ratingTrends;
+    public ClientRateLimiter clientRateLimiter;
+
+    @Autowired
+    public TrendingController(RatingTrends ratingTrends, ClientRateLimiter clientRateLimiter) {
+        this.ratingTrends = ratingTrends;
+        this.clientRateLimiter = clientRateLimiter;
+    }
+
+    /**
+     * The most voted movies in a window, served from memory without touching the database.
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrending(
+            @RequestParam(value = "window", required = false)
+            @Parameter(description = "A configured trailing window such as 24h; defaults to the shortest one") String window,
+            @RequestParam(value = "limit", defaultValue = "20")
+            @Parameter(description = "Number of movies to return, at most ratings.trends.max-limit") int limit) {
+        clientRateLimiter.acquire(ClientRefIdHolder.getClientRefId(), 1);
+        try {
+            return new ResponseEntity<>(ratingTrends.trending(window, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorDetails(HttpStatus.BAD_REQUEST.value(), e.getMessage(), ""), HttpStatus.BAD_REQUEST);
+        }
+    }
+}
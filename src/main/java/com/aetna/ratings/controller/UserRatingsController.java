@@ -0,0 +1,98 @@
+package com.aetna.ratings.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.aetna.ratings.config.ClientRefIdHolder;
+import com.aetna.ratings.exception.ErrorDetails;
+import com.aetna.ratings.exception.RatingsServiceException;
+import com.aetna.ratings.service.ClientRateLimiter;
+import com.aetna.ratings.service.UserRatingsService;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/v1/ratings")
+@Tag(name = "User Ratings", description = "API for the ratings made by a user, paged in movie ID order, for one user or a batch")
+public class UserRatingsController {
+
+    public UserRatingsService userRatingsService;
+    public ClientRateLimiter clientRateLimiter;
+
+    @Autowired
+    public UserRatingsController(UserRatingsService userRatingsService, ClientRateLimiter clientRateLimiter) {
+        this.userRatingsService = userRatingsService;
+        this.clientRateLimiter = clientRateLimiter;
+    }
+
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<?> getUserRatings(
+            @PathVariable("userId")
+            @Parameter(description = "ID of the user whose ratings to fetch", required = true) int userId,
+            @RequestParam(value = "after", required = false)
+            @Parameter(description = "The next value of the previous page; omit for the first page") String after,
+            @RequestParam(value = "limit", required = false)
+            @Parameter(description = "Ratings per page; defaults to ratings.users.default-page-size") Integer limit) {
+        clientRateLimiter.acquire(ClientRefIdHolder.getClientRefId(), 1);
+        try {
+            return new ResponseEntity<>(userRatingsService.getUserRatings(userId, after, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorDetails(HttpStatus.BAD_REQUEST.value(), e.getMessage(), ""), HttpStatus.BAD_REQUEST);
+        } catch (RatingsServiceException e) {
+            return new ResponseEntity<>(new ErrorDetails(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage(), "User ID: " + userId), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * The user's ratings of the given movies, in request order.
+     */
+    @PostMapping("/user/{userId}/movies")
+    public ResponseEntity<?> getUserMovieRatings(
+            @PathVariable("userId")
+            @Parameter(description = "ID of the user whose ratings to fetch", required = true) int userId,
+            @RequestBody
+            @Parameter(description = "List of movie IDs to fetch the user's ratings for", required = true) int[] movieIds) {
+        if (movieIds == null || movieIds.length == 0) {
+            return new ResponseEntity<>(new ErrorDetails(HttpStatus.BAD_REQUEST.value(), "Movie IDs list cannot be null or empty", ""), HttpStatus.BAD_REQUEST);
+        }
+        clientRateLimiter.acquire(ClientRefIdHolder.getClientRefId(), movieIds.length);
+        try {
+            return new ResponseEntity<>(userRatingsService.getUserMovieRatings(userId, movieIds), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorDetails(HttpStatus.BAD_REQUEST.value(), e.getMessage(), ""), HttpStatus.BAD_REQUEST);
+        } catch (RatingsServiceException e) {
+            return new ResponseEntity<>(new ErrorDetails(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage(), "User ID: " + userId), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * The first page of ratings of every requested user, in request order.
+     */
+    @PostMapping("/users")
+    public ResponseEntity<?> getUsersRatings(
+            @RequestBody
+            @Parameter(description = "List of user IDs to fetch ratings for", required = true) int[] userIds,
+            @RequestParam(value = "limit", required = false)
+            @Parameter(description = "Ratings per user; defaults to ratings.users.default-page-size") Integer limit) {
+        if (userIds == null || userIds.length == 0) {
+            return new ResponseEntity<>(new ErrorDetails(HttpStatus.BAD_REQUEST.value(), "User IDs list cannot be null or empty", ""), HttpStatus.BAD_REQUEST);
+        }
+        clientRateLimiter.acquire(ClientRefIdHolder.getClientRefId(), userIds.length);
+        try {
+            return new ResponseEntity<>(userRatingsService.getUsersRatings(userIds, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorDetails(HttpStatus.BAD_REQUEST.value(), e.getMessage(), ""), HttpStatus.BAD_REQUEST);
+        } catch (RatingsServiceException e) {
+            return new ResponseEntity<>(new ErrorDetails(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage(), "Error retrieving user ratings"), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.aetna.ratings.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Data;
+
+/**
+ * Outcome of a bulk rating ingestion request. {@code complete} is false when the payload
+ * could not be parsed to the end, or when the writer filled up part-way through; ratings
+ * accepted before that point stay committed.
+ */
+@Data
+public class IngestionResult {
+    private long accepted;
+    private long rejected;
+    private boolean complete = true;
+    private List<String> errors = new ArrayList<>();
+
+    /** Set when the writer filled up part-way: how long to wait before sending the rest. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long retryAfterSeconds;
+
+    public void accept(long count) {
+        accepted += count;
+    }
+
+    public void reject(String error, int maxErrors) {
+        rejected++;
+        if (errors.size() < maxErrors) {
+            errors.add(error);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.aetna.ratings.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One movie's place on a leaderboard. {@code score} is the Bayesian average the board is
+ * ordered by; {@code averageRating} is the plain mean over the same votes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntry {
+    private long rank;
+    private int movieId;
+    private double score;
+    private double averageRating;
+    private long voteCount;
+}
@@ -0,0 +1,18 @@
+package com.aetna.ratings.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardPage {
+    private String window;
+    private int minVotes;
+    private int page;
+    private int size;
+    private List<LeaderboardEntry> entries;
+}
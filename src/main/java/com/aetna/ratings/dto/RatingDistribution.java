@@ -0,0 +1,25 @@
+package com.aetna.ratings.dto;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How a movie's ratings are spread over the half-star scale. {@code distribution} maps every
+ * rating from "0.5" to "5.0" to its number of votes, including empty ones. {@code median} and
+ * {@code p90} are nearest-rank percentiles, and {@code bayesianAverage} is the mean damped
+ * towards the catalog-wide mean by {@code ratings.distribution.prior-weight} virtual votes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingDistribution {
+    private int movieId;
+    private long voteCount;
+    private Map<String, Long> distribution;
+    private double median;
+    private double p90;
+    private double bayesianAverage;
+}
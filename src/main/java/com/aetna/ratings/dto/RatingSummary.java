@@ -1,14 +1,31 @@
 package com.aetna.ratings.dto;
 
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.Data;
 
 @Data
 public class RatingSummary {
      private int movieId;
      private double rating;
+     /** Changes whenever the movie's ratings do; used for ETags and not part of the JSON body. */
+     @JsonIgnore
+     private long version;
+     /** Per-window trends keyed by window such as {@code 24h}; only set when a batch lookup asks for them. */
+     @JsonInclude(JsonInclude.Include.NON_NULL)
+     private Map<String, RatingTrend> trends;
  
      public RatingSummary(int movieId, double rating) {
          this.movieId = movieId;
          this.rating = rating;
      }
-}
\ No newline at end of file
+
+     public RatingSummary(int movieId, double rating, long version) {
+         this.movieId = movieId;
+         this.rating = rating;
+         this.version = version;
+     }
+}
@@ -0,0 +1,19 @@
+package com.aetna.ratings.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Batch lookup result that also names the requested movies without ratings, in request order
+ * and without repeats.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingSummaryBatch {
+    private List<RatingSummary> ratings;
+    private List<Integer> missingMovieIds;
+}
@@ -0,0 +1,18 @@
+package com.aetna.ratings.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A movie's votes within one trailing window. {@code averageRating} is null when the window
+ * has no votes; {@code votesPerDay} is the vote count spread over the window's length.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingTrend {
+    private long voteCount;
+    private Double averageRating;
+    private double votesPerDay;
+}
@@ -0,0 +1,19 @@
+package com.aetna.ratings.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One movie on the trending list, ranked by the number of votes it received in the window.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingMovie {
+    private int rank;
+    private int movieId;
+    private long voteCount;
+    private double averageRating;
+    private double votesPerDay;
+}
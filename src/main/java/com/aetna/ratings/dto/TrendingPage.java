@@ -0,0 +1,16 @@
+package com.aetna.ratings.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingPage {
+    private String window;
+    private int limit;
+    private List<TrendingMovie> movies;
+}
@@ -0,0 +1,18 @@
+package com.aetna.ratings.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One of a user's ratings; the user is given by the enclosing lookup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserRating {
+    private int ratingId;
+    private int movieId;
+    private double rating;
+    private long timestamp;
+}
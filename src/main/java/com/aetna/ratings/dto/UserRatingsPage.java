@@ -0,0 +1,20 @@
+package com.aetna.ratings.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A page of a user's ratings in movie ID order. {@code next} is passed back as {@code after}
+ * to read the following page, and is null on the last one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserRatingsPage {
+    private int userId;
+    private List<UserRating> ratings;
+    private String next;
+}
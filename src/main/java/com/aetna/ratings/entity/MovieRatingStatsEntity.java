@@ -0,0 +1,47 @@
+package com.aetna.ratings.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Per-movie running aggregate over the {@code ratings} table. Rows are maintained by
+ * SQLite triggers on every insert, update and delete of a rating, so an average lookup
+ * is a single primary key read instead of an {@code AVG()} over all of a movie's ratings.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "movie_rating_stats")
+public class MovieRatingStatsEntity {
+
+    @Id
+    @Column
+    int movieId;
+
+    @Column(nullable = false)
+    double ratingSum;
+
+    @Column(nullable = false)
+    long ratingCount;
+
+    @Column(nullable = false)
+    double minRating;
+
+    @Column(nullable = false)
+    double maxRating;
+
+    @Column(nullable = false)
+    long lastTimestamp;
+
+    /** Value of the global write counter when this movie's ratings last changed. */
+    @Column(nullable = false)
+    long version;
+}
@@ -31,5 +31,5 @@ public class RatingEntity {
     double rating;
 
     @Column
-    int timestamp;
+    long timestamp;
 }
@@ -0,0 +1,18 @@
+package com.aetna.ratings.exception;
+
+/**
+ * Thrown when a client has used up its request budget. Mapped to 429 Too Many Requests with
+ * a {@code Retry-After} header.
+ */
+public class RateLimitExceededException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
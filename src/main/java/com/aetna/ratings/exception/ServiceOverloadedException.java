@@ -0,0 +1,18 @@
+package com.aetna.ratings.exception;
+
+/**
+ * Thrown when a request is shed because the service is at capacity. Mapped to
+ * 503 Service Unavailable with a {@code Retry-After} header.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
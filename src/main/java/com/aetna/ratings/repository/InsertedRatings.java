@@ -0,0 +1,11 @@
+package com.aetna.ratings.repository;
+
+/**
+ * Outcome of one committed insert.
+ *
+ * @param counts  one update count per rating, {@link RatingsBatchWriter#DUPLICATE} for ratings that were not inserted
+ * @param version the {@code rating_stats_version} the transaction committed; a read that sees this
+ *                version or a later one sees every rating the insert added
+ */
+public record InsertedRatings(int[] counts, long version) {
+}
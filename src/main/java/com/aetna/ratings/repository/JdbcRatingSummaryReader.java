@@ -0,0 +1,138 @@
+package com.aetna.ratings.repository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import com.aetna.ratings.config.SqliteDataSourceConfig;
+import com.aetna.ratings.dto.RatingSummary;
+
+/**
+ * Reads averages from {@code movie_rating_stats} with prepared statements, bypassing the
+ * Hibernate session, HQL translation and constructor-expression result transformers.
+ * <p>
+ * The {@code IN (...)} statement text is built once per list size and reused; with the padded
+ * chunks from {@code ChunkedBatchLoader} only a handful of sizes ever occur. Queries run on the
+ * read-only connection pool.
+ */
+@Repository
+public class JdbcRatingSummaryReader implements RatingSummaryReader {
+
+    static final RowMapper<RatingSummary> RATING_SUMMARY_ROW_MAPPER =
+            (rs, rowNum) -> new RatingSummary(rs.getInt(1), rs.getDouble(2), rs.getLong(3));
+
+    private static final String SELECT_AVERAGE =
+            "SELECT movieId, ROUND(ratingSum / ratingCount, 1), version FROM movie_rating_stats WHERE movieId ";
+
+    static final String SINGLE_MOVIE_QUERY = SELECT_AVERAGE + "= ?";
+
+    private static final String SELECT_VERSION = "SELECT movieId, version FROM movie_rating_stats WHERE movieId ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Integer, String> inQueries = new ConcurrentHashMap<>();
+    private final Map<Integer, String> versionInQueries = new ConcurrentHashMap<>();
+
+    @Autowired
+    public JdbcRatingSummaryReader(@Qualifier(SqliteDataSourceConfig.READ_DATA_SOURCE) DataSource readDataSource) {
+        this.jdbcTemplate = new JdbcTemplate(readDataSource);
+    }
+
+    @Override
+    public Optional<RatingSummary> getAvgRatingForMovie(int movieId) {
+        List<RatingSummary> ratings = jdbcTemplate.query(SINGLE_MOVIE_QUERY, RATING_SUMMARY_ROW_MAPPER, movieId);
+        return ratings.isEmpty() ? Optional.empty() : Optional.of(ratings.get(0));
+    }
+
+    @Override
+    public List<RatingSummary> getAvgRatingsForMoviesList(List<Integer> movieIds) {
+        if (movieIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return jdbcTemplate.query(cachedInQuery(movieIds.size()), bindMovieIds(movieIds), RATING_SUMMARY_ROW_MAPPER);
+    }
+
+    /**
+     * Rows are mapped one at a time from a forward-only cursor; the connection is returned to
+     * the pool when the stream is closed.
+     */
+    @Override
+    public Stream<RatingSummary> streamAvgRatingsForMoviesList(List<Integer> movieIds) {
+        if (movieIds.isEmpty()) {
+            return Stream.empty();
+        }
+        return jdbcTemplate.queryForStream(cachedInQuery(movieIds.size()), bindMovieIds(movieIds), RATING_SUMMARY_ROW_MAPPER);
+    }
+
+    @Override
+    public Stream<RatingSummary> streamAvgRatingsForMoviesList(int[] movieIds) {
+        if (movieIds.length == 0) {
+            return Stream.empty();
+        }
+        return jdbcTemplate.queryForStream(cachedInQuery(movieIds.length), bindMovieIds(movieIds), RATING_SUMMARY_ROW_MAPPER);
+    }
+
+    /** Reads the columns straight off the cursor; no row objects are created. */
+    @Override
+    public void forEachAvgRating(int[] movieIds, RatingRowHandler handler) {
+        if (movieIds.length == 0) {
+            return;
+        }
+        jdbcTemplate.query(cachedInQuery(movieIds.length), bindMovieIds(movieIds),
+                (RowCallbackHandler) rs -> handler.accept(rs.getInt(1), rs.getDouble(2)));
+    }
+
+    /** Reads only the version column, leaving the sum and count unread. */
+    @Override
+    public void forEachVersion(int[] movieIds, MovieVersionHandler handler) {
+        if (movieIds.length == 0) {
+            return;
+        }
+        jdbcTemplate.query(versionInQueries.computeIfAbsent(movieIds.length, size -> inQuery(SELECT_VERSION, size)),
+                bindMovieIds(movieIds), (RowCallbackHandler) rs -> handler.accept(rs.getInt(1), rs.getLong(2)));
+    }
+
+    private String cachedInQuery(int size) {
+        return inQueries.computeIfAbsent(size, JdbcRatingSummaryReader::inQuery);
+    }
+
+    private static PreparedStatementSetter bindMovieIds(List<Integer> movieIds) {
+        return ps -> {
+            for (int i = 0; i < movieIds.size(); i++) {
+                ps.setInt(i + 1, movieIds.get(i));
+            }
+        };
+    }
+
+    private static PreparedStatementSetter bindMovieIds(int[] movieIds) {
+        return ps -> {
+            for (int i = 0; i < movieIds.length; i++) {
+                ps.setInt(i + 1, movieIds[i]);
+            }
+        };
+    }
+
+    static String inQuery(int size) {
+        return inQuery(SELECT_AVERAGE, size);
+    }
+
+    private static String inQuery(String select, int size) {
+        StringBuilder sql = new StringBuilder(select.length() + 6 + size * 2).append(select).append("IN (");
+        for (int i = 0; i < size; i++) {
+            sql.append(i == 0 ? "?" : ",?");
+        }
+        return sql.append(')').toString();
+    }
+}
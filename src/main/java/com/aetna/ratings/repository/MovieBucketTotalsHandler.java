@@ -0,0 +1,10 @@
+package com.aetna.ratings.repository;
+
+/**
+ * Receives a movie's rating sum and count within one time bucket, one row at a time as primitives.
+ */
+@FunctionalInterface
+public interface MovieBucketTotalsHandler {
+
+    void accept(int movieId, long bucket, double ratingSum, long ratingCount);
+}
@@ -0,0 +1,112 @@
+package com.aetna.ratings.repository;
+
+import com.aetna.ratings.dto.RatingSummary;
+import com.aetna.ratings.entity.MovieRatingStatsEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+@Repository
+public interface MovieRatingStatsRepository extends JpaRepository<MovieRatingStatsEntity, Integer>, RatingSummaryReader {
+
+    /** Half-star bucket of {@code rating}, as computed by the V5 histogram triggers. */
+    String RATING_BUCKET = "MIN(MAX(CAST(ROUND(rating * 2) AS INTEGER), 1), 10)";
+
+    @Override
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.aetna.ratings.dto.RatingSummary(s.movieId, ROUND(s.ratingSum / s.ratingCount, 1), s.version) FROM MovieRatingStatsEntity s WHERE s.movieId = :movieId")
+    Optional<RatingSummary> getAvgRatingForMovie(@Param("movieId") int movieId);
+
+    @Override
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.aetna.ratings.dto.RatingSummary(s.movieId, ROUND(s.ratingSum / s.ratingCount, 1), s.version) FROM MovieRatingStatsEntity s WHERE s.movieId IN :movieIds")
+    List<RatingSummary> getAvgRatingsForMoviesList(@Param("movieIds") List<Integer> movieIds);
+
+    /**
+     * Movie ID and rounded average of each movie in {@code movieIds}, as bare rows read from a
+     * cursor. Must be consumed and closed inside the caller's transaction.
+     */
+    @Query("SELECT s.movieId, ROUND(s.ratingSum / s.ratingCount, 1) FROM MovieRatingStatsEntity s WHERE s.movieId IN :movieIds")
+    Stream<Object[]> streamAvgRatingRows(@Param("movieIds") List<Integer> movieIds);
+
+    /**
+     * Reads the rows of {@link #streamAvgRatingRows(List)} straight into {@code handler}, so the
+     * JPA path builds no {@link RatingSummary} per row either.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    default void forEachAvgRating(int[] movieIds, RatingRowHandler handler) {
+        try (Stream<Object[]> rows = streamAvgRatingRows(IntStream.of(movieIds).boxed().toList())) {
+            rows.forEach(row -> handler.accept(((Number) row[0]).intValue(), ((Number) row[1]).doubleValue()));
+        }
+    }
+
+    /**
+     * Movies whose raw ratings disagree with their stored aggregate, including movies
+     * that have ratings but no aggregate row at all.
+     */
+    @Query(value = "SELECT COUNT(*) FROM ("
+            + "SELECT movieId, SUM(rating) AS ratingSum, COUNT(*) AS ratingCount, MIN(rating) AS minRating, "
+            + "MAX(rating) AS maxRating, MAX(timestamp) AS lastTimestamp FROM ratings GROUP BY movieId) r "
+            + "LEFT JOIN movie_rating_stats s ON s.movieId = r.movieId "
+            + "WHERE s.movieId IS NULL OR s.ratingCount <> r.ratingCount OR ABS(s.ratingSum - r.ratingSum) > 0.000001 "
+            + "OR s.minRating <> r.minRating OR s.maxRating <> r.maxRating OR s.lastTimestamp <> r.lastTimestamp",
+            nativeQuery = true)
+    long countStaleMovieStats();
+
+    /**
+     * Aggregate rows left behind for movies that no longer have any ratings.
+     */
+    @Query(value = "SELECT COUNT(*) FROM movie_rating_stats s WHERE NOT EXISTS (SELECT 1 FROM ratings r WHERE r.movieId = s.movieId)",
+            nativeQuery = true)
+    long countOrphanedMovieStats();
+
+    /**
+     * Histogram buckets that disagree with the raw ratings table: buckets missing for ratings
+     * that exist, and stored buckets whose count differs from the ratings in them.
+     */
+    @Query(value = "SELECT (SELECT COUNT(*) FROM ("
+            + "SELECT movieId, " + RATING_BUCKET + " AS bucket FROM ratings GROUP BY movieId, bucket) r "
+            + "LEFT JOIN movie_rating_histogram h ON h.movieId = r.movieId AND h.bucket = r.bucket WHERE h.movieId IS NULL) "
+            + "+ (SELECT COUNT(*) FROM movie_rating_histogram h WHERE h.ratingCount <> ("
+            + "SELECT COUNT(*) FROM ratings r WHERE r.movieId = h.movieId AND " + RATING_BUCKET + " = h.bucket))",
+            nativeQuery = true)
+    long countStaleRatingHistograms();
+
+    @Modifying
+    @Query(value = "DELETE FROM movie_rating_stats", nativeQuery = true)
+    int deleteAllMovieStats();
+
+    /**
+     * Takes the next value of the global version counter, as the rating triggers do, so that
+     * rebuilt rows get a version no earlier response has carried.
+     */
+    @Modifying
+    @Query(value = "UPDATE rating_stats_version SET version = version + 1", nativeQuery = true)
+    int incrementStatsVersion();
+
+    @Modifying
+    @Query(value = "INSERT INTO movie_rating_stats (movieId, ratingSum, ratingCount, minRating, maxRating, lastTimestamp, version) "
+            + "SELECT movieId, SUM(rating), COUNT(*), MIN(rating), MAX(rating), MAX(timestamp), "
+            + "(SELECT version FROM rating_stats_version) FROM ratings GROUP BY movieId",
+            nativeQuery = true)
+    int rebuildAllMovieStats();
+
+    @Modifying
+    @Query(value = "DELETE FROM movie_rating_histogram", nativeQuery = true)
+    int deleteAllRatingHistograms();
+
+    @Modifying
+    @Query(value = "INSERT INTO movie_rating_histogram (movieId, bucket, ratingCount) "
+            + "SELECT movieId, " + RATING_BUCKET + " AS bucket, COUNT(*) FROM ratings GROUP BY movieId, bucket",
+            nativeQuery = true)
+    int rebuildAllRatingHistograms();
+}
@@ -0,0 +1,10 @@
+package com.aetna.ratings.repository;
+
+/**
+ * Receives each movie's rating sum and count one row at a time as primitives.
+ */
+@FunctionalInterface
+public interface MovieTotalsHandler {
+
+    void accept(int movieId, double ratingSum, long ratingCount);
+}
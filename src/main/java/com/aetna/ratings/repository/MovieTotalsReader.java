@@ -0,0 +1,97 @@
+package com.aetna.ratings.repository;
+
+import java.util.function.IntConsumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aetna.ratings.config.SqliteDataSourceConfig;
+
+/**
+ * Reads the rating sum and count of every movie, for loading whole-catalog structures such as
+ * the leaderboards. All-time totals come straight from {@code movie_rating_stats}; totals over a
+ * trailing window, or per time bucket within one, are grouped from the ratings in it, found through
+ * {@code ratings_timestamp_index}.
+ * <p>
+ * The totals are read in one transaction together with {@code rating_stats_version}, which is
+ * returned, so a caller that also applies ratings as they commit can tell which of them the
+ * totals already include. Queries run on the read-only connection pool.
+ */
+@Repository
+public class MovieTotalsReader {
+
+    static final String ALL_TIME_QUERY = "SELECT movieId, ratingSum, ratingCount FROM movie_rating_stats";
+
+    static final String RATED_MOVIES_QUERY = "SELECT movieId FROM movie_rating_stats WHERE ratingCount > 0";
+
+    // The unary plus stops SQLite from walking ratings_movieId_rating_index, in GROUP BY order,
+    // over the whole table instead of searching the window on ratings_timestamp_index.
+    static final String SINCE_QUERY = "SELECT movieId, SUM(rating), COUNT(*) FROM ratings WHERE timestamp >= ? GROUP BY +movieId";
+
+    static final String BUCKETS_SINCE_QUERY = "SELECT movieId, timestamp / ? AS bucket, SUM(rating), COUNT(*) FROM ratings"
+            + " WHERE timestamp >= ? GROUP BY +movieId, bucket";
+
+    static final String VERSION_QUERY = "SELECT version FROM rating_stats_version";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public MovieTotalsReader(@Qualifier(SqliteDataSourceConfig.READ_DATA_SOURCE) DataSource readDataSource) {
+        this.jdbcTemplate = new JdbcTemplate(readDataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(readDataSource));
+    }
+
+    /**
+     * @return the version the totals were read at; every rating committed at or before it is included
+     */
+    public long forEachMovieTotal(MovieTotalsHandler handler) {
+        return atVersion(() -> jdbcTemplate.query(ALL_TIME_QUERY,
+                (RowCallbackHandler) rs -> handler.accept(rs.getInt(1), rs.getDouble(2), rs.getLong(3))));
+    }
+
+    /** Hands over the ID of every movie with at least one rating. */
+    public void forEachRatedMovie(IntConsumer handler) {
+        jdbcTemplate.query(RATED_MOVIES_QUERY, (RowCallbackHandler) rs -> handler.accept(rs.getInt(1)));
+    }
+
+    /**
+     * @param epochSecond start of the window, inclusive, in the seconds used by {@code ratings.timestamp}
+     * @return the version the totals were read at, as for {@link #forEachMovieTotal(MovieTotalsHandler)}
+     */
+    public long forEachMovieTotalSince(long epochSecond, MovieTotalsHandler handler) {
+        return atVersion(() -> jdbcTemplate.query(SINCE_QUERY, ps -> ps.setLong(1, epochSecond),
+                (RowCallbackHandler) rs -> handler.accept(rs.getInt(1), rs.getDouble(2), rs.getLong(3))));
+    }
+
+    /**
+     * @param epochSecond   start of the window, inclusive, in the seconds used by {@code ratings.timestamp}
+     * @param bucketSeconds width of a bucket; bucket {@code n} holds timestamps from {@code n * bucketSeconds}
+     * @return the version the totals were read at, as for {@link #forEachMovieTotal(MovieTotalsHandler)}
+     */
+    public long forEachMovieBucketSince(long epochSecond, long bucketSeconds, MovieBucketTotalsHandler handler) {
+        return atVersion(() -> jdbcTemplate.query(BUCKETS_SINCE_QUERY, ps -> {
+            ps.setLong(1, bucketSeconds);
+            ps.setLong(2, epochSecond);
+        }, (RowCallbackHandler) rs -> handler.accept(rs.getInt(1), rs.getLong(2), rs.getDouble(3), rs.getLong(4))));
+    }
+
+    /**
+     * Runs {@code read} in the same transaction as the version query. SQLite fixes a read
+     * transaction's snapshot at its first statement, so the version comes first.
+     */
+    private long atVersion(Runnable read) {
+        return transactionTemplate.execute(status -> {
+            long version = jdbcTemplate.queryForObject(VERSION_QUERY, Long.class);
+            read.run();
+            return version;
+        });
+    }
+}
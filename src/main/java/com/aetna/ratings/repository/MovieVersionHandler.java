@@ -0,0 +1,11 @@
+package com.aetna.ratings.repository;
+
+/**
+ * Receives each found movie's version one row at a time, for evaluating a precondition without
+ * reading or averaging the rating totals.
+ */
+@FunctionalInterface
+public interface MovieVersionHandler {
+
+    void accept(int movieId, long version);
+}
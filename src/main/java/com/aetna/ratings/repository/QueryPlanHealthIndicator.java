@@ -0,0 +1,120 @@
+package com.aetna.ratings.repository;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.aetna.ratings.config.SqliteDataSourceConfig;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Confirms on startup that SQLite plans the rating lookup queries as index searches.
+ * <p>
+ * A missing or unused index does not produce an error, only a full table scan per lookup, so
+ * each statement the readers run is passed through {@code EXPLAIN QUERY PLAN} once the migrations have been applied.
+ * If any of them scans a table or does not use the expected index, the {@code queryPlan}
+ * health contributor reports DOWN with the offending plans as details.
+ */
+@Component
+@Slf4j
+public class QueryPlanHealthIndicator implements HealthIndicator {
+
+    static final String MOVIE_RATING_INDEX = "INDEX ratings_movieId_rating_index";
+
+    static final String PRIMARY_KEY = "USING INTEGER PRIMARY KEY";
+
+    static final String TIMESTAMP_INDEX = "INDEX ratings_timestamp_index";
+
+    static final String USER_MOVIE_INDEX = "INDEX ratings_userId_movieId_index";
+
+    static final String HISTOGRAM_PRIMARY_KEY = "movie_rating_histogram USING PRIMARY KEY";
+
+    private static final int IN_LIST_SIZE = 16;
+
+    private static final List<QueryPlanCheck> CHECKS = List.of(
+            // Run by the movie_rating_stats triggers when a rating is updated or deleted.
+            new QueryPlanCheck("statsRecompute",
+                    "SELECT movieId, SUM(rating), COUNT(*), MIN(rating), MAX(rating), MAX(timestamp) FROM ratings "
+                            + "WHERE movieId = ? GROUP BY movieId", 1, MOVIE_RATING_INDEX),
+            new QueryPlanCheck("statsByMovie", JdbcRatingSummaryReader.SINGLE_MOVIE_QUERY, 1, PRIMARY_KEY),
+            new QueryPlanCheck("statsByMovies", JdbcRatingSummaryReader.inQuery(IN_LIST_SIZE), IN_LIST_SIZE, PRIMARY_KEY),
+            new QueryPlanCheck("histogramByMovie", RatingHistogramReader.inQuery(1), 1, HISTOGRAM_PRIMARY_KEY),
+            new QueryPlanCheck("histogramsByMovies", RatingHistogramReader.inQuery(IN_LIST_SIZE), IN_LIST_SIZE, HISTOGRAM_PRIMARY_KEY),
+            new QueryPlanCheck("totalsSince", MovieTotalsReader.SINCE_QUERY, 1, TIMESTAMP_INDEX),
+            new QueryPlanCheck("bucketTotalsSince", MovieTotalsReader.BUCKETS_SINCE_QUERY, 2, TIMESTAMP_INDEX),
+            new QueryPlanCheck("ratingsByUser", UserRatingsReader.PAGE_QUERY, 4, USER_MOVIE_INDEX),
+            new QueryPlanCheck("userRatingsForMovies", UserRatingsReader.inQuery(IN_LIST_SIZE), IN_LIST_SIZE + 1, USER_MOVIE_INDEX));
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Health health = Health.unknown().withDetail("reason", "Query plans have not been checked yet").build();
+
+    @Autowired
+    public QueryPlanHealthIndicator(@Qualifier(SqliteDataSourceConfig.READ_DATA_SOURCE) DataSource readDataSource) {
+        this.jdbcTemplate = new JdbcTemplate(readDataSource);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyQueryPlans() {
+        Map<String, String> plans = new LinkedHashMap<>();
+        boolean indexed = true;
+        try {
+            for (QueryPlanCheck check : CHECKS) {
+                List<String> plan = explain(check);
+                boolean uses = usesIndex(plan, check.expectedAccess);
+                if (!uses) {
+                    log.error("Query " + check.name + " does not use " + check.expectedAccess + ": " + plan);
+                }
+                indexed &= uses;
+                plans.put(check.name, String.join("; ", plan));
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not check query plans", e);
+            health = Health.down(e).build();
+            return;
+        }
+        health = (indexed ? Health.up() : Health.down()).withDetails(plans).build();
+    }
+
+    @Override
+    public Health health() {
+        return health;
+    }
+
+    private List<String> explain(QueryPlanCheck check) {
+        return jdbcTemplate.query("EXPLAIN QUERY PLAN " + check.sql, ps -> {
+            // sqlite-jdbc refuses to run a statement with unbound parameters.
+            for (int i = 1; i <= check.parameters; i++) {
+                ps.setInt(i, i);
+            }
+        }, (rs, rowNum) -> rs.getString("detail"));
+    }
+
+    /**
+     * A plan passes when no step scans a table and at least one step uses the expected access path.
+     */
+    static boolean usesIndex(List<String> plan, String expectedAccess) {
+        boolean found = false;
+        for (String step : plan) {
+            if (step.startsWith("SCAN ")) {
+                return false;
+            }
+            found |= step.contains(expectedAccess);
+        }
+        return found;
+    }
+
+    private record QueryPlanCheck(String name, String sql, int parameters, String expectedAccess) {
+    }
+}
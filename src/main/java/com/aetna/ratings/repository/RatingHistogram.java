@@ -0,0 +1,35 @@
+package com.aetna.ratings.repository;
+
+/**
+ * One movie's rating counts in half-star buckets, as stored in {@code movie_rating_histogram}.
+ * {@code counts[i]} holds the ratings of {@code (i + 1) / 2.0} stars, so index 0 is 0.5 and
+ * index 9 is 5.0.
+ */
+public final class RatingHistogram {
+
+    public static final int BUCKETS = 10;
+
+    private final int movieId;
+    private final long[] counts;
+
+    public RatingHistogram(int movieId, long[] counts) {
+        if (counts.length != BUCKETS) {
+            throw new IllegalArgumentException("A rating histogram has " + BUCKETS + " buckets, not " + counts.length);
+        }
+        this.movieId = movieId;
+        this.counts = counts;
+    }
+
+    public int getMovieId() {
+        return movieId;
+    }
+
+    public long getCount(int bucket) {
+        return counts[bucket];
+    }
+
+    /** Rating represented by {@code bucket}. */
+    public static double rating(int bucket) {
+        return (bucket + 1) / 2.0;
+    }
+}
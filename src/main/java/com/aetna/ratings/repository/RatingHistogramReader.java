@@ -0,0 +1,88 @@
+package com.aetna.ratings.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Repository;
+
+import com.aetna.ratings.config.SqliteDataSourceConfig;
+
+/**
+ * Reads half-star histograms from {@code movie_rating_histogram} and the catalog-wide mean from
+ * {@code movie_rating_stats}; neither touches the raw {@code ratings} table. Queries run on the
+ * read-only connection pool.
+ */
+@Repository
+public class RatingHistogramReader {
+
+    private static final String SELECT_HISTOGRAM =
+            "SELECT movieId, bucket, ratingCount FROM movie_rating_histogram WHERE movieId ";
+
+    static final String MEAN_RATING_QUERY = "SELECT SUM(ratingSum) / SUM(ratingCount) FROM movie_rating_stats";
+
+    /** Rows arrive in primary key order, so each movie's buckets are adjacent. */
+    private static final ResultSetExtractor<List<RatingHistogram>> HISTOGRAM_EXTRACTOR = rs -> {
+        List<RatingHistogram> histograms = new ArrayList<>();
+        int movieId = 0;
+        long[] counts = null;
+        while (rs.next()) {
+            if (counts == null || rs.getInt(1) != movieId) {
+                if (counts != null) {
+                    histograms.add(new RatingHistogram(movieId, counts));
+                }
+                movieId = rs.getInt(1);
+                counts = new long[RatingHistogram.BUCKETS];
+            }
+            counts[rs.getInt(2) - 1] = rs.getLong(3);
+        }
+        if (counts != null) {
+            histograms.add(new RatingHistogram(movieId, counts));
+        }
+        return histograms;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Integer, String> inQueries = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RatingHistogramReader(@Qualifier(SqliteDataSourceConfig.READ_DATA_SOURCE) DataSource readDataSource) {
+        this.jdbcTemplate = new JdbcTemplate(readDataSource);
+    }
+
+    /**
+     * Histograms of the given movies in movie ID order; movies without ratings are left out.
+     * Repeated IDs, such as chunk padding, are returned once.
+     */
+    public List<RatingHistogram> getHistograms(int[] movieIds) {
+        if (movieIds.length == 0) {
+            return List.of();
+        }
+        return jdbcTemplate.query(inQueries.computeIfAbsent(movieIds.length, RatingHistogramReader::inQuery), ps -> {
+            for (int i = 0; i < movieIds.length; i++) {
+                ps.setInt(i + 1, movieIds[i]);
+            }
+        }, HISTOGRAM_EXTRACTOR);
+    }
+
+    /** Mean of every rating in the catalog, or {@code NaN} when there are none. */
+    public double getMeanRating() {
+        Double mean = jdbcTemplate.queryForObject(MEAN_RATING_QUERY, Double.class);
+        return mean == null ? Double.NaN : mean;
+    }
+
+    static String inQuery(int size) {
+        StringBuilder sql = new StringBuilder(SELECT_HISTOGRAM.length() + 40 + size * 2).append(SELECT_HISTOGRAM).append("IN (");
+        for (int i = 0; i < size; i++) {
+            sql.append(i == 0 ? "?" : ",?");
+        }
+        return sql.append(") ORDER BY movieId, bucket").toString();
+    }
+}
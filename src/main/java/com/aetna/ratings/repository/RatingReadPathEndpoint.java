@@ -0,0 +1,39 @@
+package com.aetna.ratings.repository;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.JmxEndpoint;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.aetna.ratings.config.RatingReadProperties.ReadPath;
+
+/**
+ * Runtime switch between the JPA and JDBC read paths, through the {@code switchPath}
+ * operation. Exposed over JMX only, like the cache endpoint, so an unauthenticated HTTP
+ * client cannot change how lookups are served.
+ */
+@Component
+@Profile("!snapshot")
+@JmxEndpoint(id = "readpath")
+public class RatingReadPathEndpoint {
+
+    private final RoutingRatingSummaryReader routingRatingSummaryReader;
+
+    public RatingReadPathEndpoint(RoutingRatingSummaryReader routingRatingSummaryReader) {
+        this.routingRatingSummaryReader = routingRatingSummaryReader;
+    }
+
+    @ReadOperation
+    public Map<String, Object> path() {
+        return Map.of("path", routingRatingSummaryReader.getPath());
+    }
+
+    @WriteOperation
+    public Map<String, Object> switchPath(ReadPath path) {
+        routingRatingSummaryReader.setPath(path);
+        return path();
+    }
+}
@@ -0,0 +1,11 @@
+package com.aetna.ratings.repository;
+
+/**
+ * Receives averages one row at a time as primitives, so a caller can encode them straight
+ * from the result set without creating a {@code RatingSummary} per row.
+ */
+@FunctionalInterface
+public interface RatingRowHandler {
+
+    void accept(int movieId, double rating);
+}
@@ -0,0 +1,184 @@
+package com.aetna.ratings.repository;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Immutable, off-heap table of (movieId -> rating sum, rating count).
+ * <p>
+ * Entries live in a direct {@link ByteBuffer} as an open-addressing hash table with linear
+ * probing, so a snapshot of every movie costs 16 bytes per slot outside the Java heap and no
+ * boxed {@code Integer} or {@code RatingSummary} per movie. A slot with a zero count is empty.
+ * Snapshots are never mutated after {@link Builder#build()}, which lets readers use them
+ * without locking while a newer snapshot is being built.
+ */
+public final class RatingSnapshot {
+
+    private static final int SLOT_BYTES = 16;
+    private static final int COUNT_OFFSET = 4;
+    private static final int SUM_OFFSET = 8;
+    /** 1 GiB of slots, the largest power of two a direct buffer can address. */
+    private static final int MAX_CAPACITY = 1 << 26;
+
+    private static final RatingSnapshot EMPTY = new Builder(0).build();
+
+    private final ByteBuffer slots;
+    private final int mask;
+    private final int size;
+    private final long totalRatings;
+    private final long version;
+
+    private RatingSnapshot(ByteBuffer slots, int mask, int size, long totalRatings, long version) {
+        this.slots = slots;
+        this.mask = mask;
+        this.size = size;
+        this.totalRatings = totalRatings;
+        this.version = version;
+    }
+
+    public static RatingSnapshot empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    public boolean contains(int movieId) {
+        return slotOf(movieId) >= 0;
+    }
+
+    public int count(int movieId) {
+        int slot = slotOf(movieId);
+        return slot < 0 ? 0 : slots.getInt(slot + COUNT_OFFSET);
+    }
+
+    public double sum(int movieId) {
+        int slot = slotOf(movieId);
+        return slot < 0 ? 0 : slots.getDouble(slot + SUM_OFFSET);
+    }
+
+    /**
+     * @return the mean rating of the movie, or {@link Double#NaN} if it has no ratings
+     */
+    public double average(int movieId) {
+        int slot = slotOf(movieId);
+        if (slot < 0) {
+            return Double.NaN;
+        }
+        return slots.getDouble(slot + SUM_OFFSET) / slots.getInt(slot + COUNT_OFFSET);
+    }
+
+    /** Number of movies in the snapshot. */
+    public int size() {
+        return size;
+    }
+
+    public long totalRatings() {
+        return totalRatings;
+    }
+
+    /**
+     * The ratings version the snapshot was read at. Every movie in it shares this version, since
+     * none of them can change until the next snapshot replaces this one.
+     */
+    public long version() {
+        return version;
+    }
+
+    /** Off-heap bytes held by this snapshot. */
+    public long capacityBytes() {
+        return slots.capacity();
+    }
+
+    private int slotOf(int movieId) {
+        int index = mix(movieId) & mask;
+        while (true) {
+            int slot = index * SLOT_BYTES;
+            if (slots.getInt(slot + COUNT_OFFSET) == 0) {
+                return -1;
+            }
+            if (slots.getInt(slot) == movieId) {
+                return slot;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Collects rows into primitive arrays and lays them out into the hash table on
+     * {@link #build()}. Not thread-safe; one builder is used per refresh.
+     */
+    public static final class Builder {
+
+        private int[] movieIds;
+        private int[] counts;
+        private double[] sums;
+        private int size;
+        private long version;
+
+        private Builder(int expectedSize) {
+            int initial = Math.max(16, expectedSize);
+            this.movieIds = new int[initial];
+            this.counts = new int[initial];
+            this.sums = new double[initial];
+        }
+
+        public Builder add(int movieId, double ratingSum, int ratingCount) {
+            if (ratingCount <= 0) {
+                return this;
+            }
+            if (size == movieIds.length) {
+                int grown = movieIds.length * 2;
+                movieIds = Arrays.copyOf(movieIds, grown);
+                counts = Arrays.copyOf(counts, grown);
+                sums = Arrays.copyOf(sums, grown);
+            }
+            movieIds[size] = movieId;
+            counts[size] = ratingCount;
+            sums[size] = ratingSum;
+            size++;
+            return this;
+        }
+
+        public Builder version(long version) {
+            this.version = version;
+            return this;
+        }
+
+        public RatingSnapshot build() {
+            int capacity = Integer.highestOneBit(Math.max(2, size * 2 - 1)) << 1;
+            if (capacity > MAX_CAPACITY) {
+                throw new IllegalStateException("Too many movies for a rating snapshot: " + size);
+            }
+            ByteBuffer slots = ByteBuffer.allocateDirect(capacity * SLOT_BYTES).order(ByteOrder.nativeOrder());
+            int mask = capacity - 1;
+            int stored = 0;
+            long totalRatings = 0;
+            for (int i = 0; i < size; i++) {
+                int index = mix(movieIds[i]) & mask;
+                int slot = index * SLOT_BYTES;
+                while (slots.getInt(slot + COUNT_OFFSET) != 0 && slots.getInt(slot) != movieIds[i]) {
+                    index = (index + 1) & mask;
+                    slot = index * SLOT_BYTES;
+                }
+                if (slots.getInt(slot + COUNT_OFFSET) == 0) {
+                    stored++;
+                } else {
+                    totalRatings -= slots.getInt(slot + COUNT_OFFSET);
+                }
+                slots.putInt(slot, movieIds[i]);
+                slots.putInt(slot + COUNT_OFFSET, counts[i]);
+                slots.putDouble(slot + SUM_OFFSET, sums[i]);
+                totalRatings += counts[i];
+            }
+            return new RatingSnapshot(slots, mask, stored, totalRatings, version);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.aetna.ratings.repository;
+
+import com.aetna.ratings.dto.RatingSummary;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Read side of the per-movie rating averages. The default implementation is
+ * {@link MovieRatingStatsRepository}; alternative serving modes provide their own.
+ */
+public interface RatingSummaryReader {
+
+    Optional<RatingSummary> getAvgRatingForMovie(int movieId);
+
+    List<RatingSummary> getAvgRatingsForMoviesList(List<Integer> movieIds);
+
+    /**
+     * Same rows as {@link #getAvgRatingsForMoviesList(List)}, produced lazily. Implementations
+     * backed by a database cursor hold it open until the stream is closed.
+     */
+    default Stream<RatingSummary> streamAvgRatingsForMoviesList(List<Integer> movieIds) {
+        return getAvgRatingsForMoviesList(movieIds).stream();
+    }
+
+    /**
+     * {@link #streamAvgRatingsForMoviesList(List)} for IDs held in an array. Readers that bind
+     * the IDs themselves override this to avoid boxing them; the default boxes and delegates.
+     */
+    default Stream<RatingSummary> streamAvgRatingsForMoviesList(int[] movieIds) {
+        return streamAvgRatingsForMoviesList(IntStream.of(movieIds).boxed().toList());
+    }
+
+    /**
+     * Hands each row of {@link #streamAvgRatingsForMoviesList(int[])} to {@code handler} as it is
+     * read. Readers with direct access to the rows override this to skip the summary objects.
+     */
+    default void forEachAvgRating(int[] movieIds, RatingRowHandler handler) {
+        try (Stream<RatingSummary> ratings = streamAvgRatingsForMoviesList(movieIds)) {
+            ratings.forEach(summary -> handler.accept(summary.getMovieId(), summary.getRating()));
+        }
+    }
+
+    /**
+     * Hands the version of each movie in {@code movieIds} that has ratings to {@code handler}.
+     * Readers that can read the version on its own override this; the default reads the rows of
+     * {@link #streamAvgRatingsForMoviesList(int[])}.
+     */
+    default void forEachVersion(int[] movieIds, MovieVersionHandler handler) {
+        try (Stream<RatingSummary> ratings = streamAvgRatingsForMoviesList(movieIds)) {
+            ratings.forEach(summary -> handler.accept(summary.getMovieId(), summary.getVersion()));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.aetna.ratings.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.aetna.ratings.dto.Rating;
+
+/**
+ * Inserts ratings with JDBC batches, one transaction per call. The {@code movie_rating_stats}
+ * triggers run inside the same transaction, so the aggregates commit together with the rows.
+ */
+@Repository
+public class RatingsBatchWriter {
+
+    /** Update count for a row skipped by {@code OR IGNORE} because its ratingId already exists. */
+    public static final int DUPLICATE = 0;
+
+    private static final String INSERT_RATING =
+            "INSERT OR IGNORE INTO ratings (ratingId, userId, movieId, rating, timestamp) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String VERSION_QUERY = "SELECT version FROM rating_stats_version";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public RatingsBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return the update counts, and the version read back inside the same transaction so it is
+     *         the one this insert committed
+     */
+    @Transactional
+    public InsertedRatings insertBatch(List<Rating> ratings) {
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_RATING, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Rating rating = ratings.get(i);
+                if (rating.getRatingId() > 0) {
+                    ps.setInt(1, rating.getRatingId());
+                } else {
+                    // Lets SQLite assign the next rowid.
+                    ps.setNull(1, Types.INTEGER);
+                }
+                ps.setInt(2, rating.getUserId());
+                ps.setInt(3, rating.getMovieId());
+                ps.setDouble(4, rating.getRating());
+                ps.setLong(5, rating.getTimestamp());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ratings.size();
+            }
+        });
+        return new InsertedRatings(counts, jdbcTemplate.queryForObject(VERSION_QUERY, Long.class));
+    }
+}
@@ -0,0 +1,108 @@
+package com.aetna.ratings.repository;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.aetna.ratings.config.RatingReadProperties;
+import com.aetna.ratings.config.RatingReadProperties.ReadPath;
+import com.aetna.ratings.dto.RatingSummary;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends average lookups to either the JPA or the JDBC reader, chosen by
+ * {@code ratings.read.path} and switchable at runtime, so both paths can be compared on
+ * live traffic. Each call is timed as {@code ratings.reader} tagged with the path that served it
+ * and the operation; a stream is timed from when it is opened until it is closed.
+ * <p>
+ * Streams always come from the JDBC reader. A JPA query can only hold its cursor open inside the
+ * transaction that ran it, which ends long before a streamed response has been written, so on the
+ * JPA path every chunk would be read into a list first.
+ */
+@Repository
+@Primary
+@Profile("!snapshot")
+@Slf4j
+public class RoutingRatingSummaryReader implements RatingSummaryReader {
+
+    private final Map<ReadPath, RatingSummaryReader> readers = new EnumMap<>(ReadPath.class);
+    private final Map<ReadPath, Timer> singleTimers = new EnumMap<>(ReadPath.class);
+    private final Map<ReadPath, Timer> batchTimers = new EnumMap<>(ReadPath.class);
+    private final Map<ReadPath, Timer> forEachTimers = new EnumMap<>(ReadPath.class);
+    private final Timer streamTimer;
+    private final Timer versionsTimer;
+    private final MeterRegistry meterRegistry;
+    private volatile ReadPath path;
+
+    @Autowired
+    public RoutingRatingSummaryReader(MovieRatingStatsRepository movieRatingStatsRepository,
+            JdbcRatingSummaryReader jdbcRatingSummaryReader, RatingReadProperties properties, MeterRegistry meterRegistry) {
+        readers.put(ReadPath.JPA, movieRatingStatsRepository);
+        readers.put(ReadPath.JDBC, jdbcRatingSummaryReader);
+        for (ReadPath readPath : ReadPath.values()) {
+            String tag = readPath.name().toLowerCase();
+            singleTimers.put(readPath, Timer.builder("ratings.reader").tag("path", tag).tag("operation", "single").register(meterRegistry));
+            batchTimers.put(readPath, Timer.builder("ratings.reader").tag("path", tag).tag("operation", "batch").register(meterRegistry));
+            forEachTimers.put(readPath, Timer.builder("ratings.reader").tag("path", tag).tag("operation", "foreach").register(meterRegistry));
+        }
+        this.streamTimer = Timer.builder("ratings.reader").tag("path", "jdbc").tag("operation", "stream").register(meterRegistry);
+        this.versionsTimer = Timer.builder("ratings.reader").tag("path", "jdbc").tag("operation", "versions").register(meterRegistry);
+        this.meterRegistry = meterRegistry;
+        this.path = properties.getPath();
+    }
+
+    public ReadPath getPath() {
+        return path;
+    }
+
+    public void setPath(ReadPath path) {
+        log.info("Switching rating read path from " + this.path + " to " + path);
+        this.path = path;
+    }
+
+    @Override
+    public Optional<RatingSummary> getAvgRatingForMovie(int movieId) {
+        ReadPath current = path;
+        return singleTimers.get(current).record(() -> readers.get(current).getAvgRatingForMovie(movieId));
+    }
+
+    @Override
+    public List<RatingSummary> getAvgRatingsForMoviesList(List<Integer> movieIds) {
+        ReadPath current = path;
+        return batchTimers.get(current).record(() -> readers.get(current).getAvgRatingsForMoviesList(movieIds));
+    }
+
+    @Override
+    public Stream<RatingSummary> streamAvgRatingsForMoviesList(List<Integer> movieIds) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return readers.get(ReadPath.JDBC).streamAvgRatingsForMoviesList(movieIds).onClose(() -> sample.stop(streamTimer));
+    }
+
+    @Override
+    public Stream<RatingSummary> streamAvgRatingsForMoviesList(int[] movieIds) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return readers.get(ReadPath.JDBC).streamAvgRatingsForMoviesList(movieIds).onClose(() -> sample.stop(streamTimer));
+    }
+
+    @Override
+    public void forEachAvgRating(int[] movieIds, RatingRowHandler handler) {
+        ReadPath current = path;
+        forEachTimers.get(current).record(() -> readers.get(current).forEachAvgRating(movieIds, handler));
+    }
+
+    /** Both paths read the same column, so versions always come from the JDBC reader's version-only query. */
+    @Override
+    public void forEachVersion(int[] movieIds, MovieVersionHandler handler) {
+        versionsTimer.record(() -> readers.get(ReadPath.JDBC).forEachVersion(movieIds, handler));
+    }
+}
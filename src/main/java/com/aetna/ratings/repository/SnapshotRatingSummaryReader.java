@@ -0,0 +1,147 @@
+package com.aetna.ratings.repository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import com.aetna.ratings.config.SqliteDataSourceConfig;
+import com.aetna.ratings.dto.RatingSummary;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serves every average from an in-memory {@link RatingSnapshot} instead of querying SQLite.
+ * <p>
+ * Enabled with the {@code snapshot} profile. The snapshot is loaded from
+ * {@code movie_rating_stats} with plain JDBC at startup and rebuilt on a fixed delay; each
+ * refresh builds a complete new snapshot and publishes it with a single volatile write, so
+ * lookups never block and always see one consistent generation.
+ */
+@Repository
+@Primary
+@Profile("snapshot")
+@DependsOn("movieRatingStatsJob")
+@Slf4j
+public class SnapshotRatingSummaryReader implements RatingSummaryReader {
+
+    /** The version counter is read in the same statement, so it matches the rows exactly. */
+    private static final String SNAPSHOT_QUERY = "SELECT movieId, ratingSum, ratingCount, "
+            + "(SELECT version FROM rating_stats_version) FROM movie_rating_stats";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile RatingSnapshot snapshot = RatingSnapshot.empty();
+
+    @Autowired
+    public SnapshotRatingSummaryReader(@Qualifier(SqliteDataSourceConfig.READ_DATA_SOURCE) DataSource readDataSource) {
+        this.jdbcTemplate = new JdbcTemplate(readDataSource);
+    }
+
+    @PostConstruct
+    public void load() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${ratings.snapshot.refresh-interval:PT1M}",
+            initialDelayString = "${ratings.snapshot.refresh-interval:PT1M}")
+    public void refresh() {
+        long start = System.nanoTime();
+        RatingSnapshot.Builder builder = RatingSnapshot.builder(snapshot.size());
+        jdbcTemplate.query(SNAPSHOT_QUERY,
+                (RowCallbackHandler) rs -> builder.add(rs.getInt(1), rs.getDouble(2), rs.getInt(3)).version(rs.getLong(4)));
+        RatingSnapshot refreshed = builder.build();
+        snapshot = refreshed;
+        log.info("Loaded rating snapshot with " + refreshed.size() + " movies (" + refreshed.capacityBytes()
+                + " bytes off-heap) in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    public RatingSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public Optional<RatingSummary> getAvgRatingForMovie(int movieId) {
+        RatingSnapshot current = snapshot;
+        double average = current.average(movieId);
+        if (Double.isNaN(average)) {
+            return Optional.empty();
+        }
+        return Optional.of(new RatingSummary(movieId, round(average), current.version()));
+    }
+
+    @Override
+    public List<RatingSummary> getAvgRatingsForMoviesList(List<Integer> movieIds) {
+        RatingSnapshot current = snapshot;
+        List<RatingSummary> ratings = new ArrayList<>(movieIds.size());
+        Set<Integer> seen = new HashSet<>(movieIds.size() * 2);
+        for (Integer movieId : movieIds) {
+            if (movieId == null || !seen.add(movieId)) {
+                continue;
+            }
+            double average = current.average(movieId);
+            if (!Double.isNaN(average)) {
+                ratings.add(new RatingSummary(movieId, round(average), current.version()));
+            }
+        }
+        return ratings;
+    }
+
+    @Override
+    public Stream<RatingSummary> streamAvgRatingsForMoviesList(int[] movieIds) {
+        RatingSnapshot current = snapshot;
+        Stream.Builder<RatingSummary> ratings = Stream.builder();
+        forEachAvgRating(current, movieIds, (movieId, rating) -> ratings.add(new RatingSummary(movieId, rating, current.version())));
+        return ratings.build();
+    }
+
+    /**
+     * Chunks are distinct IDs padded by repeating the last one, so skipping an ID equal to its
+     * predecessor is enough to drop the padding.
+     */
+    @Override
+    public void forEachAvgRating(int[] movieIds, RatingRowHandler handler) {
+        forEachAvgRating(snapshot, movieIds, handler);
+    }
+
+    @Override
+    public void forEachVersion(int[] movieIds, MovieVersionHandler handler) {
+        RatingSnapshot current = snapshot;
+        for (int i = 0; i < movieIds.length; i++) {
+            if ((i == 0 || movieIds[i] != movieIds[i - 1]) && current.contains(movieIds[i])) {
+                handler.accept(movieIds[i], current.version());
+            }
+        }
+    }
+
+    private static void forEachAvgRating(RatingSnapshot current, int[] movieIds, RatingRowHandler handler) {
+        for (int i = 0; i < movieIds.length; i++) {
+            if (i > 0 && movieIds[i] == movieIds[i - 1]) {
+                continue;
+            }
+            double average = current.average(movieIds[i]);
+            if (!Double.isNaN(average)) {
+                handler.accept(movieIds[i], round(average));
+            }
+        }
+    }
+
+    /** Same rounding as {@code ROUND(x, 1)} in the SQL read paths. */
+    static double round(double average) {
+        return Math.round(average * 10) / 10.0;
+    }
+}
@@ -0,0 +1,113 @@
+package com.aetna.ratings.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Repository;
+
+import com.aetna.ratings.config.SqliteDataSourceConfig;
+import com.aetna.ratings.dto.UserRating;
+
+/**
+ * Reads a user's raw ratings through {@code ratings_userId_movieId_index}. The index is ordered
+ * by user, movie and then rowid ({@code ratingId}), so pages come off it in (movieId, ratingId)
+ * order without a sort and a page stops reading once it is full. Pages are keyed by the last
+ * (movieId, ratingId) seen rather than an offset, so a deep page costs the same as the first.
+ * Queries run on the read-only connection pool.
+ */
+@Repository
+public class UserRatingsReader {
+
+    static final String PAGE_QUERY = "SELECT ratingId, movieId, rating, timestamp FROM ratings "
+            + "WHERE userId = ? AND (movieId, ratingId) > (?, ?) ORDER BY movieId, ratingId LIMIT ?";
+
+    private static final String SELECT_FOR_MOVIES = "SELECT ratingId, movieId, rating, timestamp FROM ratings WHERE userId = ? AND movieId ";
+
+    private static final ResultSetExtractor<List<UserRating>> RATINGS_EXTRACTOR = UserRatingsReader::read;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Integer, String> inQueries = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UserRatingsReader(@Qualifier(SqliteDataSourceConfig.READ_DATA_SOURCE) DataSource readDataSource) {
+        this.jdbcTemplate = new JdbcTemplate(readDataSource);
+    }
+
+    /**
+     * Up to {@code limit} of the user's ratings that sort after ({@code afterMovieId}, {@code afterRatingId});
+     * pass zeros for the first page.
+     */
+    public List<UserRating> getUserRatings(int userId, int afterMovieId, int afterRatingId, int limit) {
+        return jdbcTemplate.query(PAGE_QUERY, ps -> bindPage(ps, userId, afterMovieId, afterRatingId, limit), RATINGS_EXTRACTOR);
+    }
+
+    /**
+     * The first {@code limit} ratings of each user, in the order the IDs are given. One prepared
+     * statement on one connection is re-executed per user, so each user costs a single index seek.
+     */
+    public List<List<UserRating>> getUsersRatings(int[] userIds, int limit) {
+        return jdbcTemplate.execute((ConnectionCallback<List<List<UserRating>>>) connection -> {
+            List<List<UserRating>> ratings = new ArrayList<>(userIds.length);
+            try (PreparedStatement ps = connection.prepareStatement(PAGE_QUERY)) {
+                for (int userId : userIds) {
+                    bindPage(ps, userId, 0, 0, limit);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        ratings.add(read(rs));
+                    }
+                }
+            }
+            return ratings;
+        });
+    }
+
+    /**
+     * The user's ratings of the given movies in (movieId, ratingId) order; movies the user has not
+     * rated are left out. Repeated IDs, such as chunk padding, match once.
+     */
+    public List<UserRating> getUserRatingsForMovies(int userId, int[] movieIds) {
+        if (movieIds.length == 0) {
+            return List.of();
+        }
+        return jdbcTemplate.query(inQueries.computeIfAbsent(movieIds.length, UserRatingsReader::inQuery), ps -> {
+            ps.setInt(1, userId);
+            for (int i = 0; i < movieIds.length; i++) {
+                ps.setInt(i + 2, movieIds[i]);
+            }
+        }, RATINGS_EXTRACTOR);
+    }
+
+    static String inQuery(int size) {
+        StringBuilder sql = new StringBuilder(SELECT_FOR_MOVIES.length() + 40 + size * 2).append(SELECT_FOR_MOVIES).append("IN (");
+        for (int i = 0; i < size; i++) {
+            sql.append(i == 0 ? "?" : ",?");
+        }
+        return sql.append(") ORDER BY movieId, ratingId").toString();
+    }
+
+    private static void bindPage(PreparedStatement ps, int userId, int afterMovieId, int afterRatingId, int limit) throws SQLException {
+        ps.setInt(1, userId);
+        ps.setInt(2, afterMovieId);
+        ps.setInt(3, afterRatingId);
+        ps.setInt(4, limit);
+    }
+
+    private static List<UserRating> read(ResultSet rs) throws SQLException {
+        List<UserRating> ratings = new ArrayList<>();
+        while (rs.next()) {
+            ratings.add(new UserRating(rs.getInt(1), rs.getInt(2), rs.getDouble(3), rs.getLong(4)));
+        }
+        return ratings;
+    }
+}
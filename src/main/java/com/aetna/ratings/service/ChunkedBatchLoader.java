@@ -0,0 +1,210 @@
+package com.aetna.ratings.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.aetna.ratings.config.RatingBatchProperties;
+import com.aetna.ratings.dto.RatingSummary;
+import com.aetna.ratings.repository.MovieVersionHandler;
+import com.aetna.ratings.repository.RatingRowHandler;
+import com.aetna.ratings.repository.RatingSummaryReader;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Loads averages for large ID lists in fixed-size chunks.
+ * <p>
+ * Each chunk is padded up to a power of two (between {@code min-chunk-size} and
+ * {@code chunk-size}) by repeating its last ID, so only a handful of distinct
+ * {@code IN (...)} statement shapes ever reach SQLite and Hibernate's plan cache, and no
+ * query exceeds the bound-parameter limit. Chunks run in parallel on a small bounded pool;
+ * when its queue is full the requesting thread runs the chunk itself, which throttles
+ * callers instead of queueing without limit.
+ */
+@Component
+public class ChunkedBatchLoader {
+
+    private final RatingSummaryReader ratingSummaryReader;
+    private final int maxBatchSize;
+    private final int maxStreamSize;
+    private final int chunkSize;
+    private final int minChunkSize;
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public ChunkedBatchLoader(RatingSummaryReader ratingSummaryReader, RatingBatchProperties properties) {
+        if (properties.getChunkSize() < 1 || properties.getMinChunkSize() < 1 || properties.getParallelism() < 1
+                || properties.getMaxSize() < 1 || properties.getMaxStreamSize() < 1 || properties.getQueueCapacity() < 1) {
+            throw new IllegalStateException("ratings.batch sizes and parallelism must be positive");
+        }
+        this.ratingSummaryReader = ratingSummaryReader;
+        this.maxBatchSize = properties.getMaxSize();
+        this.maxStreamSize = properties.getMaxStreamSize();
+        this.chunkSize = properties.getChunkSize();
+        this.minChunkSize = Math.min(properties.getMinChunkSize(), chunkSize);
+        this.executor = new ThreadPoolExecutor(properties.getParallelism(), properties.getParallelism(),
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                daemonThreads("ratings-batch-"), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public int getMaxStreamSize() {
+        return maxStreamSize;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @param movieIds distinct movie IDs
+     * @return summaries for the movies that have ratings, in the order of {@code movieIds}
+     */
+    public List<RatingSummary> load(List<Integer> movieIds) {
+        if (movieIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (movieIds.size() <= chunkSize) {
+            return inRequestOrder(movieIds, Collections.singletonList(ratingSummaryReader.getAvgRatingsForMoviesList(pad(movieIds))));
+        }
+        List<CompletableFuture<List<RatingSummary>>> chunks = new ArrayList<>();
+        for (int from = 0; from < movieIds.size(); from += chunkSize) {
+            List<Integer> chunk = pad(movieIds.subList(from, Math.min(from + chunkSize, movieIds.size())));
+            chunks.add(CompletableFuture.supplyAsync(() -> ratingSummaryReader.getAvgRatingsForMoviesList(chunk), executor));
+        }
+        List<List<RatingSummary>> results = new ArrayList<>(chunks.size());
+        for (CompletableFuture<List<RatingSummary>> chunk : chunks) {
+            results.add(join(chunk));
+        }
+        return inRequestOrder(movieIds, results);
+    }
+
+    /**
+     * Streams summaries chunk by chunk on the calling thread, so at most one chunk's rows are
+     * in flight regardless of how many IDs are requested. Rows follow database order within
+     * each chunk rather than request order.
+     *
+     * @param movieIds distinct movie IDs
+     */
+    public Stream<RatingSummary> stream(int[] movieIds) {
+        int chunks = (movieIds.length + chunkSize - 1) / chunkSize;
+        return IntStream.range(0, chunks).boxed()
+                .flatMap(chunk -> ratingSummaryReader.streamAvgRatingsForMoviesList(
+                        pad(movieIds, chunk * chunkSize, Math.min((chunk + 1) * chunkSize, movieIds.length))));
+    }
+
+    /**
+     * Like {@link #stream(int[])}, but hands each row to {@code handler} as the reader produces
+     * it instead of building summaries.
+     *
+     * @param movieIds distinct movie IDs
+     */
+    public void forEach(int[] movieIds, RatingRowHandler handler) {
+        for (int from = 0; from < movieIds.length; from += chunkSize) {
+            ratingSummaryReader.forEachAvgRating(pad(movieIds, from, Math.min(from + chunkSize, movieIds.length)), handler);
+        }
+    }
+
+    /**
+     * Hands over the version of each movie that has ratings, chunked like {@link #forEach(int[], RatingRowHandler)}.
+     *
+     * @param movieIds distinct movie IDs
+     */
+    public void forEachVersion(int[] movieIds, MovieVersionHandler handler) {
+        for (int from = 0; from < movieIds.length; from += chunkSize) {
+            ratingSummaryReader.forEachVersion(pad(movieIds, from, Math.min(from + chunkSize, movieIds.length)), handler);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    List<Integer> pad(List<Integer> chunk) {
+        int padded = minChunkSize;
+        while (padded < chunk.size()) {
+            padded <<= 1;
+        }
+        padded = Math.min(padded, chunkSize);
+        if (padded <= chunk.size()) {
+            return chunk;
+        }
+        List<Integer> paddedChunk = new ArrayList<>(padded);
+        paddedChunk.addAll(chunk);
+        Integer last = chunk.get(chunk.size() - 1);
+        while (paddedChunk.size() < padded) {
+            paddedChunk.add(last);
+        }
+        return paddedChunk;
+    }
+
+    /** {@link #pad(List)} for the chunk {@code movieIds[from, to)}, copied into a new array. */
+    int[] pad(int[] movieIds, int from, int to) {
+        int size = to - from;
+        int padded = minChunkSize;
+        while (padded < size) {
+            padded <<= 1;
+        }
+        padded = Math.max(Math.min(padded, chunkSize), size);
+        int[] chunk = Arrays.copyOfRange(movieIds, from, from + padded);
+        Arrays.fill(chunk, size, padded, movieIds[to - 1]);
+        return chunk;
+    }
+
+    private static List<RatingSummary> inRequestOrder(List<Integer> movieIds, List<List<RatingSummary>> results) {
+        Map<Integer, RatingSummary> byMovieId = new HashMap<>(movieIds.size() * 2);
+        for (List<RatingSummary> result : results) {
+            for (RatingSummary summary : result) {
+                byMovieId.put(summary.getMovieId(), summary);
+            }
+        }
+        List<RatingSummary> ratings = new ArrayList<>(byMovieId.size());
+        for (Integer movieId : movieIds) {
+            RatingSummary summary = byMovieId.get(movieId);
+            if (summary != null) {
+                ratings.add(summary);
+            }
+        }
+        return ratings;
+    }
+
+    private static List<RatingSummary> join(CompletableFuture<List<RatingSummary>> chunk) {
+        try {
+            return chunk.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
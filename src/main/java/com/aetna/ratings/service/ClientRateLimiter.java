@@ -0,0 +1,145 @@
+package com.aetna.ratings.service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.aetna.ratings.config.RatingRateLimitProperties;
+import com.aetna.ratings.exception.RateLimitExceededException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * A token bucket per clientRefId, so one caller sending large batches uses up its own budget
+ * instead of everyone's. A lookup costs one token per movie ID requested.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will be full again
+ * (the generic cell rate algorithm). Taking tokens is one compare-and-set with no lock, and
+ * refilling needs no background work. A request costing more than the whole bucket is
+ * charged the bucket's capacity, so large batches remain possible from a full bucket.
+ * <p>
+ * Buckets live in a size-bounded cache and are dropped once idle. Tokens consumed and
+ * requests rejected are exported per client as {@code ratings.ratelimit.consumed} and
+ * {@code ratings.ratelimit.rejected}. Only the first {@code metrics-clients} clients are
+ * tagged by name; the rest are reported as {@code other}.
+ */
+@Component
+public class ClientRateLimiter {
+
+    static final String OTHER_CLIENTS = "other";
+
+    private final RatingRateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+    private final Cache<String, TokenBucket> buckets;
+    private final Set<String> taggedClients = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public ClientRateLimiter(RatingRateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    ClientRateLimiter(RatingRateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        if (properties.getTokensPerSecond() <= 0 || properties.getBurst() < 1) {
+            throw new IllegalStateException("ratings.ratelimit.tokens-per-second and burst must be positive");
+        }
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+    }
+
+    /**
+     * Takes {@code cost} tokens from the client's bucket, or throws
+     * {@link RateLimitExceededException} with the time until enough have been refilled.
+     */
+    public void acquire(String clientRefId, int cost) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String client = clientRefId != null ? clientRefId : properties.getAnonymousClient();
+        TokenBucket bucket = buckets.get(client, this::newBucket);
+        long waitNanos = bucket.tryAcquire(cost, nanoClock.getAsLong());
+        if (waitNanos > 0) {
+            bucket.rejected.increment();
+            throw new RateLimitExceededException("Request rate limit exceeded for client " + client + ", please retry later",
+                    Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1)));
+        }
+        bucket.consumed.increment(Math.min(cost, properties.getBurst()));
+    }
+
+    private TokenBucket newBucket(String client) {
+        double tokensPerSecond = properties.getClientTokensPerSecond().getOrDefault(client, properties.getTokensPerSecond());
+        String tag = metricsTag(client);
+        return new TokenBucket(
+                Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / tokensPerSecond)),
+                properties.getBurst(),
+                Counter.builder("ratings.ratelimit.consumed")
+                        .description("Rate limit tokens consumed, one per requested movie ID")
+                        .tag("client", tag)
+                        .register(meterRegistry),
+                Counter.builder("ratings.ratelimit.rejected")
+                        .description("Lookups rejected because the client was over its rate limit")
+                        .tag("client", tag)
+                        .register(meterRegistry));
+    }
+
+    private String metricsTag(String client) {
+        if (taggedClients.contains(client)) {
+            return client;
+        }
+        synchronized (taggedClients) {
+            if (taggedClients.size() < properties.getMetricsClients()) {
+                taggedClients.add(client);
+                return client;
+            }
+        }
+        return OTHER_CLIENTS;
+    }
+
+    static final class TokenBucket {
+        private final long nanosPerToken;
+        private final long capacity;
+        private final long capacityNanos;
+        /** When the bucket will be full again; anything at or before now means full. */
+        private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+        private final Counter consumed;
+        private final Counter rejected;
+
+        TokenBucket(long nanosPerToken, long capacity, Counter consumed, Counter rejected) {
+            this.nanosPerToken = nanosPerToken;
+            this.capacity = capacity;
+            this.capacityNanos = Math.multiplyExact(nanosPerToken, capacity);
+            this.consumed = consumed;
+            this.rejected = rejected;
+        }
+
+        /** Returns 0 when the tokens were taken, otherwise how long until they would be available. */
+        long tryAcquire(int cost, long now) {
+            long costNanos = Math.min(cost, capacity) * nanosPerToken;
+            while (true) {
+                long current = fullAt.get();
+                long next = Math.max(current, now) + costNanos;
+                long debt = next - now - capacityNanos;
+                if (debt > 0) {
+                    return debt;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
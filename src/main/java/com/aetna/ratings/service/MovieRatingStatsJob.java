@@ -0,0 +1,99 @@
+package com.aetna.ratings.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aetna.ratings.config.RatingStatsProperties;
+import com.aetna.ratings.repository.MovieRatingStatsRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps {@code movie_rating_stats} and {@code movie_rating_histogram} in step with the raw
+ * {@code ratings} table.
+ * <p>
+ * Ratings are also written to SQLite outside of this service, so the aggregates are maintained by
+ * triggers created in the {@code V2} and {@code V5} migrations rather than by application code.
+ * This job verifies them against a full {@code GROUP BY} over {@code ratings} on startup and on
+ * a schedule, and rebuilds them when they have drifted apart.
+ */
+@Component
+@Slf4j
+public class MovieRatingStatsJob {
+
+    private final MovieRatingStatsRepository movieRatingStatsRepository;
+    private final RatingSummaryCache ratingSummaryCache;
+    private final TransactionTemplate transactionTemplate;
+    private final RatingStatsProperties properties;
+
+    @Autowired
+    public MovieRatingStatsJob(MovieRatingStatsRepository movieRatingStatsRepository, RatingSummaryCache ratingSummaryCache,
+            PlatformTransactionManager transactionManager, RatingStatsProperties properties) {
+        this.movieRatingStatsRepository = movieRatingStatsRepository;
+        this.ratingSummaryCache = ratingSummaryCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        if (properties.isVerifyOnStartup()) {
+            verifyAndRepair();
+        }
+    }
+
+    @Scheduled(cron = "${ratings.stats.verify-cron:0 0 3 * * *}")
+    public void scheduledVerify() {
+        verifyAndRepair();
+    }
+
+    /**
+     * @return number of movies and histogram buckets whose stored aggregate does not match the
+     *         raw ratings table
+     */
+    public long verify() {
+        long stale = movieRatingStatsRepository.countStaleMovieStats();
+        long orphaned = movieRatingStatsRepository.countOrphanedMovieStats();
+        long staleBuckets = movieRatingStatsRepository.countStaleRatingHistograms();
+        if (stale + orphaned > 0) {
+            log.warn("movie_rating_stats is out of date: " + stale + " stale and " + orphaned + " orphaned movies");
+        } else {
+            log.info("movie_rating_stats verified against ratings table");
+        }
+        if (staleBuckets > 0) {
+            log.warn("movie_rating_histogram is out of date: " + staleBuckets + " stale buckets");
+        }
+        return stale + orphaned + staleBuckets;
+    }
+
+    /**
+     * Recomputes every aggregate and histogram from the raw ratings table in a single
+     * transaction, so readers see either the old or the new tables, never a partially rebuilt one.
+     */
+    public int rebuild() {
+        Integer movies = transactionTemplate.execute(status -> {
+            movieRatingStatsRepository.deleteAllMovieStats();
+            movieRatingStatsRepository.incrementStatsVersion();
+            movieRatingStatsRepository.deleteAllRatingHistograms();
+            movieRatingStatsRepository.rebuildAllRatingHistograms();
+            return movieRatingStatsRepository.rebuildAllMovieStats();
+        });
+        ratingSummaryCache.invalidateAll();
+        log.info("Rebuilt movie_rating_stats for " + movies + " movies");
+        return movies == null ? 0 : movies;
+    }
+
+    private void verifyAndRepair() {
+        try {
+            if (verify() > 0 && properties.isAutoRepair()) {
+                rebuild();
+            }
+        } catch (RuntimeException e) {
+            log.error("movie_rating_stats verification failed", e);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.aetna.ratings.service;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.aetna.ratings.config.RatedMovieFilterProperties;
+import com.aetna.ratings.repository.MovieTotalsReader;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One bit per movie ID, set when the movie has at least one rating, so lookups of IDs that were
+ * never rated are answered without reaching the cache, the batchers or SQLite.
+ * <p>
+ * Movie IDs are dense, so a plain bitset over {@code 0..max-movie-id} is exact where a Bloom
+ * filter would only be probable, and costs an eighth of a byte per ID up to the highest one rated.
+ * The bitset is loaded from {@code movie_rating_stats} at startup and rebuilt each
+ * {@code refresh-interval} to pick up ratings written by other processes; ratings accepted by the
+ * ingestion service set their bit as they commit. A movie whose last rating is deleted keeps its
+ * bit until the next rebuild, which only costs a database lookup. IDs above {@code max-movie-id},
+ * and every ID until the first load succeeds, are reported as possibly rated.
+ * <p>
+ * Writers are serialized on this object; readers only read the published array, whose words are
+ * read and written atomically.
+ */
+@Component
+@DependsOn("movieRatingStatsJob")
+@Slf4j
+public class RatedMovieFilter {
+
+    private final MovieTotalsReader movieTotalsReader;
+    private final RatedMovieFilterProperties properties;
+    private final Counter skipped;
+    private volatile AtomicLongArray words;
+
+    @Autowired
+    public RatedMovieFilter(MovieTotalsReader movieTotalsReader, RatedMovieFilterProperties properties, MeterRegistry meterRegistry) {
+        if (properties.getMaxMovieId() < 0) {
+            throw new IllegalStateException("ratings.rated-movie-filter.max-movie-id cannot be negative");
+        }
+        this.movieTotalsReader = movieTotalsReader;
+        this.properties = properties;
+        this.skipped = Counter.builder("ratings.rated.movie.filter.skipped")
+                .description("Requested movies answered as unrated without a cache or database lookup")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!properties.isEnabled()) {
+            log.info("Rated movie filter is disabled");
+            return;
+        }
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${ratings.rated-movie-filter.refresh-interval:PT1M}",
+            initialDelayString = "${ratings.rated-movie-filter.refresh-interval:PT1M}")
+    public void refresh() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            // The current bitset keeps serving, and recording, until the next rebuild succeeds.
+            log.error("Could not rebuild the rated movie filter", e);
+            return;
+        }
+        log.info("Rebuilt rated movie filter over " + words.length() * 64L + " movie IDs in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    private synchronized void reload() {
+        BitSet rated = new BitSet();
+        int maxMovieId = properties.getMaxMovieId();
+        movieTotalsReader.forEachRatedMovie(movieId -> {
+            if (movieId >= 0 && movieId <= maxMovieId) {
+                rated.set(movieId);
+            }
+        });
+        words = new AtomicLongArray(rated.toLongArray());
+    }
+
+    /**
+     * Sets the bit of a movie whose rating has just committed.
+     */
+    public synchronized void record(int movieId) {
+        AtomicLongArray current = words;
+        if (current == null || movieId < 0 || movieId > properties.getMaxMovieId()) {
+            return;
+        }
+        int word = movieId >>> 6;
+        if (word >= current.length()) {
+            int maxWords = (properties.getMaxMovieId() >>> 6) + 1;
+            AtomicLongArray grown = new AtomicLongArray((int) Math.min(maxWords, Math.max(word + 1L, current.length() * 2L)));
+            for (int i = 0; i < current.length(); i++) {
+                grown.set(i, current.get(i));
+            }
+            grown.set(word, 1L << movieId);
+            words = grown;
+            return;
+        }
+        current.set(word, current.get(word) | 1L << movieId);
+    }
+
+    /**
+     * False only when the movie is known to have no ratings.
+     */
+    public boolean mightHaveRatings(int movieId) {
+        if (isRated(words, movieId)) {
+            return true;
+        }
+        skipped.increment();
+        return false;
+    }
+
+    /**
+     * The IDs that might have ratings, in their original order; the array itself when none are
+     * known to be unrated.
+     */
+    public int[] retainRated(int[] movieIds) {
+        AtomicLongArray current = words;
+        if (current == null) {
+            return movieIds;
+        }
+        int[] rated = null;
+        int count = 0;
+        for (int i = 0; i < movieIds.length; i++) {
+            if (isRated(current, movieIds[i])) {
+                if (rated != null) {
+                    rated[count] = movieIds[i];
+                }
+                count++;
+            } else if (rated == null) {
+                rated = Arrays.copyOf(movieIds, movieIds.length);
+            }
+        }
+        if (rated == null) {
+            return movieIds;
+        }
+        skipped.increment(movieIds.length - count);
+        return Arrays.copyOf(rated, count);
+    }
+
+    private boolean isRated(AtomicLongArray current, int movieId) {
+        if (current == null || movieId < 0 || movieId > properties.getMaxMovieId()) {
+            return true;
+        }
+        int word = movieId >>> 6;
+        return word < current.length() && (current.get(word) & 1L << movieId) != 0;
+    }
+}
@@ -0,0 +1,11 @@
+package com.aetna.ratings.service;
+
+import com.aetna.ratings.dto.RatingDistribution;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface RatingDistributionService {
+    Optional<RatingDistribution> getMovieDistribution(int movieId);
+    List<RatingDistribution> getMovieDistributions(int[] movieIds);
+}
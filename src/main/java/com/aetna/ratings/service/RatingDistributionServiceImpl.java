@@ -0,0 +1,160 @@
+package com.aetna.ratings.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.aetna.ratings.config.RatingDistributionProperties;
+import com.aetna.ratings.dto.RatingDistribution;
+import com.aetna.ratings.exception.RatingsServiceException;
+import com.aetna.ratings.repository.RatingHistogram;
+import com.aetna.ratings.repository.RatingHistogramReader;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Builds rating distributions from the per-movie half-star histograms. Every figure, including
+ * the vote count and the sum behind the Bayesian average, is derived from the ten bucket counts,
+ * so a lookup costs the same however many ratings a movie has.
+ * <p>
+ * The catalog-wide mean used as the Bayesian prior is read from {@code movie_rating_stats} at
+ * most once per {@code prior-mean-refresh}, unless a fixed {@code prior-mean} is configured.
+ */
+@Service
+@Slf4j
+public class RatingDistributionServiceImpl implements RatingDistributionService {
+
+    public RatingHistogramReader ratingHistogramReader;
+    public ChunkedBatchLoader chunkedBatchLoader;
+    private final RatingDistributionProperties properties;
+    private final LongSupplier nanoClock;
+    private volatile PriorMean priorMean;
+
+    @Autowired
+    public RatingDistributionServiceImpl(RatingHistogramReader ratingHistogramReader, ChunkedBatchLoader chunkedBatchLoader,
+            RatingDistributionProperties properties) {
+        this(ratingHistogramReader, chunkedBatchLoader, properties, System::nanoTime);
+    }
+
+    RatingDistributionServiceImpl(RatingHistogramReader ratingHistogramReader, ChunkedBatchLoader chunkedBatchLoader,
+            RatingDistributionProperties properties, LongSupplier nanoClock) {
+        if (properties.getPriorWeight() < 0) {
+            throw new IllegalStateException("ratings.distribution.prior-weight cannot be negative");
+        }
+        this.ratingHistogramReader = ratingHistogramReader;
+        this.chunkedBatchLoader = chunkedBatchLoader;
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public Optional<RatingDistribution> getMovieDistribution(int movieId) {
+        if (movieId < 0) {
+            throw new IllegalArgumentException("Movie ID cannot be negative");
+        }
+        try {
+            List<RatingHistogram> histograms = ratingHistogramReader.getHistograms(new int[] {movieId});
+            if (histograms.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(toDistribution(histograms.get(0), priorMean(), properties.getPriorWeight()));
+        } catch (RuntimeException e) {
+            throw new RatingsServiceException("An error occurred while retrieving the rating distribution for ID: " + movieId, e);
+        }
+    }
+
+    /**
+     * Distributions in request order, one per distinct ID; movies without ratings are left out.
+     * IDs are read in padded chunks like average lookups, so the same few statement shapes are reused.
+     */
+    @Override
+    public List<RatingDistribution> getMovieDistributions(int[] movieIds) {
+        if (movieIds == null || movieIds.length == 0) {
+            throw new IllegalArgumentException("Movie IDs list cannot be null or empty");
+        }
+        if (movieIds.length > chunkedBatchLoader.getMaxBatchSize()) {
+            throw new IllegalArgumentException("Movie IDs list cannot contain more than " + chunkedBatchLoader.getMaxBatchSize() + " IDs");
+        }
+        int[] distinctMovieIds = RatingsServiceImpl.distinct(movieIds);
+        log.info("Retrieving rating distributions for " + distinctMovieIds.length + " movies");
+        try {
+            int chunkSize = chunkedBatchLoader.getChunkSize();
+            Map<Integer, RatingHistogram> byMovieId = new HashMap<>(distinctMovieIds.length * 2);
+            for (int from = 0; from < distinctMovieIds.length; from += chunkSize) {
+                int[] chunk = chunkedBatchLoader.pad(distinctMovieIds, from, Math.min(from + chunkSize, distinctMovieIds.length));
+                for (RatingHistogram histogram : ratingHistogramReader.getHistograms(chunk)) {
+                    byMovieId.put(histogram.getMovieId(), histogram);
+                }
+            }
+            double mean = priorMean();
+            List<RatingDistribution> distributions = new ArrayList<>(byMovieId.size());
+            for (int movieId : distinctMovieIds) {
+                RatingHistogram histogram = byMovieId.get(movieId);
+                if (histogram != null) {
+                    distributions.add(toDistribution(histogram, mean, properties.getPriorWeight()));
+                }
+            }
+            return distributions;
+        } catch (RuntimeException e) {
+            throw new RatingsServiceException("An error occurred while retrieving rating distributions for the provided list of movie IDs.", e);
+        }
+    }
+
+    static RatingDistribution toDistribution(RatingHistogram histogram, double priorMean, double priorWeight) {
+        Map<String, Long> distribution = new LinkedHashMap<>();
+        long votes = 0;
+        double sum = 0;
+        for (int bucket = 0; bucket < RatingHistogram.BUCKETS; bucket++) {
+            long count = histogram.getCount(bucket);
+            distribution.put(String.valueOf(RatingHistogram.rating(bucket)), count);
+            votes += count;
+            sum += count * RatingHistogram.rating(bucket);
+        }
+        // With no usable prior the damped average falls back to the plain mean.
+        double bayesianAverage = Double.isNaN(priorMean)
+                ? sum / votes
+                : (priorWeight * priorMean + sum) / (priorWeight + votes);
+        return new RatingDistribution(histogram.getMovieId(), votes, distribution,
+                percentile(histogram, votes, 0.5), percentile(histogram, votes, 0.9),
+                Math.round(bayesianAverage * 100) / 100.0);
+    }
+
+    /**
+     * Nearest-rank percentile: the rating of the {@code ceil(p * votes)}-th smallest vote.
+     */
+    static double percentile(RatingHistogram histogram, long votes, double p) {
+        long rank = Math.max(1, (long) Math.ceil(p * votes));
+        long seen = 0;
+        for (int bucket = 0; bucket < RatingHistogram.BUCKETS; bucket++) {
+            seen += histogram.getCount(bucket);
+            if (seen >= rank) {
+                return RatingHistogram.rating(bucket);
+            }
+        }
+        return RatingHistogram.rating(RatingHistogram.BUCKETS - 1);
+    }
+
+    private double priorMean() {
+        if (properties.getPriorMean() != null) {
+            return properties.getPriorMean();
+        }
+        long now = nanoClock.getAsLong();
+        PriorMean current = priorMean;
+        if (current == null || now - current.loadedAt >= TimeUnit.NANOSECONDS.convert(properties.getPriorMeanRefresh())) {
+            current = new PriorMean(ratingHistogramReader.getMeanRating(), now);
+            priorMean = current;
+        }
+        return current.value;
+    }
+
+    private record PriorMean(double value, long loadedAt) {
+    }
+}
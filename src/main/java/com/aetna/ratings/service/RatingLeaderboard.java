@@ -0,0 +1,326 @@
+package com.aetna.ratings.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.aetna.ratings.config.RatingDistributionProperties;
+import com.aetna.ratings.config.RatingLeaderboardProperties;
+import com.aetna.ratings.dto.LeaderboardEntry;
+import com.aetna.ratings.dto.LeaderboardPage;
+import com.aetna.ratings.repository.MovieTotalsReader;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Movies ranked by Bayesian average, kept in memory so a leaderboard page is a walk from the
+ * head of a sorted set instead of a {@code GROUP BY} and {@code ORDER BY} over {@code ratings}.
+ * <p>
+ * There is one board for all time and one per configured trailing window. Each board is a
+ * {@link ConcurrentSkipListSet} ordered by score, then vote count, then movie ID, plus a map
+ * from movie ID to its current entry. Ratings accepted by the ingestion service are applied as
+ * they commit by replacing the movie's entry, an O(log n) update that never blocks readers.
+ * Serving a page costs the walk to its offset, skipping movies under the minimum vote count.
+ * <p>
+ * Every board is rebuilt from the database each {@code refresh-interval}, which picks up
+ * ratings written by other processes and drops ratings that have aged out of a window. The
+ * prior mean a board is damped towards is fixed at each rebuild (or set by
+ * {@code ratings.distribution.prior-mean}), so an update only ever moves the entry it touches.
+ * A rebuild reads without holding the board, so ratings keep being applied while it runs; the
+ * ones committed after the version it read at are replayed onto the new ranking before it
+ * replaces the old one, and the ones the read already counted are not.
+ * Scores use the same formula and prior weight as the distribution endpoints.
+ */
+@Component
+@DependsOn("movieRatingStatsJob")
+@Slf4j
+public class RatingLeaderboard {
+
+    static final String ALL_TIME = "all";
+
+    private final MovieTotalsReader movieTotalsReader;
+    private final RatingLeaderboardProperties properties;
+    private final RatingDistributionProperties distributionProperties;
+    private final Clock clock;
+    private final Board allTime = new Board(null);
+    private final Map<Duration, Board> windows = new LinkedHashMap<>();
+
+    @Autowired
+    public RatingLeaderboard(MovieTotalsReader movieTotalsReader, RatingLeaderboardProperties properties,
+            RatingDistributionProperties distributionProperties) {
+        this(movieTotalsReader, properties, distributionProperties, Clock.systemUTC());
+    }
+
+    RatingLeaderboard(MovieTotalsReader movieTotalsReader, RatingLeaderboardProperties properties,
+            RatingDistributionProperties distributionProperties, Clock clock) {
+        if (properties.getMaxPageSize() < 1 || properties.getDefaultMinVotes() < 0) {
+            throw new IllegalStateException("ratings.leaderboard.max-page-size must be positive and default-min-votes cannot be negative");
+        }
+        this.movieTotalsReader = movieTotalsReader;
+        this.properties = properties;
+        this.distributionProperties = distributionProperties;
+        this.clock = clock;
+        for (Duration window : properties.getWindows()) {
+            if (window.isNegative() || window.isZero()) {
+                throw new IllegalStateException("ratings.leaderboard.windows must be positive durations");
+            }
+            windows.put(window, new Board(window));
+        }
+    }
+
+    @PostConstruct
+    public void load() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${ratings.leaderboard.refresh-interval:PT1M}",
+            initialDelayString = "${ratings.leaderboard.refresh-interval:PT1M}")
+    public synchronized void refresh() {
+        long start = System.nanoTime();
+        try {
+            allTime.rebuild();
+            windows.values().forEach(Board::rebuild);
+        } catch (RuntimeException e) {
+            // The previous boards keep serving until the next refresh succeeds.
+            log.error("Could not rebuild rating leaderboards", e);
+            return;
+        }
+        log.info("Rebuilt rating leaderboards for " + allTime.ranking.byMovieId.size() + " movies in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Applies one committed rating to the all-time board and to every window it falls in.
+     *
+     * @param timestamp seconds since the epoch, as stored in {@code ratings.timestamp}
+     * @param version   the {@code rating_stats_version} the rating committed at
+     */
+    public void record(int movieId, double rating, long timestamp, long version) {
+        RecordedRating recorded = new RecordedRating(movieId, rating, timestamp, version);
+        allTime.add(recorded);
+        for (Board board : windows.values()) {
+            board.add(recorded);
+        }
+    }
+
+    /**
+     * @param window    {@code all}, or one of the configured windows such as {@code 7d}; all time when null
+     * @param minVotes  movies with fewer votes are left out; {@code default-min-votes} when null
+     * @param page      zero-based page number
+     * @param size      entries per page, at most {@code max-page-size}
+     */
+    public LeaderboardPage page(String window, Integer minVotes, int page, int size) {
+        Board board = board(window);
+        int votes = minVotes == null ? properties.getDefaultMinVotes() : minVotes;
+        if (votes < 0) {
+            throw new IllegalArgumentException("Minimum votes cannot be negative");
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("Page cannot be negative");
+        }
+        if (size < 1 || size > properties.getMaxPageSize()) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + properties.getMaxPageSize());
+        }
+        long skip = (long) page * size;
+        long rank = 0;
+        List<LeaderboardEntry> entries = new ArrayList<>(size);
+        for (Entry entry : board.ranking.entries) {
+            if (entry.votes < votes || rank++ < skip) {
+                continue;
+            }
+            entries.add(new LeaderboardEntry(rank, entry.movieId, round(entry.score, 100), round(entry.sum / entry.votes, 10), entry.votes));
+            if (entries.size() == size) {
+                break;
+            }
+        }
+        return new LeaderboardPage(board.window == null ? ALL_TIME : label(board.window), votes, page, size, entries);
+    }
+
+    private Board board(String window) {
+        if (window == null || window.isBlank() || ALL_TIME.equalsIgnoreCase(window.trim())) {
+            return allTime;
+        }
+        Board board = null;
+        try {
+            board = windows.get(DurationStyle.detectAndParse(window.trim()));
+        } catch (IllegalArgumentException e) {
+            // Reported below together with the windows that do exist.
+        }
+        if (board == null) {
+            throw new IllegalArgumentException("Unknown leaderboard window '" + window + "'; available windows are "
+                    + ALL_TIME + windows.keySet().stream().map(duration -> ", " + label(duration)).collect(Collectors.joining()));
+        }
+        return board;
+    }
+
+    /** Short form of a window such as {@code 7d} or {@code 24h}; a single day reads as hours. */
+    static String label(Duration window) {
+        if (window.toSeconds() % Duration.ofDays(1).toSeconds() == 0 && window.toDays() > 1) {
+            return window.toDays() + "d";
+        }
+        if (window.toSeconds() % Duration.ofHours(1).toSeconds() == 0) {
+            return window.toHours() + "h";
+        }
+        return window.toString();
+    }
+
+    private static double round(double value, int scale) {
+        return Math.round(value * scale) / (double) scale;
+    }
+
+    /** One leaderboard. Writers are serialized on the board; readers only follow the volatile ranking. */
+    private final class Board {
+        private final Duration window;
+        private volatile Ranking ranking = new Ranking(Long.MIN_VALUE, Double.NaN, 0);
+        /** Ratings added since the running rebuild started reading; null when no rebuild is running. */
+        private List<RecordedRating> addedDuringRebuild;
+
+        Board(Duration window) {
+            this.window = window;
+        }
+
+        void rebuild() {
+            synchronized (this) {
+                addedDuringRebuild = new ArrayList<>();
+            }
+            try {
+                long since = window == null ? Long.MIN_VALUE : clock.instant().minus(window).getEpochSecond();
+                Totals totals = new Totals();
+                long version = window == null
+                        ? movieTotalsReader.forEachMovieTotal(totals::add)
+                        : movieTotalsReader.forEachMovieTotalSince(since, totals::add);
+                Double priorMean = distributionProperties.getPriorMean();
+                Ranking rebuilt = new Ranking(since, priorMean != null ? priorMean : totals.mean(), distributionProperties.getPriorWeight());
+                for (int i = 0; i < totals.size; i++) {
+                    rebuilt.put(totals.movieIds[i], totals.sums[i], totals.votes[i]);
+                }
+                synchronized (this) {
+                    for (RecordedRating recorded : addedDuringRebuild) {
+                        if (recorded.version() > version) {
+                            rebuilt.add(recorded);
+                        }
+                    }
+                    ranking = rebuilt;
+                }
+            } finally {
+                synchronized (this) {
+                    addedDuringRebuild = null;
+                }
+            }
+        }
+
+        synchronized void add(RecordedRating recorded) {
+            ranking.add(recorded);
+            if (addedDuringRebuild != null) {
+                addedDuringRebuild.add(recorded);
+            }
+        }
+    }
+
+    /** One generation of a board, replaced as a whole on every rebuild. */
+    private static final class Ranking {
+        private final long since;
+        private final double priorMean;
+        private final double priorWeight;
+        private final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>();
+        private final Map<Integer, Entry> byMovieId = new ConcurrentHashMap<>();
+
+        Ranking(long since, double priorMean, double priorWeight) {
+            this.since = since;
+            this.priorMean = priorMean;
+            this.priorWeight = priorWeight;
+        }
+
+        void add(RecordedRating recorded) {
+            if (recorded.timestamp() >= since) {
+                Entry previous = byMovieId.get(recorded.movieId());
+                if (previous == null) {
+                    put(recorded.movieId(), recorded.rating(), 1);
+                } else {
+                    put(recorded.movieId(), previous.sum + recorded.rating(), previous.votes + 1);
+                }
+            }
+        }
+
+        /**
+         * The old entry is removed before the new one is added, so a concurrent reader may miss
+         * the movie for an instant but never sees it twice.
+         */
+        void put(int movieId, double sum, long votes) {
+            double score = Double.isNaN(priorMean) ? sum / votes : (priorWeight * priorMean + sum) / (priorWeight + votes);
+            Entry entry = new Entry(movieId, sum, votes, score);
+            Entry previous = byMovieId.put(movieId, entry);
+            if (previous != null) {
+                entries.remove(previous);
+            }
+            entries.add(entry);
+        }
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+        private final int movieId;
+        private final double sum;
+        private final long votes;
+        private final double score;
+
+        Entry(int movieId, double sum, long votes, double score) {
+            this.movieId = movieId;
+            this.sum = sum;
+            this.votes = votes;
+            this.score = score;
+        }
+
+        /** Highest score first, then most votes, then lowest movie ID. */
+        @Override
+        public int compareTo(Entry other) {
+            int byScore = Double.compare(other.score, score);
+            if (byScore != 0) {
+                return byScore;
+            }
+            int byVotes = Long.compare(other.votes, votes);
+            return byVotes != 0 ? byVotes : Integer.compare(movieId, other.movieId);
+        }
+    }
+
+    /** Rows read for a rebuild, kept as primitives until the prior mean over all of them is known. */
+    private static final class Totals {
+        private int[] movieIds = new int[1024];
+        private double[] sums = new double[1024];
+        private long[] votes = new long[1024];
+        private int size;
+        private double totalSum;
+        private long totalVotes;
+
+        void add(int movieId, double sum, long count) {
+            if (size == movieIds.length) {
+                movieIds = Arrays.copyOf(movieIds, size * 2);
+                sums = Arrays.copyOf(sums, size * 2);
+                votes = Arrays.copyOf(votes, size * 2);
+            }
+            movieIds[size] = movieId;
+            sums[size] = sum;
+            votes[size] = count;
+            size++;
+            totalSum += sum;
+            totalVotes += count;
+        }
+
+        double mean() {
+            return totalVotes == 0 ? Double.NaN : totalSum / totalVotes;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.aetna.ratings.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.aetna.ratings.dto.RatingSummary;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Collapses concurrent lookups of the same movie into a single database call.
+ * <p>
+ * The first caller for a movie ID registers a future and runs the query; callers that arrive
+ * while it is in flight wait on that future instead of querying again. A batch lookup claims
+ * the IDs nobody is loading yet, loads only those, completes them for everyone waiting, and
+ * then joins the IDs other callers were already loading. Because every caller completes its
+ * own claims before waiting on anyone else's, concurrent batches cannot deadlock. Entries are
+ * removed as soon as their query finishes, so nothing is cached here.
+ */
+@Component
+public class RatingLookupCoalescer {
+
+    private final Map<Integer, CompletableFuture<Optional<RatingSummary>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter savedCalls;
+    private final Counter joinedIds;
+
+    @Autowired
+    public RatingLookupCoalescer(MeterRegistry meterRegistry) {
+        this.savedCalls = Counter.builder("ratings.coalesced.calls")
+                .description("Database calls avoided because every requested ID was already being loaded")
+                .register(meterRegistry);
+        this.joinedIds = Counter.builder("ratings.coalesced.ids")
+                .description("Movie IDs answered by another caller's in-flight query")
+                .register(meterRegistry);
+    }
+
+    public Optional<RatingSummary> get(int movieId, Function<Integer, Optional<RatingSummary>> loader) {
+        CompletableFuture<Optional<RatingSummary>> claim = new CompletableFuture<>();
+        CompletableFuture<Optional<RatingSummary>> existing = inFlight.putIfAbsent(movieId, claim);
+        if (existing != null) {
+            savedCalls.increment();
+            joinedIds.increment();
+            return join(existing);
+        }
+        try {
+            Optional<RatingSummary> summary = loader.apply(movieId);
+            claim.complete(summary);
+            return summary;
+        } catch (RuntimeException e) {
+            claim.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(movieId, claim);
+        }
+    }
+
+    /**
+     * @param movieIds distinct movie IDs
+     * @return summaries for the movies that have ratings, in the order of {@code movieIds}
+     */
+    public List<RatingSummary> getAll(List<Integer> movieIds, Function<List<Integer>, List<RatingSummary>> loader) {
+        Map<Integer, CompletableFuture<Optional<RatingSummary>>> claimed = new LinkedHashMap<>();
+        Map<Integer, CompletableFuture<Optional<RatingSummary>>> joined = new HashMap<>();
+        for (Integer movieId : movieIds) {
+            CompletableFuture<Optional<RatingSummary>> claim = new CompletableFuture<>();
+            CompletableFuture<Optional<RatingSummary>> existing = inFlight.putIfAbsent(movieId, claim);
+            if (existing == null) {
+                claimed.put(movieId, claim);
+            } else {
+                joined.put(movieId, existing);
+            }
+        }
+        if (!joined.isEmpty()) {
+            joinedIds.increment(joined.size());
+            if (claimed.isEmpty()) {
+                savedCalls.increment();
+            }
+        }
+
+        Map<Integer, RatingSummary> loaded = new HashMap<>(claimed.size() * 2);
+        if (!claimed.isEmpty()) {
+            try {
+                for (RatingSummary summary : loader.apply(new ArrayList<>(claimed.keySet()))) {
+                    loaded.put(summary.getMovieId(), summary);
+                }
+                claimed.forEach((movieId, claim) -> claim.complete(Optional.ofNullable(loaded.get(movieId))));
+            } catch (RuntimeException e) {
+                claimed.values().forEach(claim -> claim.completeExceptionally(e));
+                throw e;
+            } finally {
+                claimed.forEach(inFlight::remove);
+            }
+        }
+
+        List<RatingSummary> ratings = new ArrayList<>(movieIds.size());
+        for (Integer movieId : movieIds) {
+            CompletableFuture<Optional<RatingSummary>> other = joined.get(movieId);
+            Optional<RatingSummary> summary = other == null ? Optional.ofNullable(loaded.get(movieId)) : join(other);
+            summary.ifPresent(ratings::add);
+        }
+        return ratings;
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private static Optional<RatingSummary> join(CompletableFuture<Optional<RatingSummary>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.aetna.ratings.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.aetna.ratings.config.ClientRefIdHolder;
+import com.aetna.ratings.exception.ServiceOverloadedException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+
+/**
+ * Times rating lookups at the service boundary and wraps each one in a span.
+ * <p>
+ * Every call is recorded in {@code ratings.request}, tagged with the operation and outcome;
+ * batch calls also record the number of distinct IDs asked for and rows returned, and every
+ * requested movie without ratings counts towards {@code ratings.request.not.found}. Meters are
+ * registered up front so the hot path only records into them. Histogram buckets and SLOs are
+ * set under {@code management.metrics.distribution} rather than here.
+ * <p>
+ * Spans carry the caller's {@code clientRefId}. Without the OpenTelemetry agent the tracer is
+ * a no-op and costs next to nothing.
+ */
+@Component
+public class RatingRequestTelemetry {
+
+    static final AttributeKey<String> CLIENT_REF_ID = AttributeKey.stringKey("clientRefId");
+    static final AttributeKey<Long> REQUESTED = AttributeKey.longKey("ratings.requested");
+    static final AttributeKey<Long> ROWS = AttributeKey.longKey("ratings.rows");
+    static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("ratings.outcome");
+
+    public enum Operation {
+        SINGLE, BATCH
+    }
+
+    enum Outcome {
+        SUCCESS, NOT_FOUND, REJECTED, ERROR
+    }
+
+    private final Tracer tracer;
+    private final Map<Operation, Map<Outcome, Timer>> timers = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> notFound = new EnumMap<>(Operation.class);
+    private final DistributionSummary batchSize;
+    private final DistributionSummary rows;
+
+    @Autowired
+    public RatingRequestTelemetry(MeterRegistry meterRegistry, Tracer tracer) {
+        this.tracer = tracer;
+        for (Operation operation : Operation.values()) {
+            String operationTag = operation.name().toLowerCase();
+            Map<Outcome, Timer> byOutcome = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : Outcome.values()) {
+                byOutcome.put(outcome, Timer.builder("ratings.request")
+                        .description("Rating lookups at the service boundary, including cache, batching and database time")
+                        .tag("operation", operationTag)
+                        .tag("outcome", outcome.name().toLowerCase())
+                        .register(meterRegistry));
+            }
+            timers.put(operation, byOutcome);
+            notFound.put(operation, Counter.builder("ratings.request.not.found")
+                    .description("Requested movies that have no ratings")
+                    .tag("operation", operationTag)
+                    .register(meterRegistry));
+        }
+        this.batchSize = DistributionSummary.builder("ratings.request.batch.size")
+                .description("Distinct movie IDs per batch lookup")
+                .register(meterRegistry);
+        this.rows = DistributionSummary.builder("ratings.request.rows")
+                .description("Ratings returned per batch lookup")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code lookup} for {@code requested} distinct movies; every requested movie missing
+     * from the returned rows counts as not found. A single lookup that returns no row has the
+     * {@code not_found} outcome.
+     */
+    public <T> T observe(Operation operation, int requested, Supplier<T> lookup, ToIntFunction<T> rowCount) {
+        Span span = tracer.spanBuilder(operation == Operation.SINGLE ? "ratings.movie" : "ratings.movies")
+                .setAttribute(REQUESTED, (long) requested)
+                .startSpan();
+        String clientRefId = ClientRefIdHolder.getClientRefId();
+        if (clientRefId != null) {
+            span.setAttribute(CLIENT_REF_ID, clientRefId);
+        }
+        Outcome outcome = Outcome.ERROR;
+        long start = System.nanoTime();
+        try (Scope scope = span.makeCurrent()) {
+            T result = lookup.get();
+            int returned = rowCount.applyAsInt(result);
+            span.setAttribute(ROWS, (long) returned);
+            if (operation == Operation.BATCH) {
+                batchSize.record(requested);
+                rows.record(returned);
+            }
+            if (returned < requested) {
+                notFound.get(operation).increment(requested - returned);
+            }
+            outcome = operation == Operation.SINGLE && returned == 0 ? Outcome.NOT_FOUND : Outcome.SUCCESS;
+            return result;
+        } catch (ServiceOverloadedException e) {
+            outcome = Outcome.REJECTED;
+            throw e;
+        } catch (RuntimeException e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+            throw e;
+        } finally {
+            timers.get(operation).get(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            span.setAttribute(OUTCOME, outcome.name().toLowerCase());
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.aetna.ratings.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.aetna.ratings.config.RatingCacheProperties;
+import com.aetna.ratings.dto.RatingSummary;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read-through, size-bounded cache of {@link RatingSummary} by movie ID.
+ * <p>
+ * Backed by Caffeine, which evicts with W-TinyLFU so the hot movie IDs that dominate our
+ * traffic stay resident. Movies without ratings are cached as {@link Optional#empty()} so
+ * repeated lookups of unknown IDs do not reach the database either. When disabled through
+ * {@code ratings.cache.enabled}, every call goes straight to the loader.
+ */
+@Component
+@Slf4j
+public class RatingSummaryCache {
+
+    public static final String CACHE_NAME = "ratingSummaries";
+
+    /** Rough retained size of one entry: cache node, boxed key, Optional and RatingSummary. */
+    static final int ESTIMATED_ENTRY_BYTES = 120;
+
+    private final Cache<Integer, Optional<RatingSummary>> cache;
+
+    @Autowired
+    public RatingSummaryCache(RatingCacheProperties properties, MeterRegistry meterRegistry) {
+        if (!properties.isEnabled()) {
+            this.cache = null;
+            log.info("RatingSummary cache is disabled");
+            return;
+        }
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getTtl())
+                .recordStats();
+        if (properties.getMaxBytes() > 0) {
+            builder.maximumWeight(properties.getMaxBytes())
+                    .weigher((Integer movieId, Optional<RatingSummary> summary) -> ESTIMATED_ENTRY_BYTES);
+        } else {
+            builder.maximumSize(properties.getMaxEntries());
+        }
+        this.cache = builder.build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public Optional<RatingSummary> get(int movieId, Function<Integer, Optional<RatingSummary>> loader) {
+        if (cache == null) {
+            return loader.apply(movieId);
+        }
+        return cache.get(movieId, loader);
+    }
+
+    /**
+     * Looks up every requested movie, loading only the IDs that are not cached yet with a
+     * single call to {@code loader}. Results follow the order of first appearance in
+     * {@code movieIds}; movies without ratings are left out, as they are by the repository.
+     */
+    public List<RatingSummary> getAll(List<Integer> movieIds, Function<List<Integer>, List<RatingSummary>> loader) {
+        if (cache == null) {
+            return loader.apply(movieIds);
+        }
+        Set<Integer> keys = new LinkedHashSet<>(movieIds.size());
+        for (Integer movieId : movieIds) {
+            if (movieId != null) {
+                keys.add(movieId);
+            }
+        }
+        Map<Integer, Optional<RatingSummary>> cached = cache.getAll(keys, missing -> load(missing, loader));
+        List<RatingSummary> ratings = new ArrayList<>(keys.size());
+        for (Integer movieId : keys) {
+            Optional<RatingSummary> summary = cached.get(movieId);
+            if (summary != null && summary.isPresent()) {
+                ratings.add(summary.get());
+            }
+        }
+        return ratings;
+    }
+
+    /**
+     * @return the cached entry, empty for a movie cached as having no ratings, or null when the
+     *         movie is not cached or the cache is disabled
+     */
+    public Optional<RatingSummary> getIfPresent(int movieId) {
+        return cache == null ? null : cache.getIfPresent(movieId);
+    }
+
+    public void invalidate(int movieId) {
+        if (cache != null) {
+            cache.invalidate(movieId);
+        }
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    public long size() {
+        return cache == null ? 0 : cache.estimatedSize();
+    }
+
+    private static Map<Integer, Optional<RatingSummary>> load(Set<? extends Integer> missing,
+            Function<List<Integer>, List<RatingSummary>> loader) {
+        Map<Integer, Optional<RatingSummary>> loaded = new HashMap<>(missing.size() * 2);
+        for (Integer movieId : missing) {
+            loaded.put(movieId, Optional.empty());
+        }
+        for (RatingSummary summary : loader.apply(new ArrayList<>(missing))) {
+            loaded.put(summary.getMovieId(), Optional.of(summary));
+        }
+        return loaded;
+    }
+}
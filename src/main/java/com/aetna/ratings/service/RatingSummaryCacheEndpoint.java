@@ -0,0 +1,40 @@
+package com.aetna.ratings.service;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.JmxEndpoint;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator hooks for explicit cache invalidation, e.g. after ratings have been corrected
+ * directly in the database. Exposed over JMX only, since the HTTP actuator has no
+ * authentication and anyone who can reach it could empty the cache.
+ */
+@Component
+@JmxEndpoint(id = "ratingscache")
+public class RatingSummaryCacheEndpoint {
+
+    private final RatingSummaryCache ratingSummaryCache;
+
+    public RatingSummaryCacheEndpoint(RatingSummaryCache ratingSummaryCache) {
+        this.ratingSummaryCache = ratingSummaryCache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> cache() {
+        return Map.of("enabled", ratingSummaryCache.isEnabled(), "size", ratingSummaryCache.size());
+    }
+
+    @DeleteOperation
+    public void invalidate(@Selector int movieId) {
+        ratingSummaryCache.invalidate(movieId);
+    }
+
+    @DeleteOperation
+    public void invalidateAll() {
+        ratingSummaryCache.invalidateAll();
+    }
+}
@@ -0,0 +1,351 @@
+package com.aetna.ratings.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.aetna.ratings.config.RatingTrendProperties;
+import com.aetna.ratings.dto.RatingTrend;
+import com.aetna.ratings.dto.TrendingMovie;
+import com.aetna.ratings.dto.TrendingPage;
+import com.aetna.ratings.repository.MovieTotalsReader;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-movie vote counts and averages over trailing windows such as the last 24 hours, 7 days and
+ * 30 days, kept in a ring of time buckets so the windows slide forward without rescanning ratings.
+ * <p>
+ * Time is cut into buckets of {@code bucket-width}. The ring has one slot per bucket of the
+ * longest window, each a sparse map from movie ID to the sum and count of the ratings whose
+ * timestamp falls in that bucket, and every window keeps running totals per movie. A rating is
+ * added to its bucket and to the totals of each window that still covers the bucket. When the
+ * clock enters a new bucket, the buckets that left a window are subtracted from its totals and
+ * the slot of the oldest one is freed, so sliding costs the number of movies rated in the expiring
+ * buckets however many ratings the windows hold. A window of {@code n} buckets spans the current,
+ * partly elapsed bucket and the {@code n - 1} before it.
+ * <p>
+ * Ratings accepted by the ingestion service are recorded as they commit; ratings older than the
+ * longest window are ignored and ones stamped in the future count towards the current bucket. The
+ * ring is loaded from {@code ratings} at startup and reloaded each {@code reload-interval} to pick
+ * up ratings written by other processes. Writers are serialized on this object; readers only touch
+ * the running totals, which are concurrent maps of immutable cells. A reload reads into a new ring
+ * without holding the lock, then replays the ratings recorded meanwhile that committed after the
+ * version it read at, so recording never waits for the scan and nothing is counted twice.
+ */
+@Component
+@DependsOn("movieRatingStatsJob")
+@Slf4j
+public class RatingTrends {
+
+    private static final double SECONDS_PER_DAY = Duration.ofDays(1).toSeconds();
+
+    /** Most votes first, then the higher average, then the lowest movie ID. */
+    private static final Comparator<Ranked> RANKING = Comparator.comparingLong((Ranked ranked) -> ranked.cell.count).reversed()
+            .thenComparing(Comparator.comparingDouble((Ranked ranked) -> ranked.cell.average()).reversed())
+            .thenComparingInt(Ranked::movieId);
+
+    private final MovieTotalsReader movieTotalsReader;
+    private final RatingTrendProperties properties;
+    private final LongSupplier epochSecondClock;
+    private final long bucketSeconds;
+    private final Duration[] windows;
+    private final int[] windowBuckets;
+    private final Object reloading = new Object();
+    private volatile Ring ring;
+    /** Ratings recorded since the running reload started reading; null when no reload is running. */
+    private List<RecordedRating> recordedDuringReload;
+
+    @Autowired
+    public RatingTrends(MovieTotalsReader movieTotalsReader, RatingTrendProperties properties) {
+        this(movieTotalsReader, properties, () -> System.currentTimeMillis() / 1000);
+    }
+
+    RatingTrends(MovieTotalsReader movieTotalsReader, RatingTrendProperties properties, LongSupplier epochSecondClock) {
+        this.bucketSeconds = properties.getBucketWidth().toSeconds();
+        if (bucketSeconds < 1 || properties.getWindows().isEmpty() || properties.getMaxLimit() < 1) {
+            throw new IllegalStateException("ratings.trends.bucket-width must be at least a second, windows cannot be empty and max-limit must be positive");
+        }
+        this.movieTotalsReader = movieTotalsReader;
+        this.properties = properties;
+        this.epochSecondClock = epochSecondClock;
+        this.windows = properties.getWindows().stream().distinct().sorted().toArray(Duration[]::new);
+        this.windowBuckets = new int[windows.length];
+        for (int i = 0; i < windows.length; i++) {
+            Duration window = windows[i];
+            if (window.isNegative() || window.isZero() || window.getNano() != 0 || window.toSeconds() % bucketSeconds != 0) {
+                throw new IllegalStateException("ratings.trends.windows must be positive multiples of ratings.trends.bucket-width");
+            }
+            windowBuckets[i] = Math.toIntExact(window.toSeconds() / bucketSeconds);
+        }
+        this.ring = new Ring(currentBucket());
+    }
+
+    @PostConstruct
+    public void load() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${ratings.trends.reload-interval:PT1H}",
+            initialDelayString = "${ratings.trends.reload-interval:PT1H}")
+    public void refresh() {
+        long start = System.nanoTime();
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            // The current ring keeps sliding and recording until the next reload succeeds.
+            log.error("Could not reload rating trends", e);
+            return;
+        }
+        log.info("Reloaded rating trends for " + ring.totals[windows.length - 1].size() + " movies in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    private void reload() {
+        synchronized (reloading) {
+            synchronized (this) {
+                recordedDuringReload = new ArrayList<>();
+            }
+            try {
+                long current = currentBucket();
+                // Not shared until the swap below, so it is filled without the lock.
+                Ring loaded = new Ring(current);
+                long since = (current - loaded.slots.length + 1) * bucketSeconds;
+                long version = movieTotalsReader.forEachMovieBucketSince(since, bucketSeconds,
+                        (movieId, bucket, sum, count) -> loaded.add(movieId, Math.min(bucket, current), sum, count));
+                synchronized (this) {
+                    loaded.advance(currentBucket());
+                    for (RecordedRating recorded : recordedDuringReload) {
+                        if (recorded.version() > version) {
+                            loaded.add(recorded);
+                        }
+                    }
+                    ring = loaded;
+                }
+            } finally {
+                synchronized (this) {
+                    recordedDuringReload = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies one committed rating to its bucket and to every window that covers it.
+     *
+     * @param timestamp seconds since the epoch, as stored in {@code ratings.timestamp}
+     * @param version   the {@code rating_stats_version} the rating committed at
+     */
+    public synchronized void record(int movieId, double rating, long timestamp, long version) {
+        RecordedRating recorded = new RecordedRating(movieId, rating, timestamp, version);
+        Ring current = ring;
+        current.advance(currentBucket());
+        current.add(recorded);
+        if (recordedDuringReload != null) {
+            recordedDuringReload.add(recorded);
+        }
+    }
+
+    /**
+     * The movie's votes in every window, keyed by window label such as {@code 24h}, shortest first.
+     * Windows without votes are included with a zero count.
+     */
+    public Map<String, RatingTrend> trends(int movieId) {
+        Ring current = current();
+        Map<String, RatingTrend> trends = new LinkedHashMap<>();
+        for (int i = 0; i < windows.length; i++) {
+            Cell cell = current.totals[i].get(movieId);
+            trends.put(RatingLeaderboard.label(windows[i]), cell == null
+                    ? new RatingTrend(0, null, 0)
+                    : new RatingTrend(cell.count, round(cell.average(), 10), round(cell.count / days(i), 100)));
+        }
+        return trends;
+    }
+
+    /**
+     * The movies with the most votes in a window, kept to {@code limit} with a bounded heap so a
+     * request costs one pass over the movies rated in the window.
+     *
+     * @param window one of the configured windows such as {@code 24h}; the shortest when null
+     * @param limit  number of movies to return, at most {@code max-limit}
+     */
+    public TrendingPage trending(String window, int limit) {
+        int index = window(window);
+        if (limit < 1 || limit > properties.getMaxLimit()) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + properties.getMaxLimit());
+        }
+        PriorityQueue<Ranked> heap = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        current().totals[index].forEach((movieId, cell) -> {
+            heap.add(new Ranked(movieId, cell));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        });
+        List<Ranked> ranked = new ArrayList<>(heap);
+        ranked.sort(RANKING);
+        List<TrendingMovie> movies = new ArrayList<>(ranked.size());
+        for (Ranked entry : ranked) {
+            movies.add(new TrendingMovie(movies.size() + 1, entry.movieId, entry.cell.count, round(entry.cell.average(), 10),
+                    round(entry.cell.count / days(index), 100)));
+        }
+        return new TrendingPage(RatingLeaderboard.label(windows[index]), limit, movies);
+    }
+
+    private int window(String window) {
+        if (window == null || window.isBlank()) {
+            return 0;
+        }
+        try {
+            int index = Arrays.asList(windows).indexOf(DurationStyle.detectAndParse(window.trim()));
+            if (index >= 0) {
+                return index;
+            }
+        } catch (IllegalArgumentException e) {
+            // Reported below together with the windows that do exist.
+        }
+        throw new IllegalArgumentException("Unknown trending window '" + window + "'; available windows are "
+                + Arrays.stream(windows).map(RatingLeaderboard::label).collect(Collectors.joining(", ")));
+    }
+
+    /** The ring, first slid forward if the clock has entered a new bucket since the last write. */
+    private Ring current() {
+        Ring current = ring;
+        if (currentBucket() > current.current) {
+            synchronized (this) {
+                current = ring;
+                current.advance(currentBucket());
+            }
+        }
+        return current;
+    }
+
+    private long currentBucket() {
+        return Math.floorDiv(epochSecondClock.getAsLong(), bucketSeconds);
+    }
+
+    private double days(int window) {
+        return windowBuckets[window] * bucketSeconds / SECONDS_PER_DAY;
+    }
+
+    private static double round(double value, int scale) {
+        return Math.round(value * scale) / (double) scale;
+    }
+
+    /** The buckets and window totals; every method but reading the totals runs under the owner's lock. */
+    private final class Ring {
+        private volatile long current;
+        private final Bucket[] slots = new Bucket[windowBuckets[windowBuckets.length - 1]];
+        @SuppressWarnings("unchecked")
+        private final Map<Integer, Cell>[] totals = new Map[windows.length];
+
+        Ring(long current) {
+            this.current = current;
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] = new ConcurrentHashMap<>();
+            }
+        }
+
+        /** Adds a single rating; one stamped in the future counts towards the current bucket. */
+        void add(RecordedRating recorded) {
+            add(recorded.movieId(), Math.min(Math.floorDiv(recorded.timestamp(), bucketSeconds), current), recorded.rating(), 1);
+        }
+
+        void add(int movieId, long bucket, double sum, long count) {
+            long age = current - bucket;
+            if (age < 0 || age >= slots.length) {
+                return;
+            }
+            int index = (int) Math.floorMod(bucket, (long) slots.length);
+            Bucket slot = slots[index];
+            if (slot == null || slot.id != bucket) {
+                slot = new Bucket(bucket);
+                slots[index] = slot;
+            }
+            Cell cell = new Cell(sum, count);
+            slot.cells.merge(movieId, cell, Cell::plus);
+            for (int i = 0; i < totals.length; i++) {
+                if (age < windowBuckets[i]) {
+                    totals[i].merge(movieId, cell, Cell::plus);
+                }
+            }
+        }
+
+        /** Subtracts the buckets that leave each window on the way to {@code bucket} and frees the slots that leave the ring. */
+        void advance(long bucket) {
+            long steps = bucket - current;
+            if (steps <= 0) {
+                return;
+            }
+            for (int i = 0; i < totals.length; i++) {
+                Map<Integer, Cell> windowTotals = totals[i];
+                if (steps >= windowBuckets[i]) {
+                    windowTotals.clear();
+                    continue;
+                }
+                for (long leaving = current - windowBuckets[i] + 1; leaving <= bucket - windowBuckets[i]; leaving++) {
+                    Bucket slot = slot(leaving);
+                    if (slot != null) {
+                        slot.cells.forEach((movieId, cell) -> windowTotals.computeIfPresent(movieId, (id, total) -> total.minus(cell)));
+                    }
+                }
+            }
+            if (steps >= slots.length) {
+                Arrays.fill(slots, null);
+            } else {
+                for (long leaving = current - slots.length + 1; leaving <= bucket - slots.length; leaving++) {
+                    slots[(int) Math.floorMod(leaving, (long) slots.length)] = null;
+                }
+            }
+            current = bucket;
+        }
+
+        private Bucket slot(long bucket) {
+            Bucket slot = slots[(int) Math.floorMod(bucket, (long) slots.length)];
+            return slot != null && slot.id == bucket ? slot : null;
+        }
+    }
+
+    private static final class Bucket {
+        private final long id;
+        private final Map<Integer, Cell> cells = new HashMap<>();
+
+        Bucket(long id) {
+            this.id = id;
+        }
+    }
+
+    private record Cell(double sum, long count) {
+
+        Cell plus(Cell other) {
+            return new Cell(sum + other.sum, count + other.count);
+        }
+
+        /** Null once no votes are left, which removes the movie from a window's totals. */
+        Cell minus(Cell other) {
+            return count == other.count ? null : new Cell(sum - other.sum, count - other.count);
+        }
+
+        double average() {
+            return sum / count;
+        }
+    }
+
+    private record Ranked(int movieId, Cell cell) {
+    }
+}
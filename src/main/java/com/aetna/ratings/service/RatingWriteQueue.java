@@ -0,0 +1,247 @@
+package com.aetna.ratings.service;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.aetna.ratings.config.RatingIngestProperties;
+import com.aetna.ratings.config.SqliteProperties;
+import com.aetna.ratings.dto.Rating;
+import com.aetna.ratings.exception.ServiceOverloadedException;
+import com.aetna.ratings.repository.InsertedRatings;
+import com.aetna.ratings.repository.RatingsBatchWriter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Funnels every rating write through one dedicated writer thread.
+ * <p>
+ * SQLite admits a single writer, so writes issued from many request threads would only
+ * contend for the database lock. Instead, callers enqueue their ratings and receive a future;
+ * the writer thread collects pending writes into a group until it holds
+ * {@code group-commit-size} ratings or {@code group-commit-delay} has passed since the first
+ * one arrived, commits the group in one transaction and completes every caller's future with
+ * its own update counts. The queue is bounded: callers that cannot enqueue within
+ * {@code enqueue-timeout} are rejected with 503.
+ * <p>
+ * A group that fails with {@code SQLITE_BUSY}, which only happens when another process holds
+ * the database lock for longer than the busy timeout, is retried a few times before its callers
+ * are failed.
+ * <p>
+ * On shutdown the writer commits what is queued and exits. A write that slips into the queue
+ * after the writer's last poll is taken back by its caller, or failed by {@link #stop()}, so no
+ * future is left incomplete.
+ */
+@Component
+@Slf4j
+public class RatingWriteQueue implements SmartLifecycle {
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    /** Primary result code for SQLITE_BUSY; extended codes keep it in the low byte. */
+    private static final int SQLITE_BUSY = 5;
+
+    private final RatingsBatchWriter ratingsBatchWriter;
+    private final BlockingQueue<PendingWrite> queue;
+    private final int groupCommitSize;
+    private final long groupCommitDelayNanos;
+    private final long enqueueTimeoutMillis;
+    private final long retryAfterSeconds;
+    private final int busyRetries;
+    private final long busyRetryBackoffMillis;
+    private final DistributionSummary groupSize;
+    private final Timer commitTimer;
+    private final Counter busyRetryCounter;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public RatingWriteQueue(RatingsBatchWriter ratingsBatchWriter, RatingIngestProperties properties,
+            SqliteProperties sqliteProperties, MeterRegistry meterRegistry) {
+        this.ratingsBatchWriter = ratingsBatchWriter;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.groupCommitSize = properties.getGroupCommitSize();
+        this.groupCommitDelayNanos = properties.getGroupCommitDelay().toNanos();
+        this.enqueueTimeoutMillis = properties.getEnqueueTimeout().toMillis();
+        this.retryAfterSeconds = Math.max(1, properties.getRetryAfter().toSeconds());
+        this.busyRetries = sqliteProperties.getBusyRetries();
+        this.busyRetryBackoffMillis = sqliteProperties.getBusyRetryBackoff().toMillis();
+        this.groupSize = DistributionSummary.builder("ratings.write.group.size")
+                .description("Ratings committed per group transaction")
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("ratings.write.commit")
+                .description("Time to commit one group of ratings")
+                .register(meterRegistry);
+        this.busyRetryCounter = Counter.builder("ratings.sqlite.busy.retries")
+                .description("Group commits retried after failing with SQLITE_BUSY")
+                .register(meterRegistry);
+        Gauge.builder("ratings.write.queue.depth", queue, BlockingQueue::size)
+                .description("Writes waiting for the writer thread")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return a future completed with one update count per rating, and the version the group
+     *         committed (see {@link RatingsBatchWriter#insertBatch(List)}), once the group containing them commits
+     */
+    public CompletableFuture<InsertedRatings> submit(List<Rating> ratings) {
+        PendingWrite pending = new PendingWrite(ratings);
+        boolean queued;
+        try {
+            queued = running && queue.offer(pending, enqueueTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            throw new ServiceOverloadedException("Rating writer is at capacity, please retry later", retryAfterSeconds);
+        }
+        // Stopped while offering: take the write back unless the writer or stop() already has it.
+        if (!running && queue.remove(pending)) {
+            throw new ServiceOverloadedException("Rating writer is shutting down, please retry later", retryAfterSeconds);
+        }
+        return pending.future;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::drain, "ratings-writer");
+        writer.start();
+    }
+
+    /**
+     * Stops accepting writes, lets the writer thread commit everything already queued and fails
+     * any write that arrived after its last poll.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ServiceOverloadedException stopped = new ServiceOverloadedException("Rating writer has stopped, please retry later", retryAfterSeconds);
+        for (PendingWrite pending; (pending = queue.poll()) != null; ) {
+            pending.future.completeExceptionally(stopped);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** Start before and stop after the web server, so in-flight requests can still write during shutdown. */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        List<PendingWrite> group = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                int records = first.ratings.size();
+                long deadline = System.nanoTime() + groupCommitDelayNanos;
+                while (records < groupCommitSize) {
+                    PendingWrite next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                    records += next.ratings.size();
+                }
+                commit(group, records);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                group.forEach(pending -> pending.future.completeExceptionally(e));
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingWrite> group, int records) {
+        List<Rating> ratings = new ArrayList<>(records);
+        for (PendingWrite pending : group) {
+            ratings.addAll(pending.ratings);
+        }
+        InsertedRatings inserted;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                inserted = commitTimer.record(() -> ratingsBatchWriter.insertBatch(ratings));
+                break;
+            } catch (RuntimeException e) {
+                if (attempt <= busyRetries && isBusy(e) && backOff(attempt)) {
+                    busyRetryCounter.increment();
+                    log.warn("Database busy, retrying group commit of " + records + " ratings (attempt " + attempt + ")");
+                    continue;
+                }
+                log.error("Failed to commit a group of " + records + " ratings", e);
+                group.forEach(pending -> pending.future.completeExceptionally(e));
+                return;
+            }
+        }
+        groupSize.record(records);
+        int offset = 0;
+        for (PendingWrite pending : group) {
+            int size = pending.ratings.size();
+            pending.future.complete(new InsertedRatings(Arrays.copyOfRange(inserted.counts(), offset, offset + size), inserted.version()));
+            offset += size;
+        }
+    }
+
+    private boolean backOff(int attempt) {
+        try {
+            Thread.sleep(busyRetryBackoffMillis * attempt);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean isBusy(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && (sqlException.getErrorCode() & 0xff) == SQLITE_BUSY) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class PendingWrite {
+        private final List<Rating> ratings;
+        private final CompletableFuture<InsertedRatings> future = new CompletableFuture<>();
+
+        private PendingWrite(List<Rating> ratings) {
+            this.ratings = ratings;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.aetna.ratings.service;
+
+import com.aetna.ratings.dto.IngestionResult;
+import com.aetna.ratings.dto.Rating;
+
+import java.util.Iterator;
+
+public interface RatingsIngestionService {
+    IngestionResult ingest(Iterator<Rating> ratings);
+    IngestionResult addRating(Rating rating);
+}
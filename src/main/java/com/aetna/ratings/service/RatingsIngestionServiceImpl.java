@@ -0,0 +1,221 @@
+package com.aetna.ratings.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.aetna.ratings.config.RatingIngestProperties;
+import com.aetna.ratings.dto.IngestionResult;
+import com.aetna.ratings.dto.Rating;
+import com.aetna.ratings.exception.RatingsServiceException;
+import com.aetna.ratings.exception.ServiceOverloadedException;
+import com.aetna.ratings.repository.InsertedRatings;
+import com.aetna.ratings.repository.RatingsBatchWriter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Validates ratings and hands the valid ones to the {@link RatingWriteQueue}.
+ * <p>
+ * A bulk upload is read in batches; up to {@code max-in-flight-batches} of them may be queued
+ * or committing while the next one is parsed, after which reading from the client pauses
+ * until the oldest batch commits. The number of uploads running at once is capped as well;
+ * callers beyond that get a 503 with {@code Retry-After}.
+ */
+@Service
+@Slf4j
+public class RatingsIngestionServiceImpl implements RatingsIngestionService {
+
+    private final RatingWriteQueue ratingWriteQueue;
+    private final RatingSummaryCache ratingSummaryCache;
+    private final RatingLeaderboard ratingLeaderboard;
+    private final RatingTrends ratingTrends;
+    private final RatedMovieFilter ratedMovieFilter;
+    private final RatingIngestProperties properties;
+    private final Semaphore ingestionSlots;
+
+    @Autowired
+    public RatingsIngestionServiceImpl(RatingWriteQueue ratingWriteQueue, RatingSummaryCache ratingSummaryCache,
+            RatingLeaderboard ratingLeaderboard, RatingTrends ratingTrends, RatedMovieFilter ratedMovieFilter, RatingIngestProperties properties) {
+        this.ratingWriteQueue = ratingWriteQueue;
+        this.ratingSummaryCache = ratingSummaryCache;
+        this.ratingLeaderboard = ratingLeaderboard;
+        this.ratingTrends = ratingTrends;
+        this.ratedMovieFilter = ratedMovieFilter;
+        this.properties = properties;
+        this.ingestionSlots = new Semaphore(properties.getMaxConcurrentRequests());
+    }
+
+    @Override
+    public IngestionResult ingest(Iterator<Rating> ratings) {
+        if (!acquireSlot()) {
+            throw new ServiceOverloadedException("Rating ingestion is at capacity, please retry later",
+                    Math.max(1, properties.getRetryAfter().toSeconds()));
+        }
+        try {
+            return ingestBatches(ratings);
+        } finally {
+            ingestionSlots.release();
+        }
+    }
+
+    @Override
+    public IngestionResult addRating(Rating rating) {
+        String violation = validate(rating);
+        if (violation != null) {
+            throw new IllegalArgumentException("Rating " + violation);
+        }
+        IngestionResult result = new IngestionResult();
+        List<Rating> ratings = List.of(rating);
+        complete(new SubmittedBatch(ratings, ratingWriteQueue.submit(ratings)), result);
+        return result;
+    }
+
+    /**
+     * If the writer turns a batch away once earlier ones have committed, the upload stops there
+     * and the partial result is returned with {@code retryAfterSeconds} set, so the client learns
+     * how many ratings were accepted; an upload with nothing accepted still fails with a 503.
+     */
+    private IngestionResult ingestBatches(Iterator<Rating> ratings) {
+        IngestionResult result = new IngestionResult();
+        Deque<SubmittedBatch> inFlight = new ArrayDeque<>();
+        try {
+            readBatches(ratings, inFlight, result);
+        } catch (ServiceOverloadedException e) {
+            // Batches queued before the rejected one may still commit; count them before answering.
+            while (!inFlight.isEmpty()) {
+                try {
+                    complete(inFlight.removeFirst(), result);
+                } catch (ServiceOverloadedException later) {
+                    // Turned away for the same reason.
+                }
+            }
+            if (result.getAccepted() == 0) {
+                throw e;
+            }
+            result.setComplete(false);
+            result.setRetryAfterSeconds(e.getRetryAfterSeconds());
+            result.getErrors().add("Stopped after " + result.getAccepted() + " ratings were accepted: " + e.getMessage());
+        }
+        log.info("Ingested ratings: " + result.getAccepted() + " accepted, " + result.getRejected() + " rejected");
+        return result;
+    }
+
+    private void readBatches(Iterator<Rating> ratings, Deque<SubmittedBatch> inFlight, IngestionResult result) {
+        List<Rating> batch = new ArrayList<>(properties.getBatchSize());
+        long position = 0;
+        while (true) {
+            Rating rating;
+            try {
+                if (!ratings.hasNext()) {
+                    break;
+                }
+                rating = ratings.next();
+            } catch (RuntimeException e) {
+                // Malformed input cannot be resynchronised; keep what was valid so far and stop.
+                result.setComplete(false);
+                result.reject("Malformed rating at position " + position + ": " + e.getMessage(), properties.getMaxErrors());
+                break;
+            }
+            String violation = validate(rating);
+            if (violation != null) {
+                result.reject("Rating at position " + position + " " + violation, properties.getMaxErrors());
+            } else {
+                batch.add(rating);
+                if (batch.size() >= properties.getBatchSize()) {
+                    submit(batch, inFlight, result);
+                    batch = new ArrayList<>(properties.getBatchSize());
+                }
+            }
+            position++;
+        }
+        if (!batch.isEmpty()) {
+            submit(batch, inFlight, result);
+        }
+        while (!inFlight.isEmpty()) {
+            complete(inFlight.removeFirst(), result);
+        }
+    }
+
+    private void submit(List<Rating> batch, Deque<SubmittedBatch> inFlight, IngestionResult result) {
+        inFlight.addLast(new SubmittedBatch(batch, ratingWriteQueue.submit(batch)));
+        while (inFlight.size() > properties.getMaxInFlightBatches()) {
+            complete(inFlight.removeFirst(), result);
+        }
+    }
+
+    private void complete(SubmittedBatch submitted, IngestionResult result) {
+        InsertedRatings inserted;
+        try {
+            inserted = submitted.inserted.get(properties.getCommitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ServiceOverloadedException overloaded) {
+                throw overloaded;
+            }
+            throw new RatingsServiceException("An error occurred while writing ratings after " + result.getAccepted() + " were accepted.", e.getCause());
+        } catch (TimeoutException e) {
+            throw new RatingsServiceException("Timed out waiting for ratings to commit after " + result.getAccepted() + " were accepted.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RatingsServiceException("Interrupted while waiting for ratings to commit after " + result.getAccepted() + " were accepted.", e);
+        }
+        int[] counts = inserted.counts();
+        Set<Integer> movieIds = new HashSet<>();
+        for (int i = 0; i < counts.length; i++) {
+            Rating rating = submitted.ratings.get(i);
+            if (counts[i] == RatingsBatchWriter.DUPLICATE) {
+                result.reject("Rating " + rating.getRatingId() + " already exists", properties.getMaxErrors());
+            } else {
+                result.accept(1);
+                movieIds.add(rating.getMovieId());
+                ratingLeaderboard.record(rating.getMovieId(), rating.getRating(), rating.getTimestamp(), inserted.version());
+                ratingTrends.record(rating.getMovieId(), rating.getRating(), rating.getTimestamp(), inserted.version());
+                ratedMovieFilter.record(rating.getMovieId());
+            }
+        }
+        movieIds.forEach(ratingSummaryCache::invalidate);
+    }
+
+    private String validate(Rating rating) {
+        if (rating == null) {
+            return "is null";
+        }
+        if (rating.getMovieId() <= 0) {
+            return "has an invalid movie ID: " + rating.getMovieId();
+        }
+        if (rating.getUserId() <= 0) {
+            return "has an invalid user ID: " + rating.getUserId();
+        }
+        if (rating.getRating() < properties.getMinRating() || rating.getRating() > properties.getMaxRating()) {
+            return "has a rating outside " + properties.getMinRating() + "-" + properties.getMaxRating() + ": " + rating.getRating();
+        }
+        if (rating.getTimestamp() < 0) {
+            return "has a negative timestamp: " + rating.getTimestamp();
+        }
+        return null;
+    }
+
+    private boolean acquireSlot() {
+        try {
+            return ingestionSlots.tryAcquire(properties.getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record SubmittedBatch(List<Rating> ratings, CompletableFuture<InsertedRatings> inserted) {
+    }
+}
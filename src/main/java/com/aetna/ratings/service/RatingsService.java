@@ -1,11 +1,20 @@
 package com.aetna.ratings.service;
 
 import com.aetna.ratings.dto.RatingSummary;
+import com.aetna.ratings.repository.RatingRowHandler;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface RatingsService {
     List<RatingSummary> getAllMoviesRating(List<Integer> movieIds);
+    List<RatingSummary> getAllMoviesRating(int[] movieIds);
     Optional<RatingSummary> geMovieRating(Integer movieId);
+    Stream<RatingSummary> streamAllMoviesRating(List<Integer> movieIds);
+    Stream<RatingSummary> streamAllMoviesRating(int[] movieIds);
+    Consumer<RatingRowHandler> forEachMovieRating(int[] movieIds);
+    Map<Integer, Long> getMovieVersions(int[] movieIds);
 }
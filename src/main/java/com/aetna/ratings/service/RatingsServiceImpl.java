@@ -1,7 +1,14 @@
 package com.aetna.ratings.service;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -9,8 +16,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 
 import com.aetna.ratings.dto.RatingSummary;
 import com.aetna.ratings.exception.RatingsServiceException;
-import com.aetna.ratings.exception.ResourceNotFoundException;
-import com.aetna.ratings.repository.RatingsRepository;
+import com.aetna.ratings.exception.ServiceOverloadedException;
+import com.aetna.ratings.repository.RatingRowHandler;
+import com.aetna.ratings.service.RatingRequestTelemetry.Operation;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -18,11 +26,23 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class RatingsServiceImpl implements RatingsService {
 
-    public RatingsRepository ratingsRepository;
+    public RatingSummaryCache ratingSummaryCache;
+    public ChunkedBatchLoader chunkedBatchLoader;
+    public RatingLookupCoalescer ratingLookupCoalescer;
+    public SingleLookupBatcher singleLookupBatcher;
+    public RatingRequestTelemetry ratingRequestTelemetry;
+    public RatedMovieFilter ratedMovieFilter;
 
     @Autowired
-    public RatingsServiceImpl(RatingsRepository ratingsRepository) {
-        this.ratingsRepository = ratingsRepository;
+    public RatingsServiceImpl(RatingSummaryCache ratingSummaryCache, ChunkedBatchLoader chunkedBatchLoader,
+            RatingLookupCoalescer ratingLookupCoalescer, SingleLookupBatcher singleLookupBatcher,
+            RatingRequestTelemetry ratingRequestTelemetry, RatedMovieFilter ratedMovieFilter) {
+        this.ratingSummaryCache = ratingSummaryCache;
+        this.chunkedBatchLoader = chunkedBatchLoader;
+        this.ratingLookupCoalescer = ratingLookupCoalescer;
+        this.singleLookupBatcher = singleLookupBatcher;
+        this.ratingRequestTelemetry = ratingRequestTelemetry;
+        this.ratedMovieFilter = ratedMovieFilter;
     }
 
     @Override
@@ -30,15 +50,113 @@ public class RatingsServiceImpl implements RatingsService {
         if (movieIds == null || movieIds.isEmpty()) {
             throw new IllegalArgumentException("Movie IDs list cannot be null or empty");
         }
-        
-        log.info("Retrieving avg movie ratings for " + movieIds.size() + " movies");
-        try {
-            return ratingsRepository.getAvgRatingsForMoviesList(movieIds);
-        } catch (RuntimeException e) {
-            throw new RatingsServiceException("An error occurred while retrieving movie ratings for the provided list of movie IDs.", e);
+        return getAllMoviesRating(toArray(movieIds));
+    }
+
+    /**
+     * IDs stay primitive through validation and de-duplication; they are boxed only for the
+     * cache and coalescer, which key their entries by {@code Integer}. IDs the
+     * {@link RatedMovieFilter} knows to be unrated are dropped before either sees them, so they
+     * neither reach the database nor take up cache entries.
+     */
+    @Override
+    public List<RatingSummary> getAllMoviesRating(int[] movieIds) {
+        if (movieIds == null || movieIds.length == 0) {
+            throw new IllegalArgumentException("Movie IDs list cannot be null or empty");
+        }
+        if (movieIds.length > chunkedBatchLoader.getMaxBatchSize()) {
+            throw new IllegalArgumentException("Movie IDs list cannot contain more than " + chunkedBatchLoader.getMaxBatchSize() + " IDs");
+        }
+
+        int[] distinctMovieIds = distinct(movieIds);
+        log.info("Retrieving avg movie ratings for " + distinctMovieIds.length + " movies");
+        return ratingRequestTelemetry.observe(Operation.BATCH, distinctMovieIds.length, () -> {
+            int[] ratedMovieIds = ratedMovieFilter.retainRated(distinctMovieIds);
+            if (ratedMovieIds.length == 0) {
+                return List.<RatingSummary>of();
+            }
+            try {
+                return ratingSummaryCache.getAll(IntStream.of(ratedMovieIds).boxed().toList(),
+                        missing -> ratingLookupCoalescer.getAll(missing, chunkedBatchLoader::load));
+            } catch (RuntimeException e) {
+                throw new RatingsServiceException("An error occurred while retrieving movie ratings for the provided list of movie IDs.", e);
+            }
+        }, List::size);
+    }
+
+    @Override
+    public Stream<RatingSummary> streamAllMoviesRating(List<Integer> movieIds) {
+        if (movieIds == null || movieIds.isEmpty()) {
+            throw new IllegalArgumentException("Movie IDs list cannot be null or empty");
         }
+        return streamAllMoviesRating(toArray(movieIds));
     }
 
+    /**
+     * Validates the request eagerly and returns a lazy stream; database work happens as the
+     * caller consumes it. Streaming bypasses the cache so a full-catalog export does not evict
+     * the hot entries, and the IDs are never boxed on the way to the database.
+     */
+    @Override
+    public Stream<RatingSummary> streamAllMoviesRating(int[] movieIds) {
+        int[] distinctMovieIds = distinctForStreaming(movieIds);
+        log.info("Streaming avg movie ratings for " + distinctMovieIds.length + " movies");
+        int[] ratedMovieIds = ratedMovieFilter.retainRated(distinctMovieIds);
+        return ratedMovieIds.length == 0 ? Stream.empty() : chunkedBatchLoader.stream(ratedMovieIds);
+    }
+
+    /**
+     * Validated eagerly like {@link #streamAllMoviesRating(int[])}; the returned action runs the
+     * lookup when the caller is ready to write, handing over each row as it leaves the cursor.
+     */
+    @Override
+    public Consumer<RatingRowHandler> forEachMovieRating(int[] movieIds) {
+        int[] distinctMovieIds = distinctForStreaming(movieIds);
+        log.info("Encoding avg movie ratings for " + distinctMovieIds.length + " movies");
+        int[] ratedMovieIds = ratedMovieFilter.retainRated(distinctMovieIds);
+        return ratedMovieIds.length == 0 ? handler -> { } : handler -> chunkedBatchLoader.forEach(ratedMovieIds, handler);
+    }
+
+    /**
+     * The versions {@link #getAllMoviesRating(int[])} would return, for checking a precondition
+     * before the lookup. Cached summaries answer for their movies; the rest are read from the
+     * version column alone, without computing averages or filling the cache. Movies without
+     * ratings are left out.
+     */
+    @Override
+    public Map<Integer, Long> getMovieVersions(int[] movieIds) {
+        if (movieIds == null || movieIds.length == 0) {
+            throw new IllegalArgumentException("Movie IDs list cannot be null or empty");
+        }
+        if (movieIds.length > chunkedBatchLoader.getMaxBatchSize()) {
+            throw new IllegalArgumentException("Movie IDs list cannot contain more than " + chunkedBatchLoader.getMaxBatchSize() + " IDs");
+        }
+        int[] ratedMovieIds = ratedMovieFilter.retainRated(distinct(movieIds));
+        Map<Integer, Long> versions = new HashMap<>(ratedMovieIds.length * 2);
+        int[] uncached = new int[ratedMovieIds.length];
+        int uncachedCount = 0;
+        for (int movieId : ratedMovieIds) {
+            Optional<RatingSummary> cached = ratingSummaryCache.getIfPresent(movieId);
+            if (cached == null) {
+                uncached[uncachedCount++] = movieId;
+            } else {
+                cached.ifPresent(summary -> versions.put(movieId, summary.getVersion()));
+            }
+        }
+        if (uncachedCount > 0) {
+            try {
+                chunkedBatchLoader.forEachVersion(Arrays.copyOf(uncached, uncachedCount), versions::put);
+            } catch (RuntimeException e) {
+                throw new RatingsServiceException("An error occurred while retrieving movie versions for the provided list of movie IDs.", e);
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * A movie without ratings is an empty result rather than an exception, and one the
+     * {@link RatedMovieFilter} knows to be unrated is answered without a lookup.
+     */
     @Override
     public Optional<RatingSummary> geMovieRating(@PathVariable("movieId") Integer movieId) {
         if (movieId == null) {
@@ -49,17 +167,65 @@ public class RatingsServiceImpl implements RatingsService {
             throw new IllegalArgumentException("Movie ID cannot be negative");
         }
 
-        try {
-            Optional<RatingSummary> ratingSummary = ratingsRepository.getAvgRatingForMovie(movieId);
-            log.info("Retrieving avg movie rating for movie ID: " + ratingSummary);
-            if (!ratingSummary.isPresent()) {
-                throw new ResourceNotFoundException("Movie rating not found for ID: " + movieId);
+        return ratingRequestTelemetry.observe(Operation.SINGLE, 1, () -> {
+            if (!ratedMovieFilter.mightHaveRatings(movieId)) {
+                return Optional.<RatingSummary>empty();
+            }
+            try {
+                Optional<RatingSummary> ratingSummary = ratingSummaryCache.get(movieId,
+                        id -> ratingLookupCoalescer.get(id, singleLookupBatcher::get));
+                log.info("Retrieving avg movie rating for movie ID: " + ratingSummary);
+                return ratingSummary;
+            } catch (ServiceOverloadedException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                throw new RatingsServiceException("An error occurred while retrieving the movie rating for ID: " + movieId, e);
+            }
+        }, ratingSummary -> ratingSummary.isPresent() ? 1 : 0);
+    }
+
+    private int[] distinctForStreaming(int[] movieIds) {
+        if (movieIds == null || movieIds.length == 0) {
+            throw new IllegalArgumentException("Movie IDs list cannot be null or empty");
+        }
+        if (movieIds.length > chunkedBatchLoader.getMaxStreamSize()) {
+            throw new IllegalArgumentException("Movie IDs list cannot contain more than " + chunkedBatchLoader.getMaxStreamSize() + " IDs");
+        }
+        return distinct(movieIds);
+    }
+
+    private static int[] toArray(List<Integer> movieIds) {
+        return movieIds.stream().filter(Objects::nonNull).mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Keeps the first occurrence of each ID, in request order, using an open-addressing table
+     * of primitive ints instead of a {@code LinkedHashSet}. Negative IDs are rejected on the
+     * same pass, which leaves -1 free to mark empty slots.
+     */
+    static int[] distinct(int[] movieIds) {
+        int capacity = Integer.highestOneBit(Math.max(1, movieIds.length * 2 - 1)) << 1;
+        int mask = capacity - 1;
+        int shift = Integer.numberOfLeadingZeros(mask);
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, -1);
+        int[] distinctMovieIds = new int[movieIds.length];
+        int count = 0;
+        next:
+        for (int movieId : movieIds) {
+            if (movieId < 0) {
+                throw new IllegalArgumentException("Movie ID cannot be negative");
+            }
+            int slot = (movieId * 0x9E3779B9) >>> shift;
+            while (slots[slot] != -1) {
+                if (slots[slot] == movieId) {
+                    continue next;
+                }
+                slot = (slot + 1) & mask;
             }
-            return ratingSummary;
-        } catch (ResourceNotFoundException e) {
-            throw e;
-        } catch (RuntimeException e) {
-            throw new RatingsServiceException("An error occurred while retrieving the movie rating for ID: " + movieId, e);
+            slots[slot] = movieId;
+            distinctMovieIds[count++] = movieId;
         }
+        return count == movieIds.length ? distinctMovieIds : Arrays.copyOf(distinctMovieIds, count);
     }
 }
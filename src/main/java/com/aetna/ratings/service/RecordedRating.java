@@ -0,0 +1,10 @@
+package com.aetna.ratings.service;
+
+/**
+ * A rating applied to an in-memory structure while that structure was being reloaded, kept so
+ * the reload can replay it if the rows it read did not include it yet.
+ *
+ * @param version the {@code rating_stats_version} the rating committed at
+ */
+record RecordedRating(int movieId, double rating, long timestamp, long version) {
+}
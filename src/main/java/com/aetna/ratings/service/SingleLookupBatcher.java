@@ -0,0 +1,242 @@
+package com.aetna.ratings.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.aetna.ratings.config.RatingMicroBatchProperties;
+import com.aetna.ratings.dto.RatingSummary;
+import com.aetna.ratings.exception.ServiceOverloadedException;
+import com.aetna.ratings.repository.RatingSummaryReader;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Turns concurrent single-movie lookups into batched {@code IN (...)} queries.
+ * <p>
+ * Callers enqueue a movie ID and wait on a future. A dispatcher thread takes the first waiting
+ * ID, keeps collecting for up to {@code window} or until {@code max-batch-size} distinct IDs
+ * are queued, and hands the batch to a small pool that runs it through
+ * {@link ChunkedBatchLoader}. Each caller's future is completed with its own row, or with an
+ * empty result when the movie has no ratings. When the pool is busy the dispatcher runs the
+ * batch itself, which stops collection until the database catches up.
+ * <p>
+ * With {@code ratings.microbatch.enabled=false}, or while the dispatcher is not running,
+ * lookups go straight to {@link RatingSummaryReader#getAvgRatingForMovie(int)}; a lookup queued
+ * just as the dispatcher stops is taken back and run the same way. Callers wait at most
+ * {@code lookup-timeout} for their batch, after which they get 503.
+ */
+@Component
+@Slf4j
+public class SingleLookupBatcher implements SmartLifecycle {
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final RatingSummaryReader ratingSummaryReader;
+    private final ChunkedBatchLoader chunkedBatchLoader;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final int parallelism;
+    private final long retryAfterSeconds;
+    private final long lookupTimeoutMillis;
+    private final BlockingQueue<PendingLookup> queue;
+    private final DistributionSummary batchSize;
+    private final Timer queueWait;
+
+    private volatile boolean running;
+    private Thread dispatcher;
+    private ThreadPoolExecutor executor;
+
+    @Autowired
+    public SingleLookupBatcher(RatingSummaryReader ratingSummaryReader, ChunkedBatchLoader chunkedBatchLoader,
+            RatingMicroBatchProperties properties, MeterRegistry meterRegistry) {
+        if (properties.getMaxBatchSize() < 1 || properties.getQueueCapacity() < 1 || properties.getParallelism() < 1) {
+            throw new IllegalStateException("ratings.microbatch sizes and parallelism must be positive");
+        }
+        this.ratingSummaryReader = ratingSummaryReader;
+        this.chunkedBatchLoader = chunkedBatchLoader;
+        this.enabled = properties.isEnabled();
+        this.windowNanos = properties.getWindow().toNanos();
+        this.maxBatchSize = properties.getMaxBatchSize();
+        this.parallelism = properties.getParallelism();
+        this.retryAfterSeconds = Math.max(1, properties.getRetryAfter().toSeconds());
+        this.lookupTimeoutMillis = properties.getLookupTimeout().toMillis();
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.batchSize = DistributionSummary.builder("ratings.microbatch.size")
+                .description("Distinct movie IDs per batched single-movie query")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("ratings.microbatch.wait")
+                .description("Time a single-movie lookup waits to be batched and dispatched")
+                .register(meterRegistry);
+        Gauge.builder("ratings.microbatch.queue.depth", queue, BlockingQueue::size)
+                .description("Single-movie lookups waiting to be batched")
+                .register(meterRegistry);
+    }
+
+    public Optional<RatingSummary> get(int movieId) {
+        if (!running) {
+            return ratingSummaryReader.getAvgRatingForMovie(movieId);
+        }
+        PendingLookup lookup = new PendingLookup(movieId);
+        if (!queue.offer(lookup)) {
+            throw new ServiceOverloadedException("Rating lookups are at capacity, please retry later", retryAfterSeconds);
+        }
+        // Stopped while offering: take the lookup back unless the dispatcher or stop() already has it.
+        if (!running && queue.remove(lookup)) {
+            return ratingSummaryReader.getAvgRatingForMovie(movieId);
+        }
+        try {
+            return lookup.future.get(lookupTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ServiceOverloadedException("Rating lookup was not answered in time, please retry later", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("Single-movie lookup batching is disabled");
+            return;
+        }
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(parallelism, parallelism, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(parallelism),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ratings-microbatch-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        running = true;
+        dispatcher = new Thread(this::collect, "ratings-microbatch-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /** Stops accepting lookups and answers everything already queued. */
+    @Override
+    public void stop() {
+        running = false;
+        if (dispatcher == null) {
+            return;
+        }
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdown();
+        // Lookups that slipped in after the dispatcher's last poll.
+        Map<Integer, List<PendingLookup>> leftover = new LinkedHashMap<>();
+        PendingLookup lookup;
+        while ((lookup = queue.poll()) != null) {
+            add(leftover, lookup);
+        }
+        if (!leftover.isEmpty()) {
+            dispatch(leftover);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** Start before and stop after the web server, like the writer queue. */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void collect() {
+        while (running || !queue.isEmpty()) {
+            Map<Integer, List<PendingLookup>> batch = new LinkedHashMap<>();
+            try {
+                PendingLookup first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                add(batch, first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    PendingLookup next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    add(batch, next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(batch, new CompletionException(e));
+                return;
+            }
+            executor.execute(() -> dispatch(batch));
+        }
+    }
+
+    private void dispatch(Map<Integer, List<PendingLookup>> batch) {
+        batchSize.record(batch.size());
+        long dispatchedAt = System.nanoTime();
+        batch.values().forEach(lookups -> lookups.forEach(
+                lookup -> queueWait.record(dispatchedAt - lookup.enqueuedAt, TimeUnit.NANOSECONDS)));
+        Map<Integer, RatingSummary> found = new HashMap<>(batch.size() * 2);
+        try {
+            for (RatingSummary summary : chunkedBatchLoader.load(new ArrayList<>(batch.keySet()))) {
+                found.put(summary.getMovieId(), summary);
+            }
+        } catch (RuntimeException e) {
+            fail(batch, e);
+            return;
+        }
+        batch.forEach((movieId, lookups) -> {
+            Optional<RatingSummary> summary = Optional.ofNullable(found.get(movieId));
+            lookups.forEach(lookup -> lookup.future.complete(summary));
+        });
+    }
+
+    private static void add(Map<Integer, List<PendingLookup>> batch, PendingLookup lookup) {
+        batch.computeIfAbsent(lookup.movieId, movieId -> new ArrayList<>(1)).add(lookup);
+    }
+
+    private static void fail(Map<Integer, List<PendingLookup>> batch, RuntimeException e) {
+        batch.values().forEach(lookups -> lookups.forEach(lookup -> lookup.future.completeExceptionally(e)));
+    }
+
+    private static final class PendingLookup {
+        private final int movieId;
+        private final CompletableFuture<Optional<RatingSummary>> future = new CompletableFuture<>();
+        private final long enqueuedAt = System.nanoTime();
+
+        private PendingLookup(int movieId) {
+            this.movieId = movieId;
+        }
+    }
+}
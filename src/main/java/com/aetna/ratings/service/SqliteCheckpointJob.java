@@ -0,0 +1,140 @@
+package com.aetna.ratings.service;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.aetna.ratings.config.SqliteDataSourceConfig;
+import com.aetna.ratings.config.SqliteProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Checkpoints the SQLite write-ahead log into the database file on a fixed delay.
+ * <p>
+ * SQLite's automatic checkpoint runs on the committing connection and so adds its cost to
+ * whichever write happens to cross the threshold. The writer connection has it turned off
+ * ({@code ratings.sqlite.wal-autocheckpoint}), and this job checkpoints on its own unpooled
+ * connection instead, so the writer queue never waits for a checkpoint in PASSIVE mode. The
+ * other modes wait for the writer to finish its current transaction, and block new ones while
+ * they copy. A checkpoint cannot copy frames that an open read transaction
+ * still needs, so the job also reports how far the WAL is behind: its size on disk, frames
+ * left after the last checkpoint, and time since the WAL was last fully checkpointed.
+ */
+@Component
+@Slf4j
+public class SqliteCheckpointJob {
+
+    private static final String URL_PREFIX = "jdbc:sqlite:";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String checkpointSql;
+    private final File walFile;
+    private final Timer checkpointTimer;
+    private final Counter busyCheckpoints;
+
+    private volatile long pendingFrames;
+    private volatile long lastCompleteCheckpoint = System.nanoTime();
+
+    @Autowired
+    public SqliteCheckpointJob(@Qualifier(SqliteDataSourceConfig.CHECKPOINT_DATA_SOURCE) DataSource checkpointDataSource,
+            DataSourceProperties dataSourceProperties, SqliteProperties properties, MeterRegistry meterRegistry) {
+        this(new JdbcTemplate(checkpointDataSource), dataSourceProperties, properties, meterRegistry);
+    }
+
+    SqliteCheckpointJob(JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties,
+            SqliteProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.checkpointSql = "PRAGMA wal_checkpoint(" + properties.getCheckpointMode() + ")";
+        this.walFile = walFile(dataSourceProperties.getUrl());
+        this.checkpointTimer = Timer.builder("ratings.sqlite.checkpoint")
+                .description("Time to checkpoint the WAL into the database file")
+                .register(meterRegistry);
+        this.busyCheckpoints = Counter.builder("ratings.sqlite.checkpoint.busy")
+                .description("Checkpoints that could not complete because the database was busy")
+                .register(meterRegistry);
+        Gauge.builder("ratings.sqlite.wal.size", this, SqliteCheckpointJob::walSize)
+                .description("Size of the write-ahead log file")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("ratings.sqlite.checkpoint.lag.frames", this, job -> job.pendingFrames)
+                .description("WAL frames not yet copied into the database file after the last checkpoint")
+                .register(meterRegistry);
+        Gauge.builder("ratings.sqlite.checkpoint.lag", this, SqliteCheckpointJob::checkpointLagSeconds)
+                .description("Time since the WAL was last fully checkpointed")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${ratings.sqlite.checkpoint-interval:PT30S}",
+            initialDelayString = "${ratings.sqlite.checkpoint-interval:PT30S}")
+    public void checkpoint() {
+        try {
+            int[] result = checkpointTimer.record(() -> jdbcTemplate.queryForObject(checkpointSql,
+                    (rs, rowNum) -> new int[] {rs.getInt(1), rs.getInt(2), rs.getInt(3)}));
+            record(result[0] != 0, result[1], result[2]);
+        } catch (RuntimeException e) {
+            log.error("WAL checkpoint failed", e);
+        }
+    }
+
+    /**
+     * @param busy   whether the checkpoint was blocked by another connection
+     * @param logged frames in the WAL, or -1 when the database is not in WAL mode
+     * @param copied frames copied into the database file
+     */
+    void record(boolean busy, int logged, int copied) {
+        if (busy) {
+            busyCheckpoints.increment();
+        }
+        if (logged < 0) {
+            pendingFrames = 0;
+            return;
+        }
+        pendingFrames = logged - copied;
+        if (!busy && logged == copied) {
+            lastCompleteCheckpoint = System.nanoTime();
+        } else {
+            log.debug("WAL checkpoint copied " + copied + " of " + logged + " frames");
+        }
+    }
+
+    long getPendingFrames() {
+        return pendingFrames;
+    }
+
+    double checkpointLagSeconds() {
+        return (System.nanoTime() - lastCompleteCheckpoint) / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private double walSize() {
+        return walFile == null ? 0 : walFile.length();
+    }
+
+    private static File walFile(String url) {
+        if (url == null || !url.startsWith(URL_PREFIX)) {
+            return null;
+        }
+        String path = url.substring(URL_PREFIX.length());
+        int options = path.indexOf('?');
+        if (options >= 0) {
+            path = path.substring(0, options);
+        }
+        if (path.isEmpty() || path.startsWith(":memory:")) {
+            return null;
+        }
+        return new File(path + "-wal");
+    }
+}
@@ -0,0 +1,12 @@
+package com.aetna.ratings.service;
+
+import com.aetna.ratings.dto.UserRating;
+import com.aetna.ratings.dto.UserRatingsPage;
+
+import java.util.List;
+
+public interface UserRatingsService {
+    UserRatingsPage getUserRatings(int userId, String after, Integer limit);
+    List<UserRatingsPage> getUsersRatings(int[] userIds, Integer limit);
+    List<UserRating> getUserMovieRatings(int userId, int[] movieIds);
+}
@@ -0,0 +1,166 @@
+package com.aetna.ratings.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.aetna.ratings.config.UserRatingsProperties;
+import com.aetna.ratings.dto.UserRating;
+import com.aetna.ratings.dto.UserRatingsPage;
+import com.aetna.ratings.exception.RatingsServiceException;
+import com.aetna.ratings.repository.UserRatingsReader;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * User-centric rating lookups for callers such as the recommender. Every lookup is a seek on
+ * {@code ratings_userId_movieId_index}; nothing is cached, since the raw ratings of a user are
+ * read far less often than a movie's average and would crowd the summary cache out.
+ * <p>
+ * Pages are read one row past the requested size to tell whether another page follows. The
+ * cursor handed back is {@code movieId:ratingId} of the last rating on the page.
+ */
+@Service
+@Slf4j
+public class UserRatingsServiceImpl implements UserRatingsService {
+
+    public UserRatingsReader userRatingsReader;
+    public ChunkedBatchLoader chunkedBatchLoader;
+    private final UserRatingsProperties properties;
+
+    @Autowired
+    public UserRatingsServiceImpl(UserRatingsReader userRatingsReader, ChunkedBatchLoader chunkedBatchLoader,
+            UserRatingsProperties properties) {
+        if (properties.getDefaultPageSize() < 1 || properties.getMaxPageSize() < properties.getDefaultPageSize()
+                || properties.getMaxBatchUsers() < 1) {
+            throw new IllegalStateException("ratings.users.default-page-size must be positive and at most max-page-size, and max-batch-users positive");
+        }
+        this.userRatingsReader = userRatingsReader;
+        this.chunkedBatchLoader = chunkedBatchLoader;
+        this.properties = properties;
+    }
+
+    @Override
+    public UserRatingsPage getUserRatings(int userId, String after, Integer limit) {
+        validateUserId(userId);
+        int size = pageSize(limit);
+        int[] cursor = parseCursor(after);
+        try {
+            return page(userId, userRatingsReader.getUserRatings(userId, cursor[0], cursor[1], size + 1), size);
+        } catch (RuntimeException e) {
+            throw new RatingsServiceException("An error occurred while retrieving ratings for user ID: " + userId, e);
+        }
+    }
+
+    /**
+     * The first page of each distinct user, in request order. Users without ratings get an empty page.
+     */
+    @Override
+    public List<UserRatingsPage> getUsersRatings(int[] userIds, Integer limit) {
+        if (userIds == null || userIds.length == 0) {
+            throw new IllegalArgumentException("User IDs list cannot be null or empty");
+        }
+        if (userIds.length > properties.getMaxBatchUsers()) {
+            throw new IllegalArgumentException("User IDs list cannot contain more than " + properties.getMaxBatchUsers() + " IDs");
+        }
+        for (int userId : userIds) {
+            validateUserId(userId);
+        }
+        int size = pageSize(limit);
+        int[] distinctUserIds = RatingsServiceImpl.distinct(userIds);
+        log.info("Retrieving ratings for " + distinctUserIds.length + " users");
+        try {
+            List<List<UserRating>> ratings = userRatingsReader.getUsersRatings(distinctUserIds, size + 1);
+            List<UserRatingsPage> pages = new ArrayList<>(distinctUserIds.length);
+            for (int i = 0; i < distinctUserIds.length; i++) {
+                pages.add(page(distinctUserIds[i], ratings.get(i), size));
+            }
+            return pages;
+        } catch (RuntimeException e) {
+            throw new RatingsServiceException("An error occurred while retrieving ratings for the provided list of user IDs.", e);
+        }
+    }
+
+    /**
+     * The user's ratings of the given movies in request order; movies the user has not rated are
+     * left out. IDs are read in padded chunks like average lookups.
+     */
+    @Override
+    public List<UserRating> getUserMovieRatings(int userId, int[] movieIds) {
+        validateUserId(userId);
+        if (movieIds == null || movieIds.length == 0) {
+            throw new IllegalArgumentException("Movie IDs list cannot be null or empty");
+        }
+        if (movieIds.length > chunkedBatchLoader.getMaxBatchSize()) {
+            throw new IllegalArgumentException("Movie IDs list cannot contain more than " + chunkedBatchLoader.getMaxBatchSize() + " IDs");
+        }
+        int[] distinctMovieIds = RatingsServiceImpl.distinct(movieIds);
+        try {
+            int chunkSize = chunkedBatchLoader.getChunkSize();
+            Map<Integer, List<UserRating>> byMovieId = new HashMap<>();
+            for (int from = 0; from < distinctMovieIds.length; from += chunkSize) {
+                int[] chunk = chunkedBatchLoader.pad(distinctMovieIds, from, Math.min(from + chunkSize, distinctMovieIds.length));
+                for (UserRating rating : userRatingsReader.getUserRatingsForMovies(userId, chunk)) {
+                    byMovieId.computeIfAbsent(rating.getMovieId(), movieId -> new ArrayList<>(1)).add(rating);
+                }
+            }
+            List<UserRating> ratings = new ArrayList<>(byMovieId.size());
+            for (int movieId : distinctMovieIds) {
+                List<UserRating> movieRatings = byMovieId.get(movieId);
+                if (movieRatings != null) {
+                    ratings.addAll(movieRatings);
+                }
+            }
+            return ratings;
+        } catch (RuntimeException e) {
+            throw new RatingsServiceException("An error occurred while retrieving ratings of the provided movies for user ID: " + userId, e);
+        }
+    }
+
+    private int pageSize(Integer limit) {
+        int size = limit == null ? properties.getDefaultPageSize() : limit;
+        if (size < 1 || size > properties.getMaxPageSize()) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + properties.getMaxPageSize());
+        }
+        return size;
+    }
+
+    private static void validateUserId(int userId) {
+        if (userId <= 0) {
+            throw new IllegalArgumentException("User ID must be positive");
+        }
+    }
+
+    /** {@code rows} holds up to one rating more than the page, which only signals that another page follows. */
+    private static UserRatingsPage page(int userId, List<UserRating> rows, int size) {
+        if (rows.size() <= size) {
+            return new UserRatingsPage(userId, rows, null);
+        }
+        List<UserRating> ratings = new ArrayList<>(rows.subList(0, size));
+        return new UserRatingsPage(userId, ratings, cursor(ratings.get(size - 1)));
+    }
+
+    static String cursor(UserRating last) {
+        return last.getMovieId() + ":" + last.getRatingId();
+    }
+
+    /** The (movieId, ratingId) to read after; zeros, before every rating, when there is no cursor. */
+    static int[] parseCursor(String after) {
+        if (after == null || after.isBlank()) {
+            return new int[] {0, 0};
+        }
+        int separator = after.indexOf(':');
+        try {
+            if (separator > 0) {
+                return new int[] {Integer.parseInt(after.substring(0, separator).trim()), Integer.parseInt(after.substring(separator + 1).trim())};
+            }
+        } catch (NumberFormatException e) {
+            // Reported below.
+        }
+        throw new IllegalArgumentException("Invalid cursor '" + after + "'; pass back the next value of the previous page");
+    }
+}
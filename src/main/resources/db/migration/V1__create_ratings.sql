@@ -0,0 +1,9 @@
+-- Raw ratings as shipped in ratings.db. IF NOT EXISTS lets existing databases be baselined onto
+-- this history without recreating the table.
+CREATE TABLE IF NOT EXISTS ratings (
+    ratingId  INTEGER PRIMARY KEY,
+    userId    INTEGER NOT NULL,
+    movieId   INTEGER NOT NULL,
+    rating    REAL    NOT NULL,
+    timestamp INTEGER NOT NULL
+);
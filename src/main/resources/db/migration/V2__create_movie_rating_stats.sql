@@ -0,0 +1,45 @@
+-- Per-movie running aggregate over ratings, maintained by the triggers below so that rows written
+-- by other processes are counted as well.
+CREATE TABLE IF NOT EXISTS movie_rating_stats (
+    movieId       INTEGER PRIMARY KEY,
+    ratingSum     REAL    NOT NULL,
+    ratingCount   INTEGER NOT NULL,
+    minRating     REAL    NOT NULL,
+    maxRating     REAL    NOT NULL,
+    lastTimestamp INTEGER NOT NULL
+);
+
+CREATE TRIGGER IF NOT EXISTS ratings_stats_after_insert AFTER INSERT ON ratings
+BEGIN
+    INSERT INTO movie_rating_stats (movieId, ratingSum, ratingCount, minRating, maxRating, lastTimestamp)
+    VALUES (NEW.movieId, NEW.rating, 1, NEW.rating, NEW.rating, NEW.timestamp)
+    ON CONFLICT(movieId) DO UPDATE SET ratingSum = ratingSum + excluded.ratingSum,
+        ratingCount = ratingCount + 1, minRating = MIN(minRating, excluded.minRating),
+        maxRating = MAX(maxRating, excluded.maxRating), lastTimestamp = MAX(lastTimestamp, excluded.lastTimestamp);
+END;
+
+-- Min/max cannot be maintained by subtraction, so deletes and updates recompute the affected
+-- movies from their own rows.
+CREATE TRIGGER IF NOT EXISTS ratings_stats_after_delete AFTER DELETE ON ratings
+BEGIN
+    DELETE FROM movie_rating_stats WHERE movieId = OLD.movieId;
+    INSERT INTO movie_rating_stats (movieId, ratingSum, ratingCount, minRating, maxRating, lastTimestamp)
+    SELECT movieId, SUM(rating), COUNT(*), MIN(rating), MAX(rating), MAX(timestamp) FROM ratings
+    WHERE movieId = OLD.movieId GROUP BY movieId;
+END;
+
+CREATE TRIGGER IF NOT EXISTS ratings_stats_after_update AFTER UPDATE OF movieId, rating, timestamp ON ratings
+BEGIN
+    DELETE FROM movie_rating_stats WHERE movieId = OLD.movieId;
+    INSERT INTO movie_rating_stats (movieId, ratingSum, ratingCount, minRating, maxRating, lastTimestamp)
+    SELECT movieId, SUM(rating), COUNT(*), MIN(rating), MAX(rating), MAX(timestamp) FROM ratings
+    WHERE movieId = OLD.movieId GROUP BY movieId;
+    DELETE FROM movie_rating_stats WHERE movieId = NEW.movieId;
+    INSERT INTO movie_rating_stats (movieId, ratingSum, ratingCount, minRating, maxRating, lastTimestamp)
+    SELECT movieId, SUM(rating), COUNT(*), MIN(rating), MAX(rating), MAX(timestamp) FROM ratings
+    WHERE movieId = NEW.movieId GROUP BY movieId;
+END;
+
+-- Seeds movies that have no aggregate yet; MovieRatingStatsJob repairs any other drift on startup.
+INSERT OR IGNORE INTO movie_rating_stats (movieId, ratingSum, ratingCount, minRating, maxRating, lastTimestamp)
+SELECT movieId, SUM(rating), COUNT(*), MIN(rating), MAX(rating), MAX(timestamp) FROM ratings GROUP BY movieId;
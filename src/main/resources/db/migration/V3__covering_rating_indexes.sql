@@ -0,0 +1,7 @@
+-- AVG(rating) per movie is answered from the index alone, without touching the table rows.
+-- The old single-column index is a prefix of the new one and only adds write cost.
+CREATE INDEX IF NOT EXISTS ratings_movieId_rating_index ON ratings (movieId, rating);
+DROP INDEX IF EXISTS ratings_movieId_index;
+
+CREATE INDEX IF NOT EXISTS ratings_userId_index ON ratings (userId);
+CREATE INDEX IF NOT EXISTS ratings_timestamp_index ON ratings (timestamp);
@@ -0,0 +1,46 @@
+-- Version stamp for HTTP validators. Every write to ratings takes the next value of one global
+-- counter and stores it on the movies it changed, so a version is never reused, even for a movie
+-- whose aggregate row was deleted and later recreated. Existing rows start at 0.
+CREATE TABLE IF NOT EXISTS rating_stats_version (
+    id      INTEGER PRIMARY KEY CHECK (id = 1),
+    version INTEGER NOT NULL
+);
+INSERT OR IGNORE INTO rating_stats_version (id, version) VALUES (1, 0);
+
+ALTER TABLE movie_rating_stats ADD COLUMN version INTEGER NOT NULL DEFAULT 0;
+
+DROP TRIGGER IF EXISTS ratings_stats_after_insert;
+CREATE TRIGGER ratings_stats_after_insert AFTER INSERT ON ratings
+BEGIN
+    UPDATE rating_stats_version SET version = version + 1;
+    INSERT INTO movie_rating_stats (movieId, ratingSum, ratingCount, minRating, maxRating, lastTimestamp, version)
+    VALUES (NEW.movieId, NEW.rating, 1, NEW.rating, NEW.rating, NEW.timestamp, (SELECT version FROM rating_stats_version))
+    ON CONFLICT(movieId) DO UPDATE SET ratingSum = ratingSum + excluded.ratingSum,
+        ratingCount = ratingCount + 1, minRating = MIN(minRating, excluded.minRating),
+        maxRating = MAX(maxRating, excluded.maxRating), lastTimestamp = MAX(lastTimestamp, excluded.lastTimestamp),
+        version = excluded.version;
+END;
+
+DROP TRIGGER IF EXISTS ratings_stats_after_delete;
+CREATE TRIGGER ratings_stats_after_delete AFTER DELETE ON ratings
+BEGIN
+    UPDATE rating_stats_version SET version = version + 1;
+    DELETE FROM movie_rating_stats WHERE movieId = OLD.movieId;
+    INSERT INTO movie_rating_stats (movieId, ratingSum, ratingCount, minRating, maxRating, lastTimestamp, version)
+    SELECT movieId, SUM(rating), COUNT(*), MIN(rating), MAX(rating), MAX(timestamp), (SELECT version FROM rating_stats_version)
+    FROM ratings WHERE movieId = OLD.movieId GROUP BY movieId;
+END;
+
+DROP TRIGGER IF EXISTS ratings_stats_after_update;
+CREATE TRIGGER ratings_stats_after_update AFTER UPDATE OF movieId, rating, timestamp ON ratings
+BEGIN
+    UPDATE rating_stats_version SET version = version + 1;
+    DELETE FROM movie_rating_stats WHERE movieId = OLD.movieId;
+    INSERT INTO movie_rating_stats (movieId, ratingSum, ratingCount, minRating, maxRating, lastTimestamp, version)
+    SELECT movieId, SUM(rating), COUNT(*), MIN(rating), MAX(rating), MAX(timestamp), (SELECT version FROM rating_stats_version)
+    FROM ratings WHERE movieId = OLD.movieId GROUP BY movieId;
+    DELETE FROM movie_rating_stats WHERE movieId = NEW.movieId;
+    INSERT INTO movie_rating_stats (movieId, ratingSum, ratingCount, minRating, maxRating, lastTimestamp, version)
+    SELECT movieId, SUM(rating), COUNT(*), MIN(rating), MAX(rating), MAX(timestamp), (SELECT version FROM rating_stats_version)
+    FROM ratings WHERE movieId = NEW.movieId GROUP BY movieId;
+END;
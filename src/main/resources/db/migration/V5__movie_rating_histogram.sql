@@ -0,0 +1,42 @@
+-- Per-movie count of ratings in each half-star bucket, so distributions, percentiles and damped
+-- averages are answered from at most ten rows per movie instead of the movie's raw ratings.
+-- bucket is the rating in half stars (1 = 0.5 ... 10 = 5.0); ratings off the half-star grid are
+-- counted in the nearest bucket. Clustered on (movieId, bucket), so a movie's histogram is one
+-- contiguous range read.
+CREATE TABLE IF NOT EXISTS movie_rating_histogram (
+    movieId     INTEGER NOT NULL,
+    bucket      INTEGER NOT NULL,
+    ratingCount INTEGER NOT NULL,
+    PRIMARY KEY (movieId, bucket)
+) WITHOUT ROWID;
+
+-- Counts are adjusted by one per changed rating; a bucket row is removed once it reaches zero.
+CREATE TRIGGER IF NOT EXISTS ratings_histogram_after_insert AFTER INSERT ON ratings
+BEGIN
+    INSERT INTO movie_rating_histogram (movieId, bucket, ratingCount)
+    VALUES (NEW.movieId, MIN(MAX(CAST(ROUND(NEW.rating * 2) AS INTEGER), 1), 10), 1)
+    ON CONFLICT(movieId, bucket) DO UPDATE SET ratingCount = ratingCount + 1;
+END;
+
+CREATE TRIGGER IF NOT EXISTS ratings_histogram_after_delete AFTER DELETE ON ratings
+BEGIN
+    UPDATE movie_rating_histogram SET ratingCount = ratingCount - 1
+    WHERE movieId = OLD.movieId AND bucket = MIN(MAX(CAST(ROUND(OLD.rating * 2) AS INTEGER), 1), 10);
+    DELETE FROM movie_rating_histogram
+    WHERE movieId = OLD.movieId AND bucket = MIN(MAX(CAST(ROUND(OLD.rating * 2) AS INTEGER), 1), 10) AND ratingCount <= 0;
+END;
+
+CREATE TRIGGER IF NOT EXISTS ratings_histogram_after_update AFTER UPDATE OF movieId, rating ON ratings
+BEGIN
+    UPDATE movie_rating_histogram SET ratingCount = ratingCount - 1
+    WHERE movieId = OLD.movieId AND bucket = MIN(MAX(CAST(ROUND(OLD.rating * 2) AS INTEGER), 1), 10);
+    DELETE FROM movie_rating_histogram
+    WHERE movieId = OLD.movieId AND bucket = MIN(MAX(CAST(ROUND(OLD.rating * 2) AS INTEGER), 1), 10) AND ratingCount <= 0;
+    INSERT INTO movie_rating_histogram (movieId, bucket, ratingCount)
+    VALUES (NEW.movieId, MIN(MAX(CAST(ROUND(NEW.rating * 2) AS INTEGER), 1), 10), 1)
+    ON CONFLICT(movieId, bucket) DO UPDATE SET ratingCount = ratingCount + 1;
+END;
+
+-- Seeds movies that have no histogram yet; MovieRatingStatsJob repairs any other drift on startup.
+INSERT OR IGNORE INTO movie_rating_histogram (movieId, bucket, ratingCount)
+SELECT movieId, MIN(MAX(CAST(ROUND(rating * 2) AS INTEGER), 1), 10) AS bucket, COUNT(*) FROM ratings GROUP BY movieId, bucket;
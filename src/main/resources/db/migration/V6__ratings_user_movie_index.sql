@@ -0,0 +1,5 @@
+-- Per-user lookups seek on (userId, movieId) and page in (movieId, ratingId) order straight off
+-- the index, since the rowid follows the indexed columns. The old single-column index is a
+-- prefix of the new one and only adds write cost.
+CREATE INDEX IF NOT EXISTS ratings_userId_movieId_index ON ratings (userId, movieId);
+DROP INDEX IF EXISTS ratings_userId_index;
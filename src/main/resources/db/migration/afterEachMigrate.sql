@@ -0,0 +1,2 @@
+-- Refresh planner statistics so new indexes are costed correctly straight away.
+ANALYZE;
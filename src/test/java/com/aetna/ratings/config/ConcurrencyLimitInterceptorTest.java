@@ -0,0 +1,69 @@
+package com.aetna.ratings.config;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new ConcurrencyLimitInterceptor("movies", 1, Duration.ZERO, Duration.ofSeconds(2),
+                new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    void testRejectsWhenAtLimit() throws Exception {
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), null));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(new MockHttpServletRequest(), rejected, null));
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("Too many concurrent movies requests, please retry later"));
+        assertEquals(1.0, meterRegistry.get("ratings.concurrency.rejected").tag("endpoint", "movies").counter().count());
+    }
+
+    @Test
+    void testReleasesPermitAfterCompletion() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, null);
+        assertEquals(0, interceptor.getAvailablePermits());
+
+        interceptor.afterCompletion(request, response, null, null);
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertEquals(1, interceptor.getAvailablePermits());
+    }
+
+    @Test
+    void testAsyncDispatchKeepsPermit() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, null);
+        interceptor.afterConcurrentHandlingStarted(request, response, null);
+
+        assertTrue(interceptor.preHandle(request, response, null));
+        assertEquals(0, interceptor.getAvailablePermits());
+
+        interceptor.afterCompletion(request, response, null, null);
+        assertEquals(1, interceptor.getAvailablePermits());
+    }
+}
@@ -0,0 +1,77 @@
+package com.aetna.ratings.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class MovieIdArrayHttpMessageConverterTest {
+
+    private final MovieIdArrayHttpMessageConverter converter = new MovieIdArrayHttpMessageConverter(new ObjectMapper());
+
+    private int[] read(String json) throws IOException {
+        MockHttpInputMessage message = new MockHttpInputMessage(json.getBytes(StandardCharsets.UTF_8));
+        message.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return converter.read(int[].class, message);
+    }
+
+    @Test
+    void testReadsIntegers() throws IOException {
+        assertArrayEquals(new int[] {1, 2, 3}, read("[1, 2, 3]"));
+        assertArrayEquals(new int[0], read("[]"));
+    }
+
+    @Test
+    void testGrowsPastInitialCapacity() throws IOException {
+        StringBuilder json = new StringBuilder("[");
+        int[] expected = new int[1000];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = i + 1;
+            json.append(i == 0 ? "" : ",").append(i + 1);
+        }
+        assertArrayEquals(expected, read(json.append(']').toString()));
+    }
+
+    @Test
+    void testCoercesLikeJackson() throws IOException {
+        assertArrayEquals(new int[] {1, 2, 3}, read("[1, null, \"2\", \"\", 3.7]"));
+        assertNull(read("null"));
+    }
+
+    @Test
+    void testRejectsNonIntegerElements() {
+        for (String json : new String[] {"[1, \"two\"]", "[true]", "[{}]", "[[1]]"}) {
+            HttpMessageNotReadableException e = assertThrows(HttpMessageNotReadableException.class, () -> read(json));
+            assertTrue(e.getMessage().contains(MovieIdArrayHttpMessageConverter.INTEGER_MISMATCH), json);
+        }
+    }
+
+    @Test
+    void testRejectsMalformedBodies() {
+        for (String json : new String[] {"invalid json", "{\"movieIds\": [1]}", "5", "[1, 2", "[3000000000]", "[1e10]"}) {
+            HttpMessageNotReadableException e = assertThrows(HttpMessageNotReadableException.class, () -> read(json));
+            assertFalse(e.getMessage().contains(MovieIdArrayHttpMessageConverter.INTEGER_MISMATCH), json);
+        }
+    }
+
+    @Test
+    void testOnlyReadsIntArrays() {
+        assertTrue(converter.canRead(int[].class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(Integer[].class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(int[].class, MediaType.APPLICATION_JSON));
+        assertThrows(HttpMessageNotWritableException.class,
+                () -> converter.write(new int[] {1}, MediaType.APPLICATION_JSON, new MockHttpOutputMessage()));
+    }
+}
@@ -0,0 +1,44 @@
+package com.aetna.ratings.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+class BinaryRatingSummaryWriterTest {
+
+    @Test
+    void testWritesFixedWidthRecordsPastBufferSize() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryRatingSummaryWriter writer = new BinaryRatingSummaryWriter(out);
+        int movies = 3000;
+        for (int movieId = 1; movieId <= movies; movieId++) {
+            writer.accept(movieId, (movieId % 46 + 5) / 10.0);
+        }
+        writer.flush();
+
+        ByteBuffer body = ByteBuffer.wrap(out.toByteArray());
+        assertEquals(movies * BinaryRatingSummaryWriter.RECORD_BYTES, body.remaining());
+        for (int movieId = 1; movieId <= movies; movieId++) {
+            assertEquals(movieId, body.getInt());
+            assertEquals(movieId % 46 + 5, body.getShort());
+        }
+    }
+
+    @Test
+    void testRoundsToOneDecimal() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryRatingSummaryWriter writer = new BinaryRatingSummaryWriter(out);
+        writer.accept(7, 4.1);
+        writer.accept(8, 2.95);
+        writer.flush();
+
+        ByteBuffer body = ByteBuffer.wrap(out.toByteArray());
+        assertEquals(7, body.getInt());
+        assertEquals(41, body.getShort());
+        assertEquals(8, body.getInt());
+        assertEquals(30, body.getShort());
+    }
+}
@@ -0,0 +1,66 @@
+package com.aetna.ratings.controller;
+
+import com.aetna.ratings.dto.LeaderboardEntry;
+import com.aetna.ratings.dto.LeaderboardPage;
+import com.aetna.ratings.service.ClientRateLimiter;
+import com.aetna.ratings.service.RatingLeaderboard;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(LeaderboardController.class)
+class LeaderboardControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private RatingLeaderboard ratingLeaderboard;
+
+    @MockBean
+    private ClientRateLimiter clientRateLimiter;
+
+    @Test
+    void testGetLeaderboard() throws Exception {
+        when(ratingLeaderboard.page("7d", 50, 1, 10)).thenReturn(
+                new LeaderboardPage("7d", 50, 1, 10, List.of(new LeaderboardEntry(11, 318, 4.41, 4.4, 311))));
+
+        mockMvc.perform(get("/api/v1/ratings/leaderboard?window=7d&minVotes=50&page=1&size=10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.window").value("7d"))
+                .andExpect(jsonPath("$.entries[0].rank").value(11))
+                .andExpect(jsonPath("$.entries[0].movieId").value(318))
+                .andExpect(jsonPath("$.entries[0].score").value(4.41))
+                .andExpect(jsonPath("$.entries[0].voteCount").value(311));
+        verify(clientRateLimiter).acquire(null, 1);
+    }
+
+    @Test
+    void testGetLeaderboardDefaults() throws Exception {
+        when(ratingLeaderboard.page(null, null, 0, 20)).thenReturn(new LeaderboardPage("all", 10, 0, 20, List.of()));
+
+        mockMvc.perform(get("/api/v1/ratings/leaderboard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.window").value("all"))
+                .andExpect(jsonPath("$.entries").isEmpty());
+    }
+
+    @Test
+    void testGetLeaderboardBadRequest() throws Exception {
+        when(ratingLeaderboard.page("1y", null, 0, 20))
+                .thenThrow(new IllegalArgumentException("Unknown leaderboard window '1y'; available windows are all, 7d, 30d"));
+
+        mockMvc.perform(get("/api/v1/ratings/leaderboard?window=1y"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown leaderboard window '1y'; available windows are all, 7d, 30d"));
+        mockMvc.perform(get("/api/v1/ratings/leaderboard?page=first"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,127 @@
+package com.aetna.ratings.controller;
+
+import com.aetna.ratings.dto.RatingDistribution;
+import com.aetna.ratings.exception.RateLimitExceededException;
+import com.aetna.ratings.exception.RatingsServiceException;
+import com.aetna.ratings.service.ClientRateLimiter;
+import com.aetna.ratings.service.RatingDistributionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(RatingDistributionController.class)
+class RatingDistributionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private RatingDistributionService ratingDistributionService;
+
+    @MockBean
+    private ClientRateLimiter clientRateLimiter;
+
+    private RatingDistribution distribution;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("4.0", 3L);
+        counts.put("4.5", 1L);
+        distribution = new RatingDistribution(1, 4, counts, 4.0, 4.5, 3.62);
+    }
+
+    @Test
+    void testGetMovieDistribution() throws Exception {
+        when(ratingDistributionService.getMovieDistribution(1)).thenReturn(Optional.of(distribution));
+
+        mockMvc.perform(get("/api/v1/ratings/movie/1/distribution"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.movieId").value(1))
+                .andExpect(jsonPath("$.voteCount").value(4))
+                .andExpect(jsonPath("$.distribution['4.0']").value(3))
+                .andExpect(jsonPath("$.median").value(4.0))
+                .andExpect(jsonPath("$.p90").value(4.5))
+                .andExpect(jsonPath("$.bayesianAverage").value(3.62));
+        verify(clientRateLimiter).acquire(null, 1);
+    }
+
+    @Test
+    void testGetMovieDistributionNotFound() throws Exception {
+        when(ratingDistributionService.getMovieDistribution(2)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/v1/ratings/movie/2/distribution"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Movie rating not found for ID: 2"));
+    }
+
+    @Test
+    void testGetMovieDistributionInvalidId() throws Exception {
+        mockMvc.perform(get("/api/v1/ratings/movie/0/distribution"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Movie ID cannot be negative"));
+        mockMvc.perform(get("/api/v1/ratings/movie/abc/distribution"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(ratingDistributionService);
+    }
+
+    @Test
+    void testGetMovieDistributions() throws Exception {
+        when(ratingDistributionService.getMovieDistributions(aryEq(new int[] {1, 2}))).thenReturn(List.of(distribution));
+
+        mockMvc.perform(post("/api/v1/ratings/movies/distribution")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].movieId").value(1))
+                .andExpect(jsonPath("$[0].distribution['4.5']").value(1));
+        verify(clientRateLimiter).acquire(null, 2);
+    }
+
+    @Test
+    void testGetMovieDistributionsBadRequests() throws Exception {
+        mockMvc.perform(post("/api/v1/ratings/movies/distribution")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Movie IDs list cannot be null or empty"));
+        mockMvc.perform(post("/api/v1/ratings/movies/distribution")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, \"two\"]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid movie ID format. All IDs must be integers."));
+    }
+
+    @Test
+    void testGetMovieDistributionsServerError() throws Exception {
+        when(ratingDistributionService.getMovieDistributions(any(int[].class)))
+                .thenThrow(new RatingsServiceException("An error occurred while retrieving rating distributions for the provided list of movie IDs."));
+
+        mockMvc.perform(post("/api/v1/ratings/movies/distribution")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1]"))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    void testRateLimited() throws Exception {
+        doThrow(new RateLimitExceededException("Request rate limit exceeded for client anonymous, please retry later", 2))
+                .when(clientRateLimiter).acquire(null, 1);
+
+        mockMvc.perform(get("/api/v1/ratings/movie/1/distribution"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"));
+    }
+}
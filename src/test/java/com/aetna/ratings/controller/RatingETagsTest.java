@@ -0,0 +1,65 @@
+package com.aetna.ratings.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.aetna.ratings.dto.RatingSummary;
+
+class RatingETagsTest {
+
+    private final List<RatingSummary> ratings = List.of(new RatingSummary(3, 4.0, 12), new RatingSummary(1, 3.5, 5));
+
+    @Test
+    void testBatchTagIgnoresOrderAndDuplicates() {
+        String eTag = RatingETags.forMovies(new int[] {1, 2, 3}, ratings);
+
+        assertEquals(eTag, RatingETags.forMovies(new int[] {3, 2, 1, 3}, List.of(ratings.get(1), ratings.get(0))));
+        assertTrue(eTag.startsWith("\"") && eTag.endsWith("\""));
+    }
+
+    @Test
+    void testBatchTagChangesWithVersionsAndMembership() {
+        String eTag = RatingETags.forMovies(new int[] {1, 2, 3}, ratings);
+
+        assertNotEquals(eTag, RatingETags.forMovies(new int[] {1, 2, 3},
+                List.of(new RatingSummary(3, 4.0, 13), new RatingSummary(1, 3.5, 5))));
+        assertNotEquals(eTag, RatingETags.forMovies(new int[] {1, 2, 3},
+                List.of(new RatingSummary(3, 4.0, 12), new RatingSummary(2, 1.0, 0), new RatingSummary(1, 3.5, 5))));
+        assertNotEquals(eTag, RatingETags.forMovies(new int[] {1, 3}, ratings));
+    }
+
+    @Test
+    void testIncludeMissingTagDiffersFromArrayTag() {
+        String eTag = RatingETags.forMovies(new int[] {1, 2, 3}, ratings);
+        String withMissing = RatingETags.forMoviesWithMissing(new int[] {1, 2, 3}, ratings);
+
+        assertNotEquals(eTag, withMissing);
+        assertEquals(eTag.substring(0, eTag.length() - 1) + "-missing\"", withMissing);
+        assertFalse(RatingETags.matches(eTag, withMissing));
+    }
+
+    @Test
+    void testVersionTagMatchesSummaryTag() {
+        Map<Integer, Long> versions = Map.of(3, 12L, 1, 5L);
+
+        assertEquals(RatingETags.forMovies(new int[] {1, 2, 3}, ratings), RatingETags.forVersions(new int[] {3, 2, 1}, versions));
+        assertEquals(RatingETags.forMoviesWithMissing(new int[] {1, 2, 3}, ratings),
+                RatingETags.forVersionsWithMissing(new int[] {1, 2, 3, 2}, versions));
+        assertNotEquals(RatingETags.forMovies(new int[] {1, 2, 3}, ratings), RatingETags.forVersions(new int[] {1, 2, 3}, Map.of(3, 12L)));
+    }
+
+    @Test
+    void testIfNoneMatch() {
+        assertTrue(RatingETags.matches("\"1-5\"", "\"1-5\""));
+        assertTrue(RatingETags.matches("\"0-1\", W/\"1-5\"", "\"1-5\""));
+        assertTrue(RatingETags.matches("*", "\"1-5\""));
+        assertFalse(RatingETags.matches("\"1-4\"", "\"1-5\""));
+        assertFalse(RatingETags.matches(null, "\"1-5\""));
+    }
+}
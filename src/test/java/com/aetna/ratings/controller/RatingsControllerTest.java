@@ -1,7 +1,12 @@
 package com.aetna.ratings.controller;
 
 import com.aetna.ratings.dto.RatingSummary;
+import com.aetna.ratings.dto.RatingTrend;
+import com.aetna.ratings.exception.RateLimitExceededException;
 import com.aetna.ratings.exception.RatingsServiceException;
+import com.aetna.ratings.exception.ServiceOverloadedException;
+import com.aetna.ratings.service.ClientRateLimiter;
+import com.aetna.ratings.service.RatingTrends;
 import com.aetna.ratings.service.RatingsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,9 +15,17 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -26,18 +39,24 @@ class RatingsControllerTest {
     @MockBean
     private RatingsService ratingsService;
 
-    private List<Integer> movieIds;
+    @MockBean
+    private ClientRateLimiter clientRateLimiter;
+
+    @MockBean
+    private RatingTrends ratingTrends;
+
+    private int[] movieIds;
     private RatingSummary ratingSummary;
 
     @BeforeEach
     void setUp() {
-        movieIds = Arrays.asList(1, 2, 3);
+        movieIds = new int[] {1, 2, 3};
         ratingSummary = new RatingSummary(1, 4.5);
     }
 
     @Test
     void testGetMovieRatings() throws Exception {
-        when(ratingsService.getAllMoviesRating(movieIds)).thenReturn(Arrays.asList(ratingSummary));
+        when(ratingsService.getAllMoviesRating(aryEq(movieIds))).thenReturn(Arrays.asList(ratingSummary));
 
         mockMvc.perform(post("/api/v1/ratings/movies")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -58,7 +77,7 @@ class RatingsControllerTest {
 
     @Test
     void testGetMovieRatingsWithServerError() throws Exception {
-        when(ratingsService.getAllMoviesRating(movieIds)).thenThrow(new RuntimeException("Database error"));
+        when(ratingsService.getAllMoviesRating(aryEq(movieIds))).thenThrow(new RuntimeException("Database error"));
 
         mockMvc.perform(post("/api/v1/ratings/movies")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -122,10 +141,36 @@ class RatingsControllerTest {
                 .andExpect(jsonPath("$.message").value("Invalid movie ID format. All IDs must be integers."));
     }
 
+    @Test
+    void testGetMovieRatingsWithBooleanValues() throws Exception {
+        mockMvc.perform(post("/api/v1/ratings/movies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, true]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid movie ID format. All IDs must be integers."));
+    }
+
+    @Test
+    void testGetMovieRatingsWithOutOfRangeId() throws Exception {
+        mockMvc.perform(post("/api/v1/ratings/movies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 3000000000]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid request body format"));
+    }
+
+    @Test
+    void testGetMovieRatingsWithObjectBody() throws Exception {
+        mockMvc.perform(post("/api/v1/ratings/movies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"movieIds\": [1, 2]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid request body format"));
+    }
+
     @Test
     void testGetMovieRatingsWithNegativeIds() throws Exception {
-        List<Integer> negativeIds = Arrays.asList(1, -2, 3);
-        when(ratingsService.getAllMoviesRating(negativeIds))
+        when(ratingsService.getAllMoviesRating(aryEq(new int[] {1, -2, 3})))
                 .thenThrow(new IllegalArgumentException("Movie ID cannot be negative"));
 
         mockMvc.perform(post("/api/v1/ratings/movies")
@@ -137,18 +182,18 @@ class RatingsControllerTest {
 
     @Test
     void testGetMovieRatingsWithNullValues() throws Exception {
-        List<Integer> idsWithNull = Arrays.asList(1, 0, 3);
-        when(ratingsService.getAllMoviesRating(idsWithNull)).thenReturn(Arrays.asList(ratingSummary));
+        when(ratingsService.getAllMoviesRating(aryEq(new int[] {1, 3}))).thenReturn(Arrays.asList(ratingSummary));
 
         mockMvc.perform(post("/api/v1/ratings/movies")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content("[1, null, 3]"))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].movieId").value(1));
     }
 
     @Test
     void testGetMovieRatingsWithRatingsServiceException() throws Exception {
-        when(ratingsService.getAllMoviesRating(movieIds))
+        when(ratingsService.getAllMoviesRating(aryEq(movieIds)))
                 .thenThrow(new RatingsServiceException("Service error"));
 
         mockMvc.perform(post("/api/v1/ratings/movies")
@@ -179,4 +224,359 @@ class RatingsControllerTest {
                 .andExpect(status().isInternalServerError())
                 .andExpect(jsonPath("$.message").value("Service error"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testStreamMovieRatings() throws Exception {
+        when(ratingsService.streamAllMoviesRating(aryEq(movieIds))).thenReturn(Stream.of(ratingSummary, new RatingSummary(2, 3.0)));
+
+        MvcResult result = mockMvc.perform(post("/api/v1/ratings/movies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .content("[1, 2, 3]"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"movieId\":1,\"rating\":4.5}\n{\"movieId\":2,\"rating\":3.0}\n"));
+    }
+
+    @Test
+    void testStreamMovieRatingsWithEmptyList() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/v1/ratings/movies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .content("[]"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Movie IDs list cannot be null or empty"));
+    }
+
+    @Test
+    void testStreamMovieRatingsWithTooManyIds() throws Exception {
+        when(ratingsService.streamAllMoviesRating(aryEq(movieIds)))
+                .thenThrow(new IllegalArgumentException("Movie IDs list cannot contain more than 2 IDs"));
+
+        MvcResult result = mockMvc.perform(post("/api/v1/ratings/movies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .content("[1, 2, 3]"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Movie IDs list cannot contain more than 2 IDs"));
+    }
+
+    @Test
+    void testStreamMovieRatingsWithServerError() throws Exception {
+        when(ratingsService.streamAllMoviesRating(aryEq(movieIds))).thenThrow(new RuntimeException("Database error"));
+
+        MvcResult result = mockMvc.perform(post("/api/v1/ratings/movies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .content("[1, 2, 3]"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value("Database error"));
+    }
+
+    @Test
+    void testGetMovieRatingWhenOverloaded() throws Exception {
+        when(ratingsService.geMovieRating(1)).thenThrow(new ServiceOverloadedException("Rating lookups are at capacity, please retry later", 1));
+
+        mockMvc.perform(get("/api/v1/ratings/movie/1"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.message").value("Rating lookups are at capacity, please retry later"));
+    }
+
+    @Test
+    void testGetMovieRatingsChargesClientPerId() throws Exception {
+        when(ratingsService.getAllMoviesRating(aryEq(movieIds))).thenReturn(Arrays.asList(ratingSummary));
+
+        mockMvc.perform(post("/api/v1/ratings/movies")
+                .header("clientRefId", "client-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 2, 3]"))
+                .andExpect(status().isOk());
+
+        verify(clientRateLimiter).acquire("client-1", 3);
+    }
+
+    @Test
+    void testGetMovieRatingsWhenRateLimited() throws Exception {
+        doThrow(new RateLimitExceededException("Request rate limit exceeded for client client-1, please retry later", 2))
+                .when(clientRateLimiter).acquire("client-1", 3);
+
+        mockMvc.perform(post("/api/v1/ratings/movies")
+                .header("clientRefId", "client-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 2, 3]"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.message").value("Request rate limit exceeded for client client-1, please retry later"));
+
+        verify(ratingsService, never()).getAllMoviesRating(any(int[].class));
+    }
+
+    @Test
+    void testOversizedBatchIsRejectedBeforeRateLimit() throws Exception {
+        String tooMany = IntStream.rangeClosed(1, 10_001).mapToObj(Integer::toString).collect(Collectors.joining(",", "[", "]"));
+
+        mockMvc.perform(post("/api/v1/ratings/movies")
+                .header("clientRefId", "client-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(tooMany))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Movie IDs list cannot contain more than 10000 IDs"));
+
+        verifyNoInteractions(clientRateLimiter, ratingsService);
+    }
+
+    @Test
+    void testGetMovieRatingWhenRateLimited() throws Exception {
+        doThrow(new RateLimitExceededException("Request rate limit exceeded for client anonymous, please retry later", 1))
+                .when(clientRateLimiter).acquire(null, 1);
+
+        mockMvc.perform(get("/api/v1/ratings/movie/1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void testStreamMovieRatingsWhenRateLimited() throws Exception {
+        doThrow(new RateLimitExceededException("Request rate limit exceeded for client anonymous, please retry later", 1))
+                .when(clientRateLimiter).acquire(null, 3);
+
+        MvcResult result = mockMvc.perform(post("/api/v1/ratings/movies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .content("[1, 2, 3]"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.message").value("Request rate limit exceeded for client anonymous, please retry later"));
+    }
+
+    @Test
+    void testBinaryMovieRatings() throws Exception {
+        when(ratingsService.forEachMovieRating(aryEq(movieIds))).thenReturn(handler -> {
+            handler.accept(1, 4.5);
+            handler.accept(3, 3.1);
+        });
+
+        MvcResult result = mockMvc.perform(post("/api/v1/ratings/movies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(BinaryRatingSummaryWriter.MEDIA_TYPE)
+                .content("[1, 2, 3]"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] expected = ByteBuffer.allocate(2 * BinaryRatingSummaryWriter.RECORD_BYTES)
+                .putInt(1).putShort((short) 45)
+                .putInt(3).putShort((short) 31)
+                .array();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(BinaryRatingSummaryWriter.MEDIA_TYPE))
+                .andExpect(content().bytes(expected));
+    }
+
+    @Test
+    void testBinaryMovieRatingsWithTooManyIds() throws Exception {
+        when(ratingsService.forEachMovieRating(aryEq(movieIds)))
+                .thenThrow(new IllegalArgumentException("Movie IDs list cannot contain more than 2 IDs"));
+
+        MvcResult result = mockMvc.perform(post("/api/v1/ratings/movies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(BinaryRatingSummaryWriter.MEDIA_TYPE)
+                .content("[1, 2, 3]"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Movie IDs list cannot contain more than 2 IDs"));
+    }
+
+    @Test
+    void testBinaryMovieRatingsWithEmptyList() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/v1/ratings/movies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(BinaryRatingSummaryWriter.MEDIA_TYPE)
+                .content("[]"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Movie IDs list cannot be null or empty"));
+        verify(ratingsService, never()).forEachMovieRating(any(int[].class));
+    }
+
+    @Test
+    void testGetMovieRatingSendsVersionETag() throws Exception {
+        when(ratingsService.geMovieRating(1)).thenReturn(java.util.Optional.of(new RatingSummary(1, 4.5, 7)));
+
+        mockMvc.perform(get("/api/v1/ratings/movie/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-7\""))
+                .andExpect(header().string("Cache-Control", "max-age=60"))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    void testGetMovieRatingNotModified() throws Exception {
+        when(ratingsService.geMovieRating(1)).thenReturn(java.util.Optional.of(new RatingSummary(1, 4.5, 7)));
+
+        mockMvc.perform(get("/api/v1/ratings/movie/1")
+                .header("If-None-Match", "\"1-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testGetMovieRatingsPreconditionFailed() throws Exception {
+        when(ratingsService.getAllMoviesRating(aryEq(movieIds)))
+                .thenReturn(Arrays.asList(new RatingSummary(1, 4.5, 7), new RatingSummary(3, 2.0, 9)));
+
+        String eTag = mockMvc.perform(post("/api/v1/ratings/movies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 2, 3]"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().string("Cache-Control", "max-age=60"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Checked against the versions alone; the summaries are not looked up again.
+        when(ratingsService.getMovieVersions(aryEq(movieIds))).thenReturn(Map.of(1, 7L, 3, 9L));
+        mockMvc.perform(post("/api/v1/ratings/movies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("If-None-Match", eTag)
+                .content("[1, 2, 3]"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(jsonPath("$.statusCode").value(412));
+        verify(ratingsService, times(1)).getAllMoviesRating(any(int[].class));
+
+        mockMvc.perform(post("/api/v1/ratings/movies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("If-None-Match", "*")
+                .content("[1, 2, 3]"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void testGetMovieRatingsChangedSinceETag() throws Exception {
+        when(ratingsService.getAllMoviesRating(aryEq(movieIds)))
+                .thenReturn(Arrays.asList(new RatingSummary(1, 4.5, 7), new RatingSummary(3, 2.0, 10)));
+        when(ratingsService.getMovieVersions(aryEq(movieIds))).thenReturn(Map.of(1, 7L, 3, 10L));
+        String stale = RatingETags.forVersions(movieIds, Map.of(1, 7L, 3, 9L));
+
+        mockMvc.perform(post("/api/v1/ratings/movies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("If-None-Match", stale)
+                .content("[1, 2, 3]"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", RatingETags.forVersions(movieIds, Map.of(1, 7L, 3, 10L))))
+                .andExpect(jsonPath("$[1].rating").value(2.0));
+    }
+
+    @Test
+    void testGetMovieRatingsWithTrends() throws Exception {
+        RatingSummary cached = new RatingSummary(1, 4.5, 7);
+        when(ratingsService.getAllMoviesRating(aryEq(movieIds))).thenReturn(Arrays.asList(cached));
+        Map<String, RatingTrend> trends = new LinkedHashMap<>();
+        trends.put("24h", new RatingTrend(0, null, 0));
+        trends.put("7d", new RatingTrend(14, 4.1, 2.0));
+        when(ratingTrends.trends(1)).thenReturn(trends);
+
+        mockMvc.perform(post("/api/v1/ratings/movies?trends=true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 2, 3]"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(jsonPath("$[0].rating").value(4.5))
+                .andExpect(jsonPath("$[0].trends['24h'].voteCount").value(0))
+                .andExpect(jsonPath("$[0].trends['7d'].averageRating").value(4.1))
+                .andExpect(jsonPath("$[0].trends['7d'].votesPerDay").value(2.0));
+        // The cached summary is left as it was.
+        assertNull(cached.getTrends());
+    }
+
+    @Test
+    void testGetMovieRatingsIncludeMissing() throws Exception {
+        int[] requested = {3, 1, 2, 3};
+        when(ratingsService.getAllMoviesRating(aryEq(requested))).thenReturn(Arrays.asList(ratingSummary));
+
+        mockMvc.perform(post("/api/v1/ratings/movies?includeMissing=true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[3, 1, 2, 3]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ratings[0].movieId").value(1))
+                .andExpect(jsonPath("$.ratings.length()").value(1))
+                .andExpect(jsonPath("$.missingMovieIds.length()").value(2))
+                .andExpect(jsonPath("$.missingMovieIds[0]").value(3))
+                .andExpect(jsonPath("$.missingMovieIds[1]").value(2));
+    }
+
+    @Test
+    void testGetMovieRatingsIncludeMissingHasItsOwnETag() throws Exception {
+        when(ratingsService.getAllMoviesRating(aryEq(movieIds))).thenReturn(Arrays.asList(ratingSummary));
+
+        String eTag = mockMvc.perform(post("/api/v1/ratings/movies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 2, 3]"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // A cached plain array does not validate the wrapped form.
+        String missingETag = mockMvc.perform(post("/api/v1/ratings/movies?includeMissing=true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("If-None-Match", eTag)
+                .content("[1, 2, 3]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.missingMovieIds.length()").value(2))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(eTag, missingETag);
+
+        when(ratingsService.getMovieVersions(aryEq(movieIds))).thenReturn(Map.of(1, 0L));
+        mockMvc.perform(post("/api/v1/ratings/movies?includeMissing=true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("If-None-Match", missingETag)
+                .content("[1, 2, 3]"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void testGetMovieRatingsIncludeMissingWithTrends() throws Exception {
+        when(ratingsService.getAllMoviesRating(aryEq(movieIds))).thenReturn(Arrays.asList(ratingSummary));
+        when(ratingTrends.trends(1)).thenReturn(Map.of("24h", new RatingTrend(2, 4.5, 2.0)));
+
+        mockMvc.perform(post("/api/v1/ratings/movies?includeMissing=true&trends=true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 2, 3]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ratings[0].trends['24h'].voteCount").value(2))
+                .andExpect(jsonPath("$.missingMovieIds[0]").value(2))
+                .andExpect(jsonPath("$.missingMovieIds[1]").value(3));
+    }
+
+    @Test
+    void testGetMovieRatingsOmitTrendsByDefault() throws Exception {
+        when(ratingsService.getAllMoviesRating(aryEq(movieIds))).thenReturn(Arrays.asList(ratingSummary));
+
+        mockMvc.perform(post("/api/v1/ratings/movies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 2, 3]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].trends").doesNotExist());
+        verifyNoInteractions(ratingTrends);
+    }
+}
@@ -0,0 +1,188 @@
+package com.aetna.ratings.controller;
+
+import com.aetna.ratings.dto.IngestionResult;
+import com.aetna.ratings.dto.Rating;
+import com.aetna.ratings.exception.RatingsServiceException;
+import com.aetna.ratings.exception.ServiceOverloadedException;
+import com.aetna.ratings.service.RatingsIngestionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(RatingsIngestionController.class)
+class RatingsIngestionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private RatingsIngestionService ratingsIngestionService;
+
+    @SuppressWarnings("unchecked")
+    private List<Rating> captureIngestedRatings(IngestionResult result) {
+        List<Rating> ingested = new ArrayList<>();
+        when(ratingsIngestionService.ingest(any())).thenAnswer(invocation -> {
+            ((Iterator<Rating>) invocation.getArgument(0)).forEachRemaining(ingested::add);
+            return result;
+        });
+        return ingested;
+    }
+
+    @Test
+    void testIngestJsonArray() throws Exception {
+        IngestionResult result = new IngestionResult();
+        result.accept(2);
+        List<Rating> ingested = captureIngestedRatings(result);
+
+        mockMvc.perform(post("/api/v1/ratings/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"userId\":1,\"movieId\":31,\"rating\":2.5,\"timestamp\":1260759144},"
+                        + "{\"userId\":1,\"movieId\":1029,\"rating\":3.0,\"timestamp\":1260759179}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.rejected").value(0));
+
+        assertEquals(2, ingested.size());
+        assertEquals(1029, ingested.get(1).getMovieId());
+    }
+
+    @Test
+    void testIngestNdjson() throws Exception {
+        IngestionResult result = new IngestionResult();
+        result.accept(2);
+        List<Rating> ingested = captureIngestedRatings(result);
+
+        mockMvc.perform(post("/api/v1/ratings/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"userId\":1,\"movieId\":31,\"rating\":2.5,\"timestamp\":1260759144}\n"
+                        + "{\"userId\":2,\"movieId\":31,\"rating\":4.0,\"timestamp\":1260759179}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(2));
+
+        assertEquals(2, ingested.size());
+        assertEquals(2, ingested.get(1).getUserId());
+    }
+
+    @Test
+    void testIngestIncompletePayload() throws Exception {
+        IngestionResult result = new IngestionResult();
+        result.setComplete(false);
+        result.reject("Malformed rating at position 1", 10);
+        when(ratingsIngestionService.ingest(any())).thenReturn(result);
+
+        mockMvc.perform(post("/api/v1/ratings/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"userId\":1,\"movieId\":31,\"rating\":2.5,\"timestamp\":1}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0]").value("Malformed rating at position 1"));
+    }
+
+    @Test
+    void testIngestInvalidJson() throws Exception {
+        mockMvc.perform(post("/api/v1/ratings/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("invalid json"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid request body format"));
+    }
+
+    @Test
+    void testIngestWhenOverloaded() throws Exception {
+        when(ratingsIngestionService.ingest(any())).thenThrow(new ServiceOverloadedException("Rating ingestion is at capacity, please retry later", 1));
+
+        mockMvc.perform(post("/api/v1/ratings/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void testIngestPartlyWrittenWhenOverloaded() throws Exception {
+        IngestionResult result = new IngestionResult();
+        result.accept(1000);
+        result.setComplete(false);
+        result.setRetryAfterSeconds(2L);
+        when(ratingsIngestionService.ingest(any())).thenReturn(result);
+
+        mockMvc.perform(post("/api/v1/ratings/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.accepted").value(1000))
+                .andExpect(jsonPath("$.complete").value(false));
+    }
+
+    @Test
+    void testIngestWithServiceError() throws Exception {
+        when(ratingsIngestionService.ingest(any())).thenThrow(new RatingsServiceException("Write failed"));
+
+        mockMvc.perform(post("/api/v1/ratings/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value("Write failed"));
+    }
+
+    @Test
+    void testAddRating() throws Exception {
+        IngestionResult result = new IngestionResult();
+        result.accept(1);
+        when(ratingsIngestionService.addRating(any())).thenReturn(result);
+
+        mockMvc.perform(post("/api/v1/ratings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userId\":1,\"movieId\":31,\"rating\":2.5,\"timestamp\":1260759144}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.accepted").value(1));
+    }
+
+    @Test
+    void testAddDuplicateRating() throws Exception {
+        IngestionResult result = new IngestionResult();
+        result.reject("Rating 1 already exists", 10);
+        when(ratingsIngestionService.addRating(any())).thenReturn(result);
+
+        mockMvc.perform(post("/api/v1/ratings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ratingId\":1,\"userId\":1,\"movieId\":31,\"rating\":2.5,\"timestamp\":1260759144}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errors[0]").value("Rating 1 already exists"));
+    }
+
+    @Test
+    void testAddInvalidRating() throws Exception {
+        when(ratingsIngestionService.addRating(any())).thenThrow(new IllegalArgumentException("Rating has an invalid movie ID: 0"));
+
+        mockMvc.perform(post("/api/v1/ratings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userId\":1,\"movieId\":0,\"rating\":2.5,\"timestamp\":1260759144}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Rating has an invalid movie ID: 0"));
+    }
+
+    @Test
+    void testAddRatingWithServiceError() throws Exception {
+        when(ratingsIngestionService.addRating(any())).thenThrow(new RatingsServiceException("Write failed"));
+
+        mockMvc.perform(post("/api/v1/ratings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userId\":1,\"movieId\":31,\"rating\":2.5,\"timestamp\":1260759144}"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.details").value("Error adding rating"));
+    }
+}
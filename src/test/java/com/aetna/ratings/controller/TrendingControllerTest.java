@@ -0,0 +1,66 @@
+package com.aetna.ratings.controller;
+
+import com.aetna.ratings.dto.TrendingMovie;
+import com.aetna.ratings.dto.TrendingPage;
+import com.aetna.ratings.service.ClientRateLimiter;
+import com.aetna.ratings.service.RatingTrends;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(TrendingController.class)
+class TrendingControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private RatingTrends ratingTrends;
+
+    @MockBean
+    private ClientRateLimiter clientRateLimiter;
+
+    @Test
+    void testGetTrending() throws Exception {
+        when(ratingTrends.trending("7d", 5)).thenReturn(
+                new TrendingPage("7d", 5, List.of(new TrendingMovie(1, 318, 42, 4.3, 6.0))));
+
+        mockMvc.perform(get("/api/v1/ratings/trending?window=7d&limit=5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.window").value("7d"))
+                .andExpect(jsonPath("$.movies[0].rank").value(1))
+                .andExpect(jsonPath("$.movies[0].movieId").value(318))
+                .andExpect(jsonPath("$.movies[0].voteCount").value(42))
+                .andExpect(jsonPath("$.movies[0].votesPerDay").value(6.0));
+        verify(clientRateLimiter).acquire(null, 1);
+    }
+
+    @Test
+    void testGetTrendingDefaults() throws Exception {
+        when(ratingTrends.trending(null, 20)).thenReturn(new TrendingPage("24h", 20, List.of()));
+
+        mockMvc.perform(get("/api/v1/ratings/trending"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.window").value("24h"))
+                .andExpect(jsonPath("$.movies").isEmpty());
+    }
+
+    @Test
+    void testGetTrendingBadRequest() throws Exception {
+        when(ratingTrends.trending("1y", 20))
+                .thenThrow(new IllegalArgumentException("Unknown trending window '1y'; available windows are 24h, 7d, 30d"));
+
+        mockMvc.perform(get("/api/v1/ratings/trending?window=1y"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown trending window '1y'; available windows are 24h, 7d, 30d"));
+        mockMvc.perform(get("/api/v1/ratings/trending?limit=many"))
+                .andExpect(status().isBadRequest());
+    }
+}
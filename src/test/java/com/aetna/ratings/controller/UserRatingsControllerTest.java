@@ -0,0 +1,112 @@
+package com.aetna.ratings.controller;
+
+import com.aetna.ratings.dto.UserRating;
+import com.aetna.ratings.dto.UserRatingsPage;
+import com.aetna.ratings.exception.RatingsServiceException;
+import com.aetna.ratings.service.ClientRateLimiter;
+import com.aetna.ratings.service.UserRatingsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(UserRatingsController.class)
+class UserRatingsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserRatingsService userRatingsService;
+
+    @MockBean
+    private ClientRateLimiter clientRateLimiter;
+
+    private static final UserRating RATING = new UserRating(4, 318, 4.5, 1260759144L);
+
+    @Test
+    void testGetUserRatings() throws Exception {
+        when(userRatingsService.getUserRatings(5, "10:1", 50)).thenReturn(new UserRatingsPage(5, List.of(RATING), "318:4"));
+
+        mockMvc.perform(get("/api/v1/ratings/user/5?after=10:1&limit=50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(5))
+                .andExpect(jsonPath("$.ratings[0].ratingId").value(4))
+                .andExpect(jsonPath("$.ratings[0].movieId").value(318))
+                .andExpect(jsonPath("$.ratings[0].rating").value(4.5))
+                .andExpect(jsonPath("$.ratings[0].timestamp").value(1260759144))
+                .andExpect(jsonPath("$.next").value("318:4"));
+        verify(clientRateLimiter).acquire(null, 1);
+    }
+
+    @Test
+    void testGetUserRatingsBadRequest() throws Exception {
+        when(userRatingsService.getUserRatings(0, null, null)).thenThrow(new IllegalArgumentException("User ID must be positive"));
+
+        mockMvc.perform(get("/api/v1/ratings/user/0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("User ID must be positive"));
+        mockMvc.perform(get("/api/v1/ratings/user/abc"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetUserRatingsServerError() throws Exception {
+        when(userRatingsService.getUserRatings(5, null, null))
+                .thenThrow(new RatingsServiceException("An error occurred while retrieving ratings for user ID: 5"));
+
+        mockMvc.perform(get("/api/v1/ratings/user/5"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.details").value("User ID: 5"));
+    }
+
+    @Test
+    void testGetUserMovieRatings() throws Exception {
+        when(userRatingsService.getUserMovieRatings(eq(5), aryEq(new int[] {318, 1}))).thenReturn(List.of(RATING));
+
+        mockMvc.perform(post("/api/v1/ratings/user/5/movies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[318, 1]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].movieId").value(318))
+                .andExpect(jsonPath("$.length()").value(1));
+        verify(clientRateLimiter).acquire(null, 2);
+    }
+
+    @Test
+    void testGetUsersRatings() throws Exception {
+        when(userRatingsService.getUsersRatings(aryEq(new int[] {5, 6}), eq(10))).thenReturn(List.of(
+                new UserRatingsPage(5, List.of(RATING), null),
+                new UserRatingsPage(6, List.of(), null)));
+
+        mockMvc.perform(post("/api/v1/ratings/users?limit=10")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[5, 6]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].userId").value(5))
+                .andExpect(jsonPath("$[1].ratings").isEmpty());
+        verify(clientRateLimiter).acquire(null, 2);
+    }
+
+    @Test
+    void testBatchBadRequests() throws Exception {
+        mockMvc.perform(post("/api/v1/ratings/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("User IDs list cannot be null or empty"));
+        mockMvc.perform(post("/api/v1/ratings/user/5/movies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, \"two\"]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid movie ID format. All IDs must be integers."));
+        verifyNoInteractions(userRatingsService);
+    }
+}
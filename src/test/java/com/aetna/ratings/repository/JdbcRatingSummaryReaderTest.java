@@ -0,0 +1,140 @@
+package com.aetna.ratings.repository;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.aetna.ratings.dto.RatingSummary;
+
+/**
+ * Runs the JDBC reader and the JPA repository against the same migrated SQLite database, so the
+ * read paths can be switched at runtime without changing any response.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class JdbcRatingSummaryReaderTest {
+
+    @TempDir
+    static Path tempDir;
+
+    @DynamicPropertySource
+    static void sqlite(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + tempDir.resolve("ratings.db"));
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MovieRatingStatsRepository movieRatingStatsRepository;
+
+    private JdbcRatingSummaryReader jdbcReader;
+
+    @BeforeEach
+    void setUp() {
+        // The triggers from the migrations fill movie_rating_stats.
+        new JdbcTemplate(dataSource).batchUpdate("INSERT INTO ratings VALUES (?, ?, ?, ?, ?)", List.of(
+                new Object[] {1, 1, 1, 4.0, 1000L},
+                new Object[] {2, 2, 1, 3.5, 1001L},
+                new Object[] {3, 1, 2, 2.5, 1002L},
+                new Object[] {4, 1, 3, 1.0, 1003L},
+                new Object[] {5, 2, 3, 2.0, 1004L},
+                new Object[] {6, 3, 3, 2.0, 1005L},
+                new Object[] {7, 1, 5, 5.0, 1006L}));
+        jdbcReader = new JdbcRatingSummaryReader(dataSource);
+    }
+
+    private static List<RatingSummary> byMovieId(List<RatingSummary> ratings) {
+        List<RatingSummary> sorted = new ArrayList<>(ratings);
+        sorted.sort(Comparator.comparingInt(RatingSummary::getMovieId));
+        return sorted;
+    }
+
+    private List<RatingSummary> forEach(int[] movieIds) {
+        return forEach(jdbcReader, movieIds);
+    }
+
+    private static List<RatingSummary> forEach(RatingSummaryReader reader, int[] movieIds) {
+        List<RatingSummary> ratings = new ArrayList<>();
+        reader.forEachAvgRating(movieIds, (movieId, rating) -> ratings.add(new RatingSummary(movieId, rating)));
+        return ratings;
+    }
+
+    private void assertSameAsJpa(int... movieIds) {
+        List<Integer> ids = IntStream.of(movieIds).boxed().toList();
+        List<RatingSummary> jpa = byMovieId(movieRatingStatsRepository.getAvgRatingsForMoviesList(ids));
+
+        assertEquals(jpa, byMovieId(jdbcReader.getAvgRatingsForMoviesList(ids)));
+        try (Stream<RatingSummary> stream = jdbcReader.streamAvgRatingsForMoviesList(movieIds)) {
+            assertEquals(jpa, byMovieId(stream.toList()));
+        }
+        // The row handler sees no version.
+        List<RatingSummary> rows = jpa.stream().map(r -> new RatingSummary(r.getMovieId(), r.getRating())).toList();
+        assertEquals(rows, byMovieId(forEach(movieIds)));
+        assertEquals(rows, byMovieId(forEach(movieRatingStatsRepository, movieIds)));
+    }
+
+    @Test
+    void testSingleLookupMatchesJpa() {
+        for (int movieId : new int[] {1, 2, 3, 5, 4}) {
+            assertEquals(movieRatingStatsRepository.getAvgRatingForMovie(movieId), jdbcReader.getAvgRatingForMovie(movieId));
+        }
+        assertEquals(3.8, jdbcReader.getAvgRatingForMovie(1).get().getRating());
+        assertTrue(jdbcReader.getAvgRatingForMovie(4).isEmpty());
+    }
+
+    @Test
+    void testPaddedChunkMatchesJpa() {
+        // ChunkedBatchLoader pads a chunk to a power of two by repeating its last ID.
+        assertSameAsJpa(3, 1, 2, 2);
+        assertSameAsJpa(5, 4, 4, 4);
+        assertEquals(3, jdbcReader.getAvgRatingsForMoviesList(List.of(3, 1, 2, 2)).size());
+    }
+
+    @Test
+    void testDuplicateIdsAreReturnedOnce() {
+        assertSameAsJpa(1, 1, 5, 1);
+        assertEquals(List.of(new RatingSummary(1, 3.8)), forEach(new int[] {1, 1}));
+    }
+
+    @Test
+    void testVersionsMatchSummaries() {
+        Map<Integer, Long> versions = new HashMap<>();
+        jdbcReader.forEachVersion(new int[] {5, 1, 2, 3, 3}, versions::put);
+
+        Map<Integer, Long> expected = new HashMap<>();
+        for (RatingSummary summary : jdbcReader.getAvgRatingsForMoviesList(List.of(1, 2, 3, 5))) {
+            expected.put(summary.getMovieId(), summary.getVersion());
+        }
+        assertEquals(expected, versions);
+    }
+
+    @Test
+    void testCachedStatementBindsEachCallsIds() {
+        // Same size, so the second call reuses the statement text cached for the first.
+        assertSameAsJpa(1, 2);
+        assertSameAsJpa(3, 5);
+        assertSameAsJpa(4, 6);
+        assertEquals(List.of(3, 5), jdbcReader.getAvgRatingsForMoviesList(List.of(3, 5)).stream()
+                .map(RatingSummary::getMovieId).sorted().toList());
+    }
+}
@@ -0,0 +1,121 @@
+package com.aetna.ratings.repository;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.sqlite.SQLiteDataSource;
+
+class QueryPlanHealthIndicatorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SQLiteDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + tempDir.resolve("ratings.db"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE ratings (ratingId INTEGER PRIMARY KEY, userId INTEGER NOT NULL, "
+                + "movieId INTEGER NOT NULL, rating REAL NOT NULL, timestamp INTEGER NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE movie_rating_stats (movieId INTEGER PRIMARY KEY, ratingSum REAL NOT NULL, "
+                + "ratingCount INTEGER NOT NULL, minRating REAL NOT NULL, maxRating REAL NOT NULL, lastTimestamp INTEGER NOT NULL, "
+                + "version INTEGER NOT NULL DEFAULT 0)");
+        jdbcTemplate.execute("CREATE TABLE movie_rating_histogram (movieId INTEGER NOT NULL, bucket INTEGER NOT NULL, "
+                + "ratingCount INTEGER NOT NULL, PRIMARY KEY (movieId, bucket)) WITHOUT ROWID");
+    }
+
+    private void createIndexes() {
+        jdbcTemplate.execute("CREATE INDEX ratings_movieId_rating_index ON ratings (movieId, rating)");
+        jdbcTemplate.execute("CREATE INDEX ratings_userId_movieId_index ON ratings (userId, movieId)");
+        jdbcTemplate.execute("CREATE INDEX ratings_timestamp_index ON ratings (timestamp)");
+    }
+
+    @Test
+    void testHealthUpWithIndexes() {
+        createIndexes();
+        QueryPlanHealthIndicator indicator = new QueryPlanHealthIndicator(dataSource);
+
+        indicator.verifyQueryPlans();
+
+        Health health = indicator.health();
+        assertEquals(Status.UP, health.getStatus());
+        assertTrue(health.getDetails().get("statsRecompute").toString().contains(QueryPlanHealthIndicator.MOVIE_RATING_INDEX));
+        assertTrue(health.getDetails().get("statsByMovie").toString().contains(QueryPlanHealthIndicator.PRIMARY_KEY));
+        assertTrue(health.getDetails().get("statsByMovies").toString().contains(QueryPlanHealthIndicator.PRIMARY_KEY));
+        assertTrue(health.getDetails().get("histogramByMovie").toString().contains(QueryPlanHealthIndicator.HISTOGRAM_PRIMARY_KEY));
+        assertTrue(health.getDetails().get("totalsSince").toString().contains(QueryPlanHealthIndicator.TIMESTAMP_INDEX));
+        assertTrue(health.getDetails().get("bucketTotalsSince").toString().contains(QueryPlanHealthIndicator.TIMESTAMP_INDEX));
+        assertTrue(health.getDetails().get("histogramsByMovies").toString().contains(QueryPlanHealthIndicator.HISTOGRAM_PRIMARY_KEY));
+        assertTrue(health.getDetails().get("ratingsByUser").toString().contains(QueryPlanHealthIndicator.USER_MOVIE_INDEX));
+        assertTrue(health.getDetails().get("userRatingsForMovies").toString().contains(QueryPlanHealthIndicator.USER_MOVIE_INDEX));
+    }
+
+    @Test
+    void testHealthDownWithoutIndex() {
+        QueryPlanHealthIndicator indicator = new QueryPlanHealthIndicator(dataSource);
+
+        indicator.verifyQueryPlans();
+
+        Health health = indicator.health();
+        assertEquals(Status.DOWN, health.getStatus());
+        assertTrue(health.getDetails().get("statsRecompute").toString().startsWith("SCAN ratings"));
+    }
+
+    @Test
+    void testHealthDownWithoutTimestampIndex() {
+        createIndexes();
+        jdbcTemplate.execute("DROP INDEX ratings_timestamp_index");
+        QueryPlanHealthIndicator indicator = new QueryPlanHealthIndicator(dataSource);
+
+        indicator.verifyQueryPlans();
+
+        Health health = indicator.health();
+        assertEquals(Status.DOWN, health.getStatus());
+        assertTrue(health.getDetails().get("totalsSince").toString().startsWith("SCAN ratings"));
+        assertTrue(health.getDetails().get("statsByMovies").toString().contains(QueryPlanHealthIndicator.PRIMARY_KEY));
+    }
+
+    @Test
+    void testHealthDownWithOnlyUserIdIndex() {
+        jdbcTemplate.execute("CREATE INDEX ratings_movieId_rating_index ON ratings (movieId, rating)");
+        jdbcTemplate.execute("CREATE INDEX ratings_timestamp_index ON ratings (timestamp)");
+        jdbcTemplate.execute("CREATE INDEX ratings_userId_index ON ratings (userId)");
+        QueryPlanHealthIndicator indicator = new QueryPlanHealthIndicator(dataSource);
+
+        indicator.verifyQueryPlans();
+
+        Health health = indicator.health();
+        assertEquals(Status.DOWN, health.getStatus());
+        assertTrue(health.getDetails().get("ratingsByUser").toString().contains("ratings_userId_index"));
+    }
+
+    @Test
+    void testHealthUnknownBeforeCheck() {
+        assertEquals(Status.UNKNOWN, new QueryPlanHealthIndicator(dataSource).health().getStatus());
+    }
+
+    @Test
+    void testUsesIndex() {
+        assertTrue(QueryPlanHealthIndicator.usesIndex(
+                List.of("SEARCH ratings USING COVERING INDEX ratings_movieId_rating_index (movieId=?)"),
+                QueryPlanHealthIndicator.MOVIE_RATING_INDEX));
+        assertFalse(QueryPlanHealthIndicator.usesIndex(
+                List.of("SCAN ratings USING COVERING INDEX ratings_movieId_rating_index"),
+                QueryPlanHealthIndicator.MOVIE_RATING_INDEX));
+        assertFalse(QueryPlanHealthIndicator.usesIndex(
+                List.of("SEARCH ratings USING INDEX ratings_userId_index (userId=?)"),
+                QueryPlanHealthIndicator.MOVIE_RATING_INDEX));
+    }
+}
@@ -0,0 +1,64 @@
+package com.aetna.ratings.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class RatingSnapshotTest {
+
+    @Test
+    void testLookupOfStoredAndMissingMovies() {
+        RatingSnapshot snapshot = RatingSnapshot.builder(2)
+                .add(1, 9.0, 2)
+                .add(163949, 3.5, 1)
+                .build();
+
+        assertEquals(2, snapshot.size());
+        assertEquals(3, snapshot.totalRatings());
+        assertEquals(4.5, snapshot.average(1));
+        assertEquals(3.5, snapshot.average(163949));
+        assertTrue(Double.isNaN(snapshot.average(2)));
+        assertFalse(snapshot.contains(0));
+    }
+
+    @Test
+    void testGrowsBeyondExpectedSizeWithCollidingKeys() {
+        RatingSnapshot.Builder builder = RatingSnapshot.builder(0);
+        for (int movieId = 1; movieId <= 10_000; movieId++) {
+            builder.add(movieId * 1024, movieId, 1);
+        }
+        RatingSnapshot snapshot = builder.build();
+
+        assertEquals(10_000, snapshot.size());
+        for (int movieId = 1; movieId <= 10_000; movieId++) {
+            assertEquals(movieId, snapshot.sum(movieId * 1024));
+            assertEquals(1, snapshot.count(movieId * 1024));
+        }
+        assertFalse(snapshot.contains(1023));
+    }
+
+    @Test
+    void testDuplicateMovieKeepsLatestValues() {
+        RatingSnapshot snapshot = RatingSnapshot.builder(2)
+                .add(7, 4.0, 1)
+                .add(7, 9.0, 3)
+                .build();
+
+        assertEquals(1, snapshot.size());
+        assertEquals(3, snapshot.totalRatings());
+        assertEquals(3.0, snapshot.average(7));
+    }
+
+    @Test
+    void testEmptySnapshot() {
+        assertEquals(0, RatingSnapshot.empty().size());
+        assertFalse(RatingSnapshot.empty().contains(1));
+    }
+
+    @Test
+    void testRoundingMatchesSql() {
+        assertEquals(3.7, SnapshotRatingSummaryReader.round(11.0 / 3));
+        assertEquals(4.3, SnapshotRatingSummaryReader.round(4.25));
+    }
+}
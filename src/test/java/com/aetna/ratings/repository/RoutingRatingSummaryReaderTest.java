@@ -0,0 +1,108 @@
+package com.aetna.ratings.repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.aetna.ratings.config.RatingReadProperties;
+import com.aetna.ratings.config.RatingReadProperties.ReadPath;
+import com.aetna.ratings.dto.RatingSummary;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class RoutingRatingSummaryReaderTest {
+
+    @Mock
+    private MovieRatingStatsRepository movieRatingStatsRepository;
+
+    @Mock
+    private JdbcRatingSummaryReader jdbcRatingSummaryReader;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RatingReadProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new RatingReadProperties();
+    }
+
+    private long calls(String path, String operation) {
+        return meterRegistry.get("ratings.reader").tag("path", path).tag("operation", operation).timer().count();
+    }
+
+    @Test
+    void testStartsOnConfiguredPath() {
+        properties.setPath(ReadPath.JDBC);
+        RoutingRatingSummaryReader reader = new RoutingRatingSummaryReader(movieRatingStatsRepository, jdbcRatingSummaryReader,
+                properties, meterRegistry);
+        when(jdbcRatingSummaryReader.getAvgRatingForMovie(1)).thenReturn(Optional.of(new RatingSummary(1, 3.5)));
+
+        assertEquals(ReadPath.JDBC, reader.getPath());
+        assertEquals(3.5, reader.getAvgRatingForMovie(1).get().getRating());
+        verifyNoInteractions(movieRatingStatsRepository);
+        assertEquals(1, calls("jdbc", "single"));
+    }
+
+    @Test
+    void testSwitchRoutesLaterCalls() {
+        RoutingRatingSummaryReader reader = new RoutingRatingSummaryReader(movieRatingStatsRepository, jdbcRatingSummaryReader,
+                properties, meterRegistry);
+        List<Integer> movieIds = List.of(1, 2);
+        when(movieRatingStatsRepository.getAvgRatingsForMoviesList(movieIds)).thenReturn(List.of(new RatingSummary(1, 2.0)));
+        when(jdbcRatingSummaryReader.getAvgRatingsForMoviesList(movieIds)).thenReturn(List.of(new RatingSummary(2, 4.0)));
+
+        assertEquals(ReadPath.JPA, reader.getPath());
+        assertEquals(1, reader.getAvgRatingsForMoviesList(movieIds).get(0).getMovieId());
+
+        reader.setPath(ReadPath.JDBC);
+        assertEquals(2, reader.getAvgRatingsForMoviesList(movieIds).get(0).getMovieId());
+        reader.forEachAvgRating(new int[] {2}, (movieId, rating) -> { });
+
+        verify(jdbcRatingSummaryReader).forEachAvgRating(any(), any());
+        assertEquals(1, calls("jpa", "batch"));
+        assertEquals(1, calls("jdbc", "batch"));
+        assertEquals(1, calls("jdbc", "foreach"));
+    }
+
+    @Test
+    void testStreamsFromJdbcCursorOnEitherPath() {
+        RoutingRatingSummaryReader reader = new RoutingRatingSummaryReader(movieRatingStatsRepository, jdbcRatingSummaryReader,
+                properties, meterRegistry);
+        int[] movieIds = {1, 2};
+        when(jdbcRatingSummaryReader.streamAvgRatingsForMoviesList(movieIds)).thenReturn(Stream.of(new RatingSummary(1, 2.0)));
+
+        assertEquals(ReadPath.JPA, reader.getPath());
+        try (Stream<RatingSummary> ratings = reader.streamAvgRatingsForMoviesList(movieIds)) {
+            assertEquals(0, calls("jdbc", "stream"));
+            assertEquals(1, ratings.count());
+        }
+
+        verify(movieRatingStatsRepository, never()).streamAvgRatingsForMoviesList(any(int[].class));
+        assertEquals(1, calls("jdbc", "stream"));
+    }
+
+    @Test
+    void testEndpointSwitchesPath() {
+        RoutingRatingSummaryReader reader = new RoutingRatingSummaryReader(movieRatingStatsRepository, jdbcRatingSummaryReader,
+                properties, meterRegistry);
+        RatingReadPathEndpoint endpoint = new RatingReadPathEndpoint(reader);
+
+        assertEquals(ReadPath.JPA, endpoint.path().get("path"));
+        assertEquals(ReadPath.JDBC, endpoint.switchPath(ReadPath.JDBC).get("path"));
+        assertEquals(ReadPath.JDBC, reader.getPath());
+    }
+}
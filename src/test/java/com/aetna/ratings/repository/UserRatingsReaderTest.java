@@ -0,0 +1,72 @@
+package com.aetna.ratings.repository;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.sqlite.SQLiteDataSource;
+
+import com.aetna.ratings.dto.UserRating;
+
+class UserRatingsReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private UserRatingsReader reader;
+
+    @BeforeEach
+    void setUp() {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + tempDir.resolve("ratings.db"));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE ratings (ratingId INTEGER PRIMARY KEY, userId INTEGER NOT NULL, "
+                + "movieId INTEGER NOT NULL, rating REAL NOT NULL, timestamp INTEGER NOT NULL)");
+        jdbcTemplate.execute("CREATE INDEX ratings_userId_movieId_index ON ratings (userId, movieId)");
+        // User 5 rated movie 10 twice; user 6 has one rating.
+        jdbcTemplate.batchUpdate("INSERT INTO ratings VALUES (?, ?, ?, ?, ?)", List.of(
+                new Object[] {1, 5, 10, 1.0, 1000L},
+                new Object[] {2, 5, 10, 2.0, 2000L},
+                new Object[] {3, 5, 11, 3.0, 3000L},
+                new Object[] {4, 5, 9, 4.0, 4_000_000_000L},
+                new Object[] {5, 6, 10, 5.0, 5000L}));
+        reader = new UserRatingsReader(dataSource);
+    }
+
+    private static List<Integer> ratingIds(List<UserRating> ratings) {
+        return ratings.stream().map(UserRating::getRatingId).toList();
+    }
+
+    @Test
+    void testPagesInMovieAndRatingIdOrder() {
+        List<UserRating> first = reader.getUserRatings(5, 0, 0, 2);
+        assertEquals(List.of(4, 1), ratingIds(first));
+        assertEquals(new UserRating(4, 9, 4.0, 4_000_000_000L), first.get(0));
+
+        // The cursor sits between two ratings of the same movie.
+        assertEquals(List.of(2, 3), ratingIds(reader.getUserRatings(5, 10, 1, 2)));
+        assertTrue(reader.getUserRatings(5, 11, 3, 2).isEmpty());
+    }
+
+    @Test
+    void testBatchOfUsersKeepsRequestOrder() {
+        List<List<UserRating>> ratings = reader.getUsersRatings(new int[] {6, 7, 5}, 3);
+
+        assertEquals(3, ratings.size());
+        assertEquals(List.of(5), ratingIds(ratings.get(0)));
+        assertTrue(ratings.get(1).isEmpty());
+        assertEquals(List.of(4, 1, 2), ratingIds(ratings.get(2)));
+    }
+
+    @Test
+    void testRatingsForMovies() {
+        assertEquals(List.of(1, 2, 3), ratingIds(reader.getUserRatingsForMovies(5, new int[] {11, 10, 12, 12})));
+        assertTrue(reader.getUserRatingsForMovies(6, new int[] {9}).isEmpty());
+        assertTrue(reader.getUserRatingsForMovies(5, new int[0]).isEmpty());
+    }
+}
@@ -0,0 +1,148 @@
+package com.aetna.ratings.service;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.aetna.ratings.config.RatingRateLimitProperties;
+import com.aetna.ratings.exception.RateLimitExceededException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ClientRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private RatingRateLimitProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RatingRateLimitProperties();
+        properties.setTokensPerSecond(10);
+        properties.setBurst(20);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private ClientRateLimiter createLimiter() {
+        return new ClientRateLimiter(properties, meterRegistry, now::get);
+    }
+
+    private double counter(String name, String client) {
+        return meterRegistry.get(name).tag("client", client).counter().count();
+    }
+
+    @Test
+    void testBatchesAreChargedPerId() {
+        ClientRateLimiter limiter = createLimiter();
+
+        limiter.acquire("client-1", 15);
+        RateLimitExceededException e = assertThrows(RateLimitExceededException.class, () -> limiter.acquire("client-1", 10));
+
+        // Five tokens short at ten per second.
+        assertEquals(1, e.getRetryAfterSeconds());
+        assertEquals(15, counter("ratings.ratelimit.consumed", "client-1"));
+        assertEquals(1, counter("ratings.ratelimit.rejected", "client-1"));
+    }
+
+    @Test
+    void testBucketRefillsOverTime() {
+        ClientRateLimiter limiter = createLimiter();
+        limiter.acquire("client-1", 20);
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire("client-1", 1));
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+
+        assertDoesNotThrow(() -> limiter.acquire("client-1", 5));
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire("client-1", 1));
+    }
+
+    @Test
+    void testClientsHaveSeparateBuckets() {
+        ClientRateLimiter limiter = createLimiter();
+        limiter.acquire("noisy", 20);
+
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire("noisy", 1));
+        assertDoesNotThrow(() -> limiter.acquire("quiet", 1));
+        assertDoesNotThrow(() -> limiter.acquire(null, 1));
+        assertEquals(1, counter("ratings.ratelimit.consumed", "anonymous"));
+    }
+
+    @Test
+    void testOversizedRequestTakesWholeBucket() {
+        ClientRateLimiter limiter = createLimiter();
+
+        limiter.acquire("client-1", 1_000);
+
+        assertEquals(20, counter("ratings.ratelimit.consumed", "client-1"));
+        RateLimitExceededException e = assertThrows(RateLimitExceededException.class, () -> limiter.acquire("client-1", 1_000));
+        assertEquals(2, e.getRetryAfterSeconds());
+    }
+
+    @Test
+    void testClientOverrideRate() {
+        properties.getClientTokensPerSecond().put("partner", 1_000.0);
+        ClientRateLimiter limiter = createLimiter();
+        limiter.acquire("partner", 20);
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertDoesNotThrow(() -> limiter.acquire("partner", 10));
+    }
+
+    @Test
+    void testMetricsTagsAreCapped() {
+        properties.setMetricsClients(1);
+        ClientRateLimiter limiter = createLimiter();
+
+        limiter.acquire("client-1", 1);
+        limiter.acquire("client-2", 2);
+        limiter.acquire("client-3", 3);
+
+        assertEquals(1, counter("ratings.ratelimit.consumed", "client-1"));
+        assertEquals(5, counter("ratings.ratelimit.consumed", ClientRateLimiter.OTHER_CLIENTS));
+    }
+
+    @Test
+    void testDisabled() {
+        properties.setEnabled(false);
+        ClientRateLimiter limiter = createLimiter();
+
+        assertDoesNotThrow(() -> limiter.acquire("client-1", 1_000_000));
+    }
+
+    @Test
+    void testConcurrentCallersNeverOverdraw() throws Exception {
+        ClientRateLimiter limiter = createLimiter();
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 100; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        limiter.acquire("client-1", 1);
+                        granted.incrementAndGet();
+                    } catch (RateLimitExceededException | InterruptedException e) {
+                        // Expected once the bucket is empty.
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(20, granted.get());
+    }
+}
@@ -0,0 +1,142 @@
+package com.aetna.ratings.service;
+
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyNoInteractions;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.aetna.ratings.config.RatedMovieFilterProperties;
+import com.aetna.ratings.repository.MovieTotalsReader;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class RatedMovieFilterTest {
+
+    @Mock
+    private MovieTotalsReader movieTotalsReader;
+
+    private RatedMovieFilterProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RatedMovieFilterProperties();
+        properties.setMaxMovieId(1000);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private RatedMovieFilter createFilter() {
+        RatedMovieFilter filter = new RatedMovieFilter(movieTotalsReader, properties, meterRegistry);
+        filter.load();
+        return filter;
+    }
+
+    private void ratedMovies(int... movieIds) {
+        doAnswer(invocation -> {
+            IntConsumer handler = invocation.getArgument(0);
+            IntStream.of(movieIds).forEach(handler);
+            return null;
+        }).when(movieTotalsReader).forEachRatedMovie(any());
+    }
+
+    private double skipped() {
+        return meterRegistry.get("ratings.rated.movie.filter.skipped").counter().count();
+    }
+
+    @Test
+    void testKnowsWhichMoviesAreRated() {
+        ratedMovies(1, 63, 64, 500, 2000);
+        RatedMovieFilter filter = createFilter();
+
+        assertTrue(filter.mightHaveRatings(1));
+        assertTrue(filter.mightHaveRatings(63));
+        assertTrue(filter.mightHaveRatings(64));
+        assertTrue(filter.mightHaveRatings(500));
+        assertFalse(filter.mightHaveRatings(2));
+        assertFalse(filter.mightHaveRatings(501));
+        // Beyond the highest rated ID but within max-movie-id.
+        assertFalse(filter.mightHaveRatings(900));
+        // Beyond max-movie-id, so never ruled out.
+        assertTrue(filter.mightHaveRatings(2000));
+        assertTrue(filter.mightHaveRatings(5000));
+        assertEquals(3, skipped());
+    }
+
+    @Test
+    void testRetainRatedKeepsOrder() {
+        ratedMovies(3, 7, 9);
+        RatedMovieFilter filter = createFilter();
+
+        int[] all = {9, 3, 7};
+        assertSame(all, filter.retainRated(all));
+        assertArrayEquals(new int[] {9, 7, 3}, filter.retainRated(new int[] {9, 4, 7, 800, 3}));
+        assertArrayEquals(new int[0], filter.retainRated(new int[] {4, 5}));
+        assertEquals(4, skipped());
+    }
+
+    @Test
+    void testRecordSetsBitsAndGrows() {
+        ratedMovies(2);
+        RatedMovieFilter filter = createFilter();
+
+        filter.record(5);
+        filter.record(700);
+        filter.record(1000);
+        filter.record(5000);
+
+        assertTrue(filter.mightHaveRatings(5));
+        assertTrue(filter.mightHaveRatings(700));
+        assertTrue(filter.mightHaveRatings(1000));
+        assertTrue(filter.mightHaveRatings(2));
+        assertFalse(filter.mightHaveRatings(701));
+        assertFalse(filter.mightHaveRatings(999));
+    }
+
+    @Test
+    void testEverythingMightBeRatedUntilLoaded() {
+        doThrow(new RuntimeException("SQLITE_BUSY")).when(movieTotalsReader).forEachRatedMovie(any());
+        RatedMovieFilter filter = createFilter();
+
+        filter.record(5);
+        assertTrue(filter.mightHaveRatings(6));
+        int[] movieIds = {6, 7};
+        assertSame(movieIds, filter.retainRated(movieIds));
+        assertEquals(0, skipped());
+    }
+
+    @Test
+    void testFailedRefreshKeepsServing() {
+        ratedMovies(2);
+        RatedMovieFilter filter = createFilter();
+
+        doThrow(new RuntimeException("SQLITE_BUSY")).when(movieTotalsReader).forEachRatedMovie(any());
+        filter.refresh();
+
+        assertTrue(filter.mightHaveRatings(2));
+        assertFalse(filter.mightHaveRatings(3));
+    }
+
+    @Test
+    void testDisabledFilterNeverLoads() {
+        properties.setEnabled(false);
+        RatedMovieFilter filter = createFilter();
+        filter.refresh();
+
+        assertTrue(filter.mightHaveRatings(3));
+        verifyNoInteractions(movieTotalsReader);
+    }
+}
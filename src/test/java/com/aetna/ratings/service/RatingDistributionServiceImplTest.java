@@ -0,0 +1,170 @@
+package com.aetna.ratings.service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.aryEq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.aetna.ratings.config.RatingBatchProperties;
+import com.aetna.ratings.config.RatingDistributionProperties;
+import com.aetna.ratings.dto.RatingDistribution;
+import com.aetna.ratings.exception.RatingsServiceException;
+import com.aetna.ratings.repository.RatingHistogram;
+import com.aetna.ratings.repository.RatingHistogramReader;
+import com.aetna.ratings.repository.RatingSummaryReader;
+
+@ExtendWith(MockitoExtension.class)
+class RatingDistributionServiceImplTest {
+
+    @Mock
+    private RatingHistogramReader ratingHistogramReader;
+
+    @Mock
+    private RatingSummaryReader ratingSummaryReader;
+
+    private final AtomicLong now = new AtomicLong();
+    private RatingDistributionProperties properties;
+    private RatingBatchProperties batchProperties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RatingDistributionProperties();
+        batchProperties = new RatingBatchProperties();
+    }
+
+    private RatingDistributionServiceImpl createService() {
+        return new RatingDistributionServiceImpl(ratingHistogramReader, new ChunkedBatchLoader(ratingSummaryReader, batchProperties),
+                properties, now::get);
+    }
+
+    /** Counts for 0.5, 1.0, ... 5.0. */
+    private static RatingHistogram histogram(int movieId, long... counts) {
+        return new RatingHistogram(movieId, counts);
+    }
+
+    @Test
+    void testDistributionIsComputedFromCounts() {
+        // Two votes of 3.0, one of 4.0 and one of 5.0.
+        RatingDistribution distribution = RatingDistributionServiceImpl.toDistribution(
+                histogram(1, 0, 0, 0, 0, 0, 2, 0, 1, 0, 1), 3.0, 4);
+
+        assertEquals(1, distribution.getMovieId());
+        assertEquals(4, distribution.getVoteCount());
+        assertEquals(10, distribution.getDistribution().size());
+        assertEquals(List.of("0.5", "1.0", "1.5", "2.0", "2.5", "3.0", "3.5", "4.0", "4.5", "5.0"),
+                List.copyOf(distribution.getDistribution().keySet()));
+        assertEquals(2L, distribution.getDistribution().get("3.0"));
+        assertEquals(0L, distribution.getDistribution().get("0.5"));
+        assertEquals(3.0, distribution.getMedian());
+        assertEquals(5.0, distribution.getP90());
+        // (4 * 3.0 + 15) / (4 + 4)
+        assertEquals(3.38, distribution.getBayesianAverage());
+    }
+
+    @Test
+    void testPercentilesUseNearestRank() {
+        RatingHistogram single = histogram(1, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0);
+        assertEquals(4.0, RatingDistributionServiceImpl.percentile(single, 1, 0.5));
+        assertEquals(4.0, RatingDistributionServiceImpl.percentile(single, 1, 0.9));
+
+        // Ten votes: 0.5 x9 and 5.0 x1, so the ninth vote is still 0.5.
+        RatingHistogram skewed = histogram(2, 9, 0, 0, 0, 0, 0, 0, 0, 0, 1);
+        assertEquals(0.5, RatingDistributionServiceImpl.percentile(skewed, 10, 0.5));
+        assertEquals(0.5, RatingDistributionServiceImpl.percentile(skewed, 10, 0.9));
+        assertEquals(5.0, RatingDistributionServiceImpl.percentile(skewed, 10, 1.0));
+    }
+
+    @Test
+    void testBayesianAverageWithoutPriorIsPlainMean() {
+        RatingDistribution distribution = RatingDistributionServiceImpl.toDistribution(
+                histogram(1, 0, 0, 0, 1, 0, 0, 0, 1, 0, 0), Double.NaN, 10);
+
+        assertEquals(3.0, distribution.getBayesianAverage());
+    }
+
+    @Test
+    void testGetMovieDistribution() {
+        properties.setPriorMean(3.5);
+        when(ratingHistogramReader.getHistograms(aryEq(new int[] {1}))).thenReturn(List.of(histogram(1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 5)));
+
+        Optional<RatingDistribution> distribution = createService().getMovieDistribution(1);
+
+        assertEquals(5, distribution.get().getVoteCount());
+        // (10 * 3.5 + 25) / 15
+        assertEquals(4.0, distribution.get().getBayesianAverage());
+        verify(ratingHistogramReader, never()).getMeanRating();
+    }
+
+    @Test
+    void testGetMovieDistributionNotFound() {
+        when(ratingHistogramReader.getHistograms(any(int[].class))).thenReturn(List.of());
+
+        assertFalse(createService().getMovieDistribution(1).isPresent());
+    }
+
+    @Test
+    void testGetMovieDistributionWrapsErrors() {
+        when(ratingHistogramReader.getHistograms(any(int[].class))).thenThrow(new RuntimeException("Database error"));
+
+        assertThrows(RatingsServiceException.class, () -> createService().getMovieDistribution(1));
+    }
+
+    @Test
+    void testGetMovieDistributionsInRequestOrderAndChunks() {
+        batchProperties.setChunkSize(2);
+        batchProperties.setMinChunkSize(2);
+        properties.setPriorMean(3.0);
+        when(ratingHistogramReader.getHistograms(aryEq(new int[] {3, 1}))).thenReturn(List.of(
+                histogram(1, 0, 0, 0, 0, 0, 1, 0, 0, 0, 0),
+                histogram(3, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0)));
+        when(ratingHistogramReader.getHistograms(aryEq(new int[] {2, 2}))).thenReturn(List.of());
+
+        List<RatingDistribution> distributions = createService().getMovieDistributions(new int[] {3, 1, 3, 2});
+
+        assertEquals(2, distributions.size());
+        assertEquals(3, distributions.get(0).getMovieId());
+        assertEquals(1, distributions.get(1).getMovieId());
+    }
+
+    @Test
+    void testGetMovieDistributionsValidation() {
+        RatingDistributionServiceImpl service = createService();
+        batchProperties.setMaxSize(2);
+        RatingDistributionServiceImpl limited = createService();
+
+        assertThrows(IllegalArgumentException.class, () -> service.getMovieDistributions(new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> service.getMovieDistributions(null));
+        assertThrows(IllegalArgumentException.class, () -> service.getMovieDistributions(new int[] {1, -2}));
+        assertThrows(IllegalArgumentException.class, () -> limited.getMovieDistributions(new int[] {1, 2, 3}));
+    }
+
+    @Test
+    void testPriorMeanIsReadOncePerRefresh() {
+        when(ratingHistogramReader.getHistograms(any(int[].class))).thenReturn(List.of(histogram(1, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0)));
+        when(ratingHistogramReader.getMeanRating()).thenReturn(3.5);
+        RatingDistributionServiceImpl service = createService();
+
+        service.getMovieDistribution(1);
+        service.getMovieDistribution(1);
+        verify(ratingHistogramReader, times(1)).getMeanRating();
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(5));
+        service.getMovieDistribution(1);
+        verify(ratingHistogramReader, times(2)).getMeanRating();
+    }
+}
@@ -0,0 +1,210 @@
+package com.aetna.ratings.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.aetna.ratings.config.RatingDistributionProperties;
+import com.aetna.ratings.config.RatingLeaderboardProperties;
+import com.aetna.ratings.dto.LeaderboardEntry;
+import com.aetna.ratings.dto.LeaderboardPage;
+import com.aetna.ratings.repository.MovieTotalsHandler;
+import com.aetna.ratings.repository.MovieTotalsReader;
+
+@ExtendWith(MockitoExtension.class)
+class RatingLeaderboardTest {
+
+    private static final Instant NOW = Instant.ofEpochSecond(1_700_000_000L);
+
+    @Mock
+    private MovieTotalsReader movieTotalsReader;
+
+    private RatingLeaderboardProperties properties;
+    private RatingDistributionProperties distributionProperties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RatingLeaderboardProperties();
+        properties.setDefaultMinVotes(2);
+        properties.setMaxPageSize(10);
+        properties.setWindows(List.of(Duration.ofDays(7)));
+        distributionProperties = new RatingDistributionProperties();
+        distributionProperties.setPriorWeight(2);
+        distributionProperties.setPriorMean(3.0);
+    }
+
+    private RatingLeaderboard createLeaderboard() {
+        RatingLeaderboard leaderboard = new RatingLeaderboard(movieTotalsReader, properties, distributionProperties,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        leaderboard.load();
+        return leaderboard;
+    }
+
+    private void allTimeTotals(double[]... rows) {
+        doAnswer(invocation -> {
+            MovieTotalsHandler handler = invocation.getArgument(0);
+            for (double[] row : rows) {
+                handler.accept((int) row[0], row[1], (long) row[2]);
+            }
+            return 0L;
+        }).when(movieTotalsReader).forEachMovieTotal(any());
+    }
+
+    private static List<Integer> movieIds(LeaderboardPage page) {
+        return page.getEntries().stream().map(LeaderboardEntry::getMovieId).toList();
+    }
+
+    @Test
+    void testRanksByDampedAverage() {
+        // Movie 1: two 5.0 votes; movie 2: twenty 4.5 votes; movie 3: one 5.0 vote.
+        allTimeTotals(new double[] {1, 10, 2}, new double[] {2, 90, 20}, new double[] {3, 5, 1});
+        RatingLeaderboard leaderboard = createLeaderboard();
+
+        LeaderboardPage page = leaderboard.page(null, 1, 0, 10);
+
+        // (2 * 3 + 90) / 22 = 4.36 beats (2 * 3 + 10) / 4 = 4.0, which beats (2 * 3 + 5) / 3 = 3.67.
+        assertEquals(List.of(2, 1, 3), movieIds(page));
+        LeaderboardEntry first = page.getEntries().get(0);
+        assertEquals(1, first.getRank());
+        assertEquals(4.36, first.getScore());
+        assertEquals(4.5, first.getAverageRating());
+        assertEquals(20, first.getVoteCount());
+        assertEquals("all", page.getWindow());
+    }
+
+    @Test
+    void testMinVotesAndPaging() {
+        allTimeTotals(new double[] {1, 10, 2}, new double[] {2, 90, 20}, new double[] {3, 5, 1}, new double[] {4, 8, 2});
+        RatingLeaderboard leaderboard = createLeaderboard();
+
+        LeaderboardPage defaults = leaderboard.page(null, null, 0, 10);
+        assertEquals(2, defaults.getMinVotes());
+        assertEquals(List.of(2, 1, 4), movieIds(defaults));
+
+        LeaderboardPage second = leaderboard.page("all", 2, 1, 2);
+        assertEquals(List.of(4), movieIds(second));
+        assertEquals(3, second.getEntries().get(0).getRank());
+        assertTrue(leaderboard.page(null, 2, 5, 2).getEntries().isEmpty());
+    }
+
+    @Test
+    void testRecordMovesOnlyTheRatedMovie() {
+        allTimeTotals(new double[] {1, 10, 2}, new double[] {2, 8, 2});
+        RatingLeaderboard leaderboard = createLeaderboard();
+        assertEquals(List.of(1, 2), movieIds(leaderboard.page(null, 1, 0, 10)));
+
+        leaderboard.record(2, 5.0, NOW.getEpochSecond(), 1);
+        leaderboard.record(2, 5.0, NOW.getEpochSecond(), 1);
+        leaderboard.record(5, 4.0, NOW.getEpochSecond(), 1);
+
+        LeaderboardPage page = leaderboard.page(null, 1, 0, 10);
+        assertEquals(List.of(2, 1, 5), movieIds(page));
+        assertEquals(4, page.getEntries().get(0).getVoteCount());
+        assertEquals(3, page.getEntries().size());
+    }
+
+    @Test
+    void testRecordDuringRebuildIsNeitherBlockedNorCountedTwice() {
+        allTimeTotals(new double[] {1, 10, 2});
+        RatingLeaderboard leaderboard = createLeaderboard();
+        AtomicBoolean recordedWhileReading = new AtomicBoolean();
+        // The rebuild reads at version 5. Movie 1's new rating committed at version 4, so the read
+        // already counts it; movie 2's committed at version 6, after the read.
+        doAnswer(invocation -> {
+            Thread ingestion = new Thread(() -> {
+                leaderboard.record(1, 5.0, NOW.getEpochSecond(), 4);
+                leaderboard.record(2, 5.0, NOW.getEpochSecond(), 6);
+            });
+            ingestion.start();
+            ingestion.join(5_000);
+            recordedWhileReading.set(!ingestion.isAlive());
+            MovieTotalsHandler handler = invocation.getArgument(0);
+            handler.accept(1, 15, 3);
+            return 5L;
+        }).when(movieTotalsReader).forEachMovieTotal(any());
+
+        leaderboard.refresh();
+
+        assertTrue(recordedWhileReading.get());
+        LeaderboardPage page = leaderboard.page(null, 1, 0, 10);
+        assertEquals(List.of(1, 2), movieIds(page));
+        assertEquals(3, page.getEntries().get(0).getVoteCount());
+        assertEquals(1, page.getEntries().get(1).getVoteCount());
+    }
+
+    @Test
+    void testWindowsOnlyCountRecentRatings() {
+        allTimeTotals();
+        long weekAgo = NOW.minus(Duration.ofDays(7)).getEpochSecond();
+        doAnswer(invocation -> {
+            MovieTotalsHandler handler = invocation.getArgument(1);
+            handler.accept(7, 9, 2);
+            return 0L;
+        }).when(movieTotalsReader).forEachMovieTotalSince(eq(weekAgo), any());
+        RatingLeaderboard leaderboard = createLeaderboard();
+
+        leaderboard.record(8, 5.0, weekAgo - 1, 1);
+        leaderboard.record(7, 5.0, weekAgo, 1);
+
+        LeaderboardPage page = leaderboard.page("7d", 1, 0, 10);
+        assertEquals("7d", page.getWindow());
+        assertEquals(List.of(7), movieIds(page));
+        assertEquals(3, page.getEntries().get(0).getVoteCount());
+        // All time, both movies have a single 5.0 vote and tie on score and votes.
+        assertEquals(List.of(7, 8), movieIds(leaderboard.page(null, 1, 0, 10)));
+        assertEquals(List.of(7), movieIds(leaderboard.page("P7D", 1, 0, 10)));
+    }
+
+    @Test
+    void testRejectsInvalidRequests() {
+        allTimeTotals();
+        RatingLeaderboard leaderboard = createLeaderboard();
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> leaderboard.page("30d", null, 0, 10));
+        assertEquals("Unknown leaderboard window '30d'; available windows are all, 7d", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> leaderboard.page("soon", null, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> leaderboard.page(null, -1, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> leaderboard.page(null, null, -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> leaderboard.page(null, null, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> leaderboard.page(null, null, 0, 11));
+    }
+
+    @Test
+    void testFailedRefreshKeepsServing() {
+        allTimeTotals(new double[] {1, 10, 2});
+        RatingLeaderboard leaderboard = createLeaderboard();
+
+        doThrow(new RuntimeException("SQLITE_BUSY")).when(movieTotalsReader).forEachMovieTotalSince(anyLong(), any());
+        leaderboard.refresh();
+
+        assertEquals(List.of(1), movieIds(leaderboard.page(null, 1, 0, 10)));
+    }
+
+    @Test
+    void testPriorMeanDefaultsToMeanOfAllRatings() {
+        distributionProperties.setPriorMean(null);
+        // Mean of all ratings is (10 + 2) / 4 = 3.0.
+        allTimeTotals(new double[] {1, 10, 2}, new double[] {2, 2, 2});
+        RatingLeaderboard leaderboard = createLeaderboard();
+
+        LeaderboardEntry first = leaderboard.page(null, 1, 0, 10).getEntries().get(0);
+        assertEquals(4.0, first.getScore());
+    }
+}
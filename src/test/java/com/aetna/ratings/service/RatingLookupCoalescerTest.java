@@ -0,0 +1,125 @@
+package com.aetna.ratings.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.aetna.ratings.dto.RatingSummary;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RatingLookupCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RatingLookupCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new RatingLookupCoalescer(meterRegistry);
+    }
+
+    private double counter(String name) {
+        return meterRegistry.counter(name).count();
+    }
+
+    /** Waits until {@code count} callers are blocked joining an in-flight lookup. */
+    private void awaitJoined(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (counter("ratings.coalesced.ids") < count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void testConcurrentSingleLookupsShareOneCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+
+        CompletableFuture<Optional<RatingSummary>> first = CompletableFuture.supplyAsync(() -> coalescer.get(1, movieId -> {
+            calls.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return Optional.of(new RatingSummary(movieId, 4.0));
+        }));
+        loading.await();
+        CompletableFuture<Optional<RatingSummary>> second = CompletableFuture.supplyAsync(() -> coalescer.get(1, movieId -> {
+            calls.incrementAndGet();
+            return Optional.empty();
+        }));
+        awaitJoined(1);
+        release.countDown();
+
+        assertEquals(4.0, first.get().get().getRating());
+        assertEquals(4.0, second.get().get().getRating());
+        assertEquals(1, calls.get());
+        assertEquals(1.0, counter("ratings.coalesced.calls"));
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    void testBatchJoinsIdsAlreadyInFlight() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch loading = new CountDownLatch(1);
+        List<List<Integer>> queried = Collections.synchronizedList(new ArrayList<>());
+
+        CompletableFuture<List<RatingSummary>> first = CompletableFuture.supplyAsync(() -> coalescer.getAll(Arrays.asList(1, 2), movieIds -> {
+            queried.add(movieIds);
+            loading.countDown();
+            await(release);
+            return List.of(new RatingSummary(1, 4.0), new RatingSummary(2, 3.0));
+        }));
+        loading.await();
+        CompletableFuture<List<RatingSummary>> second = CompletableFuture.supplyAsync(() -> coalescer.getAll(Arrays.asList(3, 2, 1), movieIds -> {
+            queried.add(movieIds);
+            return List.of(new RatingSummary(3, 5.0));
+        }));
+        awaitJoined(2);
+        release.countDown();
+
+        assertEquals(List.of(3, 2, 1), second.get().stream().map(RatingSummary::getMovieId).toList());
+        assertEquals(2, first.get().size());
+        assertEquals(List.of(List.of(1, 2), List.of(3)), queried);
+        assertEquals(2.0, counter("ratings.coalesced.ids"));
+        assertEquals(0.0, counter("ratings.coalesced.calls"));
+    }
+
+    @Test
+    void testMissingMoviesAreLeftOut() {
+        List<RatingSummary> ratings = coalescer.getAll(Arrays.asList(7, 8), movieIds -> List.of(new RatingSummary(8, 2.5)));
+
+        assertEquals(List.of(8), ratings.stream().map(RatingSummary::getMovieId).toList());
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    void testFailureIsPropagatedAndCleared() {
+        assertThrows(IllegalStateException.class, () -> coalescer.get(1, movieId -> {
+            throw new IllegalStateException("Database error");
+        }));
+
+        assertEquals(0, coalescer.inFlightCount());
+        assertTrue(coalescer.get(1, movieId -> Optional.empty()).isEmpty());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.aetna.ratings.service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.aetna.ratings.config.ClientRefIdHolder;
+import com.aetna.ratings.dto.RatingSummary;
+import com.aetna.ratings.exception.RatingsServiceException;
+import com.aetna.ratings.service.RatingRequestTelemetry.Operation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+class RatingRequestTelemetryTest {
+
+    private final List<SpanData> spans = new CopyOnWriteArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private SdkTracerProvider tracerProvider;
+    private RatingRequestTelemetry telemetry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracerProvider = SdkTracerProvider.builder().addSpanProcessor(new SpanProcessor() {
+            @Override
+            public void onStart(Context parentContext, ReadWriteSpan span) {
+            }
+
+            @Override
+            public boolean isStartRequired() {
+                return false;
+            }
+
+            @Override
+            public void onEnd(ReadableSpan span) {
+                spans.add(span.toSpanData());
+            }
+
+            @Override
+            public boolean isEndRequired() {
+                return true;
+            }
+        }).build();
+        telemetry = new RatingRequestTelemetry(meterRegistry, tracerProvider.get("test"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ClientRefIdHolder.clear();
+        tracerProvider.close();
+    }
+
+    private long timerCount(String operation, String outcome) {
+        return meterRegistry.get("ratings.request").tag("operation", operation).tag("outcome", outcome).timer().count();
+    }
+
+    private double notFound(String operation) {
+        return meterRegistry.get("ratings.request.not.found").tag("operation", operation).counter().count();
+    }
+
+    @Test
+    void testBatchRecordsSizesAndMissingMovies() {
+        ClientRefIdHolder.setClientRefId("client-1");
+
+        List<RatingSummary> result = telemetry.observe(Operation.BATCH, 3,
+                () -> List.of(new RatingSummary(1, 4.0), new RatingSummary(2, 3.5)), List::size);
+
+        assertEquals(2, result.size());
+        assertEquals(1, timerCount("batch", "success"));
+        assertEquals(3, meterRegistry.get("ratings.request.batch.size").summary().totalAmount());
+        assertEquals(2, meterRegistry.get("ratings.request.rows").summary().totalAmount());
+        assertEquals(1, notFound("batch"));
+
+        SpanData span = spans.get(0);
+        assertEquals("ratings.movies", span.getName());
+        assertEquals("client-1", span.getAttributes().get(RatingRequestTelemetry.CLIENT_REF_ID));
+        assertEquals(3L, span.getAttributes().get(RatingRequestTelemetry.REQUESTED));
+        assertEquals(2L, span.getAttributes().get(RatingRequestTelemetry.ROWS));
+    }
+
+    @Test
+    void testSingleEmptyResultIsNotFound() {
+        Optional<RatingSummary> result = telemetry.observe(Operation.SINGLE, 1, Optional::<RatingSummary>empty,
+                summary -> summary.isPresent() ? 1 : 0);
+
+        assertTrue(result.isEmpty());
+        assertEquals(1, timerCount("single", "not_found"));
+        assertEquals(0, timerCount("single", "success"));
+        assertEquals(1, notFound("single"));
+        assertEquals("not_found", spans.get(0).getAttributes().get(RatingRequestTelemetry.OUTCOME));
+        assertNull(spans.get(0).getAttributes().get(RatingRequestTelemetry.CLIENT_REF_ID));
+    }
+
+    @Test
+    void testErrorMarksSpan() {
+        assertThrows(RatingsServiceException.class, () -> telemetry.observe(Operation.SINGLE, 1,
+                () -> {
+                    throw new RatingsServiceException("Database error");
+                }, (Optional<RatingSummary> summary) -> 1));
+
+        assertEquals(1, timerCount("single", "error"));
+        assertEquals(0, notFound("single"));
+        assertEquals(StatusCode.ERROR, spans.get(0).getStatus().getStatusCode());
+    }
+}
@@ -0,0 +1,98 @@
+package com.aetna.ratings.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.aetna.ratings.config.RatingCacheProperties;
+import com.aetna.ratings.dto.RatingSummary;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RatingSummaryCacheTest {
+
+    private RatingCacheProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RatingCacheProperties();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testGetLoadsOnceAndCachesMisses() {
+        RatingSummaryCache cache = new RatingSummaryCache(properties, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1, id -> { loads.incrementAndGet(); return Optional.of(new RatingSummary(id, 4.5)); });
+        Optional<RatingSummary> hit = cache.get(1, id -> { loads.incrementAndGet(); return Optional.empty(); });
+        cache.get(999, id -> { loads.incrementAndGet(); return Optional.empty(); });
+        Optional<RatingSummary> miss = cache.get(999, id -> { loads.incrementAndGet(); return Optional.empty(); });
+
+        assertEquals(2, loads.get());
+        assertEquals(4.5, hit.get().getRating());
+        assertFalse(miss.isPresent());
+    }
+
+    @Test
+    void testGetAllFetchesOnlyMissingIdsInRequestOrder() {
+        RatingSummaryCache cache = new RatingSummaryCache(properties, meterRegistry);
+        cache.get(2, id -> Optional.of(new RatingSummary(id, 3.0)));
+        List<List<Integer>> requested = new ArrayList<>();
+
+        List<RatingSummary> result = cache.getAll(Arrays.asList(3, 2, 1, 3), ids -> {
+            requested.add(ids);
+            return Arrays.asList(new RatingSummary(1, 4.0), new RatingSummary(3, 2.5));
+        });
+
+        assertEquals(1, requested.size());
+        assertEquals(2, requested.get(0).size());
+        assertFalse(requested.get(0).contains(2));
+        assertEquals(Arrays.asList(3, 2, 1), result.stream().map(RatingSummary::getMovieId).toList());
+    }
+
+    @Test
+    void testInvalidateForcesReload() {
+        RatingSummaryCache cache = new RatingSummaryCache(properties, meterRegistry);
+        cache.get(1, id -> Optional.of(new RatingSummary(id, 4.5)));
+
+        cache.invalidate(1);
+        Optional<RatingSummary> reloaded = cache.get(1, id -> Optional.of(new RatingSummary(id, 2.0)));
+
+        assertEquals(2.0, reloaded.get().getRating());
+    }
+
+    @Test
+    void testDisabledCachePassesThrough() {
+        properties.setEnabled(false);
+        RatingSummaryCache cache = new RatingSummaryCache(properties, meterRegistry);
+        List<Integer> movieIds = Arrays.asList(1, 1);
+
+        List<RatingSummary> result = cache.getAll(movieIds, ids -> {
+            assertTrue(ids == movieIds);
+            return List.of();
+        });
+
+        assertFalse(cache.isEnabled());
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void testMetricsArePublished() {
+        RatingSummaryCache cache = new RatingSummaryCache(properties, meterRegistry);
+        cache.get(1, id -> Optional.empty());
+        cache.get(1, id -> Optional.empty());
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", RatingSummaryCache.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count());
+    }
+}
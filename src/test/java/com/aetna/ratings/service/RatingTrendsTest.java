@@ -0,0 +1,208 @@
+package com.aetna.ratings.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.aetna.ratings.config.RatingTrendProperties;
+import com.aetna.ratings.dto.RatingTrend;
+import com.aetna.ratings.dto.TrendingMovie;
+import com.aetna.ratings.dto.TrendingPage;
+import com.aetna.ratings.repository.MovieBucketTotalsHandler;
+import com.aetna.ratings.repository.MovieTotalsReader;
+
+@ExtendWith(MockitoExtension.class)
+class RatingTrendsTest {
+
+    private static final long HOUR = 3600;
+    private static final long NOW = 1_700_000_000L;
+    /** The hour bucket NOW falls in. */
+    private static final long CURRENT = NOW / HOUR;
+
+    @Mock
+    private MovieTotalsReader movieTotalsReader;
+
+    private final AtomicLong now = new AtomicLong(NOW);
+    private RatingTrendProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RatingTrendProperties();
+        properties.setMaxLimit(10);
+    }
+
+    private RatingTrends createTrends() {
+        RatingTrends trends = new RatingTrends(movieTotalsReader, properties, now::get);
+        trends.load();
+        return trends;
+    }
+
+    /** Rows of movie ID, bucket, rating sum and rating count. */
+    private void buckets(double[]... rows) {
+        doAnswer(invocation -> {
+            MovieBucketTotalsHandler handler = invocation.getArgument(2);
+            for (double[] row : rows) {
+                handler.accept((int) row[0], (long) row[1], row[2], (long) row[3]);
+            }
+            return 0L;
+        }).when(movieTotalsReader).forEachMovieBucketSince(eq((CURRENT - 719) * HOUR), eq(HOUR), any());
+    }
+
+    private static List<Integer> movieIds(TrendingPage page) {
+        return page.getMovies().stream().map(TrendingMovie::getMovieId).toList();
+    }
+
+    @Test
+    void testLoadsWindowsFromBuckets() {
+        buckets(new double[] {1, CURRENT, 9, 2}, new double[] {1, CURRENT - 30, 4, 1}, new double[] {2, CURRENT - 200, 3, 1});
+        RatingTrends trends = createTrends();
+
+        Map<String, RatingTrend> first = trends.trends(1);
+        assertEquals(List.of("24h", "7d", "30d"), List.copyOf(first.keySet()));
+        assertEquals(new RatingTrend(2, 4.5, 2.0), first.get("24h"));
+        assertEquals(new RatingTrend(3, 4.3, 0.43), first.get("7d"));
+        assertEquals(new RatingTrend(3, 4.3, 0.1), first.get("30d"));
+
+        Map<String, RatingTrend> second = trends.trends(2);
+        assertEquals(0, second.get("24h").getVoteCount());
+        assertNull(second.get("7d").getAverageRating());
+        assertEquals(new RatingTrend(1, 3.0, 0.03), second.get("30d"));
+    }
+
+    @Test
+    void testWindowsSlideAsTimePasses() {
+        buckets(new double[] {1, CURRENT, 9, 2}, new double[] {1, CURRENT - 30, 4, 1}, new double[] {2, CURRENT - 200, 3, 1});
+        RatingTrends trends = createTrends();
+
+        now.addAndGet(24 * HOUR);
+        assertEquals(0, trends.trends(1).get("24h").getVoteCount());
+        assertEquals(3, trends.trends(1).get("7d").getVoteCount());
+
+        now.addAndGet(7 * 24 * HOUR);
+        assertEquals(0, trends.trends(1).get("7d").getVoteCount());
+        assertEquals(3, trends.trends(1).get("30d").getVoteCount());
+        assertEquals(1, trends.trends(2).get("30d").getVoteCount());
+
+        now.addAndGet(30 * 24 * HOUR);
+        assertEquals(0, trends.trends(1).get("30d").getVoteCount());
+        assertEquals(0, trends.trends(2).get("30d").getVoteCount());
+    }
+
+    @Test
+    void testRecordAddsToEveryWindowCoveringTheRating() {
+        buckets();
+        RatingTrends trends = createTrends();
+
+        trends.record(3, 5.0, NOW, 1);
+        trends.record(3, 4.0, NOW - Duration.ofDays(2).toSeconds(), 1);
+        trends.record(3, 1.0, NOW - Duration.ofDays(31).toSeconds(), 1);
+        // Stamped in the future, so counted in the current hour.
+        trends.record(3, 3.0, NOW + Duration.ofDays(1).toSeconds(), 1);
+
+        Map<String, RatingTrend> movie = trends.trends(3);
+        assertEquals(new RatingTrend(2, 4.0, 2.0), movie.get("24h"));
+        assertEquals(3, movie.get("7d").getVoteCount());
+        assertEquals(3, movie.get("30d").getVoteCount());
+
+        // A rating made after the clock moved on slides the windows first.
+        now.addAndGet(24 * HOUR);
+        trends.record(3, 2.0, now.get(), 1);
+        assertEquals(new RatingTrend(1, 2.0, 1.0), trends.trends(3).get("24h"));
+        assertEquals(4, trends.trends(3).get("7d").getVoteCount());
+    }
+
+    @Test
+    void testRecordDuringReloadIsNeitherBlockedNorCountedTwice() {
+        buckets();
+        RatingTrends trends = createTrends();
+        AtomicBoolean recordedWhileReading = new AtomicBoolean();
+        // The reload reads at version 5. Movie 1's new rating committed at version 4, so the read
+        // already counts it; movie 2's committed at version 6, after the read.
+        doAnswer(invocation -> {
+            Thread ingestion = new Thread(() -> {
+                trends.record(1, 5.0, NOW, 4);
+                trends.record(2, 5.0, NOW, 6);
+            });
+            ingestion.start();
+            ingestion.join(5_000);
+            recordedWhileReading.set(!ingestion.isAlive());
+            MovieBucketTotalsHandler handler = invocation.getArgument(2);
+            handler.accept(1, CURRENT, 14, 3);
+            return 5L;
+        }).when(movieTotalsReader).forEachMovieBucketSince(eq((CURRENT - 719) * HOUR), eq(HOUR), any());
+
+        trends.refresh();
+
+        assertTrue(recordedWhileReading.get());
+        assertEquals(3, trends.trends(1).get("24h").getVoteCount());
+        assertEquals(new RatingTrend(1, 5.0, 1.0), trends.trends(2).get("24h"));
+    }
+
+    @Test
+    void testTrendingRanksByVotesThenAverage() {
+        buckets(new double[] {10, CURRENT, 9, 3}, new double[] {11, CURRENT - 1, 15, 5}, new double[] {12, CURRENT, 12, 3},
+                new double[] {13, CURRENT, 5, 1}, new double[] {14, CURRENT - 48, 50, 10});
+        RatingTrends trends = createTrends();
+
+        TrendingPage page = trends.trending("24h", 3);
+        assertEquals("24h", page.getWindow());
+        assertEquals(List.of(11, 12, 10), movieIds(page));
+        TrendingMovie first = page.getMovies().get(0);
+        assertEquals(1, first.getRank());
+        assertEquals(5, first.getVoteCount());
+        assertEquals(3.0, first.getAverageRating());
+        assertEquals(5.0, first.getVotesPerDay());
+
+        assertEquals(List.of(11, 12, 10, 13), movieIds(trends.trending(null, 10)));
+        TrendingPage week = trends.trending("P7D", 2);
+        assertEquals("7d", week.getWindow());
+        assertEquals(List.of(14, 11), movieIds(week));
+    }
+
+    @Test
+    void testRejectsInvalidRequests() {
+        buckets();
+        RatingTrends trends = createTrends();
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> trends.trending("1y", 10));
+        assertEquals("Unknown trending window '1y'; available windows are 24h, 7d, 30d", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> trends.trending("soon", 10));
+        assertThrows(IllegalArgumentException.class, () -> trends.trending(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> trends.trending(null, 11));
+    }
+
+    @Test
+    void testRejectsWindowsThatAreNotWholeBuckets() {
+        properties.setWindows(List.of(Duration.ofMinutes(90)));
+
+        assertThrows(IllegalStateException.class, () -> new RatingTrends(movieTotalsReader, properties, now::get));
+    }
+
+    @Test
+    void testFailedReloadKeepsServing() {
+        buckets(new double[] {1, CURRENT, 9, 2});
+        RatingTrends trends = createTrends();
+
+        doThrow(new RuntimeException("SQLITE_BUSY")).when(movieTotalsReader).forEachMovieBucketSince(anyLong(), anyLong(), any());
+        trends.refresh();
+
+        assertEquals(2, trends.trends(1).get("24h").getVoteCount());
+    }
+}
@@ -0,0 +1,191 @@
+package com.aetna.ratings.service;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.UncategorizedSQLException;
+
+import com.aetna.ratings.config.RatingIngestProperties;
+import com.aetna.ratings.config.SqliteProperties;
+import com.aetna.ratings.dto.Rating;
+import com.aetna.ratings.exception.ServiceOverloadedException;
+import com.aetna.ratings.repository.InsertedRatings;
+import com.aetna.ratings.repository.RatingsBatchWriter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class RatingWriteQueueTest {
+
+    @Mock
+    private RatingsBatchWriter ratingsBatchWriter;
+
+    private RatingIngestProperties properties;
+    private SqliteProperties sqliteProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private RatingWriteQueue writeQueue;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RatingIngestProperties();
+        properties.setGroupCommitDelay(Duration.ofMillis(200));
+        properties.setEnqueueTimeout(Duration.ofMillis(10));
+        sqliteProperties = new SqliteProperties();
+        sqliteProperties.setBusyRetryBackoff(Duration.ofMillis(1));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writeQueue != null) {
+            writeQueue.stop();
+        }
+    }
+
+    private static Rating rating(int ratingId) {
+        return new Rating(ratingId, 1, 10, 4.0, 1260759144L);
+    }
+
+    @Test
+    void testConcurrentWritesShareOneCommit() {
+        List<Integer> groupSizes = new ArrayList<>();
+        when(ratingsBatchWriter.insertBatch(anyList())).thenAnswer(invocation -> {
+            List<Rating> ratings = invocation.getArgument(0);
+            groupSizes.add(ratings.size());
+            int[] counts = new int[ratings.size()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = ratings.get(i).getRatingId() == 2 ? RatingsBatchWriter.DUPLICATE : 1;
+            }
+            return new InsertedRatings(counts, 42);
+        });
+        writeQueue = new RatingWriteQueue(ratingsBatchWriter, properties, sqliteProperties, meterRegistry);
+        writeQueue.start();
+
+        CompletableFuture<InsertedRatings> first = writeQueue.submit(List.of(rating(1), rating(2)));
+        CompletableFuture<InsertedRatings> second = writeQueue.submit(List.of(rating(3)));
+
+        assertArrayEquals(new int[] {1, RatingsBatchWriter.DUPLICATE}, first.join().counts());
+        assertArrayEquals(new int[] {1}, second.join().counts());
+        // Both callers' ratings committed in the same transaction, at the same version.
+        assertEquals(42, first.join().version());
+        assertEquals(42, second.join().version());
+        assertEquals(List.of(3), groupSizes);
+    }
+
+    @Test
+    void testFailedCommitFailsEveryCaller() {
+        when(ratingsBatchWriter.insertBatch(anyList())).thenThrow(new RuntimeException("SQLITE_BUSY"));
+        writeQueue = new RatingWriteQueue(ratingsBatchWriter, properties, sqliteProperties, meterRegistry);
+        writeQueue.start();
+
+        CompletableFuture<InsertedRatings> first = writeQueue.submit(List.of(rating(1)));
+        CompletableFuture<InsertedRatings> second = writeQueue.submit(List.of(rating(2)));
+
+        assertThrows(CompletionException.class, first::join);
+        assertThrows(CompletionException.class, second::join);
+    }
+
+    @Test
+    void testBusyCommitIsRetried() {
+        when(ratingsBatchWriter.insertBatch(anyList()))
+                .thenThrow(new UncategorizedSQLException("insert", "INSERT", new SQLException("[SQLITE_BUSY] The database file is locked", null, 5)))
+                .thenReturn(new InsertedRatings(new int[] {1}, 1));
+        writeQueue = new RatingWriteQueue(ratingsBatchWriter, properties, sqliteProperties, meterRegistry);
+        writeQueue.start();
+
+        assertArrayEquals(new int[] {1}, writeQueue.submit(List.of(rating(1))).join().counts());
+        assertEquals(1.0, meterRegistry.counter("ratings.sqlite.busy.retries").count());
+    }
+
+    @Test
+    void testFullQueueIsRejected() throws InterruptedException {
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(ratingsBatchWriter.insertBatch(anyList())).thenAnswer(invocation -> {
+            committing.countDown();
+            release.await();
+            return new InsertedRatings(new int[] {1}, 1);
+        });
+        properties.setQueueCapacity(1);
+        properties.setGroupCommitSize(1);
+        writeQueue = new RatingWriteQueue(ratingsBatchWriter, properties, sqliteProperties, meterRegistry);
+        writeQueue.start();
+
+        writeQueue.submit(List.of(rating(1)));
+        committing.await();
+        writeQueue.submit(List.of(rating(2)));
+
+        assertThrows(ServiceOverloadedException.class, () -> writeQueue.submit(List.of(rating(3))));
+        release.countDown();
+    }
+
+    @Test
+    void testStopCompletesEveryAcceptedWrite() throws Exception {
+        when(ratingsBatchWriter.insertBatch(anyList())).thenAnswer(invocation -> new InsertedRatings(new int[((List<?>) invocation.getArgument(0)).size()], 1));
+        properties.setGroupCommitDelay(Duration.ZERO);
+        writeQueue = new RatingWriteQueue(ratingsBatchWriter, properties, sqliteProperties, meterRegistry);
+        writeQueue.start();
+
+        List<CompletableFuture<InsertedRatings>> accepted = new CopyOnWriteArrayList<>();
+        CountDownLatch submitting = new CountDownLatch(4);
+        List<Thread> submitters = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread submitter = new Thread(() -> {
+                submitting.countDown();
+                for (int i = 0; i < 10_000; i++) {
+                    try {
+                        accepted.add(writeQueue.submit(List.of(rating(i))));
+                    } catch (ServiceOverloadedException e) {
+                        return;
+                    }
+                }
+            });
+            submitter.start();
+            submitters.add(submitter);
+        }
+        submitting.await();
+        writeQueue.stop();
+        for (Thread submitter : submitters) {
+            submitter.join();
+        }
+
+        // Each write is either committed or failed; none is left waiting.
+        for (CompletableFuture<InsertedRatings> future : accepted) {
+            assertTrue(future.isDone());
+        }
+    }
+
+    @Test
+    void testSubmitAfterStopIsRejected() {
+        writeQueue = new RatingWriteQueue(ratingsBatchWriter, properties, sqliteProperties, meterRegistry);
+        writeQueue.start();
+        writeQueue.stop();
+
+        assertThrows(ServiceOverloadedException.class, () -> writeQueue.submit(List.of(rating(1))));
+    }
+
+    @Test
+    void testSubmitBeforeStartIsRejected() {
+        writeQueue = new RatingWriteQueue(ratingsBatchWriter, properties, sqliteProperties, meterRegistry);
+
+        assertThrows(ServiceOverloadedException.class, () -> writeQueue.submit(List.of(rating(1))));
+    }
+}
@@ -0,0 +1,200 @@
+package com.aetna.ratings.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.aetna.ratings.config.RatingIngestProperties;
+import com.aetna.ratings.dto.IngestionResult;
+import com.aetna.ratings.dto.Rating;
+import com.aetna.ratings.exception.RatingsServiceException;
+import com.aetna.ratings.exception.ServiceOverloadedException;
+import com.aetna.ratings.repository.InsertedRatings;
+import com.aetna.ratings.repository.RatingsBatchWriter;
+
+@ExtendWith(MockitoExtension.class)
+class RatingsIngestionServiceImplTest {
+
+    @Mock
+    private RatingWriteQueue ratingWriteQueue;
+
+    @Mock
+    private RatingSummaryCache ratingSummaryCache;
+
+    @Mock
+    private RatingLeaderboard ratingLeaderboard;
+
+    @Mock
+    private RatingTrends ratingTrends;
+
+    @Mock
+    private RatedMovieFilter ratedMovieFilter;
+
+    private RatingIngestProperties properties;
+    private RatingsIngestionServiceImpl ingestionService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RatingIngestProperties();
+        properties.setBatchSize(2);
+        ingestionService = new RatingsIngestionServiceImpl(ratingWriteQueue, ratingSummaryCache, ratingLeaderboard, ratingTrends, ratedMovieFilter, properties);
+    }
+
+    private static Rating rating(int ratingId, int movieId, double value) {
+        return new Rating(ratingId, 1, movieId, value, 1260759144L);
+    }
+
+    private static CompletableFuture<InsertedRatings> inserted(int... counts) {
+        return CompletableFuture.completedFuture(new InsertedRatings(counts, 7));
+    }
+
+    @Test
+    void testIngestWritesInBatches() {
+        when(ratingWriteQueue.submit(anyList())).thenReturn(inserted(1, 1), inserted(1));
+
+        IngestionResult result = ingestionService.ingest(Arrays.asList(rating(1, 10, 4.0), rating(2, 10, 3.5), rating(3, 20, 5.0)).iterator());
+
+        assertEquals(3, result.getAccepted());
+        assertEquals(0, result.getRejected());
+        assertTrue(result.isComplete());
+        verify(ratingWriteQueue, times(2)).submit(anyList());
+        verify(ratingSummaryCache).invalidate(10);
+        verify(ratingSummaryCache).invalidate(20);
+        verify(ratingLeaderboard).record(20, 5.0, 1260759144L, 7);
+        verify(ratingLeaderboard, times(2)).record(eq(10), anyDouble(), eq(1260759144L), eq(7L));
+        verify(ratingTrends).record(20, 5.0, 1260759144L, 7);
+        verify(ratingTrends, times(2)).record(eq(10), anyDouble(), eq(1260759144L), eq(7L));
+        verify(ratedMovieFilter, times(2)).record(10);
+        verify(ratedMovieFilter).record(20);
+    }
+
+    @Test
+    void testIngestRejectsInvalidAndDuplicateRatings() {
+        when(ratingWriteQueue.submit(anyList())).thenReturn(inserted(1, RatingsBatchWriter.DUPLICATE));
+
+        IngestionResult result = ingestionService.ingest(Arrays.asList(rating(1, 10, 4.0), rating(2, -1, 3.5),
+                rating(3, 10, 7.5), null, rating(1, 10, 4.0)).iterator());
+
+        assertEquals(1, result.getAccepted());
+        assertEquals(4, result.getRejected());
+        assertEquals("Rating at position 1 has an invalid movie ID: -1", result.getErrors().get(0));
+        assertEquals("Rating 1 already exists", result.getErrors().get(3));
+    }
+
+    @Test
+    void testIngestStopsOnMalformedInput() {
+        when(ratingWriteQueue.submit(anyList())).thenReturn(inserted(1));
+        Iterator<Rating> ratings = new Iterator<>() {
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Rating next() {
+                if (position++ == 0) {
+                    return rating(1, 10, 4.0);
+                }
+                throw new IllegalStateException("Unexpected token");
+            }
+        };
+
+        IngestionResult result = ingestionService.ingest(ratings);
+
+        assertFalse(result.isComplete());
+        assertEquals(1, result.getAccepted());
+        assertEquals(List.of("Malformed rating at position 1: Unexpected token"), result.getErrors());
+    }
+
+    @Test
+    void testIngestWrapsWriteFailures() {
+        when(ratingWriteQueue.submit(anyList())).thenReturn(CompletableFuture.failedFuture(new RuntimeException("SQLITE_BUSY")));
+
+        assertThrows(RatingsServiceException.class,
+                () -> ingestionService.ingest(List.of(rating(1, 10, 4.0)).iterator()));
+    }
+
+    @Test
+    void testIngestStopsWaitingAfterCommitTimeout() {
+        properties.setCommitTimeout(Duration.ofMillis(10));
+        when(ratingWriteQueue.submit(anyList())).thenReturn(new CompletableFuture<>());
+
+        RatingsServiceException e = assertThrows(RatingsServiceException.class,
+                () -> ingestionService.ingest(List.of(rating(1, 10, 4.0)).iterator()));
+        assertEquals("Timed out waiting for ratings to commit after 0 were accepted.", e.getMessage());
+    }
+
+    @Test
+    void testIngestPassesOnWriterShutdown() {
+        when(ratingWriteQueue.submit(anyList())).thenReturn(CompletableFuture.failedFuture(
+                new ServiceOverloadedException("Rating writer has stopped, please retry later", 1)));
+
+        assertThrows(ServiceOverloadedException.class,
+                () -> ingestionService.ingest(List.of(rating(1, 10, 4.0)).iterator()));
+    }
+
+    @Test
+    void testIngestReturnsPartialResultWhenWriterFillsUp() {
+        when(ratingWriteQueue.submit(anyList())).thenReturn(inserted(1, 1))
+                .thenThrow(new ServiceOverloadedException("Rating writer is at capacity, please retry later", 2));
+
+        IngestionResult result = ingestionService.ingest(Arrays.asList(rating(1, 10, 4.0), rating(2, 10, 3.5),
+                rating(3, 20, 5.0), rating(4, 20, 2.0), rating(5, 30, 1.0)).iterator());
+
+        assertFalse(result.isComplete());
+        assertEquals(2, result.getAccepted());
+        assertEquals(2L, result.getRetryAfterSeconds());
+        assertEquals(List.of("Stopped after 2 ratings were accepted: Rating writer is at capacity, please retry later"),
+                result.getErrors());
+        verify(ratingSummaryCache).invalidate(10);
+        verify(ratingWriteQueue, times(2)).submit(anyList());
+    }
+
+    @Test
+    void testAddRating() {
+        when(ratingWriteQueue.submit(anyList())).thenReturn(inserted(1));
+
+        IngestionResult result = ingestionService.addRating(rating(0, 10, 4.0));
+
+        assertEquals(1, result.getAccepted());
+        verify(ratingSummaryCache).invalidate(10);
+    }
+
+    @Test
+    void testAddDuplicateRating() {
+        when(ratingWriteQueue.submit(anyList())).thenReturn(inserted(RatingsBatchWriter.DUPLICATE));
+
+        IngestionResult result = ingestionService.addRating(rating(1, 10, 4.0));
+
+        assertEquals(0, result.getAccepted());
+        assertEquals(List.of("Rating 1 already exists"), result.getErrors());
+    }
+
+    @Test
+    void testAddInvalidRating() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> ingestionService.addRating(rating(0, 10, 0.0)));
+
+        assertEquals("Rating has a rating outside 0.5-5.0: 0.0", e.getMessage());
+    }
+}
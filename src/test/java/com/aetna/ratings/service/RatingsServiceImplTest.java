@@ -1,36 +1,95 @@
 package com.aetna.ratings.service;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.aetna.ratings.config.RatedMovieFilterProperties;
+import com.aetna.ratings.config.RatingBatchProperties;
+import com.aetna.ratings.config.RatingCacheProperties;
+import com.aetna.ratings.config.RatingMicroBatchProperties;
 import com.aetna.ratings.dto.RatingSummary;
 import com.aetna.ratings.exception.RatingsServiceException;
-import com.aetna.ratings.exception.ResourceNotFoundException;
-import com.aetna.ratings.repository.RatingsRepository;
+import com.aetna.ratings.repository.RatingRowHandler;
+import com.aetna.ratings.repository.MovieTotalsReader;
+import com.aetna.ratings.repository.MovieVersionHandler;
+import com.aetna.ratings.repository.RatingSummaryReader;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.TracerProvider;
 
 @ExtendWith(MockitoExtension.class)
 class RatingsServiceImplTest {
 
     @Mock
-    private RatingsRepository ratingsRepository;
+    private RatingSummaryReader ratingSummaryReader;
+
+    @Mock
+    private MovieTotalsReader movieTotalsReader;
 
-    @InjectMocks
+    private RatedMovieFilter ratedMovieFilter;
     private RatingsServiceImpl ratingsService;
 
+    @BeforeEach
+    void setUp() {
+        ratingsService = createService(new RatingBatchProperties());
+    }
+
+    private RatingsServiceImpl createService(RatingBatchProperties batchProperties) {
+        RatingCacheProperties cacheProperties = new RatingCacheProperties();
+        cacheProperties.setEnabled(false);
+        ChunkedBatchLoader chunkedBatchLoader = new ChunkedBatchLoader(ratingSummaryReader, batchProperties);
+        // Not loaded, so every movie might have ratings until a test loads it.
+        ratedMovieFilter = new RatedMovieFilter(movieTotalsReader, new RatedMovieFilterProperties(), new SimpleMeterRegistry());
+        return new RatingsServiceImpl(new RatingSummaryCache(cacheProperties, new SimpleMeterRegistry()),
+                chunkedBatchLoader,
+                new RatingLookupCoalescer(new SimpleMeterRegistry()),
+                new SingleLookupBatcher(ratingSummaryReader, chunkedBatchLoader, new RatingMicroBatchProperties(), new SimpleMeterRegistry()),
+                new RatingRequestTelemetry(new SimpleMeterRegistry(), TracerProvider.noop().get("test")), ratedMovieFilter);
+    }
+
+    private void loadRatedMovies(int... movieIds) {
+        doAnswer(invocation -> {
+            IntConsumer handler = invocation.getArgument(0);
+            IntStream.of(movieIds).forEach(handler);
+            return null;
+        }).when(movieTotalsReader).forEachRatedMovie(any());
+        ratedMovieFilter.load();
+    }
+
     @Test
     void testGetAllMoviesRating() {
         // Arrange
@@ -38,7 +97,7 @@ class RatingsServiceImplTest {
         RatingSummary ratingSummary = mock(RatingSummary.class);
         when(ratingSummary.getMovieId()).thenReturn(1);
         when(ratingSummary.getRating()).thenReturn(4.5);
-        when(ratingsRepository.getAvgRatingsForMoviesList(movieIds)).thenReturn(Arrays.asList(ratingSummary));
+        when(ratingSummaryReader.getAvgRatingsForMoviesList(anyList())).thenReturn(Arrays.asList(ratingSummary));
 
         // Act
         List<RatingSummary> result = ratingsService.getAllMoviesRating(movieIds);
@@ -54,7 +113,7 @@ class RatingsServiceImplTest {
     void testGetAllMoviesRatingThrowsException() {
         // Arrange
         List<Integer> movieIds = Arrays.asList(1, 2, 3);
-        when(ratingsRepository.getAvgRatingsForMoviesList(movieIds)).thenThrow(new RuntimeException("Database error"));
+        when(ratingSummaryReader.getAvgRatingsForMoviesList(anyList())).thenThrow(new RuntimeException("Database error"));
         
         // Act & Assert
         assertThrows(RatingsServiceException.class, () -> ratingsService.getAllMoviesRating(movieIds));
@@ -66,7 +125,7 @@ class RatingsServiceImplTest {
         RatingSummary ratingSummary = mock(RatingSummary.class);
         when(ratingSummary.getMovieId()).thenReturn(1);
         when(ratingSummary.getRating()).thenReturn(4.5);
-        when(ratingsRepository.getAvgRatingForMovie(1)).thenReturn(Optional.of(ratingSummary));
+        when(ratingSummaryReader.getAvgRatingForMovie(1)).thenReturn(Optional.of(ratingSummary));
 
         // Act
         Optional<RatingSummary> result = ratingsService.geMovieRating(1);
@@ -80,7 +139,7 @@ class RatingsServiceImplTest {
     @Test
     void testGetMovieRatingThrowsException() {
         // Arrange
-        when(ratingsRepository.getAvgRatingForMovie(1)).thenThrow(new RuntimeException("Database error"));
+        when(ratingSummaryReader.getAvgRatingForMovie(1)).thenThrow(new RuntimeException("Database error"));
 
         // Act & Assert
         assertThrows(RatingsServiceException.class, () -> ratingsService.geMovieRating(1));
@@ -93,7 +152,7 @@ class RatingsServiceImplTest {
 
     @Test
     void testGetAllMoviesRating_NullList() {
-        assertThrows(IllegalArgumentException.class, () -> ratingsService.getAllMoviesRating(null));
+        assertThrows(IllegalArgumentException.class, () -> ratingsService.getAllMoviesRating((List<Integer>) null));
     }
 
     @Test
@@ -103,7 +162,7 @@ class RatingsServiceImplTest {
         RatingSummary ratingSummary = mock(RatingSummary.class);
         when(ratingSummary.getMovieId()).thenReturn(1);
         when(ratingSummary.getRating()).thenReturn(4.5);
-        when(ratingsRepository.getAvgRatingsForMoviesList(duplicateMovieIds)).thenReturn(Arrays.asList(ratingSummary));
+        when(ratingSummaryReader.getAvgRatingsForMoviesList(anyList())).thenReturn(Arrays.asList(ratingSummary));
 
         // Act
         List<RatingSummary> result = ratingsService.getAllMoviesRating(duplicateMovieIds);
@@ -119,7 +178,7 @@ class RatingsServiceImplTest {
     void testGetAllMoviesRating_NonExistentMovies() {
         // Arrange
         List<Integer> nonExistentMovieIds = Arrays.asList(999, 1000);
-        when(ratingsRepository.getAvgRatingsForMoviesList(nonExistentMovieIds)).thenReturn(Collections.emptyList());
+        when(ratingSummaryReader.getAvgRatingsForMoviesList(anyList())).thenReturn(Collections.emptyList());
 
         // Act
         List<RatingSummary> result = ratingsService.getAllMoviesRating(nonExistentMovieIds);
@@ -137,14 +196,149 @@ class RatingsServiceImplTest {
     @Test
     void testGetMovieRating_NonExistentMovie() {
         // Arrange
-        when(ratingsRepository.getAvgRatingForMovie(999)).thenReturn(Optional.empty());
+        when(ratingSummaryReader.getAvgRatingForMovie(999)).thenReturn(Optional.empty());
 
         // Act & Assert
-        assertThrows(ResourceNotFoundException.class, () -> ratingsService.geMovieRating(999));
+        assertFalse(ratingsService.geMovieRating(999).isPresent());
+    }
+
+    @Test
+    void testGetMovieRating_UnratedMovieSkipsLookup() {
+        loadRatedMovies(1, 2);
+
+        assertFalse(ratingsService.geMovieRating(999).isPresent());
+        verify(ratingSummaryReader, never()).getAvgRatingForMovie(anyInt());
+        verify(ratingSummaryReader, never()).getAvgRatingsForMoviesList(anyList());
     }
 
     @Test
     void testGetMovieRating_NegativeMovieId() {
         assertThrows(IllegalArgumentException.class, () -> ratingsService.geMovieRating(-1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetAllMoviesRating_ExceedsMaxBatchSize() {
+        RatingBatchProperties batchProperties = new RatingBatchProperties();
+        batchProperties.setMaxSize(2);
+        RatingsServiceImpl limitedService = createService(batchProperties);
+
+        assertThrows(IllegalArgumentException.class, () -> limitedService.getAllMoviesRating(Arrays.asList(1, 2, 3)));
+        verify(ratingSummaryReader, never()).getAvgRatingsForMoviesList(anyList());
+    }
+
+    @Test
+    void testGetAllMoviesRating_DeduplicatesAndPadsChunk() {
+        when(ratingSummaryReader.getAvgRatingsForMoviesList(anyList())).thenReturn(Collections.emptyList());
+
+        ratingsService.getAllMoviesRating(Arrays.asList(5, 3, 5, 3, 7));
+
+        List<Integer> padded = Arrays.asList(5, 3, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7);
+        verify(ratingSummaryReader).getAvgRatingsForMoviesList(padded);
+    }
+
+    @Test
+    void testGetAllMoviesRating_LooksUpOnlyRatedMovies() {
+        loadRatedMovies(3, 7);
+        when(ratingSummaryReader.getAvgRatingsForMoviesList(anyList())).thenReturn(Arrays.asList(new RatingSummary(7, 4.0)));
+
+        List<RatingSummary> result = ratingsService.getAllMoviesRating(Arrays.asList(5, 3, 900, 7));
+
+        List<Integer> padded = Arrays.asList(3, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7);
+        verify(ratingSummaryReader).getAvgRatingsForMoviesList(padded);
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    void testGetMovieVersionsReadsOnlyVersions() {
+        loadRatedMovies(3, 7);
+        doAnswer(invocation -> {
+            MovieVersionHandler handler = invocation.getArgument(1);
+            handler.accept(7, 42);
+            return null;
+        }).when(ratingSummaryReader).forEachVersion(any(), any());
+
+        assertEquals(Map.of(7, 42L), ratingsService.getMovieVersions(new int[] {5, 3, 900, 7, 3}));
+
+        verify(ratingSummaryReader).forEachVersion(aryEq(new int[] {3, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7}), any());
+        verify(ratingSummaryReader, never()).getAvgRatingsForMoviesList(anyList());
+        assertThrows(IllegalArgumentException.class, () -> ratingsService.getMovieVersions(new int[0]));
+    }
+
+    @Test
+    void testGetAllMoviesRating_AllUnratedSkipsLookup() {
+        loadRatedMovies(3);
+
+        assertTrue(ratingsService.getAllMoviesRating(Arrays.asList(5, 900)).isEmpty());
+        assertTrue(ratingsService.streamAllMoviesRating(new int[] {5, 900}).toList().isEmpty());
+        ratingsService.forEachMovieRating(new int[] {5, 900}).accept((movieId, rating) -> { });
+        verifyNoInteractions(ratingSummaryReader);
+    }
+
+    @Test
+    void testGetAllMoviesRating_ChunksLargeBatchesInRequestOrder() {
+        RatingBatchProperties batchProperties = new RatingBatchProperties();
+        batchProperties.setChunkSize(2);
+        batchProperties.setMinChunkSize(2);
+        RatingsServiceImpl chunkedService = createService(batchProperties);
+        when(ratingSummaryReader.getAvgRatingsForMoviesList(Arrays.asList(9, 4)))
+                .thenReturn(Arrays.asList(new RatingSummary(4, 2.0), new RatingSummary(9, 3.0)));
+        when(ratingSummaryReader.getAvgRatingsForMoviesList(Arrays.asList(1, 1)))
+                .thenReturn(Arrays.asList(new RatingSummary(1, 4.0)));
+
+        List<RatingSummary> result = chunkedService.getAllMoviesRating(Arrays.asList(9, 4, 1));
+
+        verify(ratingSummaryReader, times(2)).getAvgRatingsForMoviesList(anyList());
+        assertEquals(Arrays.asList(9, 4, 1), result.stream().map(RatingSummary::getMovieId).toList());
+    }
+
+    @Test
+    void testGetAllMoviesRating_NegativeMovieIdInBatch() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> ratingsService.getAllMoviesRating(new int[] {1, -2, 3}));
+
+        assertEquals("Movie ID cannot be negative", e.getMessage());
+        verify(ratingSummaryReader, never()).getAvgRatingsForMoviesList(anyList());
+    }
+
+    @Test
+    void testStreamAllMoviesRating_PassesPrimitiveChunks() {
+        RatingBatchProperties batchProperties = new RatingBatchProperties();
+        batchProperties.setChunkSize(4);
+        batchProperties.setMinChunkSize(2);
+        RatingsServiceImpl chunkedService = createService(batchProperties);
+        when(ratingSummaryReader.streamAvgRatingsForMoviesList(any(int[].class))).thenReturn(Stream.empty(), Stream.empty());
+
+        chunkedService.streamAllMoviesRating(new int[] {5, 3, 5, 8, 1, 9, 3}).toList();
+
+        verify(ratingSummaryReader).streamAvgRatingsForMoviesList(aryEq(new int[] {5, 3, 8, 1}));
+        verify(ratingSummaryReader).streamAvgRatingsForMoviesList(aryEq(new int[] {9, 9}));
+        verify(ratingSummaryReader, never()).streamAvgRatingsForMoviesList(anyList());
+    }
+
+    @Test
+    void testForEachMovieRating_ReadsLazilyInPrimitiveChunks() {
+        RatingBatchProperties batchProperties = new RatingBatchProperties();
+        batchProperties.setChunkSize(4);
+        batchProperties.setMinChunkSize(2);
+        RatingsServiceImpl chunkedService = createService(batchProperties);
+        RatingRowHandler handler = (movieId, rating) -> { };
+
+        Consumer<RatingRowHandler> ratings = chunkedService.forEachMovieRating(new int[] {5, 3, 5, 8, 1, 9, 3});
+        verify(ratingSummaryReader, never()).forEachAvgRating(any(int[].class), any(RatingRowHandler.class));
+
+        ratings.accept(handler);
+        verify(ratingSummaryReader).forEachAvgRating(aryEq(new int[] {5, 3, 8, 1}), eq(handler));
+        verify(ratingSummaryReader).forEachAvgRating(aryEq(new int[] {9, 9}), eq(handler));
+    }
+
+    @Test
+    void testDistinctKeepsFirstOccurrenceInOrder() {
+        SplittableRandom random = new SplittableRandom(42);
+        int[] movieIds = random.ints(5_000, 0, 2_000).toArray();
+
+        List<Integer> expected = new ArrayList<>(new LinkedHashSet<>(IntStream.of(movieIds).boxed().toList()));
+
+        assertEquals(expected, IntStream.of(RatingsServiceImpl.distinct(movieIds)).boxed().toList());
+        assertArrayEquals(new int[] {0}, RatingsServiceImpl.distinct(new int[] {0, 0}));
+    }
+}
@@ -0,0 +1,163 @@
+package com.aetna.ratings.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.aetna.ratings.config.RatingBatchProperties;
+import com.aetna.ratings.config.RatingMicroBatchProperties;
+import com.aetna.ratings.dto.RatingSummary;
+import com.aetna.ratings.exception.ServiceOverloadedException;
+import com.aetna.ratings.repository.RatingSummaryReader;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class SingleLookupBatcherTest {
+
+    @Mock
+    private RatingSummaryReader ratingSummaryReader;
+
+    private RatingMicroBatchProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private SingleLookupBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RatingMicroBatchProperties();
+        properties.setWindow(Duration.ofMillis(500));
+        properties.setMaxBatchSize(3);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.stop();
+        }
+    }
+
+    private SingleLookupBatcher createBatcher() {
+        return new SingleLookupBatcher(ratingSummaryReader, new ChunkedBatchLoader(ratingSummaryReader, new RatingBatchProperties()),
+                properties, meterRegistry);
+    }
+
+    @Test
+    void testConcurrentLookupsShareOneQuery() {
+        when(ratingSummaryReader.getAvgRatingsForMoviesList(anyList()))
+                .thenReturn(List.of(new RatingSummary(1, 4.0), new RatingSummary(2, 3.5)));
+        batcher = createBatcher();
+        batcher.start();
+
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        CompletableFuture<Optional<RatingSummary>> first = CompletableFuture.supplyAsync(() -> batcher.get(1), callers);
+        CompletableFuture<Optional<RatingSummary>> second = CompletableFuture.supplyAsync(() -> batcher.get(2), callers);
+        CompletableFuture<Optional<RatingSummary>> missing = CompletableFuture.supplyAsync(() -> batcher.get(3), callers);
+
+        assertEquals(4.0, first.join().get().getRating());
+        assertEquals(3.5, second.join().get().getRating());
+        assertTrue(missing.join().isEmpty());
+        verify(ratingSummaryReader, times(1)).getAvgRatingsForMoviesList(anyList());
+        verify(ratingSummaryReader, never()).getAvgRatingForMovie(1);
+        assertEquals(3.0, meterRegistry.get("ratings.microbatch.size").summary().max());
+        callers.shutdown();
+    }
+
+    @Test
+    void testWindowDispatchesPartialBatch() {
+        properties.setWindow(Duration.ofMillis(1));
+        when(ratingSummaryReader.getAvgRatingsForMoviesList(anyList())).thenReturn(List.of(new RatingSummary(5, 2.0)));
+        batcher = createBatcher();
+        batcher.start();
+
+        assertEquals(2.0, batcher.get(5).get().getRating());
+    }
+
+    @Test
+    void testFailureReachesEveryCaller() {
+        when(ratingSummaryReader.getAvgRatingsForMoviesList(anyList())).thenThrow(new IllegalStateException("Database error"));
+        properties.setWindow(Duration.ofMillis(1));
+        batcher = createBatcher();
+        batcher.start();
+
+        assertThrows(IllegalStateException.class, () -> batcher.get(1));
+    }
+
+    @Test
+    void testSlowBatchTimesOut() {
+        CountDownLatch release = new CountDownLatch(1);
+        when(ratingSummaryReader.getAvgRatingsForMoviesList(anyList())).thenAnswer(invocation -> {
+            release.await();
+            return List.of();
+        });
+        properties.setWindow(Duration.ofMillis(1));
+        properties.setLookupTimeout(Duration.ofMillis(20));
+        batcher = createBatcher();
+        batcher.start();
+
+        assertThrows(ServiceOverloadedException.class, () -> batcher.get(1));
+        release.countDown();
+    }
+
+    @Test
+    void testStopAnswersEveryQueuedLookup() throws Exception {
+        properties.setWindow(Duration.ofMillis(1));
+        properties.setLookupTimeout(Duration.ofSeconds(30));
+        batcher = createBatcher();
+        batcher.start();
+
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> answered = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            answered.add(callers.submit(() -> {
+                int lookups = 0;
+                for (int i = 0; i < 5_000; i++) {
+                    batcher.get(i);
+                    lookups++;
+                }
+                return lookups;
+            }));
+        }
+        Thread.sleep(5);
+        batcher.stop();
+
+        // Lookups racing the shutdown fall back to direct reads instead of waiting forever.
+        for (Future<Integer> future : answered) {
+            assertEquals(5_000, future.get(10, TimeUnit.SECONDS));
+        }
+        callers.shutdown();
+    }
+
+    @Test
+    void testDisabledBatcherQueriesDirectly() {
+        properties.setEnabled(false);
+        when(ratingSummaryReader.getAvgRatingForMovie(1)).thenReturn(Optional.of(new RatingSummary(1, 4.0)));
+        batcher = createBatcher();
+        batcher.start();
+
+        assertEquals(4.0, batcher.get(1).get().getRating());
+        verify(ratingSummaryReader, never()).getAvgRatingsForMoviesList(anyList());
+    }
+}
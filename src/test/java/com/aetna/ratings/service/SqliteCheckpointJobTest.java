@@ -0,0 +1,66 @@
+package com.aetna.ratings.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.aetna.ratings.config.SqliteProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class SqliteCheckpointJobTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SqliteCheckpointJob checkpointJob;
+
+    @BeforeEach
+    void setUp() {
+        DataSourceProperties dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl("jdbc:sqlite:./build/does-not-exist.db");
+        meterRegistry = new SimpleMeterRegistry();
+        checkpointJob = new SqliteCheckpointJob(jdbcTemplate, dataSourceProperties, new SqliteProperties(), meterRegistry);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCompleteCheckpointClearsLag() {
+        when(jdbcTemplate.queryForObject(eq("PRAGMA wal_checkpoint(PASSIVE)"), any(RowMapper.class))).thenReturn(new int[] {0, 120, 120});
+
+        checkpointJob.checkpoint();
+
+        assertEquals(0, checkpointJob.getPendingFrames());
+        assertTrue(checkpointJob.checkpointLagSeconds() < 1);
+        assertEquals(0.0, meterRegistry.counter("ratings.sqlite.checkpoint.busy").count());
+        assertEquals(0.0, meterRegistry.get("ratings.sqlite.wal.size").gauge().value());
+    }
+
+    @Test
+    void testBusyCheckpointReportsPendingFrames() {
+        checkpointJob.record(true, 120, 80);
+
+        assertEquals(40, checkpointJob.getPendingFrames());
+        assertEquals(40.0, meterRegistry.get("ratings.sqlite.checkpoint.lag.frames").gauge().value());
+        assertEquals(1.0, meterRegistry.counter("ratings.sqlite.checkpoint.busy").count());
+    }
+
+    @Test
+    void testRollbackJournalHasNoLag() {
+        checkpointJob.record(false, -1, -1);
+
+        assertEquals(0, checkpointJob.getPendingFrames());
+    }
+}
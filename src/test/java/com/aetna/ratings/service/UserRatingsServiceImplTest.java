@@ -0,0 +1,166 @@
+package com.aetna.ratings.service;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.aetna.ratings.config.RatingBatchProperties;
+import com.aetna.ratings.config.UserRatingsProperties;
+import com.aetna.ratings.dto.UserRating;
+import com.aetna.ratings.dto.UserRatingsPage;
+import com.aetna.ratings.exception.RatingsServiceException;
+import com.aetna.ratings.repository.RatingSummaryReader;
+import com.aetna.ratings.repository.UserRatingsReader;
+
+@ExtendWith(MockitoExtension.class)
+class UserRatingsServiceImplTest {
+
+    @Mock
+    private UserRatingsReader userRatingsReader;
+
+    @Mock
+    private RatingSummaryReader ratingSummaryReader;
+
+    private UserRatingsProperties properties;
+    private RatingBatchProperties batchProperties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UserRatingsProperties();
+        properties.setDefaultPageSize(2);
+        properties.setMaxPageSize(5);
+        properties.setMaxBatchUsers(3);
+        batchProperties = new RatingBatchProperties();
+    }
+
+    private UserRatingsServiceImpl createService() {
+        return new UserRatingsServiceImpl(userRatingsReader, new ChunkedBatchLoader(ratingSummaryReader, batchProperties), properties);
+    }
+
+    private static UserRating rating(int ratingId, int movieId) {
+        return new UserRating(ratingId, movieId, 4.0, 1260759144L);
+    }
+
+    @Test
+    void testPageReadsOneExtraRowForTheCursor() {
+        when(userRatingsReader.getUserRatings(5, 0, 0, 3)).thenReturn(List.of(rating(4, 9), rating(1, 10), rating(2, 10)));
+
+        UserRatingsPage page = createService().getUserRatings(5, null, null);
+
+        assertEquals(5, page.getUserId());
+        assertEquals(List.of(rating(4, 9), rating(1, 10)), page.getRatings());
+        assertEquals("10:1", page.getNext());
+    }
+
+    @Test
+    void testLastPageHasNoCursor() {
+        when(userRatingsReader.getUserRatings(5, 10, 1, 4)).thenReturn(List.of(rating(2, 10), rating(3, 11)));
+
+        UserRatingsPage page = createService().getUserRatings(5, "10:1", 3);
+
+        assertEquals(2, page.getRatings().size());
+        assertNull(page.getNext());
+    }
+
+    @Test
+    void testParseCursor() {
+        assertArrayEquals(new int[] {0, 0}, UserRatingsServiceImpl.parseCursor(null));
+        assertArrayEquals(new int[] {318, 42}, UserRatingsServiceImpl.parseCursor("318:42"));
+        assertThrows(IllegalArgumentException.class, () -> UserRatingsServiceImpl.parseCursor("318"));
+        assertThrows(IllegalArgumentException.class, () -> UserRatingsServiceImpl.parseCursor(":42"));
+        assertThrows(IllegalArgumentException.class, () -> UserRatingsServiceImpl.parseCursor("a:b"));
+    }
+
+    @Test
+    void testGetUserRatingsValidation() {
+        UserRatingsServiceImpl service = createService();
+
+        assertThrows(IllegalArgumentException.class, () -> service.getUserRatings(0, null, null));
+        assertThrows(IllegalArgumentException.class, () -> service.getUserRatings(5, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.getUserRatings(5, null, 6));
+        assertThrows(IllegalArgumentException.class, () -> service.getUserRatings(5, "next", null));
+        verifyNoInteractions(userRatingsReader);
+    }
+
+    @Test
+    void testGetUserRatingsWrapsErrors() {
+        when(userRatingsReader.getUserRatings(anyInt(), anyInt(), anyInt(), anyInt())).thenThrow(new RuntimeException("Database error"));
+
+        assertThrows(RatingsServiceException.class, () -> createService().getUserRatings(5, null, null));
+    }
+
+    @Test
+    void testGetUsersRatingsDeduplicatesInRequestOrder() {
+        when(userRatingsReader.getUsersRatings(aryEq(new int[] {6, 5}), eq(2))).thenReturn(List.of(
+                List.of(rating(5, 10)),
+                List.of(rating(4, 9), rating(1, 10))));
+
+        List<UserRatingsPage> pages = createService().getUsersRatings(new int[] {6, 5, 6}, 1);
+
+        assertEquals(2, pages.size());
+        assertEquals(6, pages.get(0).getUserId());
+        assertNull(pages.get(0).getNext());
+        assertEquals(5, pages.get(1).getUserId());
+        assertEquals(List.of(rating(4, 9)), pages.get(1).getRatings());
+        assertEquals("9:4", pages.get(1).getNext());
+    }
+
+    @Test
+    void testGetUsersRatingsValidation() {
+        UserRatingsServiceImpl service = createService();
+
+        assertThrows(IllegalArgumentException.class, () -> service.getUsersRatings(null, null));
+        assertThrows(IllegalArgumentException.class, () -> service.getUsersRatings(new int[0], null));
+        assertThrows(IllegalArgumentException.class, () -> service.getUsersRatings(new int[] {1, 2, 3, 4}, null));
+        assertThrows(IllegalArgumentException.class, () -> service.getUsersRatings(new int[] {1, -2}, null));
+        verifyNoInteractions(userRatingsReader);
+    }
+
+    @Test
+    void testGetUserMovieRatingsInRequestOrderAndChunks() {
+        batchProperties.setChunkSize(2);
+        batchProperties.setMinChunkSize(2);
+        when(userRatingsReader.getUserRatingsForMovies(eq(5), aryEq(new int[] {11, 9})))
+                .thenReturn(List.of(rating(4, 9), rating(3, 11)));
+        when(userRatingsReader.getUserRatingsForMovies(eq(5), aryEq(new int[] {10, 10})))
+                .thenReturn(List.of(rating(1, 10), rating(2, 10)));
+
+        List<UserRating> ratings = createService().getUserMovieRatings(5, new int[] {11, 9, 11, 10});
+
+        assertEquals(List.of(rating(3, 11), rating(4, 9), rating(1, 10), rating(2, 10)), ratings);
+    }
+
+    @Test
+    void testGetUserMovieRatingsValidation() {
+        batchProperties.setMaxSize(2);
+        UserRatingsServiceImpl service = createService();
+
+        assertThrows(IllegalArgumentException.class, () -> service.getUserMovieRatings(5, null));
+        assertThrows(IllegalArgumentException.class, () -> service.getUserMovieRatings(5, new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> service.getUserMovieRatings(5, new int[] {1, 2, 3}));
+        assertThrows(IllegalArgumentException.class, () -> service.getUserMovieRatings(5, new int[] {1, -2}));
+        assertThrows(IllegalArgumentException.class, () -> service.getUserMovieRatings(-5, new int[] {1}));
+        verifyNoInteractions(userRatingsReader);
+    }
+
+    @Test
+    void testGetUserMovieRatingsWrapsErrors() {
+        when(userRatingsReader.getUserRatingsForMovies(anyInt(), any(int[].class))).thenThrow(new RuntimeException("Database error"));
+
+        assertThrows(RatingsServiceException.class, () -> createService().getUserMovieRatings(5, new int[] {1}));
+    }
+}